@@ -1,10 +1,55 @@
 package amoba;
 
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import amoba.analysis.AnalysisCli;
+import amoba.analysis.PerftCli;
 import amoba.game.AmobaGame;
+import amoba.game.BatchCli;
+import amoba.metrics.Metrics;
+import amoba.protocol.PiskvorkEngine;
+import amoba.rating.RatingCli;
+import amoba.scan.ScanBenchCli;
+import amoba.sim.SimulationCli;
+import amoba.solver.SolverCli;
+import amoba.tuning.TuningCli;
 
 
 public class AmobaApp {
+    private static final long DEFAULT_METRICS_PERIOD = 60L;
+
     public static void main(String[] args) {
+        if (Metrics.enabled()) {
+            Metrics.registerJmx();
+            Metrics.startLogDump(Long.getLong("amoba.metrics.period", DEFAULT_METRICS_PERIOD));
+        }
+        if (args.length > 0) {
+            String[] rest = Arrays.copyOfRange(args, 1, args.length);
+            switch (args[0]) {
+                case "analyze" -> System.exit(AnalysisCli.run(rest, System.out));
+                case "perft" -> System.exit(PerftCli.run(rest, System.out));
+                case "selfplay" -> System.exit(TuningCli.selfPlay(rest, System.out));
+                case "tune" -> System.exit(TuningCli.tune(rest, System.out));
+                case "coordinator" -> System.exit(TuningCli.coordinate(rest, System.out));
+                case "worker" -> System.exit(TuningCli.work(rest, System.out));
+                case "solve" -> System.exit(SolverCli.run(rest, System.out));
+                case "simulate" -> System.exit(SimulationCli.run(rest, System.out));
+                case "scanbench" -> System.exit(ScanBenchCli.run(rest, System.out));
+                case "ratings" -> System.exit(RatingCli.run(rest, System.out));
+                case "batch" -> System.exit(BatchCli.run(rest, System.in, System.out));
+                case "piskvork" -> {
+                    // a standard kimenet a protokollé, minden más (naplózás) a hibakimenetre megy
+                    PrintStream protocol = System.out;
+                    System.setOut(System.err);
+                    System.exit(PiskvorkEngine.run(System.in, protocol));
+                }
+                default -> {
+                    System.out.println("Ismeretlen parancs: " + args[0]);
+                    System.exit(2);
+                }
+            }
+        }
         new AmobaGame().start();
     }
-}
\ No newline at end of file
+}
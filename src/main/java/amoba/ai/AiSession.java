@@ -0,0 +1,53 @@
+package amoba.ai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Állapottartó AI munkamenet.
+ * A játék minden lerakott lépést jelez (az emberét és az AI sajátját is),
+ * így egy kereső AI a korábbi körök munkáját (fa / transzpozíciós tábla) megtarthatja.
+ */
+public interface AiSession {
+
+    /**
+     * Új állás (új játék vagy betöltés): a korábbi állapot érvényét veszti.
+     */
+    default void reset(Board board) {
+        // állapotmentes AI-nak nincs teendője
+    }
+
+    /**
+     * Egy már lerakott lépés jelzése.
+     */
+    default void onMove(Cell player, Position p) {
+        // állapotmentes AI-nak nincs teendője
+    }
+
+    /**
+     * A következő lépés kiválasztása, vagy null, ha nincs szabályos lépés.
+     */
+    Position chooseMove(Board board);
+
+    /**
+     * A kereső hash táblájának mentése ({@link TableSnapshot}); tábla nélküli AI-nál nincs teendő.
+     *
+     * @return a mentett bejegyzések száma
+     */
+    default long saveTable(Path file, Board board) throws IOException {
+        return 0;
+    }
+
+    /**
+     * Korábban mentett hash tábla betöltése a {@code board} méretéhez és szabályához.
+     *
+     * @return a betöltött bejegyzések száma
+     */
+    default long loadTable(Path file, Board board) throws IOException {
+        return 0;
+    }
+}
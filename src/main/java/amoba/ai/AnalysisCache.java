@@ -0,0 +1,374 @@
+package amoba.ai;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import amoba.board.Board;
+import amoba.metrics.Metrics;
+import amoba.model.Cell;
+
+/**
+ * Korlátos, szálbiztos elemzés gyorsítótár a munkamenetek között: kanonikus állás kulcs
+ * -> legjobb lépés, pontszám, mélység. A kulcs a tábla szimmetriáira (négyzetes táblán 8,
+ * egyébként 4) minimalizált Zobrist hash a szabállyal és a soron lévő féllel keverve, így
+ * a tükrözött vagy elforgatott nyitások is találatot adnak; a lépés kanonikus koordinátában
+ * tárolódik ({@link Key#toCanonical}/{@link Key#fromCanonical}).
+ *
+ * <p>Kiszorítás W-TinyLFU szerint: az új bejegyzés egy kis (1%) LRU ablakba kerül, onnan a
+ * fő terület próbaidős szakaszába; a fő területen a próbaidős LRU elejét (az áldozatot) csak
+ * akkor szorítja ki a jelölt, ha a {@link FrequencySketch} szerint gyakoribb. A próbaidős
+ * szakaszban újra elért bejegyzés a védett szakaszba (a fő terület 80%-a) lép. Így az egyszer
+ * látott középjáték állások nem söprik ki a sokszor ismétlődő nyitásokat.
+ *
+ * <p>A kulcstér szegmensekre oszlik, mindegyik saját zárral és sketch-csel.
+ */
+public final class AnalysisCache {
+
+    public static final String SIZE_PROPERTY = "amoba.cache.size";
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 256;
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final long SIDE_SALT = 0x2545F4914F6CDD1DL;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Egy elemzés eredménye; a lépés kanonikus mezőindex.
+     */
+    public record Analysis(int move, int score, int depth) { }
+
+    /**
+     * Statisztika: találat, hiány, kiszorítás (ebből az ablakból be sem engedett jelöltek
+     * száma a {@code rejections}), aktuális méret és kapacitás.
+     */
+    public record Stats(long hits, long misses, long evictions, long rejections, int size, int capacity) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Holder {
+        static final AnalysisCache SHARED = new AnalysisCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    public AnalysisCache(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A gyorsítótár kapacitása legalább 2!");
+        }
+        this.capacity = capacity;
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity / MIN_SEGMENT_CAPACITY)));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            int share = capacity / count + (i < capacity % count ? 1 : 0);
+            segments[i] = new Segment(share);
+        }
+    }
+
+    /**
+     * A JVM-en belül közös példány ({@value #SIZE_PROPERTY} rendszerjellemző a mérete).
+     */
+    public static AnalysisCache shared() {
+        return Holder.SHARED;
+    }
+
+    public Analysis get(long key) {
+        Analysis a = segment(key).get(key);
+        if (a != null) {
+            hits.increment();
+            if (Metrics.enabled()) {
+                Metrics.CACHE_HITS.increment();
+            }
+        } else {
+            misses.increment();
+            if (Metrics.enabled()) {
+                Metrics.CACHE_MISSES.increment();
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Bejegyzés mentése; meglévő kulcsnál csak a legalább ilyen mély elemzés írja felül.
+     */
+    public void put(long key, Analysis analysis) {
+        segment(key).put(key, analysis);
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) {
+            n += s.size();
+        }
+        return n;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), rejections.sum(), size(), capacity);
+    }
+
+    public void clear() {
+        for (Segment s : segments) {
+            s.clear();
+        }
+    }
+
+    private Segment segment(long key) {
+        return segments[(int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & (segments.length - 1)];
+    }
+
+    private void evicted(boolean rejected) {
+        evictions.increment();
+        if (Metrics.enabled()) {
+            Metrics.CACHE_EVICTIONS.increment();
+        }
+        if (rejected) {
+            rejections.increment();
+        }
+    }
+
+    /**
+     * Kanonikus állás kulcs és a hozzá vezető szimmetria transzformáció
+     * (bitjei: sor tükrözés, oszlop tükrözés, transzponálás).
+     */
+    public record Key(long hash, int transform, int rows, int cols) {
+
+        private static final int FLIP_ROWS = 1;
+        private static final int FLIP_COLS = 2;
+        private static final int TRANSPOSE = 4;
+
+        /**
+         * A tábla kanonikus kulcsa, ha {@code toMove} lép.
+         */
+        public static Key of(Board board, Cell toMove) {
+            int rows = board.rows();
+            int cols = board.cols();
+            Zobrist zobrist = Zobrist.forSize(rows, cols);
+            int transforms = rows == cols ? 8 : 4;
+            long best = 0;
+            int bestTransform = 0;
+            for (int t = 0; t < transforms; t++) {
+                long h = 0;
+                for (int i = 0; i < board.stoneCount(); i++) {
+                    int idx = board.stoneAt(i);
+                    int mapped = map(t, idx, rows, cols);
+                    h ^= zobrist.key(board.cellAt(idx / cols, idx % cols), mapped / cols, mapped % cols);
+                }
+                if (t == 0 || Long.compareUnsigned(h, best) < 0) {
+                    best = h;
+                    bestTransform = t;
+                }
+            }
+            long salt = board.rule().id().hashCode() * 0x9E3779B97F4A7C15L ^ (toMove == Cell.O ? SIDE_SALT : 0);
+            return new Key(best ^ salt, bestTransform, rows, cols);
+        }
+
+        public int toCanonical(int cell) {
+            return map(transform, cell, rows, cols);
+        }
+
+        public int fromCanonical(int cell) {
+            int r = cell / cols;
+            int c = cell % cols;
+            if ((transform & TRANSPOSE) != 0) {
+                int swap = r;
+                r = c;
+                c = swap;
+            }
+            if ((transform & FLIP_ROWS) != 0) {
+                r = rows - 1 - r;
+            }
+            if ((transform & FLIP_COLS) != 0) {
+                c = cols - 1 - c;
+            }
+            return r * cols + c;
+        }
+
+        private static int map(int transform, int cell, int rows, int cols) {
+            int r = cell / cols;
+            int c = cell % cols;
+            if ((transform & FLIP_ROWS) != 0) {
+                r = rows - 1 - r;
+            }
+            if ((transform & FLIP_COLS) != 0) {
+                c = cols - 1 - c;
+            }
+            if ((transform & TRANSPOSE) != 0) {
+                int swap = r;
+                r = c;
+                c = swap;
+            }
+            return r * cols + c;
+        }
+    }
+
+    private static final class Node {
+        final long key;
+        Analysis value;
+        byte queue;
+        Node prev;
+        Node next;
+
+        Node(long key, Analysis value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /*
+     * Kétirányú lista őrszemmel: az eleje a legrégebben használt.
+     */
+    private static final class Queue {
+        final Node head = new Node(0, null);
+        int size;
+
+        Queue() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        Node first() {
+            return head.next == head ? null : head.next;
+        }
+
+        void addLast(Node n) {
+            n.prev = head.prev;
+            n.next = head;
+            head.prev.next = n;
+            head.prev = n;
+            size++;
+        }
+
+        void remove(Node n) {
+            n.prev.next = n.next;
+            n.next.prev = n.prev;
+            n.prev = null;
+            n.next = null;
+            size--;
+        }
+
+        void clear() {
+            head.prev = head;
+            head.next = head;
+            size = 0;
+        }
+    }
+
+    private final class Segment {
+        private static final byte WINDOW = 0;
+        private static final byte PROBATION = 1;
+        private static final byte PROTECTED = 2;
+
+        private final Map<Long, Node> nodes = new HashMap<>();
+        private final Queue[] queues = {new Queue(), new Queue(), new Queue()};
+        private final FrequencySketch sketch;
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final int protectedCapacity;
+
+        Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+            this.mainCapacity = Math.max(1, capacity - windowCapacity);
+            this.protectedCapacity = mainCapacity * PROTECTED_PERCENT / 100;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        synchronized Analysis get(long key) {
+            sketch.increment(key);
+            Node n = nodes.get(key);
+            if (n == null) {
+                return null;
+            }
+            touch(n);
+            return n.value;
+        }
+
+        synchronized void put(long key, Analysis value) {
+            sketch.increment(key);
+            Node n = nodes.get(key);
+            if (n != null) {
+                if (value.depth() >= n.value.depth()) {
+                    n.value = value;
+                }
+                touch(n);
+                return;
+            }
+            n = new Node(key, value);
+            nodes.put(key, n);
+            move(n, WINDOW);
+            if (queues[WINDOW].size > windowCapacity) {
+                Node candidate = queues[WINDOW].first();
+                queues[WINDOW].remove(candidate);
+                move(candidate, PROBATION);
+                if (queues[PROBATION].size + queues[PROTECTED].size > mainCapacity) {
+                    admit(candidate);
+                }
+            }
+        }
+
+        /*
+         * TinyLFU döntés: a jelölt vagy a fő terület LRU áldozata távozik.
+         */
+        private void admit(Node candidate) {
+            Node victim = queues[PROBATION].first();
+            if (victim == candidate) {
+                victim = queues[PROTECTED].first();
+            }
+            if (victim == null || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim == null ? candidate : victim, victim == null);
+            } else {
+                evict(candidate, true);
+            }
+        }
+
+        private void evict(Node n, boolean rejected) {
+            queues[n.queue].remove(n);
+            nodes.remove(n.key);
+            evicted(rejected);
+        }
+
+        private void touch(Node n) {
+            queues[n.queue].remove(n);
+            if (n.queue == WINDOW) {
+                move(n, WINDOW);
+                return;
+            }
+            move(n, PROTECTED);
+            if (queues[PROTECTED].size > protectedCapacity) {
+                Node demoted = queues[PROTECTED].first();
+                queues[PROTECTED].remove(demoted);
+                move(demoted, PROBATION);
+            }
+        }
+
+        private void move(Node n, byte queue) {
+            n.queue = queue;
+            queues[queue].addLast(n);
+        }
+
+        synchronized int size() {
+            return nodes.size();
+        }
+
+        synchronized void clear() {
+            nodes.clear();
+            for (Queue q : queues) {
+                q.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package amoba.ai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Taktikai AI: előbb proof-number kereséssel próbál kényszerített nyerést találni
+ * (először csak négyesekkel, majd szélesebb fenyegetésekkel), és csak ha egyik sem
+ * bizonyít, a tartalék AI választ.
+ */
+public class DfpnAI implements AiSession {
+
+    public static final int DEFAULT_TABLE_BITS = 18;
+    public static final long DEFAULT_VCF_NODES = 20_000L;
+    public static final long DEFAULT_THREAT_NODES = 50_000L;
+
+    private final AiSession fallback;
+    private final DfpnSearch vcf;
+    private final DfpnSearch threats;
+
+    public DfpnAI(AiSession fallback) {
+        this(fallback, DEFAULT_TABLE_BITS, DEFAULT_VCF_NODES, DEFAULT_THREAT_NODES);
+    }
+
+    public DfpnAI(AiSession fallback, int tableBits, long vcfNodes, long threatNodes) {
+        this.fallback = fallback;
+        this.vcf = new DfpnSearch(tableBits, vcfNodes);
+        this.threats = new DfpnSearch(tableBits, threatNodes);
+    }
+
+    @Override
+    public void reset(Board board) {
+        fallback.reset(board);
+    }
+
+    @Override
+    public void onMove(Cell player, Position p) {
+        fallback.onMove(player, p);
+    }
+
+    @Override
+    public long saveTable(Path file, Board board) throws IOException {
+        return fallback.saveTable(file, board);
+    }
+
+    @Override
+    public long loadTable(Path file, Board board) throws IOException {
+        return fallback.loadTable(file, board);
+    }
+
+    @Override
+    public Position chooseMove(Board board) {
+        Cell toMove = board.stoneCount(Cell.X) > board.stoneCount(Cell.O) ? Cell.O : Cell.X;
+        DfpnSearch.Result result = vcf.prove(board, toMove, DfpnSearch.Mode.VCF);
+        if (result.outcome() != DfpnSearch.Outcome.PROVEN) {
+            result = threats.prove(board, toMove, DfpnSearch.Mode.THREATS);
+        }
+        if (result.outcome() == DfpnSearch.Outcome.PROVEN && result.move() != null) {
+            return result.move();
+        }
+        return fallback.chooseMove(board);
+    }
+}
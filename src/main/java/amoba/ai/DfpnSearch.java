@@ -0,0 +1,354 @@
+package amoba.ai;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import amoba.board.Board;
+import amoba.jfr.SearchEvent;
+import amoba.model.Cell;
+import amoba.model.Coordinates;
+import amoba.model.Position;
+
+/**
+ * Mélységi proof-number keresés (df-pn): van-e a támadónak kényszerített nyerése.
+ * VAGY-csomópontban a támadó, ÉS-csomópontban a védő lép; saját hash tábla tárolja a
+ * proof/disproof számokat, a csomópont keret korlátozza a munkát.
+ *
+ * <p>Módok:
+ * <ul>
+ *   <li>{@link Mode#VCF}: a támadó csak négyest (ötös fenyegetést) léphet, a védő csak a kötelező
+ *       blokkolással válaszolhat – pontos, gyors taktikai bizonyítás.</li>
+ *   <li>{@link Mode#THREATS}: a támadó a {@link ThreatMoveGenerator} legjobb jelöltjei közül lép,
+ *       a védő minden szabályos lépést kipróbál (ötös fenyegetés ellen csak a blokkolást).
+ *       A bizonyítás így is helyes; a cáfolat csak a szűkített támadói lépésekre érvényes.</li>
+ * </ul>
+ */
+public final class DfpnSearch {
+
+    public enum Mode {
+        VCF, THREATS
+    }
+
+    public enum Outcome {
+        PROVEN, DISPROVEN, UNKNOWN
+    }
+
+    /**
+     * @param move bizonyított nyerésnél az első nyerő lépés, egyébként null
+     */
+    public record Result(Outcome outcome, Position move, long nodes) { }
+
+    static final int INF = 100_000_000;
+    private static final long SIDE_KEY = 0x2545F4914F6CDD1DL;
+    private static final int MAX_BITS = 26;
+    private static final int WIN_NOW = -1;
+
+    private final long[] keys;
+    private final int[] proofs;
+    private final int[] disproofs;
+    private final int mask;
+    private final long nodeLimit;
+    private final ThreatMoveGenerator generator;
+
+    private Zobrist zobrist;
+    private Cell attacker;
+    private Mode mode;
+    private int[][] buffers = new int[32][];
+    private int winCell;
+    private long nodes;
+    private boolean aborted;
+
+    public DfpnSearch(int tableBits, long nodeLimit) {
+        if (tableBits < 2 || tableBits > MAX_BITS || nodeLimit < 1) {
+            throw new IllegalArgumentException("Hibás df-pn paraméterek (tábla 2^2..2^" + MAX_BITS + ", keret > 0)!");
+        }
+        int size = 1 << tableBits;
+        this.keys = new long[size];
+        this.proofs = new int[size];
+        this.disproofs = new int[size];
+        this.mask = size - 1;
+        this.nodeLimit = nodeLimit;
+        this.generator = new ThreatMoveGenerator();
+    }
+
+    /**
+     * Bizonyítás a támadó lépésével kezdve. A tábla a hívás után változatlan.
+     */
+    public Result prove(Board board, Cell attackerToMove, Mode searchMode) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        zobrist = Zobrist.forSize(board.rows(), board.cols());
+        attacker = attackerToMove;
+        mode = searchMode;
+        nodes = 0;
+        aborted = false;
+        Arrays.fill(keys, 0L);
+        long root = zobrist.hashOf(board);
+        Position move = null;
+        if (generate(board, attacker, 0) == WIN_NOW) {
+            move = toPosition(board, winCell);
+        } else {
+            mid(board, root, attacker, INF - 1, INF - 1, 0);
+        }
+        Outcome outcome;
+        if (move != null || lookupProof(root, attacker) == 0) {
+            outcome = Outcome.PROVEN;
+            if (move == null) {
+                move = provenChild(board, root);
+            }
+        } else if (!aborted && lookupDisproof(root, attacker) == 0) {
+            outcome = Outcome.DISPROVEN;
+        } else {
+            outcome = Outcome.UNKNOWN;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = "dfpn-" + searchMode.name().toLowerCase(Locale.ROOT);
+            event.nodes = nodes;
+            event.move = move == null ? "" : Coordinates.format(move);
+            event.commit();
+        }
+        return new Result(outcome, move, nodes);
+    }
+
+    private Position provenChild(Board board, long root) {
+        int n = generate(board, attacker, 0);
+        int[] moves = buffers[0];
+        for (int i = 0; i < n; i++) {
+            if (lookupProof(root ^ zobrist.key(attacker, moves[i] / board.cols(), moves[i] % board.cols()),
+                    attacker.opponent()) == 0) {
+                return toPosition(board, moves[i]);
+            }
+        }
+        return null;
+    }
+
+    private void mid(Board board, long key, Cell toMove, int thpn, int thdn, int ply) {
+        if (++nodes > nodeLimit) {
+            aborted = true;
+            return;
+        }
+        boolean orNode = toMove == attacker;
+        int n = generate(board, toMove, ply);
+        if (n == WIN_NOW) {
+            // a soron lévő fél azonnal nyer
+            store(key, toMove, orNode ? 0 : INF, orNode ? INF : 0);
+            return;
+        }
+        if (n == 0) {
+            store(key, toMove, INF, 0);
+            return;
+        }
+        int[] moves = buffers[ply];
+        int cols = board.cols();
+        Cell next = toMove.opponent();
+        while (true) {
+            int pn = orNode ? INF : 0;
+            int dn = orNode ? 0 : INF;
+            int best = -1;
+            int bestValue = INF;
+            int second = INF;
+            for (int i = 0; i < n; i++) {
+                long childKey = key ^ zobrist.key(toMove, moves[i] / cols, moves[i] % cols);
+                int cpn = lookupProof(childKey, next);
+                int cdn = lookupDisproof(childKey, next);
+                int selector = orNode ? cpn : cdn;
+                if (orNode) {
+                    pn = Math.min(pn, cpn);
+                    dn = Math.min(INF, dn + cdn);
+                } else {
+                    pn = Math.min(INF, pn + cpn);
+                    dn = Math.min(dn, cdn);
+                }
+                if (selector < bestValue) {
+                    second = bestValue;
+                    bestValue = selector;
+                    best = i;
+                } else if (selector < second) {
+                    second = selector;
+                }
+            }
+            if (pn >= thpn || dn >= thdn) {
+                store(key, toMove, pn, dn);
+                return;
+            }
+            int m = moves[best];
+            long childKey = key ^ zobrist.key(toMove, m / cols, m % cols);
+            int cpn = lookupProof(childKey, next);
+            int cdn = lookupDisproof(childKey, next);
+            int childPn;
+            int childDn;
+            if (orNode) {
+                childPn = Math.min(thpn, second + 1);
+                childDn = Math.min(INF, thdn - dn + cdn);
+            } else {
+                childPn = Math.min(INF, thpn - pn + cpn);
+                childDn = Math.min(thdn, second + 1);
+            }
+            Position p = toPosition(board, m);
+            board.place(toMove, p);
+            mid(board, childKey, next, childPn, childDn, ply + 1);
+            board.remove(p);
+            if (aborted) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Gyermekek a ply. pufferbe; WIN_NOW, ha a soron lévő fél azonnal nyer (a mező winCell-ben).
+     */
+    private int generate(Board board, Cell toMove, int ply) {
+        Cell other = toMove.opponent();
+        int frontier = board.frontierSize();
+        int[] buf = buffer(ply, frontier);
+        int cols = board.cols();
+        int forced = 0;
+        for (int i = 0; i < frontier; i++) {
+            int idx = board.frontierAt(i);
+            Position p = toPosition(board, idx);
+            if (wins(board, toMove, p)) {
+                winCell = idx;
+                return WIN_NOW;
+            }
+            if (wins(board, other, p)) {
+                buf[forced++] = idx;
+            }
+        }
+        if (forced > 0) {
+            return forced; // a másik fél ötös fenyegetését kötelező blokkolni
+        }
+        boolean orNode = toMove == attacker;
+        if (mode == Mode.VCF) {
+            if (!orNode) {
+                return 0; // a támadó nem fenyeget: a VCF sor megszakadt
+            }
+            // előbb másolat: a próbalépések átrendezik a határlistát
+            for (int i = 0; i < frontier; i++) {
+                buf[i] = board.frontierAt(i);
+            }
+            int n = 0;
+            for (int i = 0; i < frontier; i++) {
+                int idx = buf[i];
+                if (makesFour(board, toMove, idx / cols, idx % cols)) {
+                    buf[n++] = idx;
+                }
+            }
+            return n;
+        }
+        if (orNode) {
+            List<Position> candidates = generator.generate(board, toMove);
+            int n = 0;
+            for (Position p : candidates) {
+                buf[n++] = p.row() * cols + p.col();
+            }
+            return n;
+        }
+        for (int i = 0; i < frontier; i++) {
+            buf[i] = board.frontierAt(i);
+        }
+        return frontier;
+    }
+
+    private static boolean wins(Board board, Cell player, Position p) {
+        return board.hasFiveInARow(player, p) && !board.isForbidden(player, p);
+    }
+
+    /*
+     * A lépés után lenne-e a játékosnak ötöt adó mező ugyanazon vonalak mentén.
+     */
+    private static boolean makesFour(Board board, Cell player, int r, int c) {
+        Position at = new Position(r, c);
+        if (board.isForbidden(player, at)) {
+            return false;
+        }
+        board.place(player, at);
+        int reach = board.rule().length() - 1;
+        boolean four = false;
+        int[][] lines = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] d : lines) {
+            for (int k = -reach; k <= reach && !four; k++) {
+                int nr = r + d[0] * k;
+                int nc = c + d[1] * k;
+                if (k != 0 && board.isInside(nr, nc) && board.cellAt(nr, nc) == Cell.EMPTY) {
+                    four = wins(board, player, new Position(nr, nc));
+                }
+            }
+        }
+        board.remove(at);
+        return four;
+    }
+
+    private int[] buffer(int ply, int size) {
+        if (ply >= buffers.length) {
+            buffers = Arrays.copyOf(buffers, ply * 2);
+        }
+        int[] buf = buffers[ply];
+        if (buf == null || buf.length < size) {
+            buf = new int[Math.max(size, 16) * 2];
+            buffers[ply] = buf;
+        }
+        return buf;
+    }
+
+    private static Position toPosition(Board board, int idx) {
+        return new Position(idx / board.cols(), idx % board.cols());
+    }
+
+    /* ===== hash tábla: kulcs a kövekből és a soron lévő félből ===== */
+
+    private long tableKey(long key, Cell toMove) {
+        long k = toMove == Cell.O ? key ^ SIDE_KEY : key;
+        return k == 0 ? 1 : k;
+    }
+
+    private int lookupProof(long key, Cell toMove) {
+        int slot = find(tableKey(key, toMove));
+        return slot < 0 ? 1 : proofs[slot];
+    }
+
+    private int lookupDisproof(long key, Cell toMove) {
+        int slot = find(tableKey(key, toMove));
+        return slot < 0 ? 1 : disproofs[slot];
+    }
+
+    /*
+     * Kétutas vödör: a kulcs a páros indexű mezőn vagy a párján lehet.
+     */
+    private int find(long k) {
+        int slot = (int) k & mask & ~1;
+        if (keys[slot] == k) {
+            return slot;
+        }
+        return keys[slot + 1] == k ? slot + 1 : -1;
+    }
+
+    /*
+     * Az írás mindig sikerül (különben a szülő ugyanazt a gyereket választaná újra);
+     * a vödörben előbb az üres, aztán a megoldatlan bejegyzés adja át a helyét.
+     */
+    private void store(long key, Cell toMove, int pn, int dn) {
+        long k = tableKey(key, toMove);
+        int slot = find(k);
+        if (slot < 0) {
+            int first = (int) k & mask & ~1;
+            if (keys[first] == 0 || keys[first + 1] != 0 && !solved(first)) {
+                slot = first;
+            } else {
+                slot = first + 1;
+            }
+        }
+        keys[slot] = k;
+        proofs[slot] = pn;
+        disproofs[slot] = dn;
+    }
+
+    private boolean solved(int slot) {
+        return proofs[slot] == 0 || disproofs[slot] == 0;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,135 @@
+package amoba.ai;
+
+import java.util.Arrays;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.scan.LineScanner;
+
+/**
+ * Statikus értékelő: minden győzelmi hosszú ablakot, amelyben csak az egyik
+ * játékos kövei vannak, a kövek száma szerint súlyoz ({@link PatternWeights}).
+ * Csak a kövek körüli ablakokat járja be, így a költség a foglalt területtel arányos.
+ *
+ * <p>Ha induláskor elérhető a vektoros sorkereső ({@link LineScanner#startup()}), és a táblán
+ * elég kő van ahhoz, hogy megérje ({@link LineScanner#pays}), az ablakokat a teljes táblán
+ * egyszerre számolja azzal; az eredmény ugyanaz. A példány így nem szálbiztos.
+ */
+public class Evaluator {
+
+    private static final int[][] LINES = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final PatternWeights weights;
+    private final LineScanner scanner;
+    private final int[] features = new int[WinRule.MAX_LENGTH + 1];
+
+    /**
+     * Az induláskor betöltött súlyokkal ({@code -Damoba.weights}) és sorkeresővel.
+     */
+    public Evaluator() {
+        this(PatternWeights.startup(), LineScanner.startup().orElse(null));
+    }
+
+    /**
+     * Kövenkénti bejárással (sorkereső nélkül).
+     */
+    public Evaluator(PatternWeights weights) {
+        this(weights, null);
+    }
+
+    /**
+     * @param scanner teljes táblás ablakszámláló, vagy null a kövenkénti bejáráshoz
+     */
+    public Evaluator(PatternWeights weights, LineScanner scanner) {
+        this.weights = weights;
+        this.scanner = scanner;
+    }
+
+    public PatternWeights weights() {
+        return weights;
+    }
+
+    /**
+     * Értékelés a megadott játékos szemszögéből (pozitív = neki jó).
+     */
+    public int evaluate(Board board, Cell player) {
+        int window = board.rule().length();
+        if (scanner != null && scanner.supports(board) && scanner.pays(board)) {
+            Arrays.fill(features, 0);
+            scanner.windowFeatures(board, player, features);
+            int score = 0;
+            for (int k = 1; k <= window; k++) {
+                score += features[k] * weights.weight(k);
+            }
+            return score;
+        }
+        int score = 0;
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / board.cols();
+            int c = idx % board.cols();
+            for (int[] line : LINES) {
+                for (int j = 0; j < window; j++) {
+                    int k = windowStones(board, player, window, r - line[0] * j, c - line[1] * j, line, j);
+                    score += Integer.signum(k) * weights.weight(Math.abs(k));
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Az értékelés jellemzői (tuninghoz): {@code features[k]} = saját k kövű ablakok
+     * száma mínusz az ellenfél k kövű ablakainak száma. Az értékelés ezek súlyozott összege.
+     * A tömb legalább rule().length() + 1 hosszú; a függvény hozzáad, nem nulláz.
+     */
+    public static void windowFeatures(Board board, Cell player, int[] features) {
+        int window = board.rule().length();
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / board.cols();
+            int c = idx % board.cols();
+            for (int[] line : LINES) {
+                for (int j = 0; j < window; j++) {
+                    int k = windowStones(board, player, window, r - line[0] * j, c - line[1] * j, line, j);
+                    features[Math.abs(k)] += Integer.signum(k);
+                }
+            }
+        }
+    }
+
+    /*
+     * Az ablakot csak az első (legkisebb eltolású) köve számolja, így minden ablak
+     * pontosan egyszer kerül be az összegbe. Eredmény: +k saját, -k ellenfél kövekkel, 0 vegyes/üres.
+     */
+    private static int windowStones(Board board, Cell player, int window, int r, int c, int[] line, int firstStone) {
+        int dr = line[0];
+        int dc = line[1];
+        if (!board.isInside(r, c) || !board.isInside(r + dr * (window - 1), c + dc * (window - 1))) {
+            return 0;
+        }
+        for (int i = 0; i < firstStone; i++) {
+            if (board.cellAt(r + dr * i, c + dc * i) != Cell.EMPTY) {
+                return 0;
+            }
+        }
+        int own = 0;
+        int other = 0;
+        for (int i = 0; i < window; i++) {
+            Cell cell = board.cellAt(r + dr * i, c + dc * i);
+            if (cell == player) {
+                own++;
+            } else if (cell != Cell.EMPTY) {
+                other++;
+            }
+        }
+        if (own > 0 && other == 0) {
+            return own;
+        }
+        if (other > 0 && own == 0) {
+            return -other;
+        }
+        return 0;
+    }
+}
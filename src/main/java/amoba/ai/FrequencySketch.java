@@ -0,0 +1,92 @@
+package amoba.ai;
+
+/**
+ * Count-min sketch 4 bites számlálókkal a kulcsok közelmúltbeli gyakoriságának becslésére
+ * (TinyLFU). Egy {@code long} 16 számlálót tart; egy kulcs négy sorban egy-egy számlálót
+ * növel, a becslés ezek minimuma. Minden {@code 10 * kapacitás} növelés után az összes
+ * számláló feleződik, így a régi gyakoriság elöregszik.
+ *
+ * <p>Nem szálbiztos; az {@link AnalysisCache} szegmense zárja.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_COUNT = 15;
+    private static final int SAMPLE_FACTOR = 10;
+    private static final int MIN_SIZE = 16;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(MIN_SIZE, capacity - 1) << 1);
+        this.table = new long[size];
+        this.mask = size - 1;
+        this.sampleSize = Math.max(MIN_SIZE, capacity) * SAMPLE_FACTOR;
+    }
+
+    /**
+     * A kulcs becsült gyakorisága (0..15).
+     */
+    int frequency(long key) {
+        int hash = spread(key);
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int count = (int) (table[indexOf(hash, i)] >>> ((start + i) << 2)) & MAX_COUNT;
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        int hash = spread(key);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long one = 1L << offset;
+        if ((table[index] & ((long) MAX_COUNT << offset)) != ((long) MAX_COUNT << offset)) {
+            table[index] += one;
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * Minden számláló felezése; a páratlan számlálók fél egységét a növelések számából is levonjuk.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(long key) {
+        long z = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (z ^ (z >>> 33));
+    }
+}
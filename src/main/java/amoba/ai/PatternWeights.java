@@ -0,0 +1,134 @@
+package amoba.ai;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Az {@link Evaluator} ablaksúlyai: a k saját (és ellenfél kő nélküli) követ tartalmazó
+ * ablak értéke. A k-nál hosszabb táblán túli indexek az utolsó súlyt kapják.
+ *
+ * <p>Fájlformátum (a tuner ezt írja): {@code #} kezdetű megjegyzések, majd soronként
+ * {@code k=súly}. Induláskor a {@code -Damoba.weights=<fájl>} adja meg a betöltendő fájlt.
+ */
+public final class PatternWeights {
+
+    public static final String WEIGHTS_PROPERTY = "amoba.weights";
+    public static final PatternWeights DEFAULT = new PatternWeights(new int[] {0, 1, 8, 64, 512, 4096});
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PatternWeights.class);
+    private static volatile PatternWeights startup;
+
+    private final int[] weights;
+
+    public PatternWeights(int[] weights) {
+        if (weights.length < 2 || weights[0] != 0) {
+            throw new IllegalArgumentException("A súlytábla legalább 2 elemű, és a 0. súly 0!");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Az induláskor betöltött súlyok (egyszer olvassa be; hiba esetén az alapértelmezés).
+     */
+    public static PatternWeights startup() {
+        PatternWeights w = startup;
+        if (w == null) {
+            synchronized (PatternWeights.class) {
+                w = startup;
+                if (w == null) {
+                    w = fromProperty();
+                    startup = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    private static PatternWeights fromProperty() {
+        String file = System.getProperty(WEIGHTS_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return DEFAULT;
+        }
+        try {
+            PatternWeights w = load(Path.of(file));
+            LOGGER.info("Mintasúlyok betöltve: {} {}", file, w);
+            return w;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Mintasúlyok betöltése sikertelen, alapértelmezés marad: {}", file, e);
+            return DEFAULT;
+        }
+    }
+
+    public static PatternWeights load(Path path) throws IOException {
+        List<Integer> values = new ArrayList<>();
+        values.add(0);
+        for (String raw : Files.readAllLines(path)) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                throw new IOException("Hibás súly sor: " + line);
+            }
+            int k;
+            int w;
+            try {
+                k = Integer.parseInt(line.substring(0, eq).trim());
+                w = Integer.parseInt(line.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Hibás súly sor: " + line, e);
+            }
+            if (k != values.size()) {
+                throw new IOException("A súlyok 1-től, folytonosan következzenek: " + line);
+            }
+            values.add(w);
+        }
+        return new PatternWeights(values.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public void save(Path path) throws IOException {
+        StringBuilder sb = new StringBuilder("# amoba mintasúlyok: k=súly (k kő egy ablakban)\n");
+        for (int k = 1; k < weights.length; k++) {
+            sb.append(k).append('=').append(weights[k]).append('\n');
+        }
+        Files.writeString(path, sb);
+    }
+
+    public int weight(int stones) {
+        return weights[Math.min(stones, weights.length - 1)];
+    }
+
+    /**
+     * A tábla legnagyobb közvetlenül megadott indexe.
+     */
+    public int maxStones() {
+        return weights.length - 1;
+    }
+
+    public int[] toArray() {
+        return weights.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PatternWeights other && Arrays.equals(weights, other.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(weights);
+    }
+}
@@ -1,23 +1,77 @@
 package amoba.ai;
 
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.random.RandomGenerator;
 
 import amoba.board.Board;
+import amoba.jfr.SearchEvent;
+import amoba.model.Coordinates;
 import amoba.model.Position;
 
-public class    RandomAI {
+/**
+ * Véletlen szabályos lépés a tábla által karbantartott határlistából: O(1), allokáció nélkül
+ * (szimulációk lejátszási stratégiája). Súlyozott módban a több szomszédos kővel
+ * rendelkező mezők valószínűbbek (súly = szomszédos kövek száma, elutasításos mintavétellel).
+ */
+public class    RandomAI implements AiSession {
 
-    private final SecureRandom random = new SecureRandom();
+    private static final int MAX_NEIGHBORS = 8;
 
+    private final RandomGenerator random;
+    private final boolean weighted;
+
+    public RandomAI() {
+        this(Rng.create(Rng.newSeed()));
+    }
+
+    public RandomAI(long seed) {
+        this(Rng.create(seed));
+    }
+
+    /**
+     * Tetszőleges generátorral (pl. szimulációban a szál saját split folyamával).
+     */
+    public RandomAI(RandomGenerator random) {
+        this(random, false);
+    }
+
+    public RandomAI(RandomGenerator random, boolean weighted) {
+        this.random = random;
+        this.weighted = weighted;
+    }
+
+    @Override
     public Position chooseMove(Board board) {
-        Set<Position> legal = board.legalPositionsByAdjacency();
-        if (legal.isEmpty()) {
-            return null;
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        int idx = sampleIndex(board);
+        Position chosen = idx < 0 ? null : new Position(idx / board.cols(), idx % board.cols());
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = weighted ? "random-weighted" : "random";
+            event.nodes = board.frontierSize();
+            event.move = chosen == null ? "" : Coordinates.format(chosen);
+            event.commit();
+        }
+        return chosen;
+    }
+
+    /**
+     * Egy szabályos mező indexe (sor * oszlopszám + oszlop), vagy -1, ha nincs szabályos lépés.
+     */
+    public int sampleIndex(Board board) {
+        int n = board.frontierSize();
+        if (n == 0) {
+            return -1;
+        }
+        if (!weighted) {
+            return board.frontierAt(random.nextInt(n));
+        }
+        int cols = board.cols();
+        while (true) {
+            int idx = board.frontierAt(random.nextInt(n));
+            if (random.nextInt(MAX_NEIGHBORS) < board.neighborCount(idx / cols, idx % cols)) {
+                return idx;
+            }
         }
-        List<Position> list = new ArrayList<>(legal);
-        return list.get(random.nextInt(list.size()));
     }
-}
\ No newline at end of file
+}
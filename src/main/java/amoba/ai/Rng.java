@@ -0,0 +1,60 @@
+package amoba.ai;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Gyors, determinisztikus véletlenszám-generátorok AI-hoz és szimulációkhoz.
+ * Egy játékhoz (vagy futáshoz) egyetlen seed tartozik; ebből a szálak saját,
+ * független ({@code split()}) folyamot kapnak, így a futás seed alapján megismételhető.
+ */
+public final class Rng {
+
+    public static final String ALGORITHM = "L64X128MixRandom";
+    public static final String SEED_PROPERTY = "amoba.seed";
+
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    private Rng() { }
+
+    /**
+     * Generátor adott seedből (azonos seed = azonos sorozat).
+     */
+    public static RandomGenerator.SplittableGenerator create(long seed) {
+        return (RandomGenerator.SplittableGenerator) FACTORY.create(seed);
+    }
+
+    /**
+     * Új, nem determinisztikus seed (SecureRandom nélkül).
+     */
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * A {@code -Damoba.seed} értéke, ha meg van adva, különben új seed.
+     */
+    public static long seedFromProperty() {
+        Long fixed = Long.getLong(SEED_PROPERTY);
+        return fixed != null ? fixed : newSeed();
+    }
+
+    /**
+     * Szálanként külön folyam a gyökér generátorból. A szálak elsőként kért folyama
+     * a kérés sorrendjétől függ; determinisztikus párhuzamos futáshoz feladatonként
+     * érdemes {@link #split(RandomGenerator.SplittableGenerator)}-et használni.
+     */
+    public static ThreadLocal<RandomGenerator> perThread(RandomGenerator.SplittableGenerator root) {
+        return ThreadLocal.withInitial(() -> split(root));
+    }
+
+    /**
+     * Új független folyam; a gyökér állapota változik, ezért szinkronizált.
+     */
+    public static RandomGenerator.SplittableGenerator split(RandomGenerator.SplittableGenerator root) {
+        synchronized (root) {
+            return root.split();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package amoba.ai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import amoba.board.Board;
+import amoba.jfr.SearchEvent;
+import amoba.metrics.Metrics;
+import amoba.model.Cell;
+import amoba.model.Coordinates;
+import amoba.model.Position;
+
+/**
+ * Alfa-béta kereső AI iteratív mélyítéssel és transzpozíciós táblával.
+ * Munkamenetként működik: a lépéseket egyenként kapja meg, a gyökér hash-t
+ * inkrementálisan frissíti, a táblát pedig körök között megtartja, így az előző
+ * kör keresése (pl. a várt válaszlépés alatti részfa) a következő körben újrahasznosul.
+ *
+ * <p>Közös {@link AnalysisCache} megadásával a teljes mélységig végigkeresett állások
+ * eredménye munkamenetek között is újrahasznosul: ugyanarra (vagy szimmetrikus) állásra
+ * keresés nélkül adja vissza a korábbi legjobb lépést.
+ */
+public class SearchAI implements AiSession {
+
+    static final int WIN_SCORE = 1_000_000;
+    private static final int WIN_THRESHOLD = WIN_SCORE - 1000;
+    private static final int INF = Integer.MAX_VALUE - 1;
+    private static final int DEFAULT_MAX_DEPTH = 4;
+    private static final long DEFAULT_NODE_LIMIT = 100_000L;
+    private static final int DEFAULT_TABLE_BITS = 18;
+    /** Eldöntött (nyert/vesztett) állás mélysége a közös gyorsítótárban: bármely keresőnek elég. */
+    private static final int SOLVED_DEPTH = Byte.MAX_VALUE;
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator = new Evaluator();
+    private final ThreatMoveGenerator generator;
+    private final int maxDepth;
+    private final long nodeLimit;
+    private long timeLimitMillis;
+    private AnalysisCache sharedCache;
+
+    private Board current;
+    private Zobrist zobrist;
+    private long rootHash;
+    private int knownStones;
+    private Cell toMove = Cell.X;
+
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int completedDepth;
+    private int rootScore;
+
+    public SearchAI() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_NODE_LIMIT, DEFAULT_TABLE_BITS);
+    }
+
+    public SearchAI(int maxDepth, long nodeLimit, int tableBits) {
+        this(maxDepth, nodeLimit, tableBits, ThreatMoveGenerator.DEFAULT_WIDTH);
+    }
+
+    public SearchAI(int maxDepth, long nodeLimit, int tableBits, int branchWidth) {
+        if (maxDepth < 1 || nodeLimit < 1) {
+            throw new IllegalArgumentException("A mélység és a csomópont limit legyen pozitív!");
+        }
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+        this.table = new TranspositionTable(tableBits);
+        this.generator = new ThreatMoveGenerator(branchWidth);
+    }
+
+    /**
+     * Időkorlát lépésenként (0 = nincs).
+     */
+    public void setTimeLimitMillis(long millis) {
+        this.timeLimitMillis = millis;
+    }
+
+    /**
+     * Közös elemzés gyorsítótár (null = nincs).
+     */
+    public void useSharedCache(AnalysisCache cache) {
+        this.sharedCache = cache;
+    }
+
+    @Override
+    public void reset(Board board) {
+        current = board;
+        zobrist = Zobrist.forSize(board.rows(), board.cols());
+        rootHash = zobrist.hashOf(board);
+        knownStones = board.stoneCount();
+        toMove = board.stoneCount(Cell.X) > board.stoneCount(Cell.O) ? Cell.O : Cell.X;
+    }
+
+    @Override
+    public void onMove(Cell player, Position p) {
+        if (current == null) {
+            return;
+        }
+        rootHash ^= zobrist.key(player, p);
+        knownStones++;
+        toMove = player.opponent();
+    }
+
+    @Override
+    public Position chooseMove(Board board) {
+        if (board != current || board.stoneCount() != knownStones) {
+            reset(board);
+        }
+        final long started = Metrics.start();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        final long probesBefore = table.probes();
+        final long hitsBefore = table.hits();
+        AnalysisCache.Key cacheKey = sharedCache == null ? null : AnalysisCache.Key.of(board, toMove);
+        Position best = cacheKey == null ? null : cachedMove(board, cacheKey);
+        if (best == null) {
+            best = search(board, cacheKey);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = "search";
+            event.depth = completedDepth;
+            event.nodes = nodes;
+            event.tableHits = table.hits() - hitsBefore;
+            event.move = best == null ? "" : Coordinates.format(best);
+            event.commit();
+        }
+        if (started != Metrics.DISABLED) {
+            recordMetrics(started, table.probes() - probesBefore, table.hits() - hitsBefore);
+        }
+        return best;
+    }
+
+    /*
+     * Iteratív mélyítés a gyökérből; a kész eredmény a közös gyorsítótárba is bekerül.
+     */
+    private Position search(Board board, AnalysisCache.Key cacheKey) {
+        table.newSearch();
+        nodes = 0;
+        aborted = false;
+        completedDepth = 0;
+        deadline = timeLimitMillis > 0 ? System.currentTimeMillis() + timeLimitMillis : Long.MAX_VALUE;
+
+        Position best = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            final int score = negamax(board, toMove, rootHash, depth, -INF, INF, 0);
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth;
+            rootScore = score;
+            best = tableMove(board, rootHash, best);
+            if (Math.abs(score) >= WIN_THRESHOLD) {
+                break;
+            }
+        }
+        if (best == null) {
+            List<Position> moves = orderedMoves(board, toMove, -1);
+            best = moves.isEmpty() ? null : moves.get(0);
+        }
+        if (cacheKey != null && best != null && completedDepth > 0) {
+            int depth = Math.abs(rootScore) >= WIN_THRESHOLD ? SOLVED_DEPTH : completedDepth;
+            sharedCache.put(cacheKey.hash(), new AnalysisCache.Analysis(
+                    cacheKey.toCanonical(best.row() * board.cols() + best.col()), rootScore, depth));
+        }
+        return best;
+    }
+
+    /*
+     * Legalább a saját maximális mélységünkig kiszámolt közös bejegyzés lépése, ha a mező üres.
+     */
+    private Position cachedMove(Board board, AnalysisCache.Key key) {
+        AnalysisCache.Analysis a = sharedCache.get(key.hash());
+        if (a == null || a.depth() < maxDepth) {
+            return null;
+        }
+        Position p = toPosition(board, key.fromCanonical(a.move()));
+        if (!board.isEmpty(p)) {
+            return null;
+        }
+        nodes = 0;
+        completedDepth = Math.min(a.depth(), maxDepth);
+        rootScore = a.score();
+        return p;
+    }
+
+    private void recordMetrics(long started, long probes, long hits) {
+        long elapsed = Math.max(1L, System.nanoTime() - started);
+        Metrics.AI_THINK.record(elapsed);
+        Metrics.AI_NODES_PER_SEC.record(nodes * 1_000_000_000L / elapsed);
+        Metrics.AI_DEPTH.record(completedDepth);
+        Metrics.TT_PROBES.add(probes);
+        Metrics.TT_HITS.add(hits);
+    }
+
+    private int negamax(Board board, Cell player, long key, int depth, int alphaIn, int betaIn, int ply) {
+        nodes++;
+        if (nodes >= nodeLimit || (nodes & 1023) == 0 && System.currentTimeMillis() > deadline) {
+            aborted = true;
+            return 0;
+        }
+        int alpha = alphaIn;
+        int beta = betaIn;
+        int ttMove = -1;
+        int slot = table.find(key);
+        if (slot >= 0) {
+            ttMove = table.move(slot);
+            if (ply > 0 && table.depth(slot) >= depth) {
+                int s = fromTable(table.score(slot), ply);
+                int flag = table.flag(slot);
+                if (flag == TranspositionTable.EXACT) {
+                    return s;
+                }
+                if (flag == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, s);
+                } else if (flag == TranspositionTable.UPPER) {
+                    beta = Math.min(beta, s);
+                }
+                if (alpha >= beta) {
+                    return s;
+                }
+            }
+        }
+        if (depth == 0) {
+            return evaluator.evaluate(board, player);
+        }
+        List<Position> moves = orderedMoves(board, player, ttMove);
+        if (moves.isEmpty()) {
+            return 0;
+        }
+        int best = -INF;
+        int bestMove = -1;
+        for (Position m : moves) {
+            board.place(player, m);
+            int score;
+            if (board.hasFiveInARow(player, m)) {
+                score = WIN_SCORE - ply;
+            } else if (board.isDrawn()) {
+                score = 0;
+            } else {
+                score = -negamax(board, player.opponent(), key ^ zobrist.key(player, m),
+                        depth - 1, -beta, -alpha, ply + 1);
+            }
+            board.remove(m);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = m.row() * board.cols() + m.col();
+            }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        int flag = best <= alphaIn ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, flag);
+        return best;
+    }
+
+    private List<Position> orderedMoves(Board board, Cell player, int ttMove) {
+        List<Position> moves = generator.generate(board, player);
+        if (ttMove >= 0) {
+            Position first = toPosition(board, ttMove);
+            if (moves.remove(first)) {
+                moves.add(0, first);
+            }
+        }
+        return moves;
+    }
+
+    private Position tableMove(Board board, long key, Position fallback) {
+        int slot = table.find(key);
+        if (slot >= 0 && table.move(slot) >= 0) {
+            return toPosition(board, table.move(slot));
+        }
+        return fallback;
+    }
+
+    private static Position toPosition(Board board, int index) {
+        return new Position(index / board.cols(), index % board.cols());
+    }
+
+    /* Nyerő értékek a táblában a csomóponthoz viszonyítva tárolódnak. */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    @Override
+    public long saveTable(Path file, Board board) throws IOException {
+        return TableSnapshot.save(table, file, board.rows(), board.cols(), board.rule());
+    }
+
+    @Override
+    public long loadTable(Path file, Board board) throws IOException {
+        return TableSnapshot.load(table, file, board.rows(), board.cols(), board.rule());
+    }
+
+    public ThreatMoveGenerator generator() {
+        return generator;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    public long lastNodes() {
+        return nodes;
+    }
+
+    public int lastDepth() {
+        return completedDepth;
+    }
+
+    public Cell sideToMove() {
+        return toMove;
+    }
+}
@@ -0,0 +1,216 @@
+package amoba.ai;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Transzpozíciós tábla mentése memóriába leképezett fájlba és visszatöltése, hogy egy
+ * hosszú elemzés a következő futásban "melegen" folytatódjon, vagy előre számolt tábla
+ * kerüljön a nyitóállások mellé.
+ *
+ * <p>Fejléc (64 bájt): magic, verzió, sorok, oszlopok, a szabály azonosítója, a kapacitás
+ * kitevője, a bejegyzések száma és a Zobrist kulcsok ellenőrző értéke. Utána a tábla
+ * párhuzamos tömbjei egymás után (kulcsok, lépések, pontszámok, mélységek, jelzők); a
+ * korok nem mentődnek, betöltve minden bejegyzés egy korábbi keresésé. Más méretű vagy
+ * szabályú táblához tartozó fájl nem tölthető be; eltérő kapacitású tábla bejegyzésenként
+ * töltődik át.
+ */
+public final class TableSnapshot {
+
+    public static final String EXTENSION = ".tt";
+
+    private static final int MAGIC = 0x414D5454; // "AMTT"
+    private static final int VERSION = 1;
+    private static final int HEADER = 64;
+    private static final int RULE_OFFSET = 4 * Integer.BYTES;
+    private static final int RULE_ID_BYTES = 16;
+    private static final int BITS_OFFSET = RULE_OFFSET + RULE_ID_BYTES;
+    private static final int COUNT_OFFSET = BITS_OFFSET + Integer.BYTES;
+    private static final int CHECK_OFFSET = COUNT_OFFSET + Long.BYTES;
+    private static final int ENTRY_FILE_BYTES = Long.BYTES + 2 * Integer.BYTES + 2;
+    /** Egy leképezés legfeljebb ekkora (a MappedByteBuffer int indexű). */
+    private static final int CHUNK = 1 << 30;
+
+    private TableSnapshot() { }
+
+    /**
+     * A tábla fájlja egy könyvtárban táblaméret és szabály szerint.
+     */
+    public static Path path(Path dir, Board board) {
+        return dir.resolve(board.rows() + "x" + board.cols() + "-" + board.rule().id() + EXTENSION);
+    }
+
+    /**
+     * Mentés ideiglenes fájlba, majd atomikus csere; hiba esetén az ideiglenes fájl törlődik.
+     *
+     * @return a mentett bejegyzések száma
+     */
+    public static long save(TranspositionTable table, Path path, int rows, int cols, WinRule rule) throws IOException {
+        long count = table.size();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            write(table, tmp, rows, cols, rule);
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return count;
+    }
+
+    private static void write(TranspositionTable table, Path tmp, int rows, int cols, WinRule rule) throws IOException {
+        int bits = Integer.numberOfTrailingZeros(table.capacity());
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(0, MAGIC);
+            head.putInt(Integer.BYTES, VERSION);
+            head.putInt(2 * Integer.BYTES, rows);
+            head.putInt(3 * Integer.BYTES, cols);
+            byte[] id = rule.id().getBytes(StandardCharsets.US_ASCII);
+            for (int i = 0; i < RULE_ID_BYTES; i++) {
+                head.put(RULE_OFFSET + i, i < id.length ? id[i] : 0);
+            }
+            head.putInt(BITS_OFFSET, bits);
+            head.putLong(COUNT_OFFSET, table.size());
+            head.putLong(CHECK_OFFSET, zobristCheck(rows, cols));
+            transfer(ch, table, bits, true);
+            head.force();
+        }
+    }
+
+    /**
+     * Betöltés a táblába (a meglévő bejegyzések felülíródhatnak).
+     *
+     * @return a fájlban lévő bejegyzések száma
+     */
+    public static long load(TranspositionTable table, Path path, int rows, int cols, WinRule rule) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER) {
+                throw new IOException("Nem transzpozíciós tábla: " + path);
+            }
+            MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            head.order(ByteOrder.LITTLE_ENDIAN);
+            if (head.getInt(0) != MAGIC || head.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Nem transzpozíciós tábla: " + path);
+            }
+            if (head.getInt(2 * Integer.BYTES) != rows || head.getInt(3 * Integer.BYTES) != cols
+                    || !ruleId(head).equals(rule.id())) {
+                throw new IOException("A transzpozíciós tábla más táblamérethez vagy szabályhoz tartozik: " + path);
+            }
+            if (head.getLong(CHECK_OFFSET) != zobristCheck(rows, cols)) {
+                throw new IOException("A transzpozíciós tábla más Zobrist kulcsokkal készült: " + path);
+            }
+            int bits = head.getInt(BITS_OFFSET);
+            if (bits < 1 || bits > TranspositionTable.MAX_BITS || ch.size() != HEADER + ((long) ENTRY_FILE_BYTES << bits)) {
+                throw new IOException("Sérült transzpozíciós tábla: " + path);
+            }
+            if (1 << bits == table.capacity()) {
+                transfer(ch, table, bits, false);
+            } else {
+                TranspositionTable loaded = new TranspositionTable(bits);
+                transfer(ch, loaded, bits, false);
+                loaded.copyInto(table);
+            }
+            return head.getLong(COUNT_OFFSET);
+        }
+    }
+
+    /*
+     * A párhuzamos tömbök írása (save) vagy olvasása szakaszonként, legfeljebb CHUNK méretű leképezésekkel.
+     */
+    private static void transfer(FileChannel ch, TranspositionTable table, int bits, boolean write) throws IOException {
+        long size = 1L << bits;
+        long offset = HEADER;
+        FileChannel.MapMode mode = write ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int section = 0; section < 5; section++) {
+            int width = section == 0 ? Long.BYTES : section < 3 ? Integer.BYTES : 1;
+            int perChunk = CHUNK / width;
+            for (long from = 0; from < size; from += perChunk) {
+                int n = (int) Math.min(perChunk, size - from);
+                MappedByteBuffer map = ch.map(mode, offset + from * width, (long) n * width);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                int start = (int) from;
+                switch (section) {
+                    case 0 -> {
+                        if (write) {
+                            map.asLongBuffer().put(table.keyArray(), start, n);
+                        } else {
+                            map.asLongBuffer().get(table.keyArray(), start, n);
+                        }
+                    }
+                    case 1 -> {
+                        if (write) {
+                            map.asIntBuffer().put(table.moveArray(), start, n);
+                        } else {
+                            map.asIntBuffer().get(table.moveArray(), start, n);
+                        }
+                    }
+                    case 2 -> {
+                        if (write) {
+                            map.asIntBuffer().put(table.scoreArray(), start, n);
+                        } else {
+                            map.asIntBuffer().get(table.scoreArray(), start, n);
+                        }
+                    }
+                    default -> {
+                        byte[] bytes = section == 3 ? table.depthArray() : table.flagArray();
+                        if (write) {
+                            map.put(bytes, start, n);
+                        } else {
+                            map.get(bytes, start, n);
+                        }
+                    }
+                }
+                if (write) {
+                    map.force();
+                }
+            }
+            offset += size * width;
+        }
+        if (!write) {
+            table.loaded();
+        }
+    }
+
+    private static String ruleId(MappedByteBuffer head) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < RULE_ID_BYTES; i++) {
+            byte b = head.get(RULE_OFFSET + i);
+            if (b == 0) {
+                break;
+            }
+            sb.append((char) b);
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Néhány Zobrist kulcs lenyomata: ha a kulcsgenerálás megváltozik, a régi táblák kulcsai értelmetlenek.
+     */
+    private static long zobristCheck(int rows, int cols) {
+        Zobrist z = Zobrist.forSize(rows, cols);
+        return z.key(Cell.X, 0, 0) ^ Long.rotateLeft(z.key(Cell.O, rows - 1, cols - 1), 1);
+    }
+}
@@ -0,0 +1,259 @@
+package amoba.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.metrics.Metrics;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Keresési lépésgenerátor: a szabályos (szomszédos) mezőket helyi mintázat alapján
+ * pontozza, kényszerhelyzetben csak a kötelező válaszokat adja vissza, egyébként
+ * a legjobb {@code width} jelöltet.
+ * Az emberi lépések szabályosságát továbbra is {@link Board#legalPositionsByAdjacency()} dönti el.
+ */
+public class ThreatMoveGenerator {
+
+    public static final int DEFAULT_WIDTH = 12;
+
+    static final int FIVE = 100_000;
+    static final int OPEN_FOUR = 10_000;
+    static final int FOUR = 1_000;
+    static final int OPEN_THREE = 800;
+    static final int THREE = 100;
+    static final int OPEN_TWO = 40;
+    static final int TWO = 10;
+    static final int ONE = 1;
+
+    private static final int NEAR_RADIUS = 2;
+    private static final int OWN = 1;
+    private static final int BLOCKED = 2;
+    private static final int[][] LINES = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final int width;
+    private final int[] line = new int[2 * WinRule.MAX_LENGTH + 1];
+    private int reach;
+    private int[] cand = new int[0];
+    private int[] attack = new int[0];
+    private int[] defense = new int[0];
+    private long generated;
+
+    public ThreatMoveGenerator() {
+        this(DEFAULT_WIDTH);
+    }
+
+    public ThreatMoveGenerator(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Az elágazási korlát legyen pozitív!");
+        }
+        this.width = width;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Eddig generált jelöltek száma (statisztikához).
+     */
+    public long generatedCount() {
+        return generated;
+    }
+
+    /**
+     * Jelöltek a soron lévő játékosnak, csökkenő pontszám szerint.
+     */
+    public List<Position> generate(Board board, Cell player) {
+        int n = collectCandidates(board);
+        Cell opp = player.opponent();
+        int bestAttack = 0;
+        int bestDefense = 0;
+        for (int i = 0; i < n; i++) {
+            int r = cand[i] / board.cols();
+            int c = cand[i] % board.cols();
+            attack[i] = patternScore(board, player, r, c);
+            defense[i] = patternScore(board, opp, r, c);
+            bestAttack = Math.max(bestAttack, attack[i]);
+            bestDefense = Math.max(bestDefense, defense[i]);
+        }
+        List<Position> out;
+        if (bestAttack >= FIVE) {
+            out = filter(board, n, FIVE, 0);
+        } else if (bestDefense >= FIVE) {
+            out = filter(board, n, Integer.MAX_VALUE, FIVE);
+        } else if (bestDefense >= OPEN_FOUR) {
+            out = filter(board, n, FOUR, OPEN_FOUR);
+        } else {
+            out = ranked(board, n);
+        }
+        generated += out.size();
+        if (Metrics.enabled()) {
+            Metrics.MOVEGEN_CALLS.increment();
+            Metrics.MOVEGEN_MOVES.add(out.size());
+        }
+        return out;
+    }
+
+    /* Kényszerlépések: saját támadás legalább attackMin, vagy védekezés legalább defenseMin. */
+    private List<Position> filter(Board board, int n, int attackMin, int defenseMin) {
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            boolean keep = attack[i] >= attackMin || defenseMin > 0 && defense[i] >= defenseMin;
+            if (keep) {
+                cand[kept] = cand[i];
+                attack[kept] = attack[i];
+                defense[kept] = defense[i];
+                kept++;
+            }
+        }
+        return ranked(board, kept);
+    }
+
+    private List<Position> ranked(Board board, int n) {
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int r = cand[i] / board.cols();
+            int c = cand[i] % board.cols();
+            long score = attack[i] + defense[i] * 9L / 10 + nearStones(board, r, c);
+            keys[i] = score << 32 | i;
+        }
+        Arrays.sort(keys);
+        int take = Math.min(width, n);
+        List<Position> out = new ArrayList<>(take);
+        for (int k = 0; k < take; k++) {
+            int idx = cand[(int) keys[n - 1 - k]];
+            out.add(new Position(idx / board.cols(), idx % board.cols()));
+        }
+        return out;
+    }
+
+    /* A jelöltek a tábla karbantartott határlistájából jönnek: költség a foglalt területtel arányos. */
+    private int collectCandidates(Board board) {
+        int n = board.frontierSize();
+        if (cand.length < n) {
+            int size = Math.max(n, cand.length * 2);
+            cand = new int[size];
+            attack = new int[size];
+            defense = new int[size];
+        }
+        for (int i = 0; i < n; i++) {
+            cand[i] = board.frontierAt(i);
+        }
+        return n;
+    }
+
+    /**
+     * Mintázat pontszám, ha a játékos az (r, c) mezőre lépne: a négy irány
+     * legerősebb alakzatainak összege.
+     */
+    int patternScore(Board board, Cell player, int r, int c) {
+        int total = 0;
+        int fours = 0;
+        int threes = 0;
+        for (int[] d : LINES) {
+            int s = lineScore(board, player, r, c, d[0], d[1]);
+            if (s >= FOUR && s < FIVE) {
+                fours++;
+            } else if (s == OPEN_THREE) {
+                threes++;
+            }
+            total += s;
+        }
+        if (total < FIVE && (fours >= 2 || fours == 1 && threes >= 1)) {
+            total += OPEN_FOUR;
+        }
+        return total;
+    }
+
+    private int lineScore(Board board, Cell player, int r, int c, int dr, int dc) {
+        WinRule rule = board.rule();
+        int k = rule.length();
+        reach = k - 1;
+        int lineLen = 2 * reach + 1;
+        for (int i = -reach; i <= reach; i++) {
+            int rr = r + dr * i;
+            int cc = c + dc * i;
+            int v;
+            if (i == 0) {
+                v = OWN;
+            } else if (!board.isInside(rr, cc)) {
+                v = BLOCKED;
+            } else {
+                Cell cell = board.cellAt(rr, cc);
+                v = cell == player ? OWN : cell == Cell.EMPTY ? 0 : BLOCKED;
+            }
+            line[i + reach] = v;
+        }
+        int i = reach - 1;
+        while (i >= 0 && line[i] == OWN) {
+            i--;
+        }
+        int j = reach + 1;
+        while (j < lineLen && line[j] == OWN) {
+            j++;
+        }
+        int run = j - i - 1;
+        if (rule.isWinningRun(player, run)) {
+            return FIVE;
+        }
+        if (run >= k) {
+            return 0;
+        }
+        boolean leftOpen = i >= 0 && line[i] == 0;
+        boolean rightOpen = j < lineLen && line[j] == 0;
+        int leftExt = leftOpen ? extension(i - 1, -1) : 0;
+        int rightExt = rightOpen ? extension(j + 1, 1) : 0;
+        if (run == k - 1) {
+            return leftOpen && rightOpen ? OPEN_FOUR : leftOpen || rightOpen ? FOUR : 0;
+        }
+        if (leftOpen && rule.isWinningRun(player, run + leftExt + 1)
+                || rightOpen && rule.isWinningRun(player, run + rightExt + 1)) {
+            return FOUR;
+        }
+        if (run == k - 2) {
+            boolean roomy = isEmptyAt(i - 1) || isEmptyAt(j + 1);
+            if (leftOpen && rightOpen && roomy) {
+                return OPEN_THREE;
+            }
+            return leftOpen || rightOpen ? THREE : 0;
+        }
+        if (run + leftExt == k - 2 && leftOpen && rightOpen && isEmptyAt(i - 1 - leftExt)
+                || run + rightExt == k - 2 && leftOpen && rightOpen && isEmptyAt(j + 1 + rightExt)) {
+            return OPEN_THREE;
+        }
+        if (run == k - 3) {
+            return leftOpen && rightOpen ? OPEN_TWO : leftOpen || rightOpen ? TWO : 0;
+        }
+        return leftOpen || rightOpen ? ONE : 0;
+    }
+
+    private int extension(int from, int step) {
+        int k = from;
+        int count = 0;
+        while (k >= 0 && k < 2 * reach + 1 && line[k] == OWN) {
+            count++;
+            k += step;
+        }
+        return count;
+    }
+
+    private boolean isEmptyAt(int k) {
+        return k >= 0 && k < 2 * reach + 1 && line[k] == 0;
+    }
+
+    private static int nearStones(Board board, int r, int c) {
+        int count = 0;
+        for (int dr = -NEAR_RADIUS; dr <= NEAR_RADIUS; dr++) {
+            for (int dc = -NEAR_RADIUS; dc <= NEAR_RADIUS; dc++) {
+                if (board.isInside(r + dr, c + dc) && board.cellAt(r + dr, c + dc) != Cell.EMPTY) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
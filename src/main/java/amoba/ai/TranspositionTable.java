@@ -0,0 +1,178 @@
+package amoba.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fix méretű transzpozíciós tábla párhuzamos primitív tömbökkel.
+ * A bejegyzések keresések között megmaradnak; a generáció számláló
+ * csak azt jelzi, melyik bejegyzés régi, és így melyik írható felül előbb.
+ */
+public final class TranspositionTable {
+
+    public static final int NONE = 0;
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /** Egy bejegyzés mérete a párhuzamos tömbökben: kulcs, lépés, pontszám, mélység, jelző, kor. */
+    public static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES * 2 + 3;
+
+    static final int MAX_BITS = 28;
+
+    private final int mask;
+    private final long[] keys;
+    private final int[] moves;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] flags;
+    private final byte[] ages;
+    private byte generation;
+    private long probes;
+    private long hits;
+
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > MAX_BITS) {
+            throw new IllegalArgumentException("A tábla mérete 2^1 és 2^" + MAX_BITS + " között lehet!");
+        }
+        int size = 1 << bits;
+        this.mask = size - 1;
+        this.keys = new long[size];
+        this.moves = new int[size];
+        this.scores = new int[size];
+        this.depths = new byte[size];
+        this.flags = new byte[size];
+        this.ages = new byte[size];
+    }
+
+    /**
+     * A legnagyobb táblaméret (bitekben), amely elfér a megadott bájtkeretben, legalább 1.
+     */
+    public static int bitsForBytes(long bytes) {
+        long entries = Math.max(2L, bytes / ENTRY_BYTES);
+        return Math.min(MAX_BITS, 63 - Long.numberOfLeadingZeros(entries));
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * A foglalt slotok száma; O(kapacitás).
+     */
+    public long size() {
+        long n = 0;
+        for (byte f : flags) {
+            n += f != NONE ? 1 : 0;
+        }
+        return n;
+    }
+
+    /**
+     * Új keresés (új gyökér) kezdete: a korábbi bejegyzések elérhetők maradnak.
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    /**
+     * A kulcshoz tartozó slot indexe, vagy -1 ha nincs bejegyzés.
+     */
+    public int find(long key) {
+        probes++;
+        int slot = (int) key & mask;
+        if (flags[slot] != NONE && keys[slot] == key) {
+            hits++;
+            return slot;
+        }
+        return -1;
+    }
+
+    public int move(int slot) {
+        return moves[slot];
+    }
+
+    public int score(int slot) {
+        return scores[slot];
+    }
+
+    public int depth(int slot) {
+        return depths[slot];
+    }
+
+    public int flag(int slot) {
+        return flags[slot];
+    }
+
+    public void store(long key, int move, int score, int depth, int flag) {
+        int slot = (int) key & mask;
+        boolean replace = flags[slot] == NONE
+                || keys[slot] == key
+                || ages[slot] != generation
+                || depth >= depths[slot];
+        if (!replace) {
+            return;
+        }
+        keys[slot] = key;
+        moves[slot] = move;
+        scores[slot] = score;
+        depths[slot] = (byte) depth;
+        flags[slot] = (byte) flag;
+        ages[slot] = generation;
+    }
+
+    public long probes() {
+        return probes;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    /*
+     * A párhuzamos tömbök a {@link TableSnapshot} tömeges mentéséhez és betöltéséhez.
+     */
+    long[] keyArray() {
+        return keys;
+    }
+
+    int[] moveArray() {
+        return moves;
+    }
+
+    int[] scoreArray() {
+        return scores;
+    }
+
+    byte[] depthArray() {
+        return depths;
+    }
+
+    byte[] flagArray() {
+        return flags;
+    }
+
+    /**
+     * Betöltés után: minden bejegyzés egy korábbi keresésé, így az új keresés felülírhatja.
+     */
+    void loaded() {
+        Arrays.fill(ages, (byte) (generation - 1));
+    }
+
+    /**
+     * A foglalt bejegyzések átírása egy (más kapacitású) táblába a szokásos csereszabállyal.
+     */
+    void copyInto(TranspositionTable target) {
+        for (int i = 0; i < keys.length; i++) {
+            if (flags[i] != NONE) {
+                target.store(keys[i], moves[i], scores[i], depths[i], flags[i]);
+            }
+        }
+        target.loaded();
+    }
+
+    public void clear() {
+        Arrays.fill(flags, (byte) NONE);
+        probes = 0;
+        hits = 0;
+    }
+}
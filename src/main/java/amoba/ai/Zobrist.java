@@ -0,0 +1,70 @@
+package amoba.ai;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Zobrist kulcsok egy adott méretű táblához.
+ * Rögzített seed-del generálódnak, így a hash-ek futások között is azonosak.
+ * Nagy tábláknál nincs kulcstömb: a kulcs a mezőindexből keverő függvénnyel számolódik.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final int TABLE_LIMIT = 1 << 16;
+    private static final Map<Long, Zobrist> CACHE = new ConcurrentHashMap<>();
+
+    private final int cols;
+    private final long salt;
+    private final long[] keys;
+
+    private Zobrist(int rows, int cols) {
+        this.cols = cols;
+        this.salt = SEED ^ ((long) rows << 32 | cols);
+        if ((long) rows * cols > TABLE_LIMIT) {
+            this.keys = null;
+            return;
+        }
+        this.keys = new long[rows * cols * 2];
+        SplittableRandom random = new SplittableRandom(salt);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    public static Zobrist forSize(int rows, int cols) {
+        return CACHE.computeIfAbsent((long) rows << 32 | cols, k -> new Zobrist(rows, cols));
+    }
+
+    public long key(Cell player, Position p) {
+        return key(player, p.row(), p.col());
+    }
+
+    public long key(Cell player, int r, int c) {
+        int idx = (r * cols + c) * 2 + (player == Cell.X ? 0 : 1);
+        return keys != null ? keys[idx] : mix(salt + idx);
+    }
+
+    public long hashOf(Board board) {
+        long h = 0L;
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / board.cols();
+            int c = idx % board.cols();
+            h ^= key(board.cellAt(r, c), r, c);
+        }
+        return h;
+    }
+
+    /* SplitMix64 keverő lépés. */
+    private static long mix(long x) {
+        long z = (x + 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
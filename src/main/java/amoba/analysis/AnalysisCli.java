@@ -0,0 +1,64 @@
+package amoba.analysis;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import amoba.board.WinRule;
+
+/**
+ * Parancssori belépési pont: {@code analyze <könyvtár> [riport.txt] [--depth=N] [--nodes=N] [--threads=N]
+ * [--rule=R]}. A szabály alapértelmezése, mint a játékban, a {@code -Damoba.rule}.
+ */
+public final class AnalysisCli {
+
+    private AnalysisCli() { }
+
+    /**
+     * @param args a parancs utáni argumentumok
+     * @return kilépési kód (0 = siker)
+     */
+    public static int run(String[] args, PrintStream out) {
+        Path dir = null;
+        Path report = null;
+        int depth = BoardAnalyzer.DEFAULT_DEPTH;
+        long nodes = BoardAnalyzer.DEFAULT_NODES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            WinRule rule = WinRule.parse(System.getProperty("amoba.rule", WinRule.STANDARD.id()));
+            for (String a : args) {
+                if (a.startsWith("--depth=")) {
+                    depth = Integer.parseInt(a.substring("--depth=".length()));
+                } else if (a.startsWith("--nodes=")) {
+                    nodes = Long.parseLong(a.substring("--nodes=".length()));
+                } else if (a.startsWith("--threads=")) {
+                    threads = Integer.parseInt(a.substring("--threads=".length()));
+                } else if (a.startsWith("--rule=")) {
+                    rule = WinRule.parse(a.substring("--rule=".length()));
+                } else if (dir == null) {
+                    dir = Path.of(a);
+                } else {
+                    report = Path.of(a);
+                }
+            }
+            if (dir == null) {
+                out.println("Használat: analyze <könyvtár> [riport.txt] [--depth=N] [--nodes=N] [--threads=N]"
+                        + " [--rule=R]");
+                return 2;
+            }
+            AnalysisSummary summary = new BatchAnalyzer(depth, nodes, threads, rule).run(dir);
+            if (report != null) {
+                try (Writer w = Files.newBufferedWriter(report)) {
+                    summary.writeTo(w);
+                }
+            }
+            out.println(summary.headline());
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Elemzési hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package amoba.analysis;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import amoba.model.Cell;
+
+/**
+ * Egy kötegelt elemzés összesítése: a rendezett riport sorok és a futásidő.
+ */
+public record AnalysisSummary(List<PositionReport> reports, long elapsedNanos) {
+
+    private static final double NANOS_PER_SEC = 1e9;
+
+    public long count(Cell winner) {
+        return reports.stream().filter(r -> !r.isError() && r.winner() == winner).count();
+    }
+
+    public long errors() {
+        return reports.stream().filter(PositionReport::isError).count();
+    }
+
+    public double boardsPerSecond() {
+        return elapsedNanos == 0 ? 0 : reports.size() * NANOS_PER_SEC / elapsedNanos;
+    }
+
+    public String headline() {
+        return String.format("Táblák: %d, X nyert: %d, O nyert: %d, nyitott: %d, hibás: %d, %.1f tábla/s",
+                reports.size(), count(Cell.X), count(Cell.O), count(Cell.EMPTY), errors(), boardsPerSecond());
+    }
+
+    /**
+     * Teljes riport: fejléc sor, majd állásonként egy tabulátorral tagolt sor.
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write("# " + headline() + "\n");
+        out.write("# forrás\tméret\tkövek\tnyertes\tjavaslat\tmélység\tcsomópontok\n");
+        for (PositionReport r : reports) {
+            out.write(r.toLine());
+            out.write('\n');
+        }
+    }
+}
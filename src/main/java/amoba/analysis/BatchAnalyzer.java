@@ -0,0 +1,136 @@
+package amoba.analysis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.io.FileIO;
+import amoba.io.XmlPersistence;
+
+/**
+ * Mentett táblák könyvtárainak párhuzamos elemzése. A könyvtárakat NIO
+ * {@link DirectoryStream}-mel járja be; minden alkönyvtár és minden fájl külön
+ * fork-join feladat, így a munka a magok között kiegyenlítődik. A betöltött táblák a
+ * megadott nyerési szabályt kapják (a mentett fájlok nem tárolják).
+ */
+public final class BatchAnalyzer {
+
+    private final int depth;
+    private final long nodeLimit;
+    private final int parallelism;
+    private final WinRule rule;
+    private final ThreadLocal<BoardAnalyzer> analyzers;
+
+    public BatchAnalyzer(int depth, long nodeLimit, int parallelism) {
+        this(depth, nodeLimit, parallelism, WinRule.STANDARD);
+    }
+
+    public BatchAnalyzer(int depth, long nodeLimit, int parallelism, WinRule rule) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A szálak száma legyen pozitív!");
+        }
+        this.depth = depth;
+        this.nodeLimit = nodeLimit;
+        this.parallelism = parallelism;
+        this.rule = rule;
+        this.analyzers = ThreadLocal.withInitial(() -> new BoardAnalyzer(this.depth, this.nodeLimit));
+    }
+
+    public AnalysisSummary run(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Nem könyvtár: " + root);
+        }
+        final long started = System.nanoTime();
+        Queue<PositionReport> results = new ConcurrentLinkedQueue<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new DirectoryTask(root, results));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        List<PositionReport> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(PositionReport::source));
+        return new AnalysisSummary(sorted, System.nanoTime() - started);
+    }
+
+    static boolean isBoardFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".txt") || name.endsWith(".xml");
+    }
+
+    private void analyzeFile(Path file, Queue<PositionReport> results) {
+        String source = file.toString();
+        BoardAnalyzer analyzer = analyzers.get();
+        try {
+            if (source.toLowerCase(Locale.ROOT).endsWith(".xml")) {
+                int[] index = {0};
+                XmlPersistence.forEachGame(file, rule, b -> results.add(analyzer.analyze(source + "#" + index[0]++, b)));
+            } else {
+                Board b = FileIO.loadFromTxt(file, rule);
+                results.add(analyzer.analyze(source, b));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            results.add(PositionReport.failed(source, e.getMessage()));
+        }
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path dir;
+        private final transient Queue<PositionReport> results;
+
+        DirectoryTask(Path dir, Queue<PositionReport> results) {
+            this.dir = dir;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> tasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path p : entries) {
+                    if (Files.isDirectory(p)) {
+                        tasks.add(new DirectoryTask(p, results));
+                    } else if (isBoardFile(p)) {
+                        tasks.add(new FileTask(p, results));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private final class FileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path file;
+        private final transient Queue<PositionReport> results;
+
+        FileTask(Path file, Queue<PositionReport> results) {
+            this.file = file;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            analyzeFile(file, results);
+        }
+    }
+}
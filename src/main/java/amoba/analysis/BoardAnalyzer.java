@@ -0,0 +1,72 @@
+package amoba.analysis;
+
+import amoba.ai.SearchAI;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import amoba.scan.LineScanner;
+
+/**
+ * Egyetlen tábla elemzése: nyerő sor keresése minden kő körül (szabad szabálynál a
+ * vektoros sorkeresővel, ha elérhető), majd rögzített keretű keresés a soron következő
+ * félnek. Nem szálbiztos, szálanként egy példány kell.
+ */
+public final class BoardAnalyzer {
+
+    public static final int DEFAULT_DEPTH = 2;
+    public static final long DEFAULT_NODES = 2_000L;
+    private static final int TABLE_BITS = 14;
+
+    private final SearchAI search;
+    private final LineScanner scanner = LineScanner.startup().orElse(null);
+
+    public BoardAnalyzer() {
+        this(DEFAULT_DEPTH, DEFAULT_NODES);
+    }
+
+    public BoardAnalyzer(int depth, long nodeLimit) {
+        this.search = new SearchAI(depth, nodeLimit, TABLE_BITS);
+    }
+
+    public PositionReport analyze(String source, Board board) {
+        boolean crossWins;
+        boolean circleWins;
+        if (scanner != null && board.rule().variant() == WinRule.Variant.FREESTYLE && scanner.supports(board)) {
+            crossWins = scanner.hasRun(board, Cell.X);
+            circleWins = scanner.hasRun(board, Cell.O);
+        } else {
+            crossWins = stoneWalkWins(board, Cell.X);
+            circleWins = stoneWalkWins(board, Cell.O);
+        }
+        Cell winner = crossWins ? Cell.X : circleWins ? Cell.O : Cell.EMPTY;
+        Cell toMove = board.stoneCount(Cell.X) > board.stoneCount(Cell.O) ? Cell.O : Cell.X;
+        Position best = null;
+        long nodes = 0;
+        int depth = 0;
+        if (winner == Cell.EMPTY) {
+            search.reset(board);
+            best = search.chooseMove(board);
+            nodes = search.lastNodes();
+            depth = search.lastDepth();
+        }
+        return new PositionReport(source, board.rows(), board.cols(), board.stoneCount(), winner, crossWins && circleWins,
+                toMove, best, nodes, depth, null);
+    }
+
+    /*
+     * Nyerő sor keresése minden kő körül (minden szabályhoz, bármekkora táblán).
+     */
+    private static boolean stoneWalkWins(Board board, Cell player) {
+        int cols = board.cols();
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / cols;
+            int c = idx % cols;
+            if (board.cellAt(r, c) == player && board.hasFiveInARow(player, new Position(r, c))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
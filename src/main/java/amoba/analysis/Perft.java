@@ -0,0 +1,247 @@
+package amoba.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Perft: a d mélységű lépésfa leveleinek megszámolása a szomszédossági szabály szerint.
+ * Nyerő lépés után a csomópont végállapot (levélként számít), ahogy lépés nélküli állás is.
+ * A gyökérlépések részfái külön fork-join feladatok, saját táblamásolaton.
+ *
+ * <p>Ellenőrző módban minden csomópontban összeveti a tábla határlistáját és
+ * nyerésvizsgálatát egy naiv, teljes átvizsgálással – így új tábla implementációk orákuluma.
+ */
+public final class Perft {
+
+    private static final double NANOS_PER_SEC = 1e9;
+
+    private final int parallelism;
+    private final boolean validate;
+
+    /**
+     * Perft eredmény: összes levél, gyökérlépésenkénti bontás (táblasorrendben) és futásidő.
+     */
+    public record Result(long nodes, Map<Position, Long> breakdown, long elapsedNanos) {
+        public double nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * NANOS_PER_SEC / elapsedNanos;
+        }
+    }
+
+    public Perft(int parallelism, boolean validate) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A szálak száma legyen pozitív!");
+        }
+        this.parallelism = parallelism;
+        this.validate = validate;
+    }
+
+    /**
+     * Perft a soron következő féllel (X, ha a kőszámok egyenlők). A tábla nem változik.
+     */
+    public Result run(Board board, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("A mélység legyen pozitív!");
+        }
+        final long started = System.nanoTime();
+        Cell toMove = board.stoneCount(Cell.X) > board.stoneCount(Cell.O) ? Cell.O : Cell.X;
+        int[] roots = sortedFrontier(board);
+        List<RootTask> tasks = new ArrayList<>(roots.length);
+        for (int idx : roots) {
+            tasks.add(new RootTask(board, toMove, new Position(idx / board.cols(), idx % board.cols()), depth));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RecursiveTask<Void>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected Void compute() {
+                    invokeAll(tasks);
+                    return null;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        Map<Position, Long> breakdown = new LinkedHashMap<>();
+        long total = 0;
+        for (RootTask t : tasks) {
+            long n = t.join();
+            breakdown.put(t.move, n);
+            total += n;
+        }
+        if (roots.length == 0) {
+            total = 1;
+        }
+        return new Result(total, breakdown, System.nanoTime() - started);
+    }
+
+    /**
+     * Egyszálú perft ugyanazzal a számlálási szabállyal (összehasonlításhoz és teszteléshez).
+     */
+    public static long count(Board board, Cell toMove, int depth, boolean validate) {
+        return new Counter(board, validate).count(toMove, depth, 0);
+    }
+
+    private static int[] sortedFrontier(Board board) {
+        int[] moves = new int[board.frontierSize()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = board.frontierAt(i);
+        }
+        Arrays.sort(moves);
+        return moves;
+    }
+
+    private final class RootTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Board board;
+        private final transient Cell toMove;
+        private final transient Position move;
+        private final int depth;
+
+        RootTask(Board board, Cell toMove, Position move, int depth) {
+            this.board = board;
+            this.toMove = toMove;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            Board b = board.copy();
+            Counter counter = new Counter(b, validate);
+            b.place(toMove, move);
+            if (validate) {
+                counter.checkWin(toMove, move);
+            }
+            if (b.hasFiveInARow(toMove, move)) {
+                return 1L;
+            }
+            return counter.count(toMove.opponent(), depth - 1, 1);
+        }
+    }
+
+    /**
+     * Rekurzív számláló egy táblán; a lépéslisták síkonként újrahasznosított tömbökben vannak.
+     */
+    private static final class Counter {
+        private final Board board;
+        private final boolean validate;
+        private int[][] buffers = new int[8][];
+
+        Counter(Board board, boolean validate) {
+            this.board = board;
+            this.validate = validate;
+        }
+
+        long count(Cell toMove, int depth, int ply) {
+            if (validate) {
+                checkFrontier();
+            }
+            int n = board.frontierSize();
+            if (depth == 0 || n == 0) {
+                return 1;
+            }
+            int[] moves = buffer(ply, n);
+            for (int i = 0; i < n; i++) {
+                moves[i] = board.frontierAt(i);
+            }
+            int cols = board.cols();
+            Cell next = toMove.opponent();
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                Position p = new Position(moves[i] / cols, moves[i] % cols);
+                board.place(toMove, p);
+                if (validate) {
+                    checkWin(toMove, p);
+                }
+                if (board.hasFiveInARow(toMove, p)) {
+                    total++;
+                } else {
+                    total += count(next, depth - 1, ply + 1);
+                }
+                board.remove(p);
+            }
+            return total;
+        }
+
+        private int[] buffer(int ply, int size) {
+            if (ply >= buffers.length) {
+                buffers = Arrays.copyOf(buffers, ply * 2);
+            }
+            int[] buf = buffers[ply];
+            if (buf == null || buf.length < size) {
+                buf = new int[Math.max(size, 16) * 2];
+                buffers[ply] = buf;
+            }
+            return buf;
+        }
+
+        void checkWin(Cell player, Position p) {
+            boolean naive = false;
+            int[][] lines = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+            for (int[] d : lines) {
+                int run = 1 + naiveRun(player, p, d[0], d[1]) + naiveRun(player, p, -d[0], -d[1]);
+                naive |= board.rule().isWinningRun(player, run);
+            }
+            if (naive != board.hasFiveInARow(player, p)) {
+                throw new IllegalStateException("Eltérő nyerésvizsgálat itt: " + p);
+            }
+        }
+
+        private int naiveRun(Cell player, Position p, int dr, int dc) {
+            int cnt = 0;
+            int r = p.row() + dr;
+            int c = p.col() + dc;
+            while (board.isInside(r, c) && board.cellAt(r, c) == player) {
+                cnt++;
+                r += dr;
+                c += dc;
+            }
+            return cnt;
+        }
+
+        private void checkFrontier() {
+            int expected = 0;
+            int r0 = Math.max(0, board.minRow() - 1);
+            int r1 = Math.min(board.rows() - 1, board.maxRow() + 1);
+            int c0 = Math.max(0, board.minCol() - 1);
+            int c1 = Math.min(board.cols() - 1, board.maxCol() + 1);
+            for (int r = r0; r <= r1 && board.stoneCount() > 0; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    if (board.cellAt(r, c) == Cell.EMPTY && hasStoneNeighbour(r, c)) {
+                        expected++;
+                        if (!board.isLegalByAdjacency(new Position(r, c))) {
+                            throw new IllegalStateException("Hiányzó határmező: " + new Position(r, c));
+                        }
+                    }
+                }
+            }
+            if (expected != board.frontierSize()) {
+                throw new IllegalStateException("Eltérő határlista méret: " + board.frontierSize() + " != " + expected);
+            }
+        }
+
+        private boolean hasStoneNeighbour(int r, int c) {
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if ((dr != 0 || dc != 0) && board.isInside(r + dr, c + dc)
+                            && board.cellAt(r + dr, c + dc) != Cell.EMPTY) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package amoba.analysis;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import amoba.board.Board;
+import amoba.io.FileIO;
+import amoba.io.XmlPersistence;
+import amoba.model.Coordinates;
+import amoba.model.Position;
+
+/**
+ * Parancssori belépési pont: {@code perft <állás.txt|állás.xml> <mélység> [--threads=N] [--validate]}.
+ */
+public final class PerftCli {
+
+    private static final int ARG_MIN = 2;
+
+    private PerftCli() { }
+
+    /**
+     * @param args a parancs utáni argumentumok
+     * @return kilépési kód (0 = siker)
+     */
+    public static int run(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: perft <állás.txt|állás.xml> <mélység> [--threads=N] [--validate]");
+            return 2;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean validate = false;
+        try {
+            for (int i = ARG_MIN; i < args.length; i++) {
+                if (args[i].startsWith("--threads=")) {
+                    threads = Integer.parseInt(args[i].substring("--threads=".length()));
+                } else if ("--validate".equals(args[i])) {
+                    validate = true;
+                } else {
+                    throw new IllegalArgumentException("Ismeretlen kapcsoló: " + args[i]);
+                }
+            }
+            Path file = Path.of(args[0]);
+            Board board = file.toString().toLowerCase(Locale.ROOT).endsWith(".xml")
+                    ? XmlPersistence.loadFromXml(file) : FileIO.loadFromTxt(file);
+            Perft.Result result = new Perft(threads, validate).run(board, Integer.parseInt(args[1]));
+            for (Map.Entry<Position, Long> e : result.breakdown().entrySet()) {
+                out.println(Coordinates.format(e.getKey()) + ": " + e.getValue());
+            }
+            out.printf(Locale.ROOT, "Összesen: %d csomópont, %.1f ms, %.0f csomópont/s%n",
+                    result.nodes(), result.elapsedNanos() / 1e6, result.nodesPerSecond());
+            return 0;
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            out.println("Perft hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package amoba.analysis;
+
+import amoba.model.Cell;
+import amoba.model.Coordinates;
+import amoba.model.Position;
+
+/**
+ * Egy elemzett állás eredménye (egy TXT fájl vagy egy XML fájl egy játéka).
+ *
+ * @param source   fájl útvonala, XML esetén {@code #index} utótaggal
+ * @param winner   X, O, EMPTY (nincs nyertes) – ha mindkét félnek van sora, {@code bothWin} igaz
+ * @param bestMove a soron következő fél javasolt lépése (null, ha nyert állás vagy nincs lépés)
+ * @param error    betöltési hiba üzenete, egyébként null
+ */
+public record PositionReport(String source, int rows, int cols, int stones, Cell winner, boolean bothWin,
+                             Cell toMove, Position bestMove, long nodes, int depth, String error) {
+
+    public static PositionReport failed(String source, String error) {
+        return new PositionReport(source, 0, 0, 0, Cell.EMPTY, false, Cell.EMPTY, null, 0, 0, error);
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Tabulátorral tagolt riport sor.
+     */
+    public String toLine() {
+        if (isError()) {
+            return source + "\tHIBA\t" + error;
+        }
+        String win = bothWin ? "XO" : winner == Cell.EMPTY ? "-" : winner.name();
+        String move = bestMove == null ? "-" : toMove.name() + " " + Coordinates.format(bestMove);
+        return source + "\t" + rows + "x" + cols + "\t" + stones + "\t" + win + "\t" + move
+                + "\t" + depth + "\t" + nodes;
+    }
+}
@@ -1,20 +1,51 @@
 package amoba.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import amoba.model.Cell;
+import amoba.model.Coordinates;
 import amoba.model.Position;
 
 public class Board {
 
-    private static final int WIN_LENGTH = 5;
+    public static final int MAX_SIZE = 32768;
+    public static final int MIN_SIZE = 4;
+
+    private static final int DENSE_LIMIT = 1 << 20;
+    /** Nyerhető ablakok követése eddig a mezőszámig (ablakonként és játékosonként egy bájt). */
+    private static final int WINDOW_LIMIT = 1 << 16;
+    private static final int RENDER_LIMIT = 100;
+    private static final int RENDER_MARGIN = 2;
+    private static final int INITIAL_LIST = 64;
+    private static final Cell[] CELLS = Cell.values();
 
     private final int rowCount;
     private final int colCount;
-    private final Cell[][] grid;
+    private final WinRule rule;
+    private final CellStore store;
+    private final int[] stoneCounts = new int[CELLS.length];
+    private int[] stones = new int[INITIAL_LIST];
+    private int[] frontier = new int[INITIAL_LIST];
+    private int frontierSize;
+    private int minRow;
+    private int maxRow = -1;
+    private int minCol;
+    private int maxCol = -1;
+
+    /*
+     * Ablak = a győzelmi hossznyi mező egy irányban; indexe irány * mezőszám + kezdőmező.
+     * windowStones[játékos][ablak]: a játékos köveinek száma az ablakban; liveWindows[játékos]:
+     * a játékos még nyerhető (ellenfél kő nélküli) ablakai. Nagy táblán null (nincs követés).
+     */
+    private final Windows windows;
+    private final byte[][] windowStones;
+    private final int[] liveWindows = new int[CELLS.length];
 
     // Rövidített tömb inicializálás
     private static final int[][] DIRS = {
@@ -23,20 +54,94 @@ public class Board {
             {1, -1},  {1, 0},  {1, 1}
     };
 
+    private static final int[][] LINES = {
+            {1, 0},
+            {0, 1},
+            {1, 1},
+            {1, -1}
+    };
+
     public Board(int rows, int cols) {
-        if (cols < 4 || rows < cols || rows > 25) {
-            throw new IllegalArgumentException("4 <= M <= N <= 25 feltételt sérti! (N=sorok, M=oszlopok)");
+        this(rows, cols, WinRule.STANDARD);
+    }
+
+    public Board(int rows, int cols, WinRule rule) {
+        if (cols < MIN_SIZE || rows < cols || rows > MAX_SIZE) {
+            throw new IllegalArgumentException("4 <= M <= N <= " + MAX_SIZE + " feltételt sérti! (N=sorok, M=oszlopok)");
         }
         this.rowCount = rows;
         this.colCount = cols;
-        this.grid = new Cell[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                grid[r][c] = Cell.EMPTY;
+        this.rule = rule;
+        this.store = (long) rows * cols <= DENSE_LIMIT ? new DenseCellStore(rows, cols) : new TiledCellStore();
+        if ((long) rows * cols <= WINDOW_LIMIT) {
+            this.windows = Windows.forSize(rows, cols, rule.length());
+            this.windowStones = new byte[][] {null, new byte[windows.count], new byte[windows.count]};
+            liveWindows[Cell.X.ordinal()] = windows.count;
+            liveWindows[Cell.O.ordinal()] = windows.count;
+        } else {
+            this.windows = null;
+            this.windowStones = null;
+        }
+    }
+
+    /*
+     * Méretenként és győzelmi hosszonként közös ablak index: mezőnként a mezőt tartalmazó
+     * ablakok sorszáma (first[mező]..first[mező + 1]), így a frissítés egy egyszerű ciklus.
+     */
+    private static final class Windows {
+        private static final Map<Long, Windows> CACHE = new ConcurrentHashMap<>();
+
+        final int count;
+        final int[] first;
+        final int[] ids;
+
+        private Windows(int rows, int cols, int length) {
+            int cells = rows * cols;
+            int[] starts = new int[LINES.length * cells];
+            int n = 0;
+            for (int d = 0; d < LINES.length; d++) {
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        int er = r + (length - 1) * LINES[d][0];
+                        int ec = c + (length - 1) * LINES[d][1];
+                        starts[d * cells + r * cols + c] = er < rows && ec >= 0 && ec < cols ? n++ : -1;
+                    }
+                }
             }
+            this.count = n;
+            this.first = new int[cells + 1];
+            this.ids = new int[n * length];
+            int at = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    first[r * cols + c] = at;
+                    for (int d = 0; d < LINES.length; d++) {
+                        for (int k = 0; k < length; k++) {
+                            int sr = r - k * LINES[d][0];
+                            int sc = c - k * LINES[d][1];
+                            if (sr >= 0 && sc >= 0 && sc < cols && starts[d * cells + sr * cols + sc] >= 0) {
+                                ids[at++] = starts[d * cells + sr * cols + sc];
+                            }
+                        }
+                    }
+                }
+            }
+            first[cells] = at;
+        }
+
+        static Windows forSize(int rows, int cols, int length) {
+            return CACHE.computeIfAbsent((long) rows << 32 | (long) cols << 8 | length,
+                    k -> new Windows(rows, cols, length));
         }
     }
 
+    /**
+     * Gyakorlatilag végtelen tábla (MAX_SIZE x MAX_SIZE): csak a használt terület foglal memóriát.
+     */
+    public static Board unbounded(WinRule rule) {
+        return new Board(MAX_SIZE, MAX_SIZE, rule);
+    }
+
     public int rows() {
         return rowCount;
     }
@@ -45,8 +150,16 @@ public class Board {
         return colCount;
     }
 
+    public WinRule rule() {
+        return rule;
+    }
+
     public Cell getCell(Position p) {
-        return grid[p.row()][p.col()];
+        return cellAt(p.row(), p.col());
+    }
+
+    public Cell cellAt(int r, int c) {
+        return CELLS[store.cell(r, c)];
     }
 
     public boolean isInside(int r, int c) {
@@ -64,66 +177,270 @@ public class Board {
         if (!isEmpty(p)) {
             throw new IllegalArgumentException("Foglalt mezőre nem lehet rakni!");
         }
-        grid[p.row()][p.col()] = cell;
+        put(cell, p.row(), p.col());
     }
 
-    public Set<Position> legalPositionsByAdjacency() {
-        Set<Position> occupied = collectOccupied();
-        if (occupied.isEmpty()) {
-            return Set.of();
+    /**
+     * Mező közvetlen beállítása betöltéshez (felülír, szomszédossági szabály nélkül).
+     */
+    public void setCell(int r, int c, Cell cell) {
+        if (!isInside(r, c)) {
+            throw new IllegalArgumentException("Pozíción kívülre nem lehet rakni!");
+        }
+        if (store.cell(r, c) != 0) {
+            take(r, c);
+        }
+        if (cell != Cell.EMPTY) {
+            put(cell, r, c);
         }
-        return collectAdjacentEmpty(occupied);
     }
 
-    private Set<Position> collectOccupied() {
-        Set<Position> occ = new HashSet<>();
-        for (int r = 0; r < rowCount; r++) {
-            for (int c = 0; c < colCount; c++) {
-                if (grid[r][c] != Cell.EMPTY) {
-                    occ.add(new Position(r, c));
+    /**
+     * Lépés visszavonása (keresésekhez): a mező újra üres lesz.
+     */
+    public void remove(Position p) {
+        if (!isInside(p.row(), p.col()) || isEmpty(p)) {
+            throw new IllegalArgumentException("Csak foglalt mezőről lehet követ levenni!");
+        }
+        take(p.row(), p.col());
+    }
+
+    private void put(Cell cell, int r, int c) {
+        if (store.neighbors(r, c) > 0) {
+            frontierRemove(r, c);
+        }
+        store.setCell(r, c, (byte) cell.ordinal());
+        int slot = stoneCount();
+        if (slot == stones.length) {
+            stones = Arrays.copyOf(stones, slot * 2);
+        }
+        stones[slot] = r * colCount + c;
+        store.setSlot(r, c, slot);
+        stoneCounts[cell.ordinal()]++;
+        updateWindows(cell.ordinal(), r, c, 1);
+        extendBounds(r, c);
+        for (int[] d : DIRS) {
+            int nr = r + d[0];
+            int nc = c + d[1];
+            if (isInside(nr, nc)) {
+                store.addNeighbors(nr, nc, 1);
+                if (store.cell(nr, nc) == 0 && store.neighbors(nr, nc) == 1) {
+                    frontierAdd(nr, nc);
                 }
             }
         }
-        return occ;
     }
 
-    private Set<Position> collectAdjacentEmpty(Set<Position> occupied) {
-        Set<Position> legal = new HashSet<>();
-        for (Position pos : occupied) {
-            for (int[] d : DIRS) {
-                int nr = pos.row() + d[0];
-                int nc = pos.col() + d[1];
-                if (isInside(nr, nc) && grid[nr][nc] == Cell.EMPTY) {
-                    legal.add(new Position(nr, nc));
+    private void take(int r, int c) {
+        int slot = store.slot(r, c);
+        int last = stoneCount() - 1;
+        int moved = stones[last];
+        stones[slot] = moved;
+        store.setSlot(moved / colCount, moved % colCount, slot);
+        stoneCounts[store.cell(r, c)]--;
+        updateWindows(store.cell(r, c), r, c, -1);
+        store.setCell(r, c, (byte) 0);
+        for (int[] d : DIRS) {
+            int nr = r + d[0];
+            int nc = c + d[1];
+            if (isInside(nr, nc)) {
+                store.addNeighbors(nr, nc, -1);
+                if (store.cell(nr, nc) == 0 && store.neighbors(nr, nc) == 0) {
+                    frontierRemove(nr, nc);
                 }
             }
         }
+        if (store.neighbors(r, c) > 0) {
+            frontierAdd(r, c);
+        }
+    }
+
+    /*
+     * A kővel érintett (irányonként legfeljebb hossznyi) ablakok számlálói; az első saját kő
+     * az ablakot az ellenfélnek holttá teszi, az utolsó levétele újra élővé.
+     */
+    private void updateWindows(int player, int r, int c, int delta) {
+        if (windowStones == null) {
+            return;
+        }
+        byte[] own = windowStones[player];
+        int[] ids = windows.ids;
+        int cell = r * colCount + c;
+        int dead = 0;
+        if (delta > 0) {
+            for (int i = windows.first[cell], end = windows.first[cell + 1]; i < end; i++) {
+                dead += own[ids[i]]++ == 0 ? 1 : 0;
+            }
+        } else {
+            for (int i = windows.first[cell], end = windows.first[cell + 1]; i < end; i++) {
+                dead += --own[ids[i]] == 0 ? 1 : 0;
+            }
+        }
+        liveWindows[CELLS[player].opponent().ordinal()] -= delta * dead;
+    }
+
+    private void frontierAdd(int r, int c) {
+        if (frontierSize == frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontierSize * 2);
+        }
+        frontier[frontierSize] = r * colCount + c;
+        store.setSlot(r, c, frontierSize);
+        frontierSize++;
+    }
+
+    private void frontierRemove(int r, int c) {
+        int slot = store.slot(r, c);
+        frontierSize--;
+        int moved = frontier[frontierSize];
+        frontier[slot] = moved;
+        store.setSlot(moved / colCount, moved % colCount, slot);
+    }
+
+    public int stoneCount() {
+        return stoneCount(Cell.X) + stoneCount(Cell.O);
+    }
+
+    public int stoneCount(Cell cell) {
+        return stoneCounts[cell.ordinal()];
+    }
+
+    /**
+     * Az i. lerakott kő mezőindexe (sor * oszlopszám + oszlop), 0 <= i < stoneCount().
+     */
+    public int stoneAt(int i) {
+        return stones[i];
+    }
+
+    /**
+     * A kövekkel szomszédos üres mezők (a szabályos lépések) száma.
+     */
+    public int frontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * Az i. szabályos mező indexe (sor * oszlopszám + oszlop), 0 <= i < frontierSize().
+     * A sorrend lépésenként változhat.
+     */
+    public int frontierAt(int i) {
+        return frontier[i];
+    }
+
+    /**
+     * Szomszédos (8 irány) kövek száma egy mező körül.
+     */
+    public int neighborCount(int r, int c) {
+        return store.neighbors(r, c);
+    }
+
+    /**
+     * A lerakott kövek befoglaló téglalapja (levétel után is legfeljebb bővebb, sosem szűkebb).
+     * Üres táblán minRow > maxRow.
+     */
+    public int minRow() {
+        return minRow;
+    }
+
+    public int maxRow() {
+        return maxRow;
+    }
+
+    public int minCol() {
+        return minCol;
+    }
+
+    public int maxCol() {
+        return maxCol;
+    }
+
+    private void extendBounds(int r, int c) {
+        if (maxRow < minRow) {
+            minRow = r;
+            maxRow = r;
+            minCol = c;
+            maxCol = c;
+            return;
+        }
+        minRow = Math.min(minRow, r);
+        maxRow = Math.max(maxRow, r);
+        minCol = Math.min(minCol, c);
+        maxCol = Math.max(maxCol, c);
+    }
+
+    /**
+     * A kövekkel szomszédos üres mezők; a karbantartott határlistából, a táblamérettől függetlenül.
+     */
+    public Set<Position> legalPositionsByAdjacency() {
+        if (frontierSize == 0) {
+            return Set.of();
+        }
+        Set<Position> legal = new HashSet<>(frontierSize * 2);
+        for (int i = 0; i < frontierSize; i++) {
+            legal.add(new Position(frontier[i] / colCount, frontier[i] % colCount));
+        }
         return legal;
     }
 
+    /**
+     * Szabályos-e a lépés: üres, táblán belüli mező, amely kővel szomszédos. O(1).
+     */
+    public boolean isLegalByAdjacency(Position p) {
+        return isInside(p.row(), p.col()) && isEmpty(p) && store.neighbors(p.row(), p.col()) > 0;
+    }
+
+    /**
+     * Eldőlt-e döntetlenre a játék: egyik félnek sincs már olyan hossznyi ablaka, amelyben
+     * nincs ellenfél kő (a tábla betelése ennek speciális esete). O(1); a számlálókat a
+     * lerakás és a levétel frissíti. Nagyon nagy (követés nélküli) táblán csak a teli tábla döntetlen.
+     */
+    public boolean isDrawn() {
+        if (windowStones == null) {
+            return (long) stoneCount() == (long) rowCount * colCount;
+        }
+        return liveWindows[Cell.X.ordinal()] == 0 && liveWindows[Cell.O.ordinal()] == 0;
+    }
+
+    /**
+     * A játékos még nyerhető (ellenfél kő nélküli) ablakainak száma, vagy -1, ha a tábla nem követi.
+     */
+    public int liveWindows(Cell player) {
+        return windowStones == null ? -1 : liveWindows[player.ordinal()];
+    }
+
+    /**
+     * Győzelem a tábla szabálya szerint (alapesetben legalább 5 egymás után).
+     */
     public boolean hasFiveInARow(Cell player, Position p) {
-        int[][] lines = {
-                {-1, 0, 1, 0},
-                {0, -1, 0, 1},
-                {-1, -1, 1, 1},
-                {-1, 1, 1, -1}
-        };
-        for (int[] line : lines) {
-            int count = 1;
-            count += countDirection(player, p, line[0], line[1]);
-            count += countDirection(player, p, line[2], line[3]);
-            if (count >= WIN_LENGTH) {
+        for (int[] line : LINES) {
+            if (rule.isWinningRun(player, runLength(player, p, line[0], line[1]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tiltott-e a lépés a szabály szerint (renju: X hosszú sora). A lépésnek már lerakva kell lennie.
+     */
+    public boolean isForbidden(Cell player, Position p) {
+        for (int[] line : LINES) {
+            if (rule.isForbiddenRun(player, runLength(player, p, line[0], line[1]))) {
                 return true;
             }
         }
         return false;
     }
 
+    private int runLength(Cell player, Position p, int dr, int dc) {
+        return 1 + countDirection(player, p, dr, dc) + countDirection(player, p, -dr, -dc);
+    }
+
     private int countDirection(Cell player, Position start, int dr, int dc) {
         int r = start.row() + dr;
         int c = start.col() + dc;
         int cnt = 0;
-        while (isInside(r, c) && grid[r][c] == player) {
+        byte v = (byte) player.ordinal();
+        while (isInside(r, c) && store.cell(r, c) == v) {
             cnt++;
             r += dr;
             c += dc;
@@ -131,23 +448,57 @@ public class Board {
         return cnt;
     }
 
+    /**
+     * Kirajzolás; nagy tábláknál csak a kövek körüli terület.
+     */
     public String render() {
+        int r0 = 0;
+        int r1 = rowCount - 1;
+        int c0 = 0;
+        int c1 = colCount - 1;
+        if (rowCount > RENDER_LIMIT && stoneCount() > 0) {
+            r0 = Math.max(0, minRow - RENDER_MARGIN);
+            r1 = Math.min(rowCount - 1, maxRow + RENDER_MARGIN);
+            c0 = Math.max(0, minCol - RENDER_MARGIN);
+            c1 = Math.min(colCount - 1, maxCol + RENDER_MARGIN);
+        } else if (rowCount > RENDER_LIMIT) {
+            r1 = Math.min(rowCount - 1, RENDER_LIMIT - 1);
+            c1 = Math.min(colCount - 1, RENDER_LIMIT - 1);
+        }
+        int labelWidth = Coordinates.columnLabel(c1).length();
+        int numWidth = Math.max(2, Integer.toString(r1 + 1).length());
         StringBuilder sb = new StringBuilder();
-        sb.append("   ");
-        for (int c = 0; c < colCount; c++) {
-            sb.append((char) ('a' + c)).append(' ');
+        sb.append(" ".repeat(numWidth + 1));
+        for (int c = c0; c <= c1; c++) {
+            String label = Coordinates.columnLabel(c);
+            sb.append(label).append(" ".repeat(labelWidth - label.length() + 1));
         }
         sb.append('\n');
-        for (int r = 0; r < rowCount; r++) {
-            sb.append(String.format("%2d ", r + 1));
-            for (int c = 0; c < colCount; c++) {
-                sb.append(grid[r][c].getSymbol()).append(' ');
+        String pad = " ".repeat(labelWidth);
+        for (int r = r0; r <= r1; r++) {
+            sb.append(String.format("%" + numWidth + "d ", r + 1));
+            for (int c = c0; c <= c1; c++) {
+                sb.append(cellAt(r, c).getSymbol()).append(pad);
             }
             sb.append('\n');
         }
         return sb.toString();
     }
 
+    /**
+     * Független másolat ugyanazzal a mérettel, szabállyal és kövekkel (párhuzamos kereséshez).
+     */
+    public Board copy() {
+        Board b = new Board(rowCount, colCount, rule);
+        for (int i = 0; i < stoneCount(); i++) {
+            int idx = stones[i];
+            int r = idx / colCount;
+            int c = idx % colCount;
+            b.put(cellAt(r, c), r, c);
+        }
+        return b;
+    }
+
     public void loadFromCharLines(List<String> lines) {
         if (lines.size() != rowCount) {
             throw new IllegalArgumentException("Hibás sor szám a betöltött táblában!");
@@ -158,7 +509,7 @@ public class Board {
                 throw new IllegalArgumentException("Hibás oszlopszám a betöltött táblában (sor: " + (r + 1) + ")!");
             }
             for (int c = 0; c < colCount; c++) {
-                grid[r][c] = Cell.fromChar(line.charAt(c));
+                setCell(r, c, Cell.fromChar(line.charAt(c)));
             }
         }
     }
@@ -169,7 +520,7 @@ public class Board {
         for (int r = 0; r < rowCount; r++) {
             sb.setLength(0);
             for (int c = 0; c < colCount; c++) {
-                sb.append(grid[r][c].getSymbol());
+                sb.append(cellAt(r, c).getSymbol());
             }
             lines.add(sb.toString());
         }
@@ -181,4 +532,4 @@ public class Board {
         int c = colCount / 2;
         return new Position(r, c);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package amoba.board;
+
+/**
+ * A tábla mezőinek belső tárolója. Mezőnként a tartalom, a szomszédos kövek száma
+ * és egy slot index (a kő- vagy a határlista-beli hely) tárolódik.
+ */
+interface CellStore {
+
+    byte cell(int r, int c);
+
+    void setCell(int r, int c, byte value);
+
+    int neighbors(int r, int c);
+
+    void addNeighbors(int r, int c, int delta);
+
+    int slot(int r, int c);
+
+    void setSlot(int r, int c, int slot);
+}
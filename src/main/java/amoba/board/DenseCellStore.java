@@ -0,0 +1,49 @@
+package amoba.board;
+
+/**
+ * Folytonos tömbös tároló kis és közepes táblákhoz.
+ */
+final class DenseCellStore implements CellStore {
+
+    private final int cols;
+    private final byte[] cells;
+    private final byte[] neighbors;
+    private final int[] slots;
+
+    DenseCellStore(int rows, int cols) {
+        this.cols = cols;
+        this.cells = new byte[rows * cols];
+        this.neighbors = new byte[rows * cols];
+        this.slots = new int[rows * cols];
+    }
+
+    @Override
+    public byte cell(int r, int c) {
+        return cells[r * cols + c];
+    }
+
+    @Override
+    public void setCell(int r, int c, byte value) {
+        cells[r * cols + c] = value;
+    }
+
+    @Override
+    public int neighbors(int r, int c) {
+        return neighbors[r * cols + c];
+    }
+
+    @Override
+    public void addNeighbors(int r, int c, int delta) {
+        neighbors[r * cols + c] += (byte) delta;
+    }
+
+    @Override
+    public int slot(int r, int c) {
+        return slots[r * cols + c];
+    }
+
+    @Override
+    public void setSlot(int r, int c, int slot) {
+        slots[r * cols + c] = slot;
+    }
+}
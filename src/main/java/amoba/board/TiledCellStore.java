@@ -0,0 +1,85 @@
+package amoba.board;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ritka, csempés tároló nagy (gyakorlatilag végtelen) táblákhoz: csak azok a
+ * 16x16-os csempék foglalnak memóriát, amelyekben már volt kő vagy szomszéd.
+ * A legutóbb használt csempét megjegyzi, mert a hozzáférések erősen lokálisak.
+ */
+final class TiledCellStore implements CellStore {
+
+    private static final int SHIFT = 4;
+    private static final int SIZE = 1 << SHIFT;
+    private static final int MASK = SIZE - 1;
+
+    private final Map<Long, Tile> tiles = new HashMap<>();
+    private long lastKey = -1L;
+    private Tile lastTile;
+
+    private static final class Tile {
+        private final byte[] cells = new byte[SIZE * SIZE];
+        private final byte[] neighbors = new byte[SIZE * SIZE];
+        private final int[] slots = new int[SIZE * SIZE];
+    }
+
+    @Override
+    public byte cell(int r, int c) {
+        Tile t = tile(r, c, false);
+        return t == null ? 0 : t.cells[offset(r, c)];
+    }
+
+    @Override
+    public void setCell(int r, int c, byte value) {
+        tile(r, c, true).cells[offset(r, c)] = value;
+    }
+
+    @Override
+    public int neighbors(int r, int c) {
+        Tile t = tile(r, c, false);
+        return t == null ? 0 : t.neighbors[offset(r, c)];
+    }
+
+    @Override
+    public void addNeighbors(int r, int c, int delta) {
+        tile(r, c, true).neighbors[offset(r, c)] += (byte) delta;
+    }
+
+    @Override
+    public int slot(int r, int c) {
+        Tile t = tile(r, c, false);
+        return t == null ? 0 : t.slots[offset(r, c)];
+    }
+
+    @Override
+    public void setSlot(int r, int c, int slot) {
+        tile(r, c, true).slots[offset(r, c)] = slot;
+    }
+
+    int tileCount() {
+        return tiles.size();
+    }
+
+    private static int offset(int r, int c) {
+        return (r & MASK) << SHIFT | c & MASK;
+    }
+
+    private Tile tile(int r, int c, boolean create) {
+        long key = (long) (r >>> SHIFT) << 32 | c >>> SHIFT;
+        if (key == lastKey) {
+            return lastTile;
+        }
+        Tile t = tiles.get(key);
+        if (t == null) {
+            if (!create) {
+                return null;
+            }
+            t = new Tile();
+            tiles.put(key, t);
+        }
+        lastKey = key;
+        lastTile = t;
+        return t;
+    }
+}
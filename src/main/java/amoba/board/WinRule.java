@@ -0,0 +1,93 @@
+package amoba.board;
+
+import java.util.Locale;
+
+import amoba.model.Cell;
+
+/**
+ * Győzelmi szabály: k egymás után (szabad), pontosan k, vagy renju-szerű
+ * (X-nek hosszú sor tilos és nem nyer, O-nak a hosszú sor is nyer).
+ */
+public record WinRule(Variant variant, int length) {
+
+    public static final int MIN_LENGTH = 3;
+    public static final int MAX_LENGTH = 10;
+    public static final WinRule STANDARD = new WinRule(Variant.FREESTYLE, 5);
+
+    public enum Variant {
+        FREESTYLE, EXACT, RENJU
+    }
+
+    public WinRule {
+        if (variant == null) {
+            throw new IllegalArgumentException("Hiányzó szabályváltozat!");
+        }
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("A győzelmi hossz " + MIN_LENGTH + " és " + MAX_LENGTH + " között lehet!");
+        }
+    }
+
+    public static WinRule freestyle(int length) {
+        return new WinRule(Variant.FREESTYLE, length);
+    }
+
+    public static WinRule exact(int length) {
+        return new WinRule(Variant.EXACT, length);
+    }
+
+    public static WinRule renju() {
+        return new WinRule(Variant.RENJU, 5);
+    }
+
+    /**
+     * Szöveges alak beolvasása, pl. "freestyle5", "exact5", "renju".
+     */
+    public static WinRule parse(String text) {
+        String t = text.trim().toLowerCase(Locale.ROOT);
+        for (Variant v : Variant.values()) {
+            String name = v.name().toLowerCase(Locale.ROOT);
+            if (t.startsWith(name)) {
+                String rest = t.substring(name.length());
+                if (rest.isEmpty()) {
+                    return new WinRule(v, STANDARD.length());
+                }
+                try {
+                    return new WinRule(v, Integer.parseInt(rest));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Hibás szabály: " + text, e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Ismeretlen szabály: " + text);
+    }
+
+    public String id() {
+        return variant.name().toLowerCase(Locale.ROOT) + length;
+    }
+
+    /**
+     * Nyer-e a játékos egy adott hosszú, saját kövekből álló sorral.
+     */
+    public boolean isWinningRun(Cell player, int run) {
+        return switch (variant) {
+            case FREESTYLE -> run >= length;
+            case EXACT -> run == length;
+            case RENJU -> player == Cell.X ? run == length : run >= length;
+        };
+    }
+
+    /**
+     * Tiltott-e az a lépés, amely ilyen hosszú sort hoz létre (renju: X hosszú sora).
+     */
+    public boolean isForbiddenRun(Cell player, int run) {
+        return variant == Variant.RENJU && player == Cell.X && run > length;
+    }
+
+    public String describe() {
+        return switch (variant) {
+            case FREESTYLE -> length + " egymás után = győzelem.";
+            case EXACT -> "Pontosan " + length + " egymás után = győzelem.";
+            case RENJU -> length + " egymás után = győzelem, X-nek a hosszabb sor tilos.";
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package amoba.db;
+
+/**
+ * Egy játékos (ember vagy AI) összesített eredményei.
+ *
+ * @param plies        a játékos játszmáinak összes lépésszáma (mindkét fél lépései)
+ * @param lastOpponent az utolsó ellenfél neve (üres, ha nem ismert)
+ * @param lastPlayed   az utolsó játszma vége (epoch ezredmásodperc), 0 ha nem ismert
+ */
+public record PlayerStats(String name, int wins, int losses, int draws, long plies, String lastOpponent,
+                          long lastPlayed) {
+
+    public int games() {
+        return wins + losses + draws;
+    }
+
+    public double averageLength() {
+        return games() == 0 ? 0 : (double) plies / games();
+    }
+}
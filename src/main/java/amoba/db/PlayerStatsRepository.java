@@ -0,0 +1,158 @@
+package amoba.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import amoba.jfr.PersistenceEvent;
+import amoba.metrics.Metrics;
+import amoba.rating.GameResult;
+import amoba.rating.Rating;
+import amoba.rating.RatingService;
+
+/**
+ * {@link ScoreRepository} a {@link PlayerStatsStore} felett: játszmánként rögzíti a
+ * győzelmeket, vereségeket, döntetleneket, a hosszt és az ellenfelet, a ranglista a tároló
+ * fejlécéből jön. A tárolót első használatkor nyitja meg (olvasáskor csak, ha már létezik, vagy
+ * van mellette régi {@code scores.txt}); létrehozáskor a régi fájl győzelmeit átemeli.
+ *
+ * <p>A játszmák a mellette lévő {@link RatingService} eredménynaplójába is bekerülnek; a
+ * ranglista ({@link #leaderboard}) az ebből számolt Elo értékszámok szerint rendez.
+ */
+public class PlayerStatsRepository extends ScoreRepository {
+
+    private static final String LEGACY_FILE = "scores.txt";
+
+    private final Path legacy;
+    private final RatingService ratings;
+    private PlayerStatsStore store;
+
+    public PlayerStatsRepository() {
+        this(Path.of("scores.db"));
+    }
+
+    public PlayerStatsRepository(Path file) {
+        super(file);
+        this.legacy = file.resolveSibling(LEGACY_FILE);
+        this.ratings = new RatingService(file.toAbsolutePath().getParent());
+    }
+
+    @Override
+    public synchronized void incrementWin(String name) throws IOException {
+        addWins(Map.of(name, 1));
+    }
+
+    @Override
+    public synchronized void addWins(Map<String, Integer> wins) throws IOException {
+        if (wins.isEmpty()) {
+            return;
+        }
+        final long started = Metrics.start();
+        store(true).addWins(wins);
+        Metrics.SCORE_WRITE.recordSince(started);
+    }
+
+    @Override
+    public synchronized void setWins(Map<String, Integer> wins) throws IOException {
+        if (!wins.isEmpty()) {
+            store(true).setWins(wins);
+        }
+    }
+
+    @Override
+    public synchronized void recordGame(String winner, String loser, boolean draw, int plies) throws IOException {
+        final long started = Metrics.start();
+        store(true).recordGame(winner, loser, draw, plies);
+        ratings.record(new GameResult(winner, loser, draw));
+        Metrics.SCORE_WRITE.recordSince(started);
+    }
+
+    @Override
+    public synchronized Map<String, Integer> topWins(int limit) throws IOException {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        PlayerStatsStore s = store(false);
+        if (s != null) {
+            for (PlayerStats p : s.top(limit)) {
+                result.put(p.name(), p.wins());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<Rating> leaderboard(int limit) throws IOException {
+        return ratings.leaderboard(limit);
+    }
+
+    @Override
+    public synchronized Optional<PlayerStats> stats(String name) throws IOException {
+        PlayerStatsStore s = store(false);
+        return s == null ? Optional.empty() : s.get(name);
+    }
+
+    /**
+     * Minden győzelemmel rendelkező játékos (név -> győzelmek) beszúrási sorrendben; O(n).
+     */
+    @Override
+    public synchronized Map<String, Integer> loadAll() throws IOException {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        PlayerStatsStore s = store(false);
+        if (s != null) {
+            PersistenceEvent event = new PersistenceEvent();
+            event.begin();
+            s.forEach(p -> {
+                if (p.wins() > 0) {
+                    result.put(p.name(), p.wins());
+                }
+            });
+            event.finish("score.load", file());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void saveAll(Map<String, Integer> scores) throws IOException {
+        store(true).setWins(scores);
+    }
+
+    /**
+     * A nyitott tároló (a hívó nem zárhatja le), vagy null, ha még nincs, nincs mit átemelni
+     * és {@code create} hamis.
+     */
+    public synchronized PlayerStatsStore store(boolean create) throws IOException {
+        if (store == null && (create || Files.exists(file()) || Files.exists(legacy))) {
+            boolean fresh = !Files.exists(file()) || Files.size(file()) == 0;
+            store = PlayerStatsStore.open(file());
+            if (fresh && Files.exists(legacy)) {
+                store.addWins(new ScoreRepository(legacy).loadAll());
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public synchronized void sync() {
+        if (store != null) {
+            store.sync();
+        }
+    }
+
+    /**
+     * A tároló és az értékszámok lezárása; a következő hívás újra megnyitja.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            ratings.close();
+        } finally {
+            if (store != null) {
+                store.close();
+                store = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package amoba.db;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Beágyazott, memóriába leképezett játékos statisztika tároló: rögzített méretű rekordok
+ * egy adatfájlban és nyílt címzésű hash index a nevekre egy külön fájlban
+ * ({@code <adatfájl>.idx}). Egy befejezett játszma rögzítése O(1): két indexkeresés és
+ * két rekord helyben módosítása; az adatfájl fejléce a legtöbb győzelmű {@link #TOP_K}
+ * rekord sorszámát rendezve tartja, így a ranglista lekérdezése nem olvassa végig a fájlt.
+ *
+ * <p>Adatfájl: 4096 bájtos fejléc (magic, verzió, rekordméret, rekordszám, a ranglista
+ * hossza és sorszámai), majd 128 bájtos rekordok beszúrási sorrendben: név és utolsó
+ * ellenfél (legfeljebb {@link #MAX_NAME_BYTES} bájt UTF-8), győzelmek, vereségek,
+ * döntetlenek, összes lépésszám, utolsó játszma ideje. Index: 64 bájtos fejléc (magic,
+ * verzió, vödrök száma, bejegyzések száma), majd vödrönként a név hash-e és a rekord
+ * sorszáma + 1 (0 = üres). Ha az index hiányzik vagy nem egyezik az adatfájllal (pl. egy
+ * megszakadt írás után), megnyitáskor az adatfájlból újraépül.
+ *
+ * <p>Egy fájlt egyszerre egy folyamat használhat (fájlzár); a metódusok szálbiztosak.
+ */
+public final class PlayerStatsStore implements Closeable {
+
+    public static final int MAX_NAME_BYTES = 48;
+    public static final int TOP_K = 256;
+
+    static final int RECORD_BYTES = 128;
+    static final int HEADER_BYTES = 4096;
+
+    private static final int MAGIC = 0x414D5354; // "AMST"
+    private static final int INDEX_MAGIC = 0x414D5349; // "AMSI"
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 12;
+    private static final int TOP_COUNT_OFFSET = 16;
+    private static final int TOP_OFFSET = 20;
+
+    private static final int NAME_LENGTH = 0;
+    private static final int NAME = 2;
+    private static final int OPPONENT_LENGTH = 50;
+    private static final int OPPONENT = 52;
+    private static final int WINS = 100;
+    private static final int LOSSES = 104;
+    private static final int DRAWS = 108;
+    private static final int PLIES = 112;
+    private static final int LAST_PLAYED = 120;
+
+    private static final int INDEX_HEADER = 64;
+    private static final int INDEX_COUNT_OFFSET = 12;
+    private static final int ENTRY_BYTES = 8;
+    private static final int MIN_RECORDS = 1024;
+    private static final int MIN_BUCKETS = 2048;
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+    private final Path dataPath;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final FileLock lock;
+    private final byte[] nameBuffer = new byte[MAX_NAME_BYTES];
+    private MappedByteBuffer records;
+    private MappedByteBuffer buckets;
+    private int capacity;
+    private int mask;
+    private int count;
+    private int topCount;
+
+    private PlayerStatsStore(Path dataPath, FileChannel data, FileChannel index, FileLock lock) {
+        this.dataPath = dataPath;
+        this.data = data;
+        this.index = index;
+        this.lock = lock;
+    }
+
+    /**
+     * Megnyitás vagy létrehozás; létező fájlnál a fejlécnek egyeznie kell.
+     */
+    public static PlayerStatsStore open(Path path) throws IOException {
+        FileChannel data = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel index = null;
+        try {
+            FileLock lock = tryLock(data, path);
+            index = FileChannel.open(indexPath(path), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            PlayerStatsStore store = new PlayerStatsStore(path, data, index, lock);
+            store.load();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            if (index != null) {
+                index.close();
+            }
+            throw e;
+        }
+    }
+
+    static Path indexPath(Path dataPath) {
+        return dataPath.resolveSibling(dataPath.getFileName() + ".idx");
+    }
+
+    private static FileLock tryLock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("A statisztika tárolót más használja: " + path);
+        }
+        return lock;
+    }
+
+    private void load() throws IOException {
+        long size = data.size();
+        if (size == 0) {
+            mapRecords(MIN_RECORDS);
+            records.putInt(0, MAGIC);
+            records.putInt(Integer.BYTES, VERSION);
+            records.putInt(2 * Integer.BYTES, RECORD_BYTES);
+        } else {
+            if (size < HEADER_BYTES) {
+                throw new IOException("Sérült statisztika fájl: " + dataPath);
+            }
+            mapRecords((int) Math.min(MAX_RECORDS, (size - HEADER_BYTES) / RECORD_BYTES));
+            if (records.getInt(0) != MAGIC || records.getInt(Integer.BYTES) != VERSION
+                    || records.getInt(2 * Integer.BYTES) != RECORD_BYTES) {
+                throw new IOException("Nem statisztika fájl: " + dataPath);
+            }
+        }
+        count = records.getInt(COUNT_OFFSET);
+        topCount = records.getInt(TOP_COUNT_OFFSET);
+        if (count < 0 || count > capacity || topCount < 0 || topCount > Math.min(TOP_K, count)) {
+            throw new IOException("Sérült statisztika fájl: " + dataPath);
+        }
+        if (!loadIndex()) {
+            rebuildIndex(bucketsFor(count));
+        }
+    }
+
+    /*
+     * A meglévő index használható-e (egyező magic, vödörszám és bejegyzésszám).
+     */
+    private boolean loadIndex() throws IOException {
+        long size = index.size();
+        if (size <= INDEX_HEADER) {
+            return false;
+        }
+        MappedByteBuffer head = index.map(FileChannel.MapMode.READ_ONLY, 0, INDEX_HEADER);
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        int n = head.getInt(2 * Integer.BYTES);
+        if (head.getInt(0) != INDEX_MAGIC || head.getInt(Integer.BYTES) != VERSION || head.getInt(INDEX_COUNT_OFFSET) != count
+                || n < MIN_BUCKETS || Integer.bitCount(n) != 1 || INDEX_HEADER + (long) n * ENTRY_BYTES > size
+                || 2L * count > n) {
+            return false;
+        }
+        mapBuckets(n);
+        return true;
+    }
+
+    private static int bucketsFor(int records) {
+        int n = MIN_BUCKETS;
+        while (n < 2L * (records + 1)) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private void mapRecords(int newCapacity) throws IOException {
+        records = data.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) newCapacity * RECORD_BYTES);
+        records.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = newCapacity;
+    }
+
+    private void mapBuckets(int n) throws IOException {
+        buckets = index.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) n * ENTRY_BYTES);
+        buckets.order(ByteOrder.LITTLE_ENDIAN);
+        mask = n - 1;
+    }
+
+    /*
+     * Az index teljes újraépítése n vödörrel az adatfájl rekordjaiból (bővítéskor vagy javításkor).
+     */
+    private void rebuildIndex(int n) throws IOException {
+        if (index.size() > INDEX_HEADER + (long) n * ENTRY_BYTES) {
+            index.truncate(INDEX_HEADER + (long) n * ENTRY_BYTES);
+        }
+        mapBuckets(n);
+        for (int i = 0; i < INDEX_HEADER + n * ENTRY_BYTES; i += Long.BYTES) {
+            buckets.putLong(i, 0L);
+        }
+        buckets.putInt(0, INDEX_MAGIC);
+        buckets.putInt(Integer.BYTES, VERSION);
+        buckets.putInt(2 * Integer.BYTES, n);
+        for (int slot = 0; slot < count; slot++) {
+            int length = encode(readName(slot, NAME_LENGTH, NAME));
+            int hash = hash(length);
+            int b = hash & mask;
+            while (buckets.getInt(entry(b) + Integer.BYTES) != 0) {
+                b = (b + 1) & mask;
+            }
+            buckets.putInt(entry(b), hash);
+            buckets.putInt(entry(b) + Integer.BYTES, slot + 1);
+        }
+        buckets.putInt(INDEX_COUNT_OFFSET, count);
+    }
+
+    private static int entry(int bucket) {
+        return INDEX_HEADER + bucket * ENTRY_BYTES;
+    }
+
+    /**
+     * Egy befejezett játszma rögzítése; döntetlennél a győztes/vesztes sorrend közömbös.
+     */
+    public synchronized void recordGame(String winner, String loser, boolean draw, int plies) throws IOException {
+        if (winner.equals(loser)) {
+            throw new IllegalArgumentException("A két játékos neve azonos: " + winner);
+        }
+        long now = System.currentTimeMillis();
+        int w = slotFor(winner);
+        int l = slotFor(loser);
+        update(w, draw ? 0 : 1, 0, draw ? 1 : 0, plies, loser, now);
+        update(l, 0, draw ? 0 : 1, draw ? 1 : 0, plies, winner, now);
+    }
+
+    /**
+     * Győzelmek hozzáadása játszma adatok nélkül (régi pontszámok átemelése, önjáték összesítés).
+     */
+    public synchronized void addWins(Map<String, Integer> wins) throws IOException {
+        for (Map.Entry<String, Integer> e : wins.entrySet()) {
+            if (e.getValue() < 0) {
+                throw new IllegalArgumentException("Negatív győzelemszám: " + e.getKey());
+            }
+            update(slotFor(e.getKey()), e.getValue(), 0, 0, 0, null, 0);
+        }
+    }
+
+    /**
+     * A győzelmek felülírása (a régi {@code saveAll} megfelelője); a ranglista újraépül.
+     */
+    public synchronized void setWins(Map<String, Integer> wins) throws IOException {
+        for (Map.Entry<String, Integer> e : wins.entrySet()) {
+            if (e.getValue() < 0) {
+                throw new IllegalArgumentException("Negatív győzelemszám: " + e.getKey());
+            }
+            records.putInt(recordOffset(slotFor(e.getKey())) + WINS, e.getValue());
+        }
+        rebuildTop();
+    }
+
+    public synchronized Optional<PlayerStats> get(String name) {
+        int length = encode(name);
+        int slot = find(length, hash(length));
+        return slot < 0 ? Optional.empty() : Optional.of(read(slot));
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * A legtöbb győzelmű (legalább egy győzelmes) játékosok csökkenő sorrendben, egyenlőségnél
+     * a korábban felvett elöl. {@link #TOP_K}-ig a fejlécből, fölötte teljes bejárással.
+     */
+    public synchronized List<PlayerStats> top(int limit) {
+        List<PlayerStats> result = new ArrayList<>();
+        if (limit <= topCount || topCount < TOP_K) {
+            for (int i = 0; i < Math.min(limit, topCount); i++) {
+                result.add(read(topSlot(i)));
+            }
+            return result;
+        }
+        forEach(p -> {
+            if (p.wins() > 0) {
+                result.add(p);
+            }
+        });
+        result.sort(Comparator.comparingInt(PlayerStats::wins).reversed());
+        return new ArrayList<>(result.subList(0, Math.min(limit, result.size())));
+    }
+
+    /**
+     * Minden rekord beszúrási sorrendben (elemzésekhez).
+     */
+    public synchronized void forEach(Consumer<PlayerStats> action) {
+        for (int slot = 0; slot < count; slot++) {
+            action.accept(read(slot));
+        }
+    }
+
+    /**
+     * A leképezett lapok lemezre írása.
+     */
+    public synchronized void sync() {
+        records.force();
+        buckets.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+            lock.release();
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    /*
+     * A nameBuffer-beli név rekordjának sorszáma, vagy -(vödör + 1) az első üres vödörrel, ha nincs ilyen.
+     */
+    private int find(int length, int hash) {
+        int b = hash & mask;
+        while (true) {
+            int slot = buckets.getInt(entry(b) + Integer.BYTES) - 1;
+            if (slot < 0) {
+                return -(b + 1);
+            }
+            if (buckets.getInt(entry(b)) == hash && nameEquals(slot, length)) {
+                return slot;
+            }
+            b = (b + 1) & mask;
+        }
+    }
+
+    /*
+     * Rekord sorszáma névből; hiányzónál új rekord (és szükség szerint bővítés).
+     */
+    private int slotFor(String name) throws IOException {
+        int length = encode(name);
+        int hash = hash(length);
+        int found = find(length, hash);
+        return found >= 0 ? found : append(length, hash, -found - 1);
+    }
+
+    private int append(int length, int hash, int bucket) throws IOException {
+        if (count == MAX_RECORDS) {
+            throw new IOException("Megtelt a statisztika tároló: " + dataPath);
+        }
+        if (count == capacity) {
+            mapRecords((int) Math.min(MAX_RECORDS, 2L * capacity));
+        }
+        int slot = count;
+        int offset = recordOffset(slot);
+        records.putShort(offset + NAME_LENGTH, (short) length);
+        records.put(offset + NAME, nameBuffer, 0, length);
+        count++;
+        records.putInt(COUNT_OFFSET, count);
+        if (2L * count > mask + 1) {
+            rebuildIndex((mask + 1) * 2);
+        } else {
+            buckets.putInt(entry(bucket), hash);
+            buckets.putInt(entry(bucket) + Integer.BYTES, slot + 1);
+            buckets.putInt(INDEX_COUNT_OFFSET, count);
+        }
+        return slot;
+    }
+
+    private void update(int slot, int wins, int losses, int draws, int plies, String opponent, long playedAt) {
+        int offset = recordOffset(slot);
+        records.putInt(offset + WINS, records.getInt(offset + WINS) + wins);
+        records.putInt(offset + LOSSES, records.getInt(offset + LOSSES) + losses);
+        records.putInt(offset + DRAWS, records.getInt(offset + DRAWS) + draws);
+        records.putLong(offset + PLIES, records.getLong(offset + PLIES) + plies);
+        if (opponent != null) {
+            int length = encode(opponent);
+            records.putShort(offset + OPPONENT_LENGTH, (short) length);
+            records.put(offset + OPPONENT, nameBuffer, 0, length);
+            records.putLong(offset + LAST_PLAYED, playedAt);
+        }
+        if (wins > 0) {
+            promote(slot);
+        }
+    }
+
+    /*
+     * A ranglista karbantartása egy rekord győzelmeinek növekedése után: a győzelmek csak
+     * nőnek, így egy kívül álló rekord csak az utolsó helyet átlépve kerülhet be. O(TOP_K).
+     */
+    private void promote(int slot) {
+        int i = 0;
+        while (i < topCount && topSlot(i) != slot) {
+            i++;
+        }
+        if (i == topCount) {
+            if (topCount < TOP_K) {
+                topCount++;
+                records.putInt(TOP_COUNT_OFFSET, topCount);
+            } else if (ranksBefore(slot, topSlot(TOP_K - 1))) {
+                i = TOP_K - 1;
+            } else {
+                return;
+            }
+        }
+        while (i > 0 && ranksBefore(slot, topSlot(i - 1))) {
+            setTopSlot(i, topSlot(i - 1));
+            i--;
+        }
+        setTopSlot(i, slot);
+    }
+
+    private void rebuildTop() {
+        List<Integer> slots = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            if (records.getInt(recordOffset(slot) + WINS) > 0) {
+                slots.add(slot);
+            }
+        }
+        slots.sort((a, b) -> ranksBefore(a, b) ? -1 : ranksBefore(b, a) ? 1 : 0);
+        topCount = Math.min(TOP_K, slots.size());
+        for (int i = 0; i < topCount; i++) {
+            setTopSlot(i, slots.get(i));
+        }
+        records.putInt(TOP_COUNT_OFFSET, topCount);
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        int wa = records.getInt(recordOffset(a) + WINS);
+        int wb = records.getInt(recordOffset(b) + WINS);
+        return wa > wb || wa == wb && a < b;
+    }
+
+    private int topSlot(int i) {
+        return records.getInt(TOP_OFFSET + i * Integer.BYTES);
+    }
+
+    private void setTopSlot(int i, int slot) {
+        records.putInt(TOP_OFFSET + i * Integer.BYTES, slot);
+    }
+
+    private PlayerStats read(int slot) {
+        int offset = recordOffset(slot);
+        return new PlayerStats(readName(slot, NAME_LENGTH, NAME), records.getInt(offset + WINS),
+                records.getInt(offset + LOSSES), records.getInt(offset + DRAWS), records.getLong(offset + PLIES),
+                readName(slot, OPPONENT_LENGTH, OPPONENT), records.getLong(offset + LAST_PLAYED));
+    }
+
+    private String readName(int slot, int lengthField, int field) {
+        int offset = recordOffset(slot);
+        byte[] bytes = new byte[records.getShort(offset + lengthField)];
+        records.get(offset + field, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean nameEquals(int slot, int length) {
+        int offset = recordOffset(slot);
+        if (records.getShort(offset + NAME_LENGTH) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (records.get(offset + NAME + i) != nameBuffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * A név UTF-8 alakja a nameBuffer elejére; a hossz a visszatérési érték.
+     */
+    private int encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("A név 1 és " + MAX_NAME_BYTES + " bájt között lehet: " + name);
+        }
+        System.arraycopy(bytes, 0, nameBuffer, 0, bytes.length);
+        return bytes.length;
+    }
+
+    /*
+     * FNV-1a a név bájtjain; a 0 hash is érvényes, az üres vödröt a sorszám jelzi.
+     */
+    private int hash(int length) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ (nameBuffer[i] & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+
+}
@@ -1,10 +1,20 @@
 package amoba.db;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import amoba.jfr.PersistenceEvent;
+import amoba.metrics.Metrics;
+import amoba.rating.Rating;
 
 /**
  * Egyszerű TXT-alapú score tároló.
@@ -12,8 +22,10 @@ import java.util.Map;
  * Példa:
  *   Játékos;3
  *   Gép;5
+ *
+ * <p>Csak a győzelmeket tartja; a teljes játékos statisztikát a {@link PlayerStatsRepository} tárolja.
  */
-public class ScoreRepository {
+public class ScoreRepository implements Closeable {
 
     private final Path file;
 
@@ -25,6 +37,26 @@ public class ScoreRepository {
         this.file = file;
     }
 
+    /**
+     * Tároló a fájl kiterjesztése szerint: {@code .txt} a régi szöveges, minden más a statisztika tároló.
+     */
+    public static ScoreRepository open(Path file) {
+        return file.getFileName().toString().endsWith(".txt") ? new ScoreRepository(file) : new PlayerStatsRepository(file);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Egy befejezett játszma; a szöveges tároló ebből csak a győztes pontját tartja meg.
+     */
+    public void recordGame(String winner, String loser, boolean draw, int plies) throws IOException {
+        if (!draw) {
+            incrementWin(winner);
+        }
+    }
+
     /**
      * Pontszám növelése adott névhez (1-gyel).
      */
@@ -35,6 +67,62 @@ public class ScoreRepository {
         saveAll(scores);
     }
 
+    /**
+     * Több pontszám növelése egyetlen beolvasás-mentéssel (pl. egy önjáték köteg eredményei).
+     */
+    public synchronized void addWins(Map<String, Integer> wins) throws IOException {
+        if (wins.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> scores = loadAll();
+        for (Map.Entry<String, Integer> e : wins.entrySet()) {
+            scores.merge(e.getKey(), e.getValue(), Integer::sum);
+        }
+        saveAll(scores);
+    }
+
+    /**
+     * Adott játékosok győzelemszámának beállítása (a többieké marad); ismételve is ugyanazt adja.
+     */
+    public synchronized void setWins(Map<String, Integer> wins) throws IOException {
+        if (wins.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> scores = loadAll();
+        scores.putAll(wins);
+        saveAll(scores);
+    }
+
+    /**
+     * Top N (név -> pont) pont szerint csökkenő sorrendben, egyenlőségnél a beolvasási sorrendben.
+     */
+    public Map<String, Integer> topWins(int limit) throws IOException {
+        return loadAll().entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(limit)
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        Map.Entry::getValue,
+                        (x, y) -> x,
+                        LinkedHashMap::new
+                ));
+    }
+
+    /**
+     * Egy játékos statisztikája; a szöveges tárolóban csak a győzelmek ismertek.
+     */
+    public Optional<PlayerStats> stats(String name) throws IOException {
+        Integer wins = loadAll().get(name);
+        return wins == null ? Optional.empty() : Optional.of(new PlayerStats(name, wins, 0, 0, 0, "", 0));
+    }
+
+    /**
+     * Értékszám ranglista; a szöveges tároló nem vezet értékszámot, ezért üres.
+     */
+    public List<Rating> leaderboard(int limit) throws IOException {
+        return List.of();
+    }
+
     /**
      * Összes score betöltése (név -> pontszám), beolvasási sorrendet megőrzi.
      */
@@ -43,6 +131,8 @@ public class ScoreRepository {
         if (!Files.exists(file)) {
             return result;
         }
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
         for (String line : Files.readAllLines(file)) {
             String trimmed = line.trim();
             if (trimmed.isEmpty()) {
@@ -64,13 +154,37 @@ public class ScoreRepository {
                 // hibás szám -> kihagyjuk
             }
         }
+        event.finish("score.load", file);
         return result;
     }
 
+    /**
+     * A már kiírt pontszámok lemezre kényszerítése (pl. mielőtt egy napló rögzítettnek jelöli őket).
+     */
+    public synchronized void sync() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+    }
+
+    /**
+     * A szöveges tároló nem tart nyitva erőforrást.
+     */
+    @Override
+    public void close() throws IOException {
+        // nincs teendő
+    }
+
     /**
      * Összes score mentése txt-be.
      */
     public synchronized void saveAll(Map<String, Integer> scores) throws IOException {
+        final long started = Metrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
         StringBuilder sb = new StringBuilder();
         for (Map.Entry<String, Integer> e : scores.entrySet()) {
             sb.append(e.getKey())
@@ -79,5 +193,7 @@ public class ScoreRepository {
                     .append('\n');
         }
         Files.writeString(file, sb.toString());
+        Metrics.SCORE_WRITE.recordSince(started);
+        event.finish("score.save", file);
     }
 }
\ No newline at end of file
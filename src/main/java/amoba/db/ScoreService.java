@@ -1,43 +1,97 @@
 package amoba.db;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+
+import amoba.rating.Rating;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Score szolgáltatás – TXT alapú tárolás.
+ * Score szolgáltatás – játékosonkénti statisztika a {@link PlayerStatsRepository}-ban
+ * ({@code scores.db}; a régi {@code scores.txt} első használatkor átemelődik).
+ * A tároló hibái nem állítják meg a játékot, de figyelmeztetésként naplózódnak; a
+ * tároló zárolását a {@link #close} engedi el (a következő hívás újranyitja).
  */
-public class ScoreService {
+public class ScoreService implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScoreService.class);
+
+    private final ScoreRepository repo;
+
+    public ScoreService() {
+        this(new PlayerStatsRepository());
+    }
 
-    private final ScoreRepository repo = new ScoreRepository();
+    public ScoreService(ScoreRepository repo) {
+        this.repo = repo;
+    }
 
     public void recordWin(String name) {
         try {
             repo.incrementWin(name);
-        } catch (IOException e) {
-            // I/O hibát lenyelünk és logolhatnánk, ha lenne logger itt
-            // A játék folytatható mentés nélkül is.
+        } catch (IOException | IllegalArgumentException e) {
+            // a játék mentés nélkül is folytatható
+            LOGGER.warn("Győzelem rögzítése sikertelen: {}", name, e);
+        }
+    }
+
+    /**
+     * Egy befejezett játszma mindkét félnek (döntetlennél a sorrend közömbös).
+     */
+    public void recordGame(String winner, String loser, boolean draw, int plies) {
+        try {
+            repo.recordGame(winner, loser, draw, plies);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Játszma rögzítése sikertelen: {} - {}", winner, loser, e);
         }
     }
 
     /**
-     * Top N score (név -> pont), beszúrási sorrendhez igazodva, pont szerint csökkenő rendezéssel.
+     * Top N score (név -> pont), pont szerint csökkenő sorrendben.
      */
     public Map<String, Integer> highScoresTop(int limit) {
         try {
-            Map<String, Integer> all = repo.loadAll();
-            return all.entrySet().stream()
-                    .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                    .limit(limit)
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            Map.Entry::getValue,
-                            (x, y) -> x,
-                            LinkedHashMap::new
-                    ));
-        } catch (IOException e) {
+            return repo.topWins(limit);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Pontszámok olvasása sikertelen", e);
             return Map.of();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Értékszám ranglista (üres, ha a tároló nem vezet értékszámot).
+     */
+    public List<Rating> leaderboard(int limit) {
+        try {
+            return repo.leaderboard(limit);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Ranglista olvasása sikertelen", e);
+            return List.of();
+        }
+    }
+
+    public Optional<PlayerStats> stats(String name) {
+        try {
+            return repo.stats(name);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Statisztika olvasása sikertelen: {}", name, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A tároló lezárása (zárolás és fájlok elengedése); a hibát csak naplózza.
+     */
+    @Override
+    public void close() {
+        try {
+            repo.close();
+        } catch (IOException e) {
+            LOGGER.warn("Pontszám tároló lezárása sikertelen", e);
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package amoba.game;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
+import amoba.ai.AiSession;
+import amoba.ai.AnalysisCache;
+import amoba.ai.DfpnAI;
+import amoba.ai.DfpnSearch;
 import amoba.ai.RandomAI;
+import amoba.ai.Rng;
+import amoba.ai.SearchAI;
+import amoba.ai.TableSnapshot;
 import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.db.PlayerStats;
 import amoba.db.ScoreService;
 import amoba.io.ConsoleUI;
 import amoba.io.FileIO;
+import amoba.io.MoveLog;
 import amoba.io.XmlPersistence;
+import amoba.jfr.CommandEvent;
+import amoba.jfr.TurnEvent;
 import amoba.model.Cell;
+import amoba.model.Coordinates;
 import amoba.model.Position;
+import amoba.rating.Rating;
+import amoba.rating.RatingCli;
+import amoba.solver.SolverAI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,19 +47,26 @@ public class AmobaGame {
     private static final int DEFAULT_HIGHSCORE_LIMIT = 10;
     private static final int MIN_LEP_PARTS = 2;
     private static final int ARG_MIN = 2;
+    private static final long PROVE_NODES = 200_000L;
     private static final String AI_NAME = "Gép";
+    private static final String TABLE_SAVE_PROPERTY = "amoba.tt.save";
+    private static final String SIZE_LIMITS = "(4 <= M <= N <= " + Board.MAX_SIZE + "): ";
 
     private final ConsoleUI ui = new ConsoleUI();
-    private final RandomAI ai = new RandomAI();
-    private final ScoreService scoreService = new ScoreService(); // TXT alapú score tárolás
+    private final long seed = Rng.seedFromProperty(); // -Damoba.seed=... a játék megismétléséhez
+    private final AiSession ai = createAi(seed);
+    private final ScoreService scoreService = new ScoreService(); // játékos statisztika (scores.db)
     private Map<Command, CommandHandler> handlers;
 
+    private final WinRule rule = WinRule.parse(System.getProperty("amoba.rule", WinRule.STANDARD.id()));
     private Board board;
     private String humanName = "Játékos";
+    private Position lastMove;
+    private Cell firstTurn = Cell.X;
 
-    private enum Command {
-        LEP, SAVE, LOAD, SAVEXML, LOADXML, HIGHSCORE, QUIT, POSITION
-    }
+    private Path autosaveDir = Path.of(System.getProperty("amoba.autosave.dir", ".amoba-autosave"));
+    private Path tableDir = Path.of(System.getProperty("amoba.tt.dir", ".amoba-tables"));
+    private MoveLog moveLog;
 
     private enum TurnResult {
         KEEP_TURN,
@@ -52,16 +79,48 @@ public class AmobaGame {
         TurnResult handle(String... parts) throws IOException;
     }
 
+    static AiSession createAi(long seed) {
+        String kind = System.getProperty("amoba.ai", "random");
+        if ("search".equalsIgnoreCase(kind)) {
+            return sharedSearch();
+        }
+        if ("solver".equalsIgnoreCase(kind)) {
+            return new SolverAI(sharedSearch());
+        }
+        if ("dfpn".equalsIgnoreCase(kind)) {
+            return new DfpnAI(sharedSearch());
+        }
+        return new RandomAI(seed);
+    }
+
+    /*
+     * Kereső a JVM-en belül közös elemzés gyorsítótárral: a munkamenetek egymás állásait is újrahasznosítják.
+     */
+    private static SearchAI sharedSearch() {
+        SearchAI search = new SearchAI();
+        search.useSharedCache(AnalysisCache.shared());
+        return search;
+    }
+
     public void start() {
+        LOGGER.info("Játék seed: {} (ismétlés: -D{}={})", seed, Rng.SEED_PROPERTY, seed);
         initHandlers();
-        setupBoard();
-        gameLoop();
+        try {
+            setupBoard();
+            gameLoop();
+        } finally {
+            scoreService.close(); // a scores.db zárolása ne maradjon a JVM végéig
+        }
     }
 
     private void setupBoard() {
         ui.println("Amőba (NxM)");
-        ui.println("Szabály: csak már lerakott jelekhez szomszédosan (átlós is) lehet rakni." +
-                " 5 egymás után = győzelem.\n");
+        ui.println("Szabály: csak már lerakott jelekhez szomszédosan (átlós is) lehet rakni. "
+                + rule.describe() + "\n");
+
+        if (resumeInterrupted()) {
+            return;
+        }
 
         String name = ui.ask("Add meg a neved (Enter = Játékos): ").trim();
         if (!name.isEmpty()) {
@@ -73,12 +132,148 @@ public class AmobaGame {
         } else {
             board = createBoardInteractive();
         }
+        ai.reset(board);
+        warmLoadTable();
 
         if (board.legalPositionsByAdjacency().isEmpty()) {
             Position center = board.center();
             board.place(Cell.X, center);
+            ai.onMove(Cell.X, center);
             ui.println("Automatikus kezdő lépés X középen: " + formatPos(center));
         }
+        startAutosave();
+    }
+
+    /* ===== Tartós hash tábla ===== */
+
+    /*
+     * Előre számolt vagy korábbi futásból mentett hash tábla a táblamérethez és szabályhoz, ha van.
+     */
+    private void warmLoadTable() {
+        Path file = TableSnapshot.path(tableDir, board);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            long entries = ai.loadTable(file, board);
+            LOGGER.info("Hash tábla betöltve: {} ({} bejegyzés)", file, entries);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Hash tábla nem tölthető be: {}", file, e);
+        }
+    }
+
+    /*
+     * A hash tábla mentése a játék végén, ha -Damoba.tt.save=true; a következő játék melegen indul.
+     */
+    private void saveTable() {
+        if (!Boolean.getBoolean(TABLE_SAVE_PROPERTY)) {
+            return;
+        }
+        try {
+            Files.createDirectories(tableDir);
+            long entries = ai.saveTable(TableSnapshot.path(tableDir, board), board);
+            LOGGER.info("Hash tábla mentve: {} bejegyzés", entries);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Hash tábla mentése sikertelen", e);
+        }
+    }
+
+    /* ===== Automentés (WAL) ===== */
+
+    private boolean resumeInterrupted() {
+        if (autosaveDir == null) {
+            return false;
+        }
+        Optional<MoveLog.Recovered> found;
+        try {
+            found = MoveLog.recoverLatest(autosaveDir);
+        } catch (IllegalArgumentException | IOException e) {
+            LOGGER.warn("Automentés nem olvasható", e);
+            return false;
+        }
+        if (found.isEmpty()) {
+            return false;
+        }
+        MoveLog.Recovered r = found.get();
+        String answer = ui.ask("Félbeszakadt játék található (" + r.playerName() + ", "
+                + r.board().stoneCount() + " kő). Folytatod? (y/n) ");
+        if (!answer.trim().toLowerCase(Locale.ROOT).startsWith("y")) {
+            try {
+                r.log().delete();
+            } catch (IOException e) {
+                LOGGER.warn("Automentés törlése sikertelen", e);
+            }
+            return false;
+        }
+        board = r.board();
+        humanName = r.playerName();
+        firstTurn = r.toMove();
+        moveLog = r.log();
+        ai.reset(board);
+        warmLoadTable();
+        if (!board.rule().equals(rule)) {
+            ui.println("A folytatott játék a saját szabályával megy tovább: " + board.rule().describe());
+        }
+        ui.println("Játék folytatva (" + r.replayed() + " lépés visszajátszva a naplóból).");
+        return true;
+    }
+
+    private void startAutosave() {
+        if (autosaveDir == null) {
+            return;
+        }
+        try {
+            moveLog = MoveLog.create(autosaveDir, humanName, board);
+        } catch (IOException e) {
+            disableAutosave(e);
+        }
+    }
+
+    private void autosaveMove(Cell cell, Position p) {
+        if (moveLog == null) {
+            return;
+        }
+        try {
+            moveLog.append(cell, p, board);
+        } catch (IOException e) {
+            disableAutosave(e);
+        }
+    }
+
+    private void autosaveSnapshot() {
+        if (moveLog == null) {
+            return;
+        }
+        try {
+            moveLog.snapshot(board, Cell.X);
+        } catch (IOException e) {
+            disableAutosave(e);
+        }
+    }
+
+    private void finishAutosave() {
+        if (moveLog == null) {
+            return;
+        }
+        try {
+            moveLog.delete();
+        } catch (IOException e) {
+            LOGGER.warn("Automentés törlése sikertelen", e);
+        }
+        moveLog = null;
+    }
+
+    private void disableAutosave(IOException e) {
+        ui.println("Automentés kikapcsolva: " + e.getMessage());
+        LOGGER.warn("Automentési hiba", e);
+        if (moveLog != null) {
+            try {
+                moveLog.close();
+            } catch (IOException ignored) {
+                // a napló már használhatatlan
+            }
+        }
+        moveLog = null;
     }
 
     private void initHandlers() {
@@ -89,6 +284,8 @@ public class AmobaGame {
         handlers.put(Command.SAVEXML, this::handleSaveXml);
         handlers.put(Command.LOADXML, this::handleLoadXml);
         handlers.put(Command.HIGHSCORE, p -> handleHighscore());
+        handlers.put(Command.STATS, this::handleStats);
+        handlers.put(Command.PROVE, this::handleProve);
         handlers.put(Command.QUIT, p -> handleQuit());
         // POSITION külön kezelve
     }
@@ -96,7 +293,7 @@ public class AmobaGame {
     private void loadBoardFromTxtInteractive() {
         String file = ui.ask("Fájlnév (pl. input.txt): ").trim();
         try {
-            board = FileIO.loadFromTxt(Path.of(file));
+            board = FileIO.loadFromTxt(Path.of(file), rule);
             ui.println("Pálya betöltve.");
         } catch (IllegalArgumentException | IOException e) {
             ui.println("Betöltési hiba: " + e.getMessage());
@@ -107,10 +304,10 @@ public class AmobaGame {
 
     private Board createBoardInteractive() {
         while (true) {
-            int n = parsePositiveInt(ui.ask("N (4 <= M <= N <= 25): "));
-            int m = parsePositiveInt(ui.ask("M (4 <= M <= N <= 25): "));
+            int n = parsePositiveInt(ui.ask("N " + SIZE_LIMITS));
+            int m = parsePositiveInt(ui.ask("M " + SIZE_LIMITS));
             try {
-                return new Board(n, m);
+                return new Board(n, m, rule);
             } catch (IllegalArgumentException e) {
                 ui.println("Hibás méretek: " + e.getMessage());
             }
@@ -130,14 +327,18 @@ public class AmobaGame {
     }
 
     private void gameLoop() {
-        Cell turn = Cell.X;
+        Cell turn = firstTurn;
         boolean running = true;
         while (running) {
             ui.println("");
             ui.println(board.render());
             ui.println("Parancsok: lep <b3> | save <f.txt> | load <f.txt> | savexml <f.xml> |" +
-                    " loadxml <f.xml> | highscore | quit | <pozíció pl. b3>");
+                    " loadxml <f.xml> | highscore | stats [név] | prove [vcf] | quit | <pozíció pl. b3>");
 
+            TurnEvent event = new TurnEvent();
+            event.begin();
+            lastMove = null;
+            Cell mover = turn;
             if (turn == Cell.X) {
                 TurnResult r = humanTurn();
                 if (r == TurnResult.MOVE_DONE_STOP) {
@@ -151,6 +352,20 @@ public class AmobaGame {
                     turn = Cell.X;
                 }
             }
+            commitTurn(event, mover, !running);
+        }
+        finishAutosave();
+        saveTable();
+    }
+
+    private void commitTurn(TurnEvent event, Cell mover, boolean gameOver) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = mover.name();
+            event.moveNumber = board.stoneCount();
+            event.move = lastMove == null ? "" : formatPos(lastMove);
+            event.gameOver = gameOver;
+            event.commit();
         }
     }
 
@@ -163,14 +378,19 @@ public class AmobaGame {
                 continue;
             }
             String[] parts = line.split("\\s+");
-            Command cmd = resolveCommand(parts[0]);
+            Command cmd = Command.interactive(parts[0]);
 
+            CommandEvent event = new CommandEvent();
+            event.begin();
             try {
                 result = executeCommand(cmd, parts);
+                commitCommand(event, cmd, result.name());
             } catch (IllegalArgumentException e) {
+                commitCommand(event, cmd, "HIBA");
                 ui.println("Hiba: " + e.getMessage());
                 continue;
             } catch (IOException e) {
+                commitCommand(event, cmd, "IO_HIBA");
                 ui.println("I/O hiba: " + e.getMessage());
                 LOGGER.warn("I/O hiba", e);
                 continue;
@@ -183,6 +403,15 @@ public class AmobaGame {
         return result;
     }
 
+    private void commitCommand(CommandEvent event, Command cmd, String result) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = cmd.name();
+            event.result = result;
+            event.commit();
+        }
+    }
+
     private TurnResult executeCommand(Command cmd, String... parts) throws IOException {
         if (cmd == Command.POSITION) {
             return handlePosition(parts[0]);
@@ -194,20 +423,6 @@ public class AmobaGame {
         return handler.handle(parts);
     }
 
-    private Command resolveCommand(String token) {
-        String t = token.toLowerCase(Locale.ROOT);
-        return switch (t) {
-            case "lep" -> Command.LEP;
-            case "save" -> Command.SAVE;
-            case "load" -> Command.LOAD;
-            case "savexml" -> Command.SAVEXML;
-            case "loadxml" -> Command.LOADXML;
-            case "highscore" -> Command.HIGHSCORE;
-            case "quit" -> Command.QUIT;
-            default -> Command.POSITION;
-        };
-    }
-
     /* ===== Handler metódusok ===== */
 
     private TurnResult handleLep(String... parts) {
@@ -215,13 +430,7 @@ public class AmobaGame {
             ui.println("Használat: lep b3");
             return TurnResult.KEEP_TURN;
         }
-        Position p = ui.parsePosition(parts[1], board.rows(), board.cols());
-        if (!board.legalPositionsByAdjacency().contains(p)) {
-            ui.println("Nem szomszédos mező.");
-            return TurnResult.KEEP_TURN;
-        }
-        board.place(Cell.X, p);
-        return afterMove(Cell.X, p, humanName);
+        return placeHuman(ui.parsePosition(parts[1], board.rows(), board.cols()));
     }
 
     private TurnResult handleSave(String... parts) throws IOException {
@@ -240,7 +449,9 @@ public class AmobaGame {
             return TurnResult.KEEP_TURN;
         }
         try {
-            board = FileIO.loadFromTxt(Path.of(parts[1]));
+            board = FileIO.loadFromTxt(Path.of(parts[1]), rule);
+            ai.reset(board);
+            autosaveSnapshot();
             ui.println("Betöltve TXT-ből.");
         } catch (IllegalArgumentException e) {
             ui.println("Betöltési hiba: " + e.getMessage());
@@ -269,7 +480,9 @@ public class AmobaGame {
             return TurnResult.KEEP_TURN;
         }
         try {
-            board = XmlPersistence.loadFromXml(Path.of(parts[1]));
+            board = XmlPersistence.loadFromXml(Path.of(parts[1]), rule);
+            ai.reset(board);
+            autosaveSnapshot();
             ui.println("Betöltve XML-ből.");
         } catch (IllegalArgumentException | IOException e) {
             ui.println("Betöltési hiba: " + e.getMessage());
@@ -279,6 +492,14 @@ public class AmobaGame {
     }
 
     private TurnResult handleHighscore() {
+        List<Rating> ratings = scoreService.leaderboard(DEFAULT_HIGHSCORE_LIMIT);
+        if (!ratings.isEmpty()) {
+            ui.println("Ranglista (Elo):");
+            for (int i = 0; i < ratings.size(); i++) {
+                ui.println(RatingCli.format(i + 1, ratings.get(i)));
+            }
+            return TurnResult.KEEP_TURN;
+        }
         Map<String, Integer> scores = scoreService.highScoresTop(DEFAULT_HIGHSCORE_LIMIT);
         if (scores.isEmpty()) {
             ui.println("Nincs high score adat.");
@@ -293,18 +514,59 @@ public class AmobaGame {
         return TurnResult.KEEP_TURN;
     }
 
+    private TurnResult handleStats(String... parts) {
+        String name = parts.length >= ARG_MIN ? String.join(" ", Arrays.copyOfRange(parts, 1, parts.length)) : humanName;
+        Optional<PlayerStats> stats = scoreService.stats(name);
+        if (stats.isEmpty()) {
+            ui.println("Nincs statisztika: " + name);
+            return TurnResult.KEEP_TURN;
+        }
+        PlayerStats s = stats.get();
+        ui.println(String.format(Locale.ROOT, "%s: %d győzelem, %d vereség, %d döntetlen, átlag %.1f lépés%s",
+                s.name(), s.wins(), s.losses(), s.draws(), s.averageLength(),
+                s.lastOpponent().isEmpty() ? "" : ", utolsó ellenfél: " + s.lastOpponent()));
+        return TurnResult.KEEP_TURN;
+    }
+
+    /*
+     * Elemzés: van-e X-nek (a soron lévő játékosnak) kényszerített nyerése; a tábla nem változik.
+     */
+    private TurnResult handleProve(String... parts) {
+        boolean vcfOnly = parts.length >= ARG_MIN && "vcf".equalsIgnoreCase(parts[1]);
+        DfpnSearch.Mode mode = vcfOnly ? DfpnSearch.Mode.VCF : DfpnSearch.Mode.THREATS;
+        DfpnSearch search = new DfpnSearch(DfpnAI.DEFAULT_TABLE_BITS, PROVE_NODES);
+        DfpnSearch.Result result = search.prove(board, Cell.X, mode);
+        switch (result.outcome()) {
+            case PROVEN -> ui.println("Kényszerített nyerés: " + formatPos(result.move()) + " (" + result.nodes() + " csomópont)");
+            case DISPROVEN -> ui.println("Nincs kényszerített nyerés " + (vcfOnly ? "négyesekkel." : "fenyegetésekkel."));
+            default -> ui.println("Nem dőlt el " + PROVE_NODES + " csomóponton belül.");
+        }
+        return TurnResult.KEEP_TURN;
+    }
+
     private TurnResult handleQuit() {
         ui.println("Kilépés...");
         return TurnResult.MOVE_DONE_STOP;
     }
 
     private TurnResult handlePosition(String token) {
-        Position p = ui.parsePosition(token, board.rows(), board.cols());
-        if (!board.legalPositionsByAdjacency().contains(p)) {
+        return placeHuman(ui.parsePosition(token, board.rows(), board.cols()));
+    }
+
+    private TurnResult placeHuman(Position p) {
+        if (!board.isLegalByAdjacency(p)) {
             ui.println("Nem szomszédos mező.");
             return TurnResult.KEEP_TURN;
         }
         board.place(Cell.X, p);
+        if (board.isForbidden(Cell.X, p)) {
+            board.remove(p);
+            ui.println("Tiltott lépés (hosszú sor).");
+            return TurnResult.KEEP_TURN;
+        }
+        ai.onMove(Cell.X, p);
+        autosaveMove(Cell.X, p);
+        lastMove = p;
         return afterMove(Cell.X, p, humanName);
     }
 
@@ -314,16 +576,33 @@ public class AmobaGame {
         Position aiMove = ai.chooseMove(board);
         if (aiMove == null) {
             ui.println("A gép nem tud lépni. Döntetlen.");
+            scoreService.recordGame(humanName, AI_NAME, true, board.stoneCount());
             return false;
         }
         board.place(Cell.O, aiMove);
+        ai.onMove(Cell.O, aiMove);
+        autosaveMove(Cell.O, aiMove);
+        lastMove = aiMove;
         ui.println(AI_NAME + " (O) lépése: " + formatPos(aiMove));
         if (board.hasFiveInARow(Cell.O, aiMove)) {
             ui.println(board.render());
             ui.println(AI_NAME + " nyert!");
-            scoreService.recordWin(AI_NAME);
+            scoreService.recordGame(AI_NAME, humanName, false, board.stoneCount());
+            return false;
+        }
+        return !announceDraw();
+    }
+
+    /*
+     * Korai döntetlen: egyik félnek sincs már ellenfél kő nélküli, győzelmi hossznyi ablaka.
+     */
+    private boolean announceDraw() {
+        if (!board.isDrawn()) {
             return false;
         }
+        ui.println(board.render());
+        ui.println("Döntetlen: egyik félnek sem maradt nyerhető sora.");
+        scoreService.recordGame(humanName, AI_NAME, true, board.stoneCount());
         return true;
     }
 
@@ -331,14 +610,13 @@ public class AmobaGame {
         if (board.hasFiveInARow(cell, p)) {
             ui.println(board.render());
             ui.println(playerName + " nyert!");
-            scoreService.recordWin(playerName);
+            scoreService.recordGame(playerName, AI_NAME, false, board.stoneCount());
             return TurnResult.MOVE_DONE_STOP;
         }
-        return TurnResult.MOVE_DONE_CONTINUE;
+        return announceDraw() ? TurnResult.MOVE_DONE_STOP : TurnResult.MOVE_DONE_CONTINUE;
     }
 
     private String formatPos(Position p) {
-        char col = (char) ('a' + p.col());
-        return col + Integer.toString(p.row() + 1);
+        return Coordinates.format(p);
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package amoba.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import amoba.ai.Rng;
+import amoba.board.WinRule;
+import amoba.db.ScoreService;
+
+/**
+ * Parancssori belépési pont: {@code batch [szkript ...]} (szkript nélkül vagy {@code -} esetén a standard bemenet).
+ * A gépi lépések AI-ja és a szabály ugyanúgy {@code -Damoba.ai} és {@code -Damoba.rule} szerint választódik, mint a játékban.
+ */
+public final class BatchCli {
+
+    private BatchCli() { }
+
+    /**
+     * @return kilépési kód (0 = minden sor hiba nélkül lefutott)
+     */
+    public static int run(String[] args, InputStream stdin, PrintStream out) {
+        WinRule rule = WinRule.parse(System.getProperty("amoba.rule", WinRule.STANDARD.id()));
+        try (ScoreService scores = new ScoreService()) {
+            BatchRunner runner = new BatchRunner(out, AmobaGame.createAi(Rng.seedFromProperty()), scores, rule);
+            int errors = 0;
+            if (args.length == 0) {
+                errors = runner.run(reader(stdin)).errors();
+            }
+            for (String a : args) {
+                try (Reader in = "-".equals(a) ? reader(stdin) : Files.newBufferedReader(Path.of(a), StandardCharsets.UTF_8)) {
+                    errors = runner.run(in).errors(); // a számlálók futásokon át összegződnek
+                }
+            }
+            return errors == 0 ? 0 : 1;
+        } catch (IOException | IllegalArgumentException e) {
+            out.println("Kötegelt futás hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static Reader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,235 @@
+package amoba.game;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import amoba.ai.AiSession;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.db.ScoreService;
+import amoba.io.FileIO;
+import amoba.io.XmlPersistence;
+import amoba.model.Cell;
+import amoba.model.Position;
+import amoba.rating.Rating;
+import amoba.rating.RatingCli;
+
+/**
+ * Kötegelt parancsvégrehajtás sok játék gyors visszajátszásához (regressziós futások).
+ * Nincs kérdés és táblarajzolás; a kimenet csak a játékok eredménye, a hibák és a végén
+ * az összesítés időméréssel.
+ *
+ * <p>Parancsok soronként ({@code #} megjegyzés): {@code new N M}, {@code lep b3} vagy csak
+ * {@code b3} (a soron lévő fél lép, X kezd), {@code ai} (a gép lép a soron lévő félnek),
+ * {@code expect X|O|-} (az aktuális játék nyertese, {@code -} = még nincs), {@code save},
+ * {@code load}, {@code savexml}, {@code loadxml}, {@code highscore [N]}, {@code quit}.
+ * A kötegelt mód nem ír a pontszám tárolóba.
+ */
+public final class BatchRunner {
+
+    private static final int DEFAULT_HIGHSCORE_LIMIT = 10;
+
+    private final PrintStream out;
+    private final AiSession ai;
+    private final ScoreService scoreService;
+    private final WinRule rule;
+    private final LineTokenizer tokens = new LineTokenizer();
+
+    private Board board;
+    private Cell toMove = Cell.X;
+    private Cell winner;
+    private boolean finished;
+    private int lineNumber;
+    private int games;
+    private long moves;
+    private int errors;
+
+    public BatchRunner(PrintStream out, AiSession ai, ScoreService scoreService, WinRule rule) {
+        this.out = out;
+        this.ai = ai;
+        this.scoreService = scoreService;
+        this.rule = rule;
+    }
+
+    /**
+     * Összesítés egy futásról.
+     */
+    public record Summary(int games, long moves, int errors, long elapsedNanos) {
+
+        public double movesPerSecond() {
+            return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+        }
+
+        public String headline() {
+            return String.format(Locale.ROOT, "Játékok: %d, lépések: %d, hibák: %d, idő: %.1f ms (%.0f lépés/s)",
+                    games, moves, errors, elapsedNanos / 1e6, movesPerSecond());
+        }
+    }
+
+    /**
+     * A teljes bemenet végrehajtása (quit-ig vagy a végéig), majd az összesítés kiírása.
+     * A hibaüzenetek sorszáma az aktuális bemeneten belüli; a játék-, lépés- és hibaszámlálók
+     * egymás utáni futásokon át összegződnek.
+     */
+    public Summary run(Reader in) throws IOException {
+        final long started = System.nanoTime();
+        lineNumber = 0;
+        boolean running = true;
+        while (running && tokens.readLine(in)) {
+            lineNumber++;
+            if (tokens.isBlankOrComment()) {
+                continue;
+            }
+            tokens.next();
+            try {
+                running = execute(Command.batch(tokens));
+            } catch (IllegalArgumentException | IOException e) {
+                error(e.getMessage());
+            }
+        }
+        Summary summary = new Summary(games, moves, errors, System.nanoTime() - started);
+        out.println(summary.headline());
+        return summary;
+    }
+
+    private boolean execute(Command cmd) throws IOException {
+        switch (cmd) {
+            case NEW -> {
+                int rows = nextInt();
+                int cols = nextInt();
+                start(new Board(rows, cols, rule));
+            }
+            case LEP -> {
+                requireToken("Használat: lep b3");
+                play(tokens.parseCell(requireBoard()));
+            }
+            case POSITION -> play(tokens.parseCell(requireBoard()));
+            case AI -> {
+                Position p = ai.chooseMove(requireBoard());
+                if (p == null) {
+                    throw new IllegalArgumentException("A gép nem tud lépni");
+                }
+                play(p.row() * board.cols() + p.col());
+            }
+            case EXPECT -> expect();
+            case SAVE -> FileIO.saveToTxt(requireBoard(), nextPath("save"));
+            case SAVEXML -> XmlPersistence.saveToXml(requireBoard(), nextPath("savexml"));
+            case LOAD -> start(FileIO.loadFromTxt(nextPath("load"), rule));
+            case LOADXML -> start(XmlPersistence.loadFromXml(nextPath("loadxml"), rule));
+            case HIGHSCORE -> highscore();
+            case QUIT -> {
+                return false;
+            }
+            default -> throw new IllegalArgumentException("Kötegelt módban nem támogatott parancs: " + tokens.text());
+        }
+        return true;
+    }
+
+    private void start(Board b) {
+        board = b;
+        toMove = b.stoneCount(Cell.X) > b.stoneCount(Cell.O) ? Cell.O : Cell.X;
+        winner = null;
+        finished = false;
+        games++;
+        ai.reset(b);
+    }
+
+    /*
+     * A soron lévő fél lépése a játék szabályai szerint (szomszédosság, tiltott hosszú sor).
+     */
+    private void play(int cell) {
+        if (finished) {
+            throw new IllegalArgumentException("A játék már véget ért");
+        }
+        Position p = new Position(cell / board.cols(), cell % board.cols());
+        if (!board.isEmpty(p)) {
+            throw new IllegalArgumentException("Foglalt mezőre nem lehet rakni!");
+        }
+        if (board.stoneCount() > 0 && !board.isLegalByAdjacency(p)) {
+            throw new IllegalArgumentException("Nem szomszédos mező.");
+        }
+        board.place(toMove, p);
+        if (board.isForbidden(toMove, p)) {
+            board.remove(p);
+            throw new IllegalArgumentException("Tiltott lépés (hosszú sor).");
+        }
+        ai.onMove(toMove, p);
+        moves++;
+        if (board.hasFiveInARow(toMove, p)) {
+            winner = toMove;
+            finished = true;
+            out.println("#" + games + ": " + toMove + " nyert, " + board.stoneCount() + " kő");
+        } else if (board.isDrawn()) {
+            finished = true;
+            out.println("#" + games + ": döntetlen, " + board.stoneCount() + " kő");
+        }
+        toMove = toMove.opponent();
+    }
+
+    private void expect() {
+        requireBoard();
+        requireToken("Használat: expect X|O|-");
+        Cell expected;
+        if (tokens.is("x")) {
+            expected = Cell.X;
+        } else if (tokens.is("o")) {
+            expected = Cell.O;
+        } else if (tokens.is("-")) {
+            expected = null;
+        } else {
+            throw new IllegalArgumentException("Használat: expect X|O|-");
+        }
+        if (expected != winner) {
+            error("elvárt nyertes " + (expected == null ? "-" : expected) + ", kapott " + (winner == null ? "-" : winner));
+        }
+    }
+
+    private void highscore() {
+        int limit = tokens.next() ? tokens.parseInt() : DEFAULT_HIGHSCORE_LIMIT;
+        List<Rating> ratings = scoreService.leaderboard(limit);
+        for (int i = 0; i < ratings.size(); i++) {
+            out.println(RatingCli.format(i + 1, ratings.get(i)));
+        }
+        if (!ratings.isEmpty()) {
+            return;
+        }
+        int rank = 1;
+        for (Map.Entry<String, Integer> e : scoreService.highScoresTop(limit).entrySet()) {
+            out.println(rank + ". " + e.getKey() + " - " + e.getValue());
+            rank++;
+        }
+    }
+
+    private void error(String message) {
+        errors++;
+        out.println(lineNumber + ". sor: Hiba: " + message + " [" + tokens.lineText().trim() + "]");
+    }
+
+    private Board requireBoard() {
+        if (board == null) {
+            throw new IllegalArgumentException("Nincs tábla (előbb new vagy load)");
+        }
+        return board;
+    }
+
+    private void requireToken(String usage) {
+        if (!tokens.next()) {
+            throw new IllegalArgumentException(usage);
+        }
+    }
+
+    private int nextInt() {
+        requireToken("Használat: new N M");
+        return tokens.parseInt();
+    }
+
+    private Path nextPath(String command) {
+        requireToken("Használat: " + command + " <fájl>");
+        return Path.of(tokens.text());
+    }
+}
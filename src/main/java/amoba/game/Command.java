@@ -0,0 +1,59 @@
+package amoba.game;
+
+import java.util.Locale;
+
+/**
+ * A játék és a kötegelt mód parancsai. A csak kötegelt módban értelmezett parancsok
+ * (új játék, gépi lépés, elvárt eredmény) az interaktív játékban pozícióként értelmeződnek,
+ * ahogy minden ismeretlen szó.
+ */
+enum Command {
+    LEP("lep", true),
+    SAVE("save", true),
+    LOAD("load", true),
+    SAVEXML("savexml", true),
+    LOADXML("loadxml", true),
+    HIGHSCORE("highscore", true),
+    STATS("stats", true),
+    PROVE("prove", true),
+    QUIT("quit", true),
+    NEW("new", false),
+    AI("ai", false),
+    EXPECT("expect", false),
+    POSITION(null, true);
+
+    private static final Command[] VALUES = values();
+
+    private final String token;
+    private final boolean interactive;
+
+    Command(String token, boolean interactive) {
+        this.token = token;
+        this.interactive = interactive;
+    }
+
+    /**
+     * Interaktív parancs a sor első szavából; ami nem parancs, az pozíció.
+     */
+    static Command interactive(String word) {
+        String t = word.toLowerCase(Locale.ROOT);
+        for (Command c : VALUES) {
+            if (c.interactive && t.equals(c.token)) {
+                return c;
+            }
+        }
+        return POSITION;
+    }
+
+    /**
+     * Kötegelt parancs a tokenizáló aktuális tokenjéből, allokáció nélkül.
+     */
+    static Command batch(LineTokenizer tokens) {
+        for (Command c : VALUES) {
+            if (c.token != null && tokens.is(c.token)) {
+                return c;
+            }
+        }
+        return POSITION;
+    }
+}
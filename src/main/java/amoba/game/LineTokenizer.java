@@ -0,0 +1,186 @@
+package amoba.game;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import amoba.board.Board;
+
+/**
+ * Allokációmentes soronkénti tokenizáló a kötegelt módhoz: a sort egy újrahasznált
+ * karaktertömbbe olvassa, a tokeneket kezdő/vég indexként adja, a számokat és a
+ * lépéseket (pl. "b3") közvetlenül a karakterekből értelmezi. Csak a fájlnevek
+ * kerülnek {@link String}-be.
+ */
+final class LineTokenizer {
+
+    private static final int INITIAL_CAPACITY = 128;
+    private static final int LETTERS = 26;
+
+    private char[] line = new char[INITIAL_CAPACITY];
+    private int length;
+    private int start;
+    private int end;
+
+    /**
+     * A következő sor beolvasása (\n, \r\n vagy \r a vége); false a bemenet végén.
+     */
+    boolean readLine(Reader in) throws IOException {
+        length = 0;
+        start = 0;
+        end = 0;
+        int ch = in.read();
+        if (ch < 0) {
+            return false;
+        }
+        while (ch >= 0 && ch != '\n') {
+            if (ch != '\r') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = (char) ch;
+            }
+            ch = in.read();
+        }
+        return true;
+    }
+
+    /**
+     * Sor beállítása közvetlenül (teszteléshez és interaktív bemenethez).
+     */
+    LineTokenizer reset(CharSequence text) {
+        length = 0;
+        start = 0;
+        end = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Továbblépés a következő (szóközzel határolt) tokenre; false, ha nincs több.
+     */
+    boolean next() {
+        int i = end;
+        while (i < length && isBlank(line[i])) {
+            i++;
+        }
+        start = i;
+        while (i < length && !isBlank(line[i])) {
+            i++;
+        }
+        end = i;
+        return start < end;
+    }
+
+    /** Üres vagy megjegyzés (#) sor. */
+    boolean isBlankOrComment() {
+        int i = 0;
+        while (i < length && isBlank(line[i])) {
+            i++;
+        }
+        return i == length || line[i] == '#';
+    }
+
+    int tokenLength() {
+        return end - start;
+    }
+
+    /** Kis-nagybetűtől független egyezés az aktuális tokennel (ASCII). */
+    boolean is(String word) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (lower(line[start + i]) != lower(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int parseInt() {
+        if (start == end) {
+            throw new IllegalArgumentException("Hiányzó szám!");
+        }
+        long n = 0;
+        boolean negative = line[start] == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw new IllegalArgumentException("Hibás szám: " + text());
+        }
+        for (; i < end; i++) {
+            char ch = line[i];
+            if (ch < '0' || ch > '9') {
+                throw new IllegalArgumentException("Hibás szám: " + text());
+            }
+            n = n * 10 + (ch - '0');
+            if (n > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Túl nagy szám: " + text());
+            }
+        }
+        return (int) (negative ? -n : n);
+    }
+
+    /**
+     * Az aktuális token mint lépés (pl. "b3", "ab12") a tábla mezőindexeként (sor * oszlopszám + oszlop).
+     */
+    int parseCell(Board board) {
+        int i = start;
+        long col = 0;
+        while (i < end && isLetter(line[i])) {
+            col = col * LETTERS + (lower(line[i]) - 'a' + 1);
+            if (col > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Ismeretlen oszlop betű!");
+            }
+            i++;
+        }
+        if (i == start || col - 1 >= board.cols()) {
+            throw new IllegalArgumentException("Ismeretlen oszlop betű!");
+        }
+        if (i == end) {
+            throw new IllegalArgumentException("A sor legyen szám! Példa: b3");
+        }
+        long row = 0;
+        for (; i < end; i++) {
+            char ch = line[i];
+            if (ch < '0' || ch > '9') {
+                throw new IllegalArgumentException("A sor legyen szám! Példa: b3");
+            }
+            row = row * 10 + (ch - '0');
+            if (row > board.rows()) {
+                throw new IllegalArgumentException("A megadott sor kívül esik a táblán!");
+            }
+        }
+        if (row < 1) {
+            throw new IllegalArgumentException("A megadott sor kívül esik a táblán!");
+        }
+        return (int) (row - 1) * board.cols() + (int) (col - 1);
+    }
+
+    /** Az aktuális token szövegként (allokál: csak fájlnevekhez és hibaüzenetekhez). */
+    String text() {
+        return new String(line, start, end - start);
+    }
+
+    /** A teljes sor szövegként (hibaüzenetekhez). */
+    String lineText() {
+        return new String(line, 0, length);
+    }
+
+    private static boolean isBlank(char ch) {
+        return ch == ' ' || ch == '\t';
+    }
+
+    private static boolean isLetter(char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z';
+    }
+
+    private static char lower(char ch) {
+        return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+    }
+}
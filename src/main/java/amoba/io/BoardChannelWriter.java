@@ -0,0 +1,151 @@
+package amoba.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+import amoba.board.Board;
+
+/**
+ * Tábla mentése közvetlenül fájlcsatornára: a cellák egy újrahasznosított direkt
+ * ByteBuffer-be kódolódnak (sor-String és StringBuilder nélkül), a fájl pedig
+ * ideiglenes fájlon át, átnevezéssel, atomikusan cserélődik.
+ * Egy példány nem szálbiztos; a {@link FileIO} és az {@link XmlPersistence} szálanként egyet használ.
+ */
+public final class BoardChannelWriter {
+
+    public enum Format {
+        TXT, XML
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_NUMBER = 11;
+    private static final byte[] XML_HEADER_ROWS = ascii("<game rows=\"");
+    private static final byte[] XML_HEADER_COLS = ascii("\" cols=\"");
+    private static final byte[] XML_HEADER_END = ascii("\">\n");
+    private static final byte[] XML_ROW_START = ascii("  <row>");
+    private static final byte[] XML_ROW_END = ascii("</row>\n");
+    private static final byte[] XML_FOOTER = ascii("</game>\n");
+
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+
+    public BoardChannelWriter(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Egy tábla atomikus mentése.
+     */
+    public void write(Board board, Path path) throws IOException {
+        Path target = path.toAbsolutePath();
+        String suffix = "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp";
+        Path tmp = target.resolveSibling(target.getFileName() + suffix);
+        try {
+            // CREATE_NEW: az ideiglenes fájl (és így a mentett fájl) a szokásos umask szerinti jogokat kapja
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel = ch;
+                encode(board);
+                flush();
+                ch.force(false);
+            } finally {
+                channel = null;
+                buffer.clear();
+            }
+            moveIntoPlace(tmp, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void encode(Board board) throws IOException {
+        if (format == Format.TXT) {
+            putNumber(board.rows());
+            putByte((byte) ' ');
+            putNumber(board.cols());
+            putByte((byte) '\n');
+        } else {
+            putBytes(XML_HEADER_ROWS);
+            putNumber(board.rows());
+            putBytes(XML_HEADER_COLS);
+            putNumber(board.cols());
+            putBytes(XML_HEADER_END);
+        }
+        for (int r = 0; r < board.rows(); r++) {
+            if (format == Format.XML) {
+                putBytes(XML_ROW_START);
+            }
+            for (int c = 0; c < board.cols(); c++) {
+                putByte((byte) board.cellAt(r, c).getSymbol());
+            }
+            if (format == Format.XML) {
+                putBytes(XML_ROW_END);
+            } else {
+                putByte((byte) '\n');
+            }
+        }
+        if (format == Format.XML) {
+            putBytes(XML_FOOTER);
+        }
+    }
+
+    private void putByte(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        if (buffer.remaining() < bytes.length) {
+            flush();
+        }
+        buffer.put(bytes);
+    }
+
+    private void putNumber(int value) throws IOException {
+        if (buffer.remaining() < MAX_NUMBER) {
+            flush();
+        }
+        int start = buffer.position();
+        int v = value;
+        do {
+            buffer.put((byte) ('0' + v % 10));
+            v /= 10;
+        } while (v > 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte tmp = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, tmp);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
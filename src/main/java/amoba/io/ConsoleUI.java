@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 import java.util.Scanner;
 
+import amoba.model.Coordinates;
 import amoba.model.Position;
 
 public class ConsoleUI {
@@ -32,17 +33,21 @@ public class ConsoleUI {
         if (s.length() < MIN_LEN_FOR_POSITION) {
             throw new IllegalArgumentException("Add meg a lépést pl.: b3");
         }
-        char colChar = s.charAt(0);
-        validateColumn(colChar, maxCols);
-        int rowIndex = parseRow(s.substring(1), maxRows);
-        int colIndex = colChar - 'a';
+        int letters = 0;
+        while (letters < s.length() && Character.isLetter(s.charAt(letters))) {
+            letters++;
+        }
+        int colIndex = validateColumn(s.substring(0, letters), maxCols);
+        int rowIndex = parseRow(s.substring(letters), maxRows);
         return new Position(rowIndex, colIndex);
     }
 
-    private void validateColumn(char colChar, int maxCols) {
-        if (colChar < 'a' || colChar >= 'a' + maxCols) {
+    private int validateColumn(String colLetters, int maxCols) {
+        int col = Coordinates.parseColumn(colLetters);
+        if (col < 0 || col >= maxCols) {
             throw new IllegalArgumentException("Ismeretlen oszlop betű!");
         }
+        return col;
     }
 
     private int parseRow(String rowPart, int maxRows) {
@@ -4,16 +4,33 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.jfr.PersistenceEvent;
+import amoba.metrics.Metrics;
 
 public final class FileIO {
 
     private static final int HEADER_PARTS = 2;
 
+    private static final ThreadLocal<BoardChannelWriter> WRITER =
+            ThreadLocal.withInitial(() -> new BoardChannelWriter(BoardChannelWriter.Format.TXT));
+
     private FileIO() { }
 
     public static Board loadFromTxt(Path path) throws IOException {
+        return loadFromTxt(path, WinRule.STANDARD);
+    }
+
+    /**
+     * TXT tábla betöltése a megadott nyerési szabállyal (a fájl csak az állást tárolja).
+     */
+    public static Board loadFromTxt(Path path, WinRule rule) throws IOException {
+        final long started = Metrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
         List<String> lines = Files.readAllLines(path);
         if (lines.isEmpty()) {
             throw new IOException("Üres a bemeneti fájl");
@@ -24,20 +41,31 @@ public final class FileIO {
         }
         int n = Integer.parseInt(dims[0]);
         int m = Integer.parseInt(dims[1]);
-        Board b = new Board(n, m);
+        Board b = new Board(n, m, rule);
         if (lines.size() - 1 != n) {
             throw new IOException("Nem megfelelő sor szám a táblában");
         }
         b.loadFromCharLines(lines.subList(1, lines.size()));
+        Metrics.TXT_LOAD.recordSince(started);
+        event.finish("txt.load", path);
         return b;
     }
 
     public static void saveToTxt(Board board, Path path) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        sb.append(board.rows()).append(' ').append(board.cols()).append('\n');
-        for (String line : board.toCharLines()) {
-            sb.append(line).append('\n');
+        final long started = Metrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        WRITER.get().write(board, path);
+        Metrics.TXT_SAVE.recordSince(started);
+        event.finish("txt.save", path);
+    }
+
+    /**
+     * Több tábla mentése egy hívással (mindegyik atomikusan, közös pufferrel).
+     */
+    public static void saveAllToTxt(Map<Path, Board> boards) throws IOException {
+        for (Map.Entry<Path, Board> e : boards.entrySet()) {
+            saveToTxt(e.getValue(), e.getKey());
         }
-        Files.writeString(path, sb.toString());
     }
 }
\ No newline at end of file
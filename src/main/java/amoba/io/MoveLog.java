@@ -0,0 +1,350 @@
+package amoba.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Játékonkénti írás-előtti napló (WAL) automentéshez és összeomlás utáni folytatáshoz.
+ * Minden lépés egy 10 bájtos bináris rekord; időnként a teljes állás pillanatképként
+ * ({@link FileIO} TXT formátumban) kerül ki, és a napló kiürül.
+ *
+ * <p>Fájlok egy munkamenethez: {@code <név>.wal} (fejléc: magic, verzió, epoch, soron következő
+ * játékos, játékosnév, nyerési szabály, utána a rekordok; az 1-es verzió szabály nélküli, az ott
+ * {@link WinRule#STANDARD}) és {@code <név>.<epoch>.snap.txt}. Tömörítéskor előbb az új pillanatkép,
+ * majd az új (üres) napló kerül a helyére átnevezéssel, és csak ezután törlődik a régi
+ * pillanatkép, így bármely ponton megszakadva van konzisztens epoch-pár.
+ *
+ * <p>A naplót a tulajdonos példány kizárólagos {@link FileLock}-kal fogja a lezárásáig; a zárolt
+ * (másik futó játékhoz tartozó) munkamenetet a helyreállítás nem veszi át.
+ */
+public final class MoveLog implements Closeable {
+
+    public static final int DEFAULT_COMPACT_EVERY = 32;
+
+    private static final int MAGIC = 0x414D574C; // "AMWL"
+    private static final short VERSION = 2;
+    private static final short VERSION_NO_RULE = 1;
+    private static final int RECORD_SIZE = 10;
+    private static final byte CHECK_SALT = 0x5A;
+    private static final String WAL_SUFFIX = ".wal";
+    private static final String SNAP_SUFFIX = ".snap.txt";
+    private static final int HEADER_FIXED = Integer.BYTES * 2 + Short.BYTES * 2 + 1;
+    private static final int MAX_NAME_BYTES = 1024;
+    private static final int MAX_RULE_BYTES = 64;
+    private static final byte TYPE_X = 1;
+    private static final byte TYPE_O = 2;
+
+    private final Path dir;
+    private final String session;
+    private final String playerName;
+    private final WinRule rule;
+    private final int compactEvery;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private FileChannel channel;
+    private int epoch;
+    private int pending;
+
+    /**
+     * Helyreállított játék: a pillanatkép és a napló lejátszása utáni tábla.
+     */
+    public record Recovered(MoveLog log, Board board, String playerName, Cell toMove, int replayed) { }
+
+    private MoveLog(Path dir, String session, String playerName, WinRule rule, int compactEvery) {
+        this.dir = dir;
+        this.session = session;
+        this.playerName = playerName;
+        this.rule = rule;
+        this.compactEvery = compactEvery;
+    }
+
+    /**
+     * Új munkamenet: kezdő pillanatkép és üres napló.
+     */
+    public static MoveLog create(Path dir, String playerName, Board board) throws IOException {
+        return create(dir, "game-" + System.currentTimeMillis(), playerName, board, DEFAULT_COMPACT_EVERY);
+    }
+
+    public static MoveLog create(Path dir, String session, String playerName, Board board, int compactEvery)
+            throws IOException {
+        Files.createDirectories(dir);
+        MoveLog log = new MoveLog(dir, session, playerName, board.rule(), compactEvery);
+        FileIO.saveToTxt(board, log.snapshotPath(0));
+        log.channel = log.writeFreshLog(0, Cell.X);
+        return log;
+    }
+
+    /**
+     * A legutóbb módosított félbeszakadt munkamenet helyreállítása, ha van. A más példány
+     * által zárolt (még futó) munkameneteket kihagyja.
+     */
+    public static Optional<Recovered> recoverLatest(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Optional.empty();
+        }
+        Map<Path, FileTime> times = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + WAL_SUFFIX)) {
+            for (Path p : files) {
+                times.put(p, Files.getLastModifiedTime(p));
+            }
+        }
+        List<Path> wals = new ArrayList<>(times.keySet());
+        Comparator<Path> byTime = Comparator.comparing(times::get);
+        wals.sort(byTime.reversed());
+        for (Path wal : wals) {
+            FileChannel ch = lock(wal);
+            if (ch != null) {
+                String name = wal.getFileName().toString();
+                return Optional.of(recover(dir, name.substring(0, name.length() - WAL_SUFFIX.length()), ch));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Egy munkamenet helyreállítása: pillanatkép betöltése és a napló végének lejátszása.
+     * A csonka (félig kiírt) utolsó rekordot figyelmen kívül hagyja.
+     *
+     * @throws IOException ha a naplót más példány zárolja, vagy hibás
+     */
+    public static Recovered recover(Path dir, String session) throws IOException {
+        Path wal = dir.resolve(session + WAL_SUFFIX);
+        FileChannel ch = lock(wal);
+        if (ch == null) {
+            throw new IOException("A munkamenet egy másik futó játékhoz tartozik: " + wal);
+        }
+        return recover(dir, session, ch);
+    }
+
+    /*
+     * A már zárolt csatornán olvas; hiba esetén lezárja (ezzel a zárat is elengedi).
+     */
+    private static Recovered recover(Path dir, String session, FileChannel ch) throws IOException {
+        try {
+            return replay(dir, session, ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static Recovered replay(Path dir, String session, FileChannel ch) throws IOException {
+        Path wal = dir.resolve(session + WAL_SUFFIX);
+        long size = ch.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Túl nagy napló: " + wal);
+        }
+        byte[] data = new byte[(int) size];
+        ByteBuffer in = ByteBuffer.wrap(data);
+        int read = 0;
+        while (in.hasRemaining() && read >= 0) {
+            read = ch.read(in, in.position());
+        }
+        in.flip();
+        if (data.length < HEADER_FIXED || in.getInt() != MAGIC) {
+            throw new IOException("Hibás napló fejléc: " + wal);
+        }
+        short version = in.getShort();
+        if (version != VERSION && version != VERSION_NO_RULE) {
+            throw new IOException("Nem támogatott napló verzió: " + wal);
+        }
+        int epoch = in.getInt();
+        Cell toMove = in.get() == TYPE_O ? Cell.O : Cell.X;
+        int nameLength = in.getShort() & 0xFFFF;
+        if (nameLength > MAX_NAME_BYTES || in.remaining() < nameLength) {
+            throw new IOException("Hibás napló fejléc: " + wal);
+        }
+        String player = new String(data, in.position(), nameLength, StandardCharsets.UTF_8);
+        in.position(in.position() + nameLength);
+        WinRule rule = version == VERSION_NO_RULE ? WinRule.STANDARD : readRule(in, data, wal);
+
+        MoveLog log = new MoveLog(dir, session, player, rule, DEFAULT_COMPACT_EVERY);
+        log.epoch = epoch;
+        Board board = FileIO.loadFromTxt(log.snapshotPath(epoch), rule);
+        int replayed = 0;
+        int validEnd = in.position();
+        while (in.remaining() >= RECORD_SIZE) {
+            byte type = in.get();
+            int row = in.getInt();
+            int col = in.getInt();
+            byte check = in.get();
+            if (type != TYPE_X && type != TYPE_O || check != checksum(type, row, col) || !board.isInside(row, col)) {
+                break;
+            }
+            Cell mover = type == TYPE_X ? Cell.X : Cell.O;
+            Position p = new Position(row, col);
+            if (board.getCell(p) == Cell.EMPTY) {
+                board.place(mover, p);
+            }
+            toMove = mover.opponent();
+            replayed++;
+            validEnd = in.position();
+        }
+        log.pending = replayed;
+        log.channel = ch;
+        log.channel.truncate(validEnd);
+        log.channel.position(validEnd);
+        return new Recovered(log, board, player, toMove, replayed);
+    }
+
+    public String session() {
+        return session;
+    }
+
+    public int epoch() {
+        return epoch;
+    }
+
+    /**
+     * Egy lépés naplózása (és lemezre kényszerítése); minden compactEvery. lépés után tömörít.
+     */
+    public void append(Cell player, Position p, Board board) throws IOException {
+        byte type = player == Cell.X ? TYPE_X : TYPE_O;
+        record.clear();
+        record.put(type).putInt(p.row()).putInt(p.col()).put(checksum(type, p.row(), p.col()));
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        channel.force(false);
+        pending++;
+        if (pending >= compactEvery) {
+            snapshot(board, player.opponent());
+        }
+    }
+
+    /**
+     * Tömörítés: új pillanatkép a teljes állásról, üres napló az új epoch-hoz.
+     * Betöltéskor (load/loadxml) is ezt kell hívni, mert a tábla kicserélődik.
+     */
+    public void snapshot(Board board, Cell toMove) throws IOException {
+        int next = epoch + 1;
+        FileIO.saveToTxt(board, snapshotPath(next));
+        FileChannel fresh = writeFreshLog(next, toMove);
+        channel.close();
+        channel = fresh;
+        Files.deleteIfExists(snapshotPath(epoch));
+        epoch = next;
+        pending = 0;
+    }
+
+    /**
+     * A munkamenet törlése (rendben befejezett vagy szándékosan abbahagyott játék).
+     */
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(dir.resolve(session + WAL_SUFFIX));
+        Files.deleteIfExists(snapshotPath(epoch));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    private Path snapshotPath(int e) {
+        return dir.resolve(session + "." + e + SNAP_SUFFIX);
+    }
+
+    private static WinRule readRule(ByteBuffer in, byte[] data, Path wal) throws IOException {
+        int length = in.remaining() < Short.BYTES ? -1 : in.getShort() & 0xFFFF;
+        if (length < 0 || length > MAX_RULE_BYTES || in.remaining() < length) {
+            throw new IOException("Hibás napló fejléc: " + wal);
+        }
+        String id = new String(data, in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        try {
+            return WinRule.parse(id);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Ismeretlen szabály a naplóban: " + id, e);
+        }
+    }
+
+    /*
+     * Az új napló már zárolva kerül a helyére (az ideiglenes fájlon szerzett zár az átnevezés után
+     * is érvényes), így nincs pillanat, amikor más példány átvehetné. A visszaadott csatorna a
+     * hozzáfűzéshez a végére áll.
+     */
+    private FileChannel writeFreshLog(int e, Cell toMove) throws IOException {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        byte[] ruleId = rule.id().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_FIXED + name.length + Short.BYTES + ruleId.length);
+        header.putInt(MAGIC).putShort(VERSION).putInt(e).put(toMove == Cell.O ? TYPE_O : TYPE_X)
+                .putShort((short) name.length).put(name).putShort((short) ruleId.length).put(ruleId);
+        header.flip();
+        Path target = dir.resolve(session + WAL_SUFFIX);
+        Path tmp = dir.resolve(session + WAL_SUFFIX + ".tmp");
+        FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ch.lock();
+            while (header.hasRemaining()) {
+                ch.write(header);
+            }
+            ch.force(false);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return ch;
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    /*
+     * A napló megnyitása kizárólagos zárral; null, ha más (folyamat vagy ebben a JVM-ben
+     * másik példány) már fogja.
+     */
+    private static FileChannel lock(Path wal) throws IOException {
+        FileChannel ch = FileChannel.open(wal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = ch.tryLock();
+            if (lock != null) {
+                return ch;
+            }
+        } catch (OverlappingFileLockException e) {
+            // ugyanebben a JVM-ben egy másik MoveLog fogja
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        ch.close();
+        return null;
+    }
+
+    private static byte checksum(byte type, int row, int col) {
+        int x = type ^ CHECK_SALT;
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            x ^= row >>> shift;
+            x ^= col >>> shift;
+        }
+        return (byte) x;
+    }
+}
@@ -0,0 +1,311 @@
+package amoba.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Egymenetes, folyamatos XML olvasó a {@code <game rows cols><row>..</row>..</game>} formátumhoz.
+ * A sorok tartalmát karakterenként dekódolja közvetlenül a táblába (sor-String nélkül),
+ * és egy dokumentumban több játékot is visszaad egymás után, állandó memóriával.
+ * A táblák az olvasónak megadott nyerési szabályt kapják (alapértelmezés: {@link WinRule#STANDARD}).
+ */
+public final class XmlBoardReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_NAME = 16;
+    private static final int MAX_ENTITY = 8;
+
+    private final Reader in;
+    private final WinRule rule;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private final char[] name = new char[MAX_NAME];
+    private int nameLength;
+    private boolean closingTag;
+    private int pos;
+    private int limit;
+
+    public XmlBoardReader(Reader in) {
+        this(in, WinRule.STANDARD);
+    }
+
+    public XmlBoardReader(Reader in, WinRule rule) {
+        this.in = in;
+        this.rule = rule;
+    }
+
+    /**
+     * A következő játék táblája, vagy null, ha nincs több {@code <game>} elem.
+     */
+    public Board next() throws IOException {
+        while (nextTag()) {
+            if (!closingTag && nameIs("game")) {
+                return readGame();
+            }
+            skipTagRest();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Board readGame() throws IOException {
+        int rows = -1;
+        int cols = -1;
+        int ch = skipSpaces();
+        while (ch != '>' && ch != '/') {
+            if (ch < 0) {
+                throw new IOException("Hiányzó '>' a game fejlécben");
+            }
+            readName(ch);
+            boolean isRows = nameIs("rows");
+            boolean isCols = nameIs("cols");
+            expect('=');
+            int value = readQuotedInt();
+            if (isRows) {
+                rows = value;
+            } else if (isCols) {
+                cols = value;
+            }
+            ch = skipSpaces();
+        }
+        if (rows < 0) {
+            throw new IOException("Hiányzó attribútum: rows");
+        }
+        if (cols < 0) {
+            throw new IOException("Hiányzó attribútum: cols");
+        }
+        if (ch == '/') {
+            throw new IOException("Hibás sor szám XML-ben");
+        }
+        Board board = new Board(rows, cols, rule);
+        int row = 0;
+        while (nextTag()) {
+            if (nameIs("row") && !closingTag) {
+                skipTagRest();
+                if (row >= rows) {
+                    throw new IOException("Hibás sor szám XML-ben");
+                }
+                readRow(board, row);
+                row++;
+            } else if (nameIs("game") && closingTag) {
+                skipTagRest();
+                break;
+            } else {
+                skipTagRest();
+            }
+        }
+        if (row != rows) {
+            throw new IOException("Hibás sor szám XML-ben");
+        }
+        return board;
+    }
+
+    /* Sor tartalma a "</row>" tagig; a cellák közvetlenül a táblába kerülnek. */
+    private void readRow(Board board, int row) throws IOException {
+        int col = 0;
+        int ch = read();
+        while (ch != '<') {
+            if (ch < 0) {
+                throw new IOException("Hiányzó </row>");
+            }
+            char symbol = ch == '&' ? readEntity() : (char) ch;
+            if (col >= board.cols()) {
+                throw new IOException("Hibás sor hossza XML-ben");
+            }
+            Cell cell = Cell.fromChar(symbol);
+            if (cell != Cell.EMPTY) {
+                board.setCell(row, col, cell);
+            }
+            col++;
+            ch = read();
+        }
+        readTagName();
+        if (!closingTag || !nameIs("row")) {
+            throw new IOException("Hiányzó </row>");
+        }
+        skipTagRest();
+        if (col != board.cols()) {
+            throw new IOException("Hibás sor hossza XML-ben");
+        }
+    }
+
+    private char readEntity() throws IOException {
+        int length = 0;
+        int ch = read();
+        while (ch != ';') {
+            if (ch < 0 || length >= MAX_ENTITY) {
+                throw new IOException("Hibás XML entitás");
+            }
+            name[length++] = (char) ch;
+            ch = read();
+        }
+        nameLength = length;
+        if (nameIs("lt")) {
+            return '<';
+        }
+        if (nameIs("gt")) {
+            return '>';
+        }
+        if (nameIs("amp")) {
+            return '&';
+        }
+        if (nameIs("quot")) {
+            return '"';
+        }
+        if (nameIs("apos")) {
+            return '\'';
+        }
+        throw new IOException("Ismeretlen XML entitás");
+    }
+
+    /* A következő '<' utáni tag név beolvasása; false, ha vége a bemenetnek. */
+    private boolean nextTag() throws IOException {
+        int ch = read();
+        while (ch != '<') {
+            if (ch < 0) {
+                return false;
+            }
+            ch = read();
+        }
+        readTagName();
+        return true;
+    }
+
+    private void readTagName() throws IOException {
+        int ch = read();
+        closingTag = ch == '/';
+        if (closingTag) {
+            ch = read();
+        }
+        if (ch == '!' || ch == '?') {
+            nameLength = 0;
+            name[0] = (char) ch;
+            skipSpecial(ch);
+            return;
+        }
+        readName(ch);
+    }
+
+    private void readName(int first) throws IOException {
+        int length = 0;
+        int ch = first;
+        while (ch > ' ' && ch != '>' && ch != '/' && ch != '=') {
+            if (length < MAX_NAME) {
+                name[length] = (char) ch;
+            }
+            length++;
+            ch = read();
+        }
+        nameLength = length;
+        unread();
+    }
+
+    /* Megjegyzés (<!-- -->), DOCTYPE vagy feldolgozási utasítás (<? ?>) átlépése. */
+    private void skipSpecial(int kind) throws IOException {
+        int prev2 = 0;
+        int prev = 0;
+        int count = 0;
+        boolean comment = false;
+        int ch = read();
+        while (ch >= 0) {
+            if (kind == '!' && count == 2) {
+                comment = prev2 == '-' && prev == '-';
+            }
+            if (ch == '>') {
+                boolean done = kind == '?' ? prev == '?' : !comment || count >= 4 && prev == '-' && prev2 == '-';
+                if (done) {
+                    break;
+                }
+            }
+            prev2 = prev;
+            prev = ch;
+            count++;
+            ch = read();
+        }
+        nameLength = 0;
+    }
+
+    private void skipTagRest() throws IOException {
+        if (nameLength == 0) {
+            return;
+        }
+        int ch = read();
+        while (ch >= 0 && ch != '>') {
+            ch = read();
+        }
+    }
+
+    private int readQuotedInt() throws IOException {
+        int quote = skipSpaces();
+        if (quote != '"' && quote != '\'') {
+            throw new IOException("Rossz attribútum érték");
+        }
+        int value = 0;
+        int digits = 0;
+        int ch = read();
+        while (ch != quote) {
+            if (ch < '0' || ch > '9' || digits > MAX_ENTITY) {
+                throw new IOException("Rossz attribútum érték");
+            }
+            value = value * 10 + (ch - '0');
+            digits++;
+            ch = read();
+        }
+        if (digits == 0) {
+            throw new IOException("Rossz attribútum érték");
+        }
+        return value;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (skipSpaces() != expected) {
+            throw new IOException("Hiányzó '" + expected + "' az XML-ben");
+        }
+    }
+
+    private int skipSpaces() throws IOException {
+        int ch = read();
+        while (ch >= 0 && ch <= ' ') {
+            ch = read();
+        }
+        return ch;
+    }
+
+    private boolean nameIs(String expected) {
+        if (nameLength != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (name[i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+
+    private void unread() {
+        if (limit > 0) {
+            pos--;
+        }
+    }
+}
@@ -1,95 +1,93 @@
 package amoba.io;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.jfr.PersistenceEvent;
+import amoba.metrics.Metrics;
 
 public final class XmlPersistence {
 
+    private static final ThreadLocal<BoardChannelWriter> WRITER =
+            ThreadLocal.withInitial(() -> new BoardChannelWriter(BoardChannelWriter.Format.XML));
+
     private XmlPersistence() { }
 
     public static void saveToXml(Board board, Path path) throws IOException {
-        int estimated = board.rows() * (board.cols() + 20) + 64;
-        StringBuilder sb = new StringBuilder(estimated);
-        sb.append("<game rows=\"").append(board.rows()).append("\" cols=\"").append(board.cols()).append("\">\n");
-        for (String line : board.toCharLines()) {
-            sb.append("  <row>").append(escape(line)).append("</row>\n");
+        final long started = Metrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        WRITER.get().write(board, path);
+        Metrics.XML_SAVE.recordSince(started);
+        event.finish("xml.save", path);
+    }
+
+    /**
+     * Több tábla mentése egy hívással (mindegyik külön fájlba, atomikusan, közös pufferrel).
+     */
+    public static void saveAllToXml(Map<Path, Board> boards) throws IOException {
+        for (Map.Entry<Path, Board> e : boards.entrySet()) {
+            saveToXml(e.getValue(), e.getKey());
         }
-        sb.append("</game>\n");
-        Files.writeString(path, sb.toString());
     }
 
     public static Board loadFromXml(Path path) throws IOException {
-        String xml = Files.readString(path);
-        int headerEnd = findHeaderEnd(xml);
-        String header = xml.substring(xml.indexOf("<game"), headerEnd);
-        int rows = parseAttr(header, "rows");
-        int cols = parseAttr(header, "cols");
-        Board b = new Board(rows, cols);
-        List<String> rowValues = extractRows(xml, headerEnd + 1, rows, cols);
-        b.loadFromCharLines(rowValues);
-        return b;
+        return loadFromXml(path, WinRule.STANDARD);
     }
 
-    private static int findHeaderEnd(String xml) throws IOException {
-        int gameStart = xml.indexOf("<game");
-        if (gameStart < 0) {
-            throw new IOException("Hiányzó <game> fejléc");
+    /**
+     * Az első játék betöltése a megadott nyerési szabállyal.
+     */
+    public static Board loadFromXml(Path path, WinRule rule) throws IOException {
+        final long started = Metrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        Board b;
+        try (XmlBoardReader reader = open(path, rule)) {
+            b = reader.next();
         }
-        int headerEnd = xml.indexOf('>', gameStart);
-        if (headerEnd < 0) {
-            throw new IOException("Hiányzó '>' a game fejlécben");
+        if (b == null) {
+            throw new IOException("Hiányzó <game> fejléc");
         }
-        return headerEnd;
+        Metrics.XML_LOAD.recordSince(started);
+        event.finish("xml.load", path);
+        return b;
     }
 
-    private static List<String> extractRows(String xml, int startIdx, int expectedRows, int expectedCols) throws IOException {
-        List<String> lines = new ArrayList<>();
-        int idx = startIdx;
-        while (true) {
-            int rowTag = xml.indexOf("<row>", idx);
-            if (rowTag < 0) {
-                break;
-            }
-            int rowEnd = xml.indexOf("</row>", rowTag);
-            if (rowEnd < 0) {
-                throw new IOException("Hiányzó </row>");
-            }
-            String content = unescape(xml.substring(rowTag + 5, rowEnd));
-            if (content.length() != expectedCols) {
-                throw new IOException("Hibás sor hossza XML-ben");
-            }
-            lines.add(content);
-            idx = rowEnd + 6;
-        }
-        if (lines.size() != expectedRows) {
-            throw new IOException("Hibás sor szám XML-ben");
-        }
-        return lines;
+    /**
+     * Több játékot tartalmazó XML dokumentum feldolgozása egy menetben, állandó memóriával:
+     * minden tábla beolvasás után azonnal a fogyasztóhoz kerül.
+     *
+     * @return a beolvasott játékok száma
+     */
+    public static int forEachGame(Path path, Consumer<Board> consumer) throws IOException {
+        return forEachGame(path, WinRule.STANDARD, consumer);
     }
 
-    private static int parseAttr(String header, String name) throws IOException {
-        String key = name + "=\"";
-        int i = header.indexOf(key);
-        if (i < 0) {
-            throw new IOException("Hiányzó attribútum: " + name);
-        }
-        int j = header.indexOf('"', i + key.length());
-        if (j < 0) {
-            throw new IOException("Rossz attribútum zárás: " + name);
+    /**
+     * Mint {@link #forEachGame(Path, Consumer)}, a táblák a megadott nyerési szabállyal készülnek.
+     */
+    public static int forEachGame(Path path, WinRule rule, Consumer<Board> consumer) throws IOException {
+        int count = 0;
+        try (XmlBoardReader reader = open(path, rule)) {
+            Board b = reader.next();
+            while (b != null) {
+                consumer.accept(b);
+                count++;
+                b = reader.next();
+            }
         }
-        return Integer.parseInt(header.substring(i + key.length(), j));
-    }
-
-    private static String escape(String s) {
-        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        return count;
     }
 
-    private static String unescape(String s) {
-        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    private static XmlBoardReader open(Path path, WinRule rule) throws IOException {
+        return new XmlBoardReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), rule);
     }
-}
\ No newline at end of file
+}
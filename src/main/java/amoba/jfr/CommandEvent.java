@@ -0,0 +1,21 @@
+package amoba.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Egy konzolos parancs (lep, save, load, ...) feldolgozása.
+ */
+@Name("amoba.Command")
+@Label("Amőba parancs")
+@Category({"Amoba", "Game"})
+public class CommandEvent extends Event {
+
+    @Label("Parancs")
+    public String command;
+
+    @Label("Eredmény")
+    public String result;
+}
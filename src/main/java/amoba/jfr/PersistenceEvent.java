@@ -0,0 +1,48 @@
+package amoba.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Fájl alapú mentés / betöltés (TXT, XML, score tároló) bájtszámmal.
+ */
+@Name("amoba.Persistence")
+@Label("Amőba perzisztencia")
+@Category({"Amoba", "I/O"})
+public class PersistenceEvent extends Event {
+
+    @Label("Művelet")
+    public String operation;
+
+    @Label("Fájl")
+    public String path;
+
+    @Label("Bájtok")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Lezárás és rögzítés; a fájlméretet csak akkor kérdezi le, ha az esemény tényleg rögzül.
+     */
+    public void finish(String op, Path file) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        operation = op;
+        path = file.toString();
+        try {
+            bytes = Files.exists(file) ? Files.size(file) : 0L;
+        } catch (IOException e) {
+            bytes = -1L;
+        }
+        commit();
+    }
+}
@@ -0,0 +1,30 @@
+package amoba.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Egy AI lépésválasztás (keresés) mélységgel és csomópontszámmal.
+ */
+@Name("amoba.Search")
+@Label("AI keresés")
+@Category({"Amoba", "AI"})
+public class SearchEvent extends Event {
+
+    @Label("AI")
+    public String engine;
+
+    @Label("Elért mélység")
+    public int depth;
+
+    @Label("Csomópontok")
+    public long nodes;
+
+    @Label("TT találatok")
+    public long tableHits;
+
+    @Label("Választott lépés")
+    public String move;
+}
@@ -0,0 +1,29 @@
+package amoba.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Egy kör (emberi vagy gépi lépés) kezdetétől a végéig.
+ */
+@Name("amoba.Turn")
+@Label("Amőba kör")
+@Category({"Amoba", "Game"})
+@Description("Egy játékos köre a kör kezdetétől a lépés végrehajtásáig")
+public class TurnEvent extends Event {
+
+    @Label("Játékos")
+    public String player;
+
+    @Label("Lépés sorszáma")
+    public int moveNumber;
+
+    @Label("Lépés")
+    public String move;
+
+    @Label("Játék vége")
+    public boolean gameOver;
+}
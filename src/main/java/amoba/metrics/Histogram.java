@@ -0,0 +1,123 @@
+package amoba.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zárolásmentes, log-lineáris vödrös hisztogram (HdrHistogram-szerű):
+ * minden kettőhatvány tartomány 32 egyenlő vödörre oszlik, így a relatív hiba ~3%.
+ * Rögzítéskor nincs allokáció, csak egy atomi növelés.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_COUNT;
+    private static final double PERCENT = 100.0;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        counts.incrementAndGet(bucketOf(v));
+        total.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Eltelt idő rögzítése egy {@link Metrics#start()} által adott kezdőponttól (ns);
+     * kikapcsolt metrikáknál nem csinál semmit.
+     */
+    public void recordSince(long startNanos) {
+        if (startNanos != Metrics.DISABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Percentilis becslés (0-100), a vödör felső határával.
+     */
+    public long percentile(double p) {
+        long n = count();
+        if (n == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(n * Math.min(PERCENT, Math.max(0.0, p)) / PERCENT));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        total.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    public String summary() {
+        return String.format("%s[%s] n=%d mean=%.1f p50=%d p90=%d p99=%d max=%d",
+                name, unit, count(), mean(), percentile(50), percentile(90), percentile(99), max());
+    }
+
+    static int bucketOf(long v) {
+        if (v < SUB_COUNT) {
+            return (int) v;
+        }
+        int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(v);
+        int shift = exp - SUB_BITS + 1;
+        int sub = (int) (v >>> shift) - SUB_COUNT / 2;
+        return SUB_COUNT + (shift - 1) * (SUB_COUNT / 2) + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int rel = bucket - SUB_COUNT;
+        int shift = rel / (SUB_COUNT / 2) + 1;
+        long sub = rel % (SUB_COUNT / 2) + SUB_COUNT / 2;
+        long upper = ((sub + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,150 @@
+package amoba.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A játékmotor metrikái: AI gondolkodási idő, csomópont/s, mélység, transzpozíciós
+ * tábla találati arány, lépésgenerálás, mentés/betöltés és score írás késleltetése.
+ * Kikapcsolva (alapértelmezés) a mérési pontok egyetlen statikus mező olvasásába kerülnek.
+ * Bekapcsolás: -Damoba.metrics=true, vagy {@link #setEnabled(boolean)}.
+ */
+public final class Metrics {
+
+    /** A {@link #start()} visszatérési értéke kikapcsolt metrikáknál. */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    public static final Histogram AI_THINK = new Histogram("ai.think", "ns");
+    public static final Histogram AI_NODES_PER_SEC = new Histogram("ai.nps", "node/s");
+    public static final Histogram AI_DEPTH = new Histogram("ai.depth", "ply");
+    public static final Histogram TXT_SAVE = new Histogram("io.txt.save", "ns");
+    public static final Histogram TXT_LOAD = new Histogram("io.txt.load", "ns");
+    public static final Histogram XML_SAVE = new Histogram("io.xml.save", "ns");
+    public static final Histogram XML_LOAD = new Histogram("io.xml.load", "ns");
+    public static final Histogram SCORE_WRITE = new Histogram("db.score.write", "ns");
+
+    public static final LongAdder TT_PROBES = new LongAdder();
+    public static final LongAdder TT_HITS = new LongAdder();
+    public static final LongAdder MOVEGEN_CALLS = new LongAdder();
+    public static final LongAdder MOVEGEN_MOVES = new LongAdder();
+    public static final LongAdder CACHE_HITS = new LongAdder();
+    public static final LongAdder CACHE_MISSES = new LongAdder();
+    public static final LongAdder CACHE_EVICTIONS = new LongAdder();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+    private static final String OBJECT_NAME = "amoba:type=Metrics";
+    private static final List<Histogram> HISTOGRAMS = List.of(
+            AI_THINK, AI_NODES_PER_SEC, AI_DEPTH, TXT_SAVE, TXT_LOAD, XML_SAVE, XML_LOAD, SCORE_WRITE);
+
+    /** Futás közben kapcsolható, a keresőszálak olvassák. */
+    private static volatile boolean enabled = Boolean.getBoolean("amoba.metrics");
+    private static ScheduledExecutorService dumper;
+    private static ScheduledFuture<?> dumpTask;
+
+    private Metrics() { }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Időmérés kezdete: bekapcsolva System.nanoTime(), egyébként {@link #DISABLED}.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    public static List<Histogram> histograms() {
+        return HISTOGRAMS;
+    }
+
+    public static double ttHitRate() {
+        long probes = TT_PROBES.sum();
+        return probes == 0 ? 0.0 : (double) TT_HITS.sum() / probes;
+    }
+
+    /**
+     * A közös elemzés gyorsítótár találati aránya.
+     */
+    public static double cacheHitRate() {
+        long requests = CACHE_HITS.sum() + CACHE_MISSES.sum();
+        return requests == 0 ? 0.0 : (double) CACHE_HITS.sum() / requests;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.forEach(Histogram::reset);
+        TT_PROBES.reset();
+        TT_HITS.reset();
+        MOVEGEN_CALLS.reset();
+        MOVEGEN_MOVES.reset();
+        CACHE_HITS.reset();
+        CACHE_MISSES.reset();
+        CACHE_EVICTIONS.reset();
+    }
+
+    public static String dump() {
+        StringBuilder sb = new StringBuilder("Metrikák:");
+        for (Histogram h : HISTOGRAMS) {
+            if (h.count() > 0) {
+                sb.append("\n  ").append(h.summary());
+            }
+        }
+        sb.append(String.format("%n  tt.hitRate=%.3f (%d/%d)", ttHitRate(), TT_HITS.sum(), TT_PROBES.sum()));
+        sb.append(String.format("%n  movegen calls=%d moves=%d", MOVEGEN_CALLS.sum(), MOVEGEN_MOVES.sum()));
+        sb.append(String.format("%n  cache.hitRate=%.3f (%d/%d) evictions=%d", cacheHitRate(), CACHE_HITS.sum(),
+                CACHE_HITS.sum() + CACHE_MISSES.sum(), CACHE_EVICTIONS.sum()));
+        return sb.toString();
+    }
+
+    /**
+     * JMX regisztráció (amoba:type=Metrics); többszöri hívás esetén nem regisztrál újra.
+     */
+    public static synchronized void registerJmx() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Metrika JMX regisztráció sikertelen", e);
+        }
+    }
+
+    /**
+     * Időszakos metrika napló INFO szinten, háttér (daemon) szálon.
+     */
+    public static synchronized void startLogDump(long periodSeconds) {
+        stopLogDump();
+        if (dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "amoba-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        dumpTask = dumper.scheduleAtFixedRate(() -> LOGGER.info(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopLogDump() {
+        if (dumpTask != null) {
+            dumpTask.cancel(false);
+            dumpTask = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package amoba.metrics;
+
+/**
+ * A {@link MetricsMXBean} megvalósítása a statikus {@link Metrics} regiszter fölött.
+ */
+final class MetricsBean implements MetricsMXBean {
+
+    @Override
+    public boolean isEnabled() {
+        return Metrics.enabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        Metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public double getTtHitRate() {
+        return Metrics.ttHitRate();
+    }
+
+    @Override
+    public long getMoveGenCalls() {
+        return Metrics.MOVEGEN_CALLS.sum();
+    }
+
+    @Override
+    public long getMoveGenMoves() {
+        return Metrics.MOVEGEN_MOVES.sum();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        return Metrics.cacheHitRate();
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return Metrics.CACHE_EVICTIONS.sum();
+    }
+
+    @Override
+    public String[] getHistogramSummaries() {
+        return Metrics.histograms().stream().map(Histogram::summary).toArray(String[]::new);
+    }
+
+    @Override
+    public long percentile(String histogram, double percent) {
+        for (Histogram h : Metrics.histograms()) {
+            if (h.name().equals(histogram)) {
+                return h.percentile(percent);
+            }
+        }
+        throw new IllegalArgumentException("Ismeretlen hisztogram: " + histogram);
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,30 @@
+package amoba.metrics;
+
+/**
+ * JMX felület a {@link Metrics} osztályhoz.
+ */
+public interface MetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    double getTtHitRate();
+
+    long getMoveGenCalls();
+
+    long getMoveGenMoves();
+
+    double getCacheHitRate();
+
+    long getCacheEvictions();
+
+    /**
+     * Hisztogramonként egy összegző sor (n, átlag, p50, p90, p99, max).
+     */
+    String[] getHistogramSummaries();
+
+    long percentile(String histogram, double percent);
+
+    void reset();
+}
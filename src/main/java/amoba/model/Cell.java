@@ -19,6 +19,16 @@ public enum Cell {
         return symbol;
     }
 
+    public Cell opponent() {
+        if (this == X) {
+            return O;
+        }
+        if (this == O) {
+            return X;
+        }
+        return EMPTY;
+    }
+
     public static Cell fromChar(char c) {
         char n = Character.toLowerCase(c);
         if (n == X_CHAR) {
@@ -0,0 +1,47 @@
+package amoba.model;
+
+/**
+ * Táblakoordináták szöveges alakja: oszlop betűk táblázatkezelő stílusban
+ * (a..z, aa..az, ba...), sor 1-től számozva, pl. "b3", "ab12".
+ */
+public final class Coordinates {
+
+    private static final int LETTERS = 26;
+
+    private Coordinates() { }
+
+    public static String columnLabel(int col) {
+        StringBuilder sb = new StringBuilder(2);
+        int n = col;
+        do {
+            sb.append((char) ('a' + n % LETTERS));
+            n = n / LETTERS - 1;
+        } while (n >= 0);
+        return sb.reverse().toString();
+    }
+
+    /**
+     * Oszlop betűk index alakja, vagy -1, ha a szöveg nem csak a-z betűkből áll.
+     */
+    public static int parseColumn(CharSequence letters) {
+        if (letters.length() == 0) {
+            return -1;
+        }
+        long n = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char ch = letters.charAt(i);
+            if (ch < 'a' || ch > 'z') {
+                return -1;
+            }
+            n = n * LETTERS + (ch - 'a' + 1);
+            if (n > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) n - 1;
+    }
+
+    public static String format(Position p) {
+        return columnLabel(p.col()) + (p.row() + 1);
+    }
+}
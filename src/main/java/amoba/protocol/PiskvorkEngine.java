@@ -0,0 +1,311 @@
+package amoba.protocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import amoba.ai.SearchAI;
+import amoba.ai.TranspositionTable;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Gépi mód versenymenedzserekhez (Piskvork / Gomocup protokoll) stdin/stdout felett.
+ * Támogatott parancsok: START, RECTSTART, RESTART, BEGIN, TURN, BOARD ... DONE,
+ * INFO (timeout_turn, timeout_match, time_left, max_memory, rule), ABOUT, END.
+ * A koordináták a protokoll szerint {@code x,y} = oszlop,sor, 0-tól.
+ *
+ * <p>A kimenetre csak protokoll válasz kerülhet; a naplózást a hívónak kell a
+ * hibakimenetre terelnie. A transzpozíciós tábla a {@code max_memory} felébe fér bele.
+ */
+public final class PiskvorkEngine {
+
+    static final int MAX_DEPTH = 32;
+    static final int DEFAULT_TABLE_BITS = 20;
+    private static final int MIN_TABLE_BITS = 10;
+    private static final int MEMORY_SHARE = 2;
+    private static final int HEAP_SHARE = 4;
+    private static final int RULE_EXACT = 1;
+    private static final int RULE_RENJU = 4;
+    private static final int OWN = 1;
+    private static final int OPPONENT = 2;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final TimeControl time = new TimeControl();
+
+    private WinRule rule = WinRule.STANDARD;
+    private long maxMemory;
+    private Board board;
+    private Cell own = Cell.X;
+    private SearchAI ai;
+    private int aiTableBits;
+
+    public PiskvorkEngine(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Belépési pont: END-ig vagy a bemenet végéig fut.
+     */
+    public static int run(InputStream in, PrintStream out) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        try {
+            new PiskvorkEngine(reader, out).loop();
+            return 0;
+        } catch (IOException e) {
+            out.println("ERROR " + e.getMessage());
+            return 1;
+        }
+    }
+
+    public void loop() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            final long received = System.nanoTime();
+            if (!handle(line, received)) {
+                return;
+            }
+            out.flush();
+        }
+    }
+
+    /*
+     * Egy parancs feldolgozása; false, ha a menedzser END-et küldött.
+     */
+    private boolean handle(String line, long received) throws IOException {
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+        String arg = space < 0 ? "" : line.substring(space + 1).trim();
+        try {
+            switch (command) {
+                case "START" -> start(parseInt(arg), parseInt(arg));
+                case "RECTSTART" -> {
+                    String[] wh = arg.split(",");
+                    if (wh.length != 2) {
+                        throw new IllegalArgumentException("Hibás méret: " + arg);
+                    }
+                    start(parseInt(wh[1]), parseInt(wh[0]));
+                }
+                case "RESTART" -> start(requireBoard().rows(), board.cols());
+                case "BEGIN" -> {
+                    own = Cell.X;
+                    think(received);
+                }
+                case "TURN" -> turn(arg, received);
+                case "BOARD" -> boardBlock(received);
+                case "INFO" -> info(arg);
+                case "ABOUT" -> out.println("name=\"amoba\", version=\"1.0\", author=\"amoba\", country=\"HU\"");
+                case "END" -> {
+                    return false;
+                }
+                default -> out.println("UNKNOWN " + command);
+            }
+        } catch (IllegalArgumentException e) {
+            out.println("ERROR " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void start(int rows, int cols) {
+        board = new Board(rows, cols, rule);
+        time.newMatch();
+        ensureAi().reset(board);
+        out.println("OK");
+    }
+
+    private void turn(String arg, long received) {
+        Position p = parseMove(arg);
+        if (requireBoard().stoneCount() == 0) {
+            own = Cell.O;
+        }
+        board.place(own.opponent(), p);
+        ensureAi().onMove(own.opponent(), p);
+        think(received);
+    }
+
+    /*
+     * A BOARD blokkot hiba esetén is a DONE sorig végigolvassa, és csak utána jelez egyetlen
+     * ERROR-ral, hogy a maradék sorok ne parancsként értelmeződjenek.
+     */
+    private void boardBlock(long received) throws IOException {
+        String error = null;
+        int capacity = 0;
+        try {
+            capacity = requireBoard().rows() * board.cols();
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+        int ownStones = 0;
+        int opponentStones = 0;
+        String line;
+        Position[] moves = new Position[capacity];
+        int[] owners = new int[capacity];
+        int count = 0;
+        while ((line = in.readLine()) != null && !"DONE".equalsIgnoreCase(line.trim())) {
+            if (error != null) {
+                continue;
+            }
+            try {
+                String[] f = line.trim().split(",");
+                if (f.length != 3) {
+                    throw new IllegalArgumentException("Hibás BOARD sor: " + line);
+                }
+                int who = parseInt(f[2]);
+                if (who != OWN && who != OPPONENT) {
+                    continue; // folytatólagos játék nyerő sora: nem valódi kő
+                }
+                if (count == moves.length) {
+                    throw new IllegalArgumentException("Túl sok kő a BOARD blokkban");
+                }
+                moves[count] = parseMove(f[0] + "," + f[1]);
+                owners[count++] = who;
+                if (who == OWN) {
+                    ownStones++;
+                } else {
+                    opponentStones++;
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        Board fresh = new Board(board.rows(), board.cols(), rule);
+        // aki kezdett, annak (lépése előtt) ugyanannyi köve van: mi kezdtünk, ha egyenlő
+        own = ownStones == opponentStones ? Cell.X : Cell.O;
+        for (int i = 0; i < count; i++) {
+            fresh.place(owners[i] == OWN ? own : own.opponent(), moves[i]);
+        }
+        board = fresh;
+        ensureAi().reset(board);
+        think(received);
+    }
+
+    private void info(String arg) {
+        int space = arg.indexOf(' ');
+        if (space < 0) {
+            return;
+        }
+        String key = arg.substring(0, space).toLowerCase(Locale.ROOT);
+        String value = arg.substring(space + 1).trim();
+        switch (key) {
+            case "timeout_turn" -> time.setTurnMillis(parseLong(value));
+            case "timeout_match" -> time.setMatchMillis(parseLong(value));
+            case "time_left" -> time.setTimeLeftMillis(parseLong(value));
+            case "max_memory" -> maxMemory = parseLong(value);
+            case "rule" -> setRule(parseInt(value));
+            default -> {
+                // ismeretlen INFO kulcsot a protokoll szerint figyelmen kívül hagyunk
+            }
+        }
+    }
+
+    private void setRule(int flags) {
+        if ((flags & RULE_RENJU) != 0) {
+            rule = WinRule.renju();
+        } else if ((flags & RULE_EXACT) != 0) {
+            rule = WinRule.exact(WinRule.STANDARD.length());
+        } else {
+            rule = WinRule.STANDARD;
+        }
+        if (board != null && board.stoneCount() == 0) {
+            board = new Board(board.rows(), board.cols(), rule);
+            ensureAi().reset(board);
+        }
+    }
+
+    /*
+     * Saját lépés a time control kerete szerint, kiírás x,y alakban.
+     */
+    private void think(long received) {
+        requireBoard();
+        long budget = time.budgetMillis((long) board.rows() * board.cols() - board.stoneCount());
+        SearchAI engine = ensureAi();
+        Position move;
+        if (board.stoneCount() == 0) {
+            move = board.center();
+        } else {
+            engine.setTimeLimitMillis(budget);
+            move = engine.chooseMove(board);
+        }
+        if (move == null) {
+            throw new IllegalArgumentException("Nincs szabad mező");
+        }
+        board.place(own, move);
+        engine.onMove(own, move);
+        out.println(move.col() + "," + move.row());
+        time.spent((System.nanoTime() - received) / 1_000_000L);
+    }
+
+    /*
+     * A kereső újraépítése, ha a memória limit más táblaméretet enged.
+     */
+    private SearchAI ensureAi() {
+        int bits = tableBits(maxMemory, Runtime.getRuntime().maxMemory());
+        if (ai == null || bits != aiTableBits) {
+            ai = new SearchAI(MAX_DEPTH, Long.MAX_VALUE, bits);
+            aiTableBits = bits;
+            if (board != null) {
+                ai.reset(board);
+            }
+        }
+        return ai;
+    }
+
+    /**
+     * Táblaméret: a max_memory fele (0 = nincs limit), de legfeljebb a JVM heap negyede.
+     */
+    static int tableBits(long maxMemory, long heapBytes) {
+        int bits = maxMemory > 0 ? TranspositionTable.bitsForBytes(maxMemory / MEMORY_SHARE) : DEFAULT_TABLE_BITS;
+        bits = Math.min(bits, TranspositionTable.bitsForBytes(heapBytes / HEAP_SHARE));
+        return Math.max(MIN_TABLE_BITS, bits);
+    }
+
+    private Board requireBoard() {
+        if (board == null) {
+            throw new IllegalArgumentException("Nincs tábla (előbb START)");
+        }
+        return board;
+    }
+
+    private Position parseMove(String text) {
+        String[] xy = text.split(",");
+        if (xy.length != 2) {
+            throw new IllegalArgumentException("Hibás lépés: " + text);
+        }
+        Position p = new Position(parseInt(xy[1]), parseInt(xy[0]));
+        if (!requireBoard().isInside(p.row(), p.col())) {
+            throw new IllegalArgumentException("Táblán kívüli lépés: " + text);
+        }
+        return p;
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Hibás szám: " + text, e);
+        }
+    }
+
+    private static long parseLong(String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Hibás szám: " + text, e);
+        }
+    }
+}
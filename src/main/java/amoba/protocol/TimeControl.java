@@ -0,0 +1,71 @@
+package amoba.protocol;
+
+/**
+ * Időgazdálkodás a versenymenedzser INFO értékeiből (mind ezredmásodpercben).
+ * Lépésenkénti keret: a lépés limit és a meccsidő várható hátralévő lépésekre jutó
+ * része közül a kisebb, biztonsági tartalékkal csökkentve. Ha a menedzser nem küld
+ * {@code time_left} értéket, a saját gondolkodási időt vonja le a meccsidőből.
+ */
+final class TimeControl {
+
+    static final long DEFAULT_TURN_MILLIS = 30_000L;
+    static final long MIN_BUDGET_MILLIS = 5L;
+
+    private static final long MIN_RESERVE_MILLIS = 30L;
+    private static final int RESERVE_DIVISOR = 10;
+    private static final int MIN_MOVES_TO_GO = 10;
+    private static final int MAX_MOVES_TO_GO = 40;
+
+    private long turnMillis = DEFAULT_TURN_MILLIS;
+    private long matchMillis;
+    private long timeLeftMillis = -1;
+    private long usedMillis;
+
+    /** 0 = a lehető leggyorsabban kell lépni. */
+    void setTurnMillis(long millis) {
+        turnMillis = Math.max(0, millis);
+    }
+
+    /** 0 = nincs meccs limit. */
+    void setMatchMillis(long millis) {
+        matchMillis = Math.max(0, millis);
+    }
+
+    void setTimeLeftMillis(long millis) {
+        timeLeftMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Új meccs: a saját elhasznált idő és a legutóbbi time_left törlődik.
+     */
+    void newMatch() {
+        usedMillis = 0;
+        timeLeftMillis = -1;
+    }
+
+    /**
+     * A lépés után: a gondolkodási idő levonása, amíg a menedzser nem frissíti a time_left-et.
+     */
+    void spent(long millis) {
+        usedMillis += millis;
+        if (timeLeftMillis >= 0) {
+            timeLeftMillis = Math.max(0, timeLeftMillis - millis);
+        }
+    }
+
+    /**
+     * Keret a következő lépésre.
+     *
+     * @param emptyCells üres mezők száma (a várható hátralévő lépésszám becsléséhez)
+     */
+    long budgetMillis(long emptyCells) {
+        long cap = turnMillis == 0 ? MIN_BUDGET_MILLIS : turnMillis;
+        if (matchMillis > 0) {
+            long remaining = timeLeftMillis >= 0 ? timeLeftMillis : Math.max(0, matchMillis - usedMillis);
+            long movesToGo = Math.max(MIN_MOVES_TO_GO, Math.min(MAX_MOVES_TO_GO, emptyCells / 2));
+            cap = Math.min(cap, remaining / movesToGo);
+        }
+        long reserve = Math.max(MIN_RESERVE_MILLIS, cap / RESERVE_DIVISOR);
+        return Math.max(MIN_BUDGET_MILLIS, cap - reserve);
+    }
+}
@@ -0,0 +1,36 @@
+package amoba.rating;
+
+/**
+ * Elo számítás: várható eredmény és a játszma utáni változás. Az első
+ * {@link #PROVISIONAL_GAMES} játszmában nagyobb a szorzó, hogy az új játékos
+ * (vagy AI változat) gyorsan a helyére kerüljön.
+ */
+public final class Elo {
+
+    public static final double INITIAL = 1500.0;
+    public static final int PROVISIONAL_GAMES = 30;
+
+    static final double K_PROVISIONAL = 40.0;
+    static final double K_ESTABLISHED = 20.0;
+    private static final double SCALE = 400.0;
+
+    private Elo() { }
+
+    /**
+     * A várható pontszám (0..1) a {@code rating} értékű játékosnak az ellenféllel szemben.
+     */
+    public static double expected(double rating, double opponent) {
+        return 1.0 / (1.0 + Math.pow(10.0, (opponent - rating) / SCALE));
+    }
+
+    public static double factor(int games) {
+        return games < PROVISIONAL_GAMES ? K_PROVISIONAL : K_ESTABLISHED;
+    }
+
+    /**
+     * Értékszám változás egy játszma után ({@code score}: 1 győzelem, 0.5 döntetlen, 0 vereség).
+     */
+    public static double delta(double rating, int games, double opponent, double score) {
+        return factor(games) * (score - expected(rating, opponent));
+    }
+}
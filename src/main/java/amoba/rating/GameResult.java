@@ -0,0 +1,13 @@
+package amoba.rating;
+
+/**
+ * Egy befejezett játszma eredménye két név között (döntetlennél a sorrend közömbös).
+ */
+public record GameResult(String winner, String loser, boolean draw) {
+
+    public GameResult {
+        if (winner.isEmpty() || loser.isEmpty() || winner.equals(loser)) {
+            throw new IllegalArgumentException("Két különböző, nem üres név kell: " + winner + ", " + loser);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package amoba.rating;
+
+/**
+ * Egy ranglista sor: név, értékszám és a lejátszott játszmák száma.
+ */
+public record Rating(String name, double rating, int games) {
+
+    public boolean provisional() {
+        return games < Elo.PROVISIONAL_GAMES;
+    }
+}
@@ -0,0 +1,106 @@
+package amoba.rating;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import amoba.model.Cell;
+import amoba.tuning.GameArchive;
+
+/**
+ * Parancssori belépési pont: {@code ratings [top N] | recompute [--period=N] [--threads=N]
+ * | archive <archívum> <X név> <O név>}. A fájlok az aktuális könyvtárban vannak, a
+ * pontszám tároló mellett. Az {@code archive} egy önjáték archívum játszmáit rögzíti a
+ * két megadott névvel (az archívum nem tárol neveket).
+ */
+public final class RatingCli {
+
+    private static final int DEFAULT_TOP = 10;
+    private static final int ARCHIVE_ARGS = 4;
+
+    private RatingCli() { }
+
+    public static int run(String[] args, PrintStream out) {
+        return run(args, out, Path.of(""));
+    }
+
+    static int run(String[] args, PrintStream out, Path dir) {
+        String usage = "Használat: ratings [top N] | recompute [--period=N] [--threads=N] | archive <archívum> <X név> <O név>";
+        try (RatingService service = new RatingService(dir)) {
+            String cmd = args.length == 0 ? "top" : args[0];
+            switch (cmd) {
+                case "top" -> print(service, args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP, out);
+                case "recompute" -> recompute(service, args, out);
+                case "archive" -> {
+                    if (args.length != ARCHIVE_ARGS) {
+                        out.println(usage);
+                        return 2;
+                    }
+                    int[] games = new int[1];
+                    IOException[] failure = new IOException[1];
+                    GameArchive.forEach(Path.of(args[1]), g -> {
+                        if (failure[0] != null) {
+                            return;
+                        }
+                        boolean draw = g.winner() == Cell.EMPTY;
+                        boolean circleWon = g.winner() == Cell.O;
+                        try {
+                            service.record(new GameResult(circleWon ? args[3] : args[2], circleWon ? args[2] : args[3], draw));
+                            games[0]++;
+                        } catch (IOException e) {
+                            failure[0] = e;
+                        }
+                    });
+                    if (failure[0] != null) {
+                        throw failure[0];
+                    }
+                    out.println("Rögzítve: " + games[0] + " játszma");
+                    print(service, DEFAULT_TOP, out);
+                }
+                default -> {
+                    out.println(usage);
+                    return 2;
+                }
+            }
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static void recompute(RatingService service, String[] args, PrintStream out) throws IOException {
+        int period = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            String a = args[i];
+            if (a.startsWith("--period=")) {
+                period = Integer.parseInt(a.substring("--period=".length()));
+            } else if (a.startsWith("--threads=")) {
+                threads = Integer.parseInt(a.substring("--threads=".length()));
+            } else {
+                throw new IllegalArgumentException("Ismeretlen kapcsoló: " + a);
+            }
+        }
+        final long started = System.nanoTime();
+        int games = service.recompute(period, threads);
+        out.printf(Locale.ROOT, "Újraértékelve: %d játszma, %.1f ms%n", games, (System.nanoTime() - started) / 1e6);
+        print(service, DEFAULT_TOP, out);
+    }
+
+    /**
+     * Ranglista sorok "N. név - értékszám (játszmák)" alakban; ideiglenes értéknél "?" jelzéssel.
+     */
+    public static void print(RatingService service, int limit, PrintStream out) throws IOException {
+        int rank = 1;
+        for (Rating r : service.leaderboard(limit)) {
+            out.println(format(rank++, r));
+        }
+    }
+
+    public static String format(int rank, Rating r) {
+        return String.format(Locale.ROOT, "%d. %s - %.0f%s (%d játszma)", rank, r.name(), r.rating(),
+                r.provisional() ? "?" : "", r.games());
+    }
+}
@@ -0,0 +1,170 @@
+package amoba.rating;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Értékszámok az eredménynapló ({@code ratings.log}) és a pillanatkép ({@code ratings.snap})
+ * felett. Minden játszma a naplóba kerül és azonnal frissíti a memóriabeli táblát;
+ * {@link #SNAPSHOT_INTERVAL} játszmánként (és lezáráskor) atomikusan új pillanatkép készül,
+ * amely rögzíti, meddig fedi le a naplót. Megnyitáskor a pillanatkép töltődik be, és csak a
+ * napló utána következő része játszódik vissza.
+ *
+ * <p>A fájlokat első használatkor nyitja meg (olvasáskor csak, ha már léteznek).
+ */
+public final class RatingService implements Closeable {
+
+    public static final String LOG_FILE = "ratings.log";
+    public static final String SNAPSHOT_FILE = "ratings.snap";
+    static final int SNAPSHOT_INTERVAL = 100;
+
+    private final Path logPath;
+    private final Path snapshotPath;
+    private RatingTable table;
+    private ResultLog log;
+    private long logLength;
+    private int sinceSnapshot;
+
+    /**
+     * Szolgáltatás a {@code dir} könyvtárban lévő napló és pillanatkép felett.
+     */
+    public RatingService(Path dir) {
+        this.logPath = dir.resolve(LOG_FILE);
+        this.snapshotPath = dir.resolve(SNAPSHOT_FILE);
+    }
+
+    public synchronized void record(GameResult result) throws IOException {
+        RatingTable t = table(true);
+        log.append(result);
+        logLength = log.flush();
+        t.record(result);
+        if (++sinceSnapshot >= SNAPSHOT_INTERVAL) {
+            snapshot();
+        }
+    }
+
+    /**
+     * A ranglista első {@code limit} sora értékszám szerint csökkenően.
+     */
+    public synchronized List<Rating> leaderboard(int limit) throws IOException {
+        RatingTable t = table(false);
+        return t == null ? List.of() : t.top(limit);
+    }
+
+    public synchronized Optional<Rating> rating(String name) throws IOException {
+        RatingTable t = table(false);
+        return t == null ? Optional.empty() : t.rating(name);
+    }
+
+    /**
+     * A teljes napló újraértékelése {@code period} játszmás periódusokban, {@code parallelism} szálon,
+     * majd új pillanatkép.
+     *
+     * @return az újraértékelt játszmák száma
+     */
+    public synchronized int recompute(int period, int parallelism) throws IOException {
+        RatingTable t = table(false);
+        if (t == null) {
+            return 0;
+        }
+        List<GameResult> results = new ArrayList<>();
+        ResultLog.forEach(logPath, 0, results::add);
+        t.recompute(results, period, parallelism);
+        snapshot();
+        return results.size();
+    }
+
+    /**
+     * Pillanatkép írása ideiglenes fájlba, majd atomikus csere.
+     */
+    public synchronized void snapshot() throws IOException {
+        if (table == null) {
+            return;
+        }
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (OutputStream raw = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw))) {
+            table.writeSnapshot(out, logLength);
+        }
+        try {
+            Files.move(tmp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        sinceSnapshot = 0;
+    }
+
+    /*
+     * A tábla betöltése: pillanatkép (ha van és érvényes), majd a napló hátralévő része.
+     * Sérült vagy a naplónál hosszabbat fedő pillanatképnél a teljes napló játszódik vissza.
+     */
+    private RatingTable table(boolean create) throws IOException {
+        if (table != null || !create && !Files.exists(logPath)) {
+            return table;
+        }
+        RatingTable loaded = new RatingTable();
+        if (!Files.exists(logPath) || Files.size(logPath) == 0) {
+            log = ResultLog.open(logPath, 0);
+            logLength = ResultLog.HEADER_BYTES;
+            table = loaded;
+            sinceSnapshot = 0;
+            return table;
+        }
+        long offset = 0;
+        if (Files.exists(snapshotPath)) {
+            try (InputStream raw = Files.newInputStream(snapshotPath);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+                offset = loaded.readSnapshot(in);
+            } catch (IOException e) {
+                offset = -1;
+            }
+            if (offset < 0 || offset > Files.size(logPath)) {
+                loaded = new RatingTable();
+                offset = 0;
+            }
+        }
+        RatingTable target = loaded;
+        int[] replayed = new int[1];
+        // csak a pillanatkép utáni rész olvasódik; ennek vége a napló érvényes hossza
+        logLength = ResultLog.forEach(logPath, offset, r -> {
+            target.record(r);
+            replayed[0]++;
+        });
+        log = ResultLog.open(logPath, logLength);
+        table = target;
+        sinceSnapshot = replayed[0];
+        return table;
+    }
+
+    /**
+     * Pillanatkép és a napló lezárása; a következő hívás újra megnyitja.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (table == null) {
+            return;
+        }
+        try {
+            if (sinceSnapshot > 0) {
+                snapshot();
+            }
+        } finally {
+            log.close();
+            log = null;
+            table = null;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package amoba.rating;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Memóriabeli értékszám tábla: a játékosok egész azonosítót kapnak, az értékszám és a
+ * játszmaszám primitív tömbökben van. A ranglista egy értékszám szerint csökkenően
+ * rendezett azonosító tömb (egyenlőségnél a korábban felvett elöl) és a fordított
+ * helyindex; egy játszma után csak a két érintett játékos csúszik a helyére, teljes
+ * újrarendezés nélkül.
+ *
+ * <p>Nem szálbiztos; a {@link RatingService} szinkronizálja.
+ */
+public final class RatingTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int SNAPSHOT_MAGIC = 0x414D5253; // "AMRS"
+    private static final int SNAPSHOT_VERSION = 1;
+    /** Ennél rövidebb periódust egy szálon számolunk (a szálak indítása többe kerülne). */
+    private static final int PARALLEL_MIN_GAMES = 512;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private double[] ratings = new double[INITIAL_CAPACITY];
+    private int[] games = new int[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] rank = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A név azonosítója; új névnél kezdő értékszámmal felveszi.
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            games = Arrays.copyOf(games, capacity);
+            order = Arrays.copyOf(order, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+        int created = size++;
+        ids.put(name, created);
+        names[created] = name;
+        ratings[created] = Elo.INITIAL;
+        order[created] = created;
+        rank[created] = created;
+        reposition(created);
+        return created;
+    }
+
+    public void record(GameResult result) {
+        record(id(result.winner()), id(result.loser()), result.draw());
+    }
+
+    /**
+     * Egy játszma azonnali értékelése (mindkét változás a játszma előtti értékekből).
+     */
+    public void record(int winner, int loser, boolean draw) {
+        double score = draw ? 0.5 : 1.0;
+        double dw = Elo.delta(ratings[winner], games[winner], ratings[loser], score);
+        double dl = Elo.delta(ratings[loser], games[loser], ratings[winner], 1.0 - score);
+        ratings[winner] += dw;
+        ratings[loser] += dl;
+        games[winner]++;
+        games[loser]++;
+        reposition(winner);
+        reposition(loser);
+    }
+
+    public Optional<Rating> rating(String name) {
+        Integer id = ids.get(name);
+        return id == null ? Optional.empty() : Optional.of(entry(id));
+    }
+
+    /**
+     * A ranglista első {@code limit} sora; O(limit).
+     */
+    public List<Rating> top(int limit) {
+        List<Rating> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, size); i++) {
+            result.add(entry(order[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Helyezés (1-től), vagy 0 ismeretlen névnél.
+     */
+    public int rankOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? 0 : rank[id] + 1;
+    }
+
+    private Rating entry(int id) {
+        return new Rating(names[id], ratings[id], games[id]);
+    }
+
+    /*
+     * Egy megváltozott értékszámú játékos beillesztése a helyére a rendezett tömbben.
+     */
+    private void reposition(int id) {
+        int i = rank[id];
+        while (i > 0 && before(id, order[i - 1])) {
+            order[i] = order[i - 1];
+            rank[order[i]] = i;
+            i--;
+        }
+        while (i < size - 1 && before(order[i + 1], id)) {
+            order[i] = order[i + 1];
+            rank[order[i]] = i;
+            i++;
+        }
+        order[i] = id;
+        rank[id] = i;
+    }
+
+    private boolean before(int a, int b) {
+        return ratings[a] > ratings[b] || ratings[a] == ratings[b] && a < b;
+    }
+
+    /**
+     * Teljes újraszámolás az eredmények sorrendjében, {@code period} játszmás értékelési
+     * periódusokban: egy perióduson belül minden játszma a periódus eleji értékekből számol
+     * (mint a Glicko periódusai), így a periódus játszmái párhuzamosan értékelhetők.
+     * {@code period == 1} pontosan az azonnali ({@link #record}) értékelést adja.
+     * A meglévő nevek megmaradnak, az értékek a kezdőértékről indulnak.
+     */
+    public void recompute(List<GameResult> results, int period, int parallelism) {
+        if (period < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("A periódus és a szálszám legalább 1");
+        }
+        int n = results.size();
+        int[] winners = new int[n];
+        int[] losers = new int[n];
+        boolean[] draws = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            GameResult r = results.get(i);
+            winners[i] = id(r.winner());
+            losers[i] = id(r.loser());
+            draws[i] = r.draw();
+        }
+        Arrays.fill(ratings, 0, size, Elo.INITIAL);
+        Arrays.fill(games, 0, size, 0);
+        int slices = Math.max(1, Math.min(parallelism, period / PARALLEL_MIN_GAMES));
+        double[][] deltas = new double[slices][size];
+        ForkJoinPool pool = slices > 1 ? new ForkJoinPool(slices) : null;
+        try {
+            for (int start = 0; start < n; start += period) {
+                int end = Math.min(n, start + period);
+                int from = start;
+                int parts = end - start >= PARALLEL_MIN_GAMES * 2 ? slices : 1;
+                if (parts > 1) {
+                    pool.submit(() -> IntStream.range(0, parts).parallel().forEach(t ->
+                            rateSlice(winners, losers, draws, slice(from, end, parts, t), slice(from, end, parts, t + 1),
+                                    deltas[t]))).join();
+                } else {
+                    rateSlice(winners, losers, draws, from, end, deltas[0]);
+                }
+                for (int t = 0; t < parts; t++) {
+                    applySlice(winners, losers, slice(from, end, parts, t), slice(from, end, parts, t + 1), deltas[t]);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        rebuildOrder();
+    }
+
+    private static int slice(int from, int end, int parts, int t) {
+        return from + (int) ((long) (end - from) * t / parts);
+    }
+
+    /*
+     * Egy szelet játszmáinak változásai a saját gyűjtőtömbbe; az értékszámokat csak olvassa.
+     */
+    private void rateSlice(int[] winners, int[] losers, boolean[] draws, int from, int to, double[] delta) {
+        for (int i = from; i < to; i++) {
+            int w = winners[i];
+            int l = losers[i];
+            double score = draws[i] ? 0.5 : 1.0;
+            delta[w] += Elo.delta(ratings[w], games[w], ratings[l], score);
+            delta[l] += Elo.delta(ratings[l], games[l], ratings[w], 1.0 - score);
+        }
+    }
+
+    /*
+     * A gyűjtött változások alkalmazása és nullázása; csak a szelet érintett játékosait járja be.
+     */
+    private void applySlice(int[] winners, int[] losers, int from, int to, double[] delta) {
+        for (int i = from; i < to; i++) {
+            int w = winners[i];
+            int l = losers[i];
+            ratings[w] += delta[w];
+            delta[w] = 0;
+            ratings[l] += delta[l];
+            delta[l] = 0;
+        }
+        for (int i = from; i < to; i++) {
+            games[winners[i]]++;
+            games[losers[i]]++;
+        }
+    }
+
+    private void rebuildOrder() {
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> before(a, b) ? -1 : before(b, a) ? 1 : 0);
+        for (int i = 0; i < size; i++) {
+            order[i] = sorted[i];
+            rank[sorted[i]] = i;
+        }
+    }
+
+    /**
+     * Pillanatkép: magic, verzió, a lefedett eredménynapló hossza, majd játékosonként név, értékszám, játszmaszám.
+     */
+    public void writeSnapshot(DataOutput out, long logOffset) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(logOffset);
+        out.writeInt(size);
+        for (int id = 0; id < size; id++) {
+            out.writeUTF(names[id]);
+            out.writeDouble(ratings[id]);
+            out.writeInt(games[id]);
+        }
+    }
+
+    /**
+     * Pillanatkép beolvasása ebbe az (üres) táblába.
+     *
+     * @return a pillanatkép által lefedett eredménynapló hossz
+     */
+    public long readSnapshot(DataInput in) throws IOException {
+        if (size != 0) {
+            throw new IllegalStateException("Pillanatkép csak üres táblába tölthető");
+        }
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Nem értékszám pillanatkép");
+        }
+        final long logOffset = in.readLong();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Sérült értékszám pillanatkép");
+        }
+        for (int i = 0; i < count; i++) {
+            int id = id(in.readUTF());
+            if (id != i) {
+                throw new IOException("Ismétlődő név a pillanatképben");
+            }
+            ratings[id] = in.readDouble();
+            games[id] = in.readInt();
+        }
+        rebuildOrder();
+        return logOffset;
+    }
+}
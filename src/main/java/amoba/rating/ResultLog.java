@@ -0,0 +1,133 @@
+package amoba.rating;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Csak hozzáfűzhető eredménynapló: minden értékelt játszma sorrendben, ebből a
+ * ranglista bármikor újraszámolható. Fejléc: "AMRL" magic és verzió; játszmánként egy
+ * jelző bájt (1 = döntetlen), majd a győztes és a vesztes neve (UTF).
+ * Egy megszakadt utolsó rekordot az olvasás figyelmen kívül hagy, a megnyitás levágja.
+ */
+public final class ResultLog implements Closeable {
+
+    static final long HEADER_BYTES = Integer.BYTES * 2;
+
+    private static final int MAGIC = 0x414D524C; // "AMRL"
+    private static final int VERSION = 1;
+    private static final int DRAW = 1;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+
+    private ResultLog(FileChannel channel) {
+        this.channel = channel;
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    /**
+     * Megnyitás hozzáfűzésre (létrehozás, ha nincs); a csonka utolsó rekord levágódik.
+     */
+    public static ResultLog open(Path path) throws IOException {
+        return open(path, Files.exists(path) && Files.size(path) > 0 ? forEach(path, 0, r -> { }) : 0);
+    }
+
+    /**
+     * Megnyitás hozzáfűzésre egy már ellenőrzött hosszal (pl. a hívó saját {@link #forEach}-e
+     * adta vissza), újraolvasás nélkül; a hossz utáni rész levágódik, 0 esetén új napló indul.
+     */
+    public static ResultLog open(Path path, long valid) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        ResultLog log = new ResultLog(channel);
+        if (valid == 0) {
+            channel.truncate(0);
+            log.out.writeInt(MAGIC);
+            log.out.writeInt(VERSION);
+            log.out.flush();
+        } else {
+            channel.truncate(valid);
+            channel.position(valid);
+        }
+        return log;
+    }
+
+    public void append(GameResult result) throws IOException {
+        out.writeByte(result.draw() ? DRAW : 0);
+        out.writeUTF(result.winner());
+        out.writeUTF(result.loser());
+    }
+
+    /**
+     * A pufferelt rekordok átadása az operációs rendszernek.
+     *
+     * @return a napló hossza bájtban
+     */
+    public long flush() throws IOException {
+        out.flush();
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * A napló eredményei {@code offset}-től (egy korábbi rekordhatártól) sorban.
+     *
+     * @return az utolsó teljes rekord utáni pozíció
+     */
+    public static long forEach(Path path, long offset, Consumer<GameResult> consumer) throws IOException {
+        try (InputStream raw = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Nem eredménynapló: " + path);
+            }
+            long position = Math.max(offset, HEADER_BYTES);
+            in.skipNBytes(position - HEADER_BYTES);
+            while (true) {
+                GameResult result;
+                int size;
+                try {
+                    int flags = in.readUnsignedByte();
+                    String winner = in.readUTF();
+                    String loser = in.readUTF();
+                    result = new GameResult(winner, loser, flags == DRAW);
+                    size = 1 + 2 * Short.BYTES + utfLength(winner) + utfLength(loser);
+                } catch (EOFException e) {
+                    return position;
+                }
+                consumer.accept(result);
+                position += size;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Csonka eredménynapló: " + path, e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Sérült eredménynapló: " + path, e);
+        }
+    }
+
+    /*
+     * A módosított UTF-8 hossz, ahogy a writeUTF írja.
+     */
+    private static int utfLength(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            n += c >= 1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return n;
+    }
+}
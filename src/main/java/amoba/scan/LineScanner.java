@@ -0,0 +1,94 @@
+package amoba.scan;
+
+import java.util.Optional;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+
+/**
+ * Teljes táblás sorminta-keresés: minden győzelmi hosszú ablak (sor, oszlop, két átló)
+ * egyszerre, a tábla egy bájtsíkra vetített másolatán. Két megvalósítás van, ugyanazzal
+ * az eredménnyel: skalár ciklusok, és a {@code jdk.incubator.vector} modulra épülő,
+ * soronként sok ablakot egy utasítással számoló változat. A méréseket a
+ * {@code scanbench} parancs futtatja ({@link ScanBenchCli}).
+ *
+ * <p>A példányok belső munkaterületet használnak, nem szálbiztosak.
+ */
+public interface LineScanner {
+
+    /** Legnagyobb támogatott táblaterület (mezőszám); nagyobb táblán a hívó marad a kövenkénti bejárásnál. */
+    int MAX_CELLS = 1 << 16;
+
+    String SIMD_PROPERTY = "amoba.simd";
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Induláskori választás: a vektoros kereső, ha a modul betöltve
+     * ({@code --add-modules jdk.incubator.vector}) és nincs {@code -Damoba.simd=false}.
+     * Üres eredménynél a hívó a saját, kövenkénti skalár bejárásánál marad (ritka
+     * táblán az olcsóbb, mint a skalár síkos keresés).
+     */
+    static Optional<LineScanner> startup() {
+        if (Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true")) && vectorAvailable()) {
+            return Optional.of(new VectorLineScanner());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A hordozható skalár megvalósítás (referencia és mérési alap).
+     */
+    static LineScanner scalar() {
+        return new ScalarLineScanner();
+    }
+
+    /**
+     * A vektoros megvalósítás; csak ha {@link #vectorAvailable()}.
+     */
+    static LineScanner vector() {
+        if (!vectorAvailable()) {
+            throw new IllegalStateException("A " + VECTOR_MODULE + " modul nincs betöltve");
+        }
+        return new VectorLineScanner();
+    }
+
+    static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Kezelhető-e a tábla (területe legfeljebb {@link #MAX_CELLS}).
+     */
+    default boolean supports(Board board) {
+        return (long) board.rows() * board.cols() <= MAX_CELLS;
+    }
+
+    /**
+     * Egy lépésben vizsgált ablak-kezdőpontok száma (skalár: 1, vektoros: a sáv hossza).
+     */
+    default int lanes() {
+        return 1;
+    }
+
+    /**
+     * Megéri-e a síkos keresés a kövenkénti bejárás helyett. A sík a teljes területtel,
+     * a bejárás a kövek száma × hossz × 4 iránnyal arányos; ritka, nagy táblán az utóbbi olcsóbb.
+     */
+    default boolean pays(Board board) {
+        long area = (long) board.rows() * board.cols();
+        return (long) board.stoneCount() * board.rule().length() * 4 > area / lanes();
+    }
+
+    String name();
+
+    /**
+     * Van-e a játékosnak legalább {@code rule().length()} hosszú sora (a szabad szabály győzelme).
+     */
+    boolean hasRun(Board board, Cell player);
+
+    /**
+     * Ugyanaz, mint {@code Evaluator.windowFeatures}: {@code features[k]} += saját k kövű
+     * ablakok száma mínusz az ellenfél k kövű ablakainak száma (k = 1..hossz).
+     */
+    void windowFeatures(Board board, Cell player, int[] features);
+}
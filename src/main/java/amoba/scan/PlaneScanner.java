@@ -0,0 +1,91 @@
+package amoba.scan;
+
+import java.util.Arrays;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+
+/**
+ * A közös bájtsík: a (sor, oszlop) mező indexe {@code sor * W + oszlop}, ahol
+ * {@code W = oszlopok + hossz - 1}. A saját kő értéke 1, az ellenfélé {@code hossz + 1},
+ * a táblán kívüli (jobb oldali és alsó) sávoké a kettő összege. Így egy ablak összege
+ * {@code s = a + (hossz + 1) * b} egyértelműen adja a saját (a) és ellenfél (b) köveket,
+ * és minden táblából kilógó ablak vegyesnek számít. Mind a négy irány ugyanaz a művelet:
+ * {@code hossz} elem összege {@code 1}, {@code W}, {@code W + 1} vagy {@code W - 1} lépésközzel,
+ * minden kezdőindexre, sorhatárokkal nem kell foglalkozni.
+ */
+abstract class PlaneScanner implements LineScanner {
+
+    /**
+     * A leghosszabb vektor (512 bit) bájtjai: az utolsó kezdőindex után ennyi letiltott mező
+     * következik, így egy teljes vektor sávjai mind a síkon belül, vegyes ablakról indulnak.
+     */
+    static final int SLACK = 64;
+
+    private int rows;
+    private int cols;
+    private int length;
+    private int width;
+    private byte[] template = new byte[0];
+    private byte[] plane = new byte[0];
+
+    @Override
+    public boolean hasRun(Board board, Cell player) {
+        int end = build(board, player);
+        return anyWindow(plane, end, length, width, (byte) length);
+    }
+
+    @Override
+    public void windowFeatures(Board board, Cell player, int[] features) {
+        int end = build(board, player);
+        countWindows(plane, end, length, width, features);
+    }
+
+    /**
+     * Van-e {@code value} összegű ablak a négy irány valamelyikében a {@code [0, end)} kezdőindexekre.
+     */
+    abstract boolean anyWindow(byte[] plane, int end, int length, int width, byte value);
+
+    /**
+     * A tiszta ablakok előjeles számlálása a négy irányban: {@code features[k]} += (s == k) - (s == k * (hossz + 1)).
+     */
+    abstract void countWindows(byte[] plane, int end, int length, int width, int[] features);
+
+    /*
+     * A sík feltöltése a sablonból és a kőlistából; a kezdőindexek száma a visszatérési érték.
+     */
+    private int build(Board board, Cell player) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("Túl nagy tábla a síkos kereséshez: " + board.rows() + "x" + board.cols());
+        }
+        int n = board.rule().length();
+        if (board.rows() != rows || board.cols() != cols || n != length) {
+            layout(board.rows(), board.cols(), n);
+        }
+        System.arraycopy(template, 0, plane, 0, template.length);
+        byte own = 1;
+        byte other = (byte) (n + 1);
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / cols;
+            int c = idx % cols;
+            plane[r * width + c] = board.cellAt(r, c) == player ? own : other;
+        }
+        return rows * width;
+    }
+
+    private void layout(int newRows, int newCols, int newLength) {
+        rows = newRows;
+        cols = newCols;
+        length = newLength;
+        width = newCols + newLength - 1;
+        int size = (newRows + newLength - 1) * width + SLACK;
+        byte blocked = (byte) (newLength + 2);
+        template = new byte[size];
+        Arrays.fill(template, blocked);
+        for (int r = 0; r < newRows; r++) {
+            Arrays.fill(template, r * width, r * width + newCols, (byte) 0);
+        }
+        plane = new byte[size + (newLength - 1) * (width + 1)];
+    }
+}
@@ -0,0 +1,52 @@
+package amoba.scan;
+
+/**
+ * Skalár megvalósítás: kezdőindexenként, irányonként összegzi az ablakot.
+ */
+final class ScalarLineScanner extends PlaneScanner {
+
+    @Override
+    public String name() {
+        return "skalár";
+    }
+
+    @Override
+    boolean anyWindow(byte[] plane, int end, int length, int width, byte value) {
+        int[] steps = {1, width, width + 1, width - 1};
+        for (int step : steps) {
+            for (int p = 0; p < end; p++) {
+                if (sum(plane, p, step, length) == value) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void countWindows(byte[] plane, int end, int length, int width, int[] features) {
+        int[] steps = {1, width, width + 1, width - 1};
+        int other = length + 1;
+        for (int step : steps) {
+            for (int p = 0; p < end; p++) {
+                int s = sum(plane, p, step, length);
+                if (s == 0) {
+                    continue;
+                }
+                if (s <= length) {
+                    features[s]++;
+                } else if (s % other == 0) {
+                    features[s / other]--;
+                }
+            }
+        }
+    }
+
+    private static int sum(byte[] plane, int p, int step, int length) {
+        int s = 0;
+        for (int i = 0; i < length; i++) {
+            s += plane[p + i * step];
+        }
+        return s;
+    }
+}
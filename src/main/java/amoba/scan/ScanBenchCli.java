@@ -0,0 +1,182 @@
+package amoba.scan;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+import java.util.random.RandomGenerator;
+
+import amoba.ai.Evaluator;
+import amoba.ai.Rng;
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Parancssori mérés: {@code scanbench [ismétlés] [--seed=S] [--fill=0.4]}. 15x15-ös és 25x25-ös,
+ * nyerő sor nélküli véletlen állásokon a teljes táblás győzelemkeresést és ablakszámlálást
+ * méri a {@link Board}/{@link Evaluator} kövenkénti bejárásával, a skalár és (ha betöltött
+ * a modul) a vektoros síkos kereséssel. Az eredmények egyezését is ellenőrzi. Egy ritka, nagy
+ * táblás esetet is mér (kevés kő, sok mező), ahol a kövenkénti bejárás az olcsóbb; itt kiírja azt
+ * is, melyiket választja az {@link Evaluator} ({@link LineScanner#pays}).
+ */
+public final class ScanBenchCli {
+
+    private static final int[] SIZES = {15, 25};
+    private static final int POSITIONS = 64;
+    private static final int DEFAULT_ITERATIONS = 200;
+    private static final double DEFAULT_FILL = 0.4;
+    private static final int SPARSE_SIZE = 96;
+    private static final int SPARSE_STONES = 10;
+    private static final int WARMUP_ROUNDS = 3;
+
+    /** A mért eredmények gyűjtője, hogy a JIT ne hagyhassa el a keresést. */
+    private static volatile long blackhole;
+
+    private ScanBenchCli() { }
+
+    public static int run(String[] args, PrintStream out) {
+        try {
+            int iterations = DEFAULT_ITERATIONS;
+            long seed = Rng.newSeed();
+            double fill = DEFAULT_FILL;
+            for (String a : args) {
+                if (a.startsWith("--seed=")) {
+                    seed = Long.parseLong(a.substring("--seed=".length()));
+                } else if (a.startsWith("--fill=")) {
+                    fill = Double.parseDouble(a.substring("--fill=".length()));
+                } else {
+                    iterations = Integer.parseInt(a);
+                }
+            }
+            if (iterations <= 0 || fill <= 0 || fill >= 1) {
+                throw new IllegalArgumentException("Az ismétlés pozitív, a kitöltés 0 és 1 közötti legyen");
+            }
+            boolean vector = LineScanner.vectorAvailable();
+            if (!vector) {
+                out.println("A " + LineScanner.VECTOR_MODULE + " modul nincs betöltve (--add-modules), csak skalár mérés.");
+            }
+            for (int size : SIZES) {
+                Board[] boards = positions(size, fill, Rng.create(seed + size));
+                bench(out, size, boards, iterations, LineScanner.scalar(), vector ? LineScanner.vector() : null);
+            }
+            Board[] sparse = positions(SPARSE_SIZE, SPARSE_STONES, Rng.create(seed - 1));
+            int sparseIterations = Math.max(1, iterations * SIZES[0] * SIZES[0] / (SPARSE_SIZE * SPARSE_SIZE));
+            bench(out, SPARSE_SIZE, sparse, sparseIterations, LineScanner.scalar(), vector ? LineScanner.vector() : null);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            out.println("Mérési hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static void bench(PrintStream out, int size, Board[] boards, int iterations, LineScanner scalar,
+                              LineScanner vector) {
+        int window = boards[0].rule().length();
+        ToIntFunction<Board> boardWins = b -> (boardWalkWins(b, Cell.X) ? 1 : 0) + (boardWalkWins(b, Cell.O) ? 2 : 0);
+        ToIntFunction<Board> stoneFeatures = b -> checksum(b, window, null);
+        out.printf(Locale.ROOT, "%dx%d, %d állás, átlagosan %d kő:%n", size, size, boards.length,
+                boards[0].stoneCount());
+        out.println("  Evaluator választása: " + (vector != null && vector.pays(boards[0]) ? vector.name() : "bejárás"));
+        double baseWins = report(out, "győzelem  Board bejárás", boards, iterations, boardWins, 0);
+        double baseEval = report(out, "ablakok   Evaluator bejárás", boards, iterations, stoneFeatures, 0);
+        for (LineScanner s : new LineScanner[] {scalar, vector}) {
+            if (s == null) {
+                continue;
+            }
+            verify(boards, boardWins, b -> (s.hasRun(b, Cell.X) ? 1 : 0) + (s.hasRun(b, Cell.O) ? 2 : 0), s);
+            verify(boards, stoneFeatures, b -> checksum(b, window, s), s);
+            report(out, "győzelem  " + s.name(), boards, iterations,
+                    b -> (s.hasRun(b, Cell.X) ? 1 : 0) + (s.hasRun(b, Cell.O) ? 2 : 0), baseWins);
+            report(out, "ablakok   " + s.name(), boards, iterations, b -> checksum(b, window, s), baseEval);
+        }
+    }
+
+    private static double report(PrintStream out, String label, Board[] boards, int iterations, ToIntFunction<Board> scan,
+                                 double baseline) {
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            time(boards, iterations, scan);
+        }
+        double perScan = (double) time(boards, iterations, scan) / ((long) iterations * boards.length);
+        String speedup = baseline > 0 ? String.format(Locale.ROOT, " (%.1fx)", baseline / perScan) : "";
+        out.printf(Locale.ROOT, "  %-32s %10.0f ns/tábla%s%n", label, perScan, speedup);
+        return perScan;
+    }
+
+    private static long time(Board[] boards, int iterations, ToIntFunction<Board> scan) {
+        long sink = 0;
+        final long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (Board b : boards) {
+                sink += scan.applyAsInt(b);
+            }
+        }
+        final long elapsed = System.nanoTime() - started;
+        blackhole += sink;
+        return elapsed;
+    }
+
+    private static void verify(Board[] boards, ToIntFunction<Board> expected, ToIntFunction<Board> actual, LineScanner s) {
+        for (Board b : boards) {
+            if (expected.applyAsInt(b) != actual.applyAsInt(b)) {
+                throw new IllegalStateException("Eltérő eredmény: " + s.name());
+            }
+        }
+    }
+
+    private static boolean boardWalkWins(Board board, Cell player) {
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            int r = idx / board.cols();
+            int c = idx % board.cols();
+            if (board.cellAt(r, c) == player && board.hasFiveInARow(player, new Position(r, c))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int checksum(Board board, int window, LineScanner scanner) {
+        int[] features = new int[window + 1];
+        if (scanner == null) {
+            Evaluator.windowFeatures(board, Cell.X, features);
+        } else {
+            scanner.windowFeatures(board, Cell.X, features);
+        }
+        int sum = 0;
+        for (int k = 1; k <= window; k++) {
+            sum = sum * 31 + features[k];
+        }
+        return sum;
+    }
+
+    /*
+     * Véletlen kitöltés felváltva X és O kövekkel, nyerő sort létrehozó lépés nélkül.
+     */
+    static Board[] positions(int size, double fill, RandomGenerator random) {
+        return positions(size, (int) (size * size * fill), random);
+    }
+
+    static Board[] positions(int size, int target, RandomGenerator random) {
+        Board[] boards = new Board[POSITIONS];
+        for (int n = 0; n < boards.length; n++) {
+            Board b = new Board(size, size);
+            Cell mover = Cell.X;
+            int attempts = 0;
+            while (b.stoneCount() < target && attempts < size * size * 4) {
+                attempts++;
+                Position p = new Position(random.nextInt(size), random.nextInt(size));
+                if (!b.isEmpty(p)) {
+                    continue;
+                }
+                b.place(mover, p);
+                if (b.hasFiveInARow(mover, p)) {
+                    b.remove(p);
+                    continue;
+                }
+                mover = mover.opponent();
+            }
+            boards[n] = b;
+        }
+        return boards;
+    }
+}
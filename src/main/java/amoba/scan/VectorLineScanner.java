@@ -0,0 +1,67 @@
+package amoba.scan;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vektoros megvalósítás: egy lépésben {@code SPECIES.length()} szomszédos kezdőindex
+ * ablakösszegét számolja ({@code hossz} eltolt betöltés és összeadás), majd
+ * összehasonlításokkal és igaz-bit számlálással gyűjt. Csak akkor töltődik be,
+ * ha a {@code jdk.incubator.vector} modul elérhető (lásd {@link LineScanner#startup()}).
+ */
+final class VectorLineScanner extends PlaneScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vektor (" + SPECIES.vectorBitSize() + " bit)";
+    }
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    boolean anyWindow(byte[] plane, int end, int length, int width, byte value) {
+        int[] steps = {1, width, width + 1, width - 1};
+        for (int step : steps) {
+            for (int p = 0; p < end; p += SPECIES.length()) {
+                if (sum(plane, p, step, length).compare(VectorOperators.EQ, value).anyTrue()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void countWindows(byte[] plane, int end, int length, int width, int[] features) {
+        int[] steps = {1, width, width + 1, width - 1};
+        int other = length + 1;
+        for (int step : steps) {
+            for (int p = 0; p < end; p += SPECIES.length()) {
+                ByteVector s = sum(plane, p, step, length);
+                for (int k = 1; k <= length; k++) {
+                    int own = s.compare(VectorOperators.EQ, (byte) k).trueCount();
+                    int opp = s.compare(VectorOperators.EQ, (byte) (k * other)).trueCount();
+                    features[k] += own - opp;
+                }
+            }
+        }
+    }
+
+    /*
+     * Az utolsó vektor {@code end} utáni sávjai a sík letiltott (vegyes) mezőiről indulnak,
+     * így maszk nélkül sem számítanak; a túlolvasást a PlaneScanner foglalása fedi.
+     */
+    private static ByteVector sum(byte[] plane, int p, int step, int length) {
+        ByteVector s = ByteVector.fromArray(SPECIES, plane, p);
+        for (int i = 1; i < length; i++) {
+            s = s.add(ByteVector.fromArray(SPECIES, plane, p + i * step));
+        }
+        return s;
+    }
+}
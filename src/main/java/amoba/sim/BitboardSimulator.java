@@ -0,0 +1,363 @@
+package amoba.sim;
+
+import java.util.random.RandomGenerator;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Sok kis játszma (legfeljebb 8x8) egyidejű véletlen lejátszása bitboardokon.
+ * Egy tábla egy {@code long}: a (sor, oszlop) mező bitje {@code sor * 8 + oszlop}.
+ * A játszmák állapota oszlopfolytonos tömbökben (X kövek, O kövek, lépésszám, eredmény)
+ * van, és minden sávot ugyanabban a ciklusban léptet: szomszédos üres mezők maszkja
+ * eltolásokkal, véletlen bit kiválasztása elágazás nélküli bináris kereséssel, a
+ * győzelem ellenőrzése irányonként {@code hossz - 1} eltolás és ÉS művelettel. Döntetlen,
+ * amint egyik félnek sincs ellenfél kő nélküli ablaka, mint a {@link Board#isDrawn}: sávonként
+ * és játékosonként egy még élő "tanú" ablak maszkja van, és csak akkor keresünk újat (ugyanaz
+ * az eltolásos vizsgálat az ellenfél köveinek komplementerén), ha a lépés éppen a tanúba esik,
+ * így a lépésenkénti ellenőrzés általában egyetlen ÉS. A véget ért
+ * sávok kikerülnek a futók listájából, a véletlen számokat kötegenként egy SplitMix64
+ * sorozat adja (egy 64 bites szám két sávnak), a megadott generátor csak a kezdőértékét.
+ *
+ * <p>Csak a szabad (freestyle) szabályt ismeri: legalább {@code hossz} egymás után nyer.
+ * Ugyanaz a lépésszabály, mint a játékban: üres táblán középre, utána csak meglévő
+ * kő mellé (átlósan is).
+ */
+public final class BitboardSimulator {
+
+    public static final int MAX_SIZE = 8;
+    public static final int LANES = 64;
+
+    static final byte ONGOING = 0;
+    static final byte CROSS_WON = 1;
+    static final byte CIRCLE_WON = 2;
+    static final byte DRAWN = 3;
+
+    private static final int STRIDE = 8;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long FILE_H = FILE_A << (STRIDE - 1);
+
+    private final int rows;
+    private final int cols;
+    private final int length;
+    private final long area;
+    /** Egy ablak alakja irányonként (vízszintes, függőleges, átló, ellenátló), a végpontjától visszafelé. */
+    private final long[] shapes = new long[4];
+
+    /*
+     * Sávonkénti állapot (struct-of-arrays); a futások között újrahasznosul.
+     */
+    private final long[] cross = new long[LANES];
+    private final long[] circle = new long[LANES];
+    private final int[] plies = new int[LANES];
+    private final byte[] results = new byte[LANES];
+    private final long[] crossWitness = new long[LANES];
+    private final long[] circleWitness = new long[LANES];
+    private final int[] active = new int[LANES];
+
+    /**
+     * Egy futás összesítése.
+     */
+    public record Stats(long games, long crossWins, long circleWins, long draws, long plies, long elapsedNanos) {
+
+        public double playoutsPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+        }
+
+        /** X pontszáma (győzelem 1, döntetlen 0.5) átlagosan. */
+        public double crossScore() {
+            return games == 0 ? 0.5 : (crossWins + draws * 0.5) / games;
+        }
+
+        Stats plus(Stats o) {
+            return new Stats(games + o.games, crossWins + o.crossWins, circleWins + o.circleWins, draws + o.draws,
+                    plies + o.plies, elapsedNanos + o.elapsedNanos);
+        }
+    }
+
+    public BitboardSimulator(int rows, int cols, int length) {
+        if (cols < Board.MIN_SIZE || rows < cols || rows > MAX_SIZE || length < WinRule.MIN_LENGTH
+                || length > rows) {
+            throw new IllegalArgumentException("Bitboard szimuláció: " + Board.MIN_SIZE + " <= M <= N <= " + MAX_SIZE
+                    + ", " + WinRule.MIN_LENGTH + " <= hossz <= N");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.length = length;
+        long mask = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                mask |= bit(r, c);
+            }
+        }
+        this.area = mask;
+        int[] steps = {1, STRIDE, STRIDE + 1, STRIDE - 1};
+        for (int d = 0; d < steps.length; d++) {
+            for (int i = 0; i < length; i++) {
+                shapes[d] |= 1L << (i * steps[d]);
+            }
+        }
+    }
+
+    /**
+     * Szimulátor egy tábla méretéhez és szabályához; csak szabad szabályú, legfeljebb 8x8-as táblára.
+     */
+    public static BitboardSimulator forBoard(Board board) {
+        if (board.rule().variant() != WinRule.Variant.FREESTYLE) {
+            throw new IllegalArgumentException("Bitboard szimuláció csak szabad szabállyal: " + board.rule().id());
+        }
+        return new BitboardSimulator(board.rows(), board.cols(), board.rule().length());
+    }
+
+    /**
+     * {@code games} véletlen játszma az üres tábláról (X kezd középen).
+     */
+    public Stats run(long games, RandomGenerator random) {
+        return rollouts(0L, 0L, Cell.X, games, random);
+    }
+
+    /**
+     * {@code games} véletlen lejátszás egy adott állásból (pl. kiértékeléshez rollouttal).
+     */
+    public Stats rollouts(Board start, Cell toMove, long games, RandomGenerator random) {
+        if (start.rows() != rows || start.cols() != cols) {
+            throw new IllegalArgumentException("Más táblaméret: " + start.rows() + "x" + start.cols());
+        }
+        return rollouts(pack(start, Cell.X), pack(start, Cell.O), toMove, games, random);
+    }
+
+    private Stats rollouts(long startCross, long startCircle, Cell toMove, long games, RandomGenerator random) {
+        final long started = System.nanoTime();
+        Stats total = new Stats(0, 0, 0, 0, 0, 0);
+        long left = games;
+        while (left > 0) {
+            int lanes = (int) Math.min(LANES, left);
+            total = total.plus(batch(startCross, startCircle, toMove == Cell.O, lanes, random));
+            left -= lanes;
+        }
+        return new Stats(total.games, total.crossWins, total.circleWins, total.draws, total.plies,
+                System.nanoTime() - started);
+    }
+
+    static long pack(Board board, Cell player) {
+        long bits = 0;
+        for (int r = 0; r < board.rows(); r++) {
+            for (int c = 0; c < board.cols(); c++) {
+                if (board.cellAt(r, c) == player) {
+                    bits |= bit(r, c);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /*
+     * Egy köteg sáv lépésenként együtt: minden körben minden még futó sáv egyet lép.
+     */
+    private Stats batch(long startCross, long startCircle, boolean circleToMove, int lanes, RandomGenerator random) {
+        byte initial = initialResult(startCross, startCircle);
+        long crossLive = liveWindow(area & ~startCircle);
+        long circleLive = liveWindow(area & ~startCross);
+        for (int i = 0; i < lanes; i++) {
+            cross[i] = startCross;
+            circle[i] = startCircle;
+            plies[i] = 0;
+            results[i] = initial;
+            crossWitness[i] = crossLive;
+            circleWitness[i] = circleLive;
+        }
+        int cells = rows * cols - Long.bitCount(startCross | startCircle);
+        int running = initial == ONGOING ? lanes : 0;
+        for (int i = 0; i < running; i++) {
+            active[i] = i;
+        }
+        boolean circleMoves = circleToMove;
+        long state = random.nextLong();
+        for (int ply = 1; running > 0; ply++) {
+            long bits = 0;
+            int i = 0;
+            while (i < running) {
+                int lane = active[i];
+                long own = circleMoves ? circle[lane] : cross[lane];
+                long occupied = cross[lane] | circle[lane];
+                long candidates = occupied == 0 ? centerBit() : neighbours(occupied) & ~occupied & area;
+                if ((i & 1) == 0) {
+                    state += GOLDEN_GAMMA;
+                    bits = mix(state);
+                } else {
+                    bits <<= Integer.SIZE;
+                }
+                int pick = (int) (((bits >>> Integer.SIZE) * Long.bitCount(candidates)) >>> Integer.SIZE);
+                long placed = 1L << select(candidates, pick);
+                own |= placed;
+                long[] opponentWitness = circleMoves ? crossWitness : circleWitness;
+                if ((opponentWitness[lane] & placed) != 0) {
+                    opponentWitness[lane] = liveWindow(area & ~own);
+                }
+                if (circleMoves) {
+                    circle[lane] = own;
+                } else {
+                    cross[lane] = own;
+                }
+                if (hasRun(own)) {
+                    results[lane] = circleMoves ? CIRCLE_WON : CROSS_WON;
+                } else if (ply == cells || (crossWitness[lane] | circleWitness[lane]) == 0) {
+                    results[lane] = DRAWN;
+                } else {
+                    i++;
+                    continue;
+                }
+                plies[lane] = ply;
+                active[i] = active[--running];
+            }
+            circleMoves = !circleMoves;
+        }
+        long crossWins = 0;
+        long circleWins = 0;
+        long draws = 0;
+        long moves = 0;
+        for (int i = 0; i < lanes; i++) {
+            crossWins += results[i] == CROSS_WON ? 1 : 0;
+            circleWins += results[i] == CIRCLE_WON ? 1 : 0;
+            draws += results[i] == DRAWN ? 1 : 0;
+            moves += plies[i];
+        }
+        return new Stats(lanes, crossWins, circleWins, draws, moves, 0);
+    }
+
+    private byte initialResult(long startCross, long startCircle) {
+        if (hasRun(startCross)) {
+            return CROSS_WON;
+        }
+        if (hasRun(startCircle)) {
+            return CIRCLE_WON;
+        }
+        boolean dead = liveWindow(area & ~startCircle) == 0 && liveWindow(area & ~startCross) == 0;
+        return dead || Long.bitCount(startCross | startCircle) == rows * cols ? DRAWN : ONGOING;
+    }
+
+    private long centerBit() {
+        return bit(rows / 2, cols / 2);
+    }
+
+    /**
+     * Van-e legalább {@code length} hosszú sor a négy irány bármelyikében.
+     */
+    boolean hasRun(long stones) {
+        long horizontal = stones;
+        long vertical = stones;
+        long diagonal = stones;
+        long anti = stones;
+        long h = stones;
+        long v = stones;
+        long d = stones;
+        long a = stones;
+        for (int i = 1; i < length; i++) {
+            h = east(h);
+            v = south(v);
+            d = east(south(d));
+            a = west(south(a));
+            horizontal &= h;
+            vertical &= v;
+            diagonal &= d;
+            anti &= a;
+        }
+        return (horizontal | vertical | diagonal | anti) != 0;
+    }
+
+    /**
+     * Egy teljesen a {@code free} mezőkre eső ablak maszkja, vagy 0, ha nincs ilyen.
+     */
+    long liveWindow(long free) {
+        long horizontal = free;
+        long vertical = free;
+        long diagonal = free;
+        long anti = free;
+        long h = free;
+        long v = free;
+        long d = free;
+        long a = free;
+        for (int i = 1; i < length; i++) {
+            h = east(h);
+            v = south(v);
+            d = east(south(d));
+            a = west(south(a));
+            horizontal &= h;
+            vertical &= v;
+            diagonal &= d;
+            anti &= a;
+        }
+        int back = length - 1;
+        if (horizontal != 0) {
+            return shapes[0] << (Long.numberOfTrailingZeros(horizontal) - back);
+        }
+        if (vertical != 0) {
+            return shapes[1] << (Long.numberOfTrailingZeros(vertical) - back * STRIDE);
+        }
+        if (diagonal != 0) {
+            return shapes[2] << (Long.numberOfTrailingZeros(diagonal) - back * (STRIDE + 1));
+        }
+        return anti == 0 ? 0 : shapes[3] << (Long.numberOfTrailingZeros(anti) - back * (STRIDE - 1));
+    }
+
+    /**
+     * A kövek nyolc irányú szomszédai (a tábla területére vágás nélkül).
+     */
+    static long neighbours(long stones) {
+        long horizontal = stones | east(stones) | west(stones);
+        return horizontal | (horizontal << STRIDE) | (horizontal >>> STRIDE);
+    }
+
+    /**
+     * A {@code k}. (0-tól számolt) beállított bit indexe, elágazás nélküli bináris kereséssel.
+     */
+    static int select(long bits, int k) {
+        long x = bits;
+        int rank = k;
+        int position = 0;
+        for (int half = Integer.SIZE; half > 0; half >>>= 1) {
+            int low = Long.bitCount(x & ((1L << half) - 1));
+            int skip = (low - rank - 1) >>> Integer.SIZE - 1; // 1, ha rank >= low
+            int shift = half & -skip;
+            rank -= low & -skip;
+            x >>>= shift;
+            position += shift;
+        }
+        return position;
+    }
+
+    /*
+     * SplitMix64 kimeneti keverés: a köteg saját, inline-olható véletlenforrása.
+     */
+    private static long mix(long state) {
+        long z = (state ^ (state >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static long bit(int row, int col) {
+        return 1L << (row * STRIDE + col);
+    }
+
+    private static long east(long x) {
+        return (x << 1) & ~FILE_A;
+    }
+
+    private static long west(long x) {
+        return (x >>> 1) & ~FILE_H;
+    }
+
+    private static long south(long x) {
+        return x << STRIDE;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+}
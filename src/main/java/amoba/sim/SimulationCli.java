@@ -0,0 +1,97 @@
+package amoba.sim;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+import amoba.ai.RandomAI;
+import amoba.ai.Rng;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Parancssori belépési pont: {@code simulate <N> <M> <játszmák> [--length=5] [--seed=S] [--compare]}.
+ * A {@code --compare} ugyanennyi játszmát a {@link RandomAI} + {@link Board} úton is lejátszik összevetésként.
+ */
+public final class SimulationCli {
+
+    private static final int ARG_MIN = 3;
+
+    private SimulationCli() { }
+
+    public static int run(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: simulate <N> <M> <játszmák> [--length=5] [--seed=S] [--compare]");
+            return 2;
+        }
+        try {
+            int rows = Integer.parseInt(args[0]);
+            int cols = Integer.parseInt(args[1]);
+            long games = Long.parseLong(args[2]);
+            int length = WinRule.STANDARD.length();
+            long seed = Rng.newSeed();
+            boolean compare = false;
+            for (int i = ARG_MIN; i < args.length; i++) {
+                String a = args[i];
+                if (a.startsWith("--length=")) {
+                    length = Integer.parseInt(a.substring("--length=".length()));
+                } else if (a.startsWith("--seed=")) {
+                    seed = Long.parseLong(a.substring("--seed=".length()));
+                } else if ("--compare".equals(a)) {
+                    compare = true;
+                } else {
+                    throw new IllegalArgumentException("Ismeretlen kapcsoló: " + a);
+                }
+            }
+            BitboardSimulator sim = new BitboardSimulator(rows, cols, length);
+            BitboardSimulator.Stats s = sim.run(games, Rng.create(seed));
+            out.printf(Locale.ROOT, "Bitboard: %d játszma, X %d / O %d / döntetlen %d, átlag %.1f lépés, %.0f játszma/s%n",
+                    s.games(), s.crossWins(), s.circleWins(), s.draws(), (double) s.plies() / s.games(),
+                    s.playoutsPerSecond());
+            if (compare) {
+                BitboardSimulator.Stats b = boardPlayouts(rows, cols, WinRule.freestyle(length), games, Rng.create(seed));
+                out.printf(Locale.ROOT, "Board + RandomAI: X %d / O %d / döntetlen %d, %.0f játszma/s (%.1fx)%n",
+                        b.crossWins(), b.circleWins(), b.draws(), b.playoutsPerSecond(),
+                        s.playoutsPerSecond() / Math.max(b.playoutsPerSecond(), 1e-9));
+            }
+            return 0;
+        } catch (IllegalArgumentException e) {
+            out.println("Szimulációs hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Összevetési alap: ugyanazok a szabályok játszmánként egy {@link Board} és {@link RandomAI} felett.
+     */
+    static BitboardSimulator.Stats boardPlayouts(int rows, int cols, WinRule rule, long games, RandomGenerator random) {
+        final long started = System.nanoTime();
+        RandomAI ai = new RandomAI(random);
+        long crossWins = 0;
+        long circleWins = 0;
+        long draws = 0;
+        long plies = 0;
+        for (long g = 0; g < games; g++) {
+            Board board = new Board(rows, cols, rule);
+            Cell mover = Cell.X;
+            while (true) {
+                Position p = board.stoneCount() == 0 ? board.center() : ai.chooseMove(board);
+                board.place(mover, p);
+                plies++;
+                if (board.hasFiveInARow(mover, p)) {
+                    crossWins += mover == Cell.X ? 1 : 0;
+                    circleWins += mover == Cell.O ? 1 : 0;
+                    break;
+                }
+                if (board.isDrawn()) {
+                    draws++;
+                    break;
+                }
+                mover = mover.opponent();
+            }
+        }
+        return new BitboardSimulator.Stats(games, crossWins, circleWins, draws, plies, System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,80 @@
+package amoba.solver;
+
+import java.util.Arrays;
+
+import amoba.ai.Zobrist;
+import amoba.board.Board;
+import amoba.model.Cell;
+
+/**
+ * Szimmetria-invariáns pozíció hash: a tábla minden szimmetriájára (négyzetes táblán 8,
+ * egyébként 4) külön Zobrist hash-t tart inkrementálisan, és ezek minimuma a kanonikus kulcs.
+ * A soron következő fél is a kulcs része.
+ */
+final class CanonicalHash {
+
+    private static final long SIDE_KEY = 0x9E3779B97F4A7C15L;
+
+    private final Zobrist zobrist;
+    private final int cols;
+    private final int[][] maps;
+    private final long[] hashes;
+
+    CanonicalHash(int rows, int cols) {
+        this.zobrist = Zobrist.forSize(rows, cols);
+        this.cols = cols;
+        int count = rows == cols ? 8 : 4;
+        this.maps = new int[count][rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                int fr = rows - 1 - r;
+                int fc = cols - 1 - c;
+                maps[0][i] = i;
+                maps[1][i] = fr * cols + c;
+                maps[2][i] = r * cols + fc;
+                maps[3][i] = fr * cols + fc;
+                if (count == 8) {
+                    maps[4][i] = c * cols + r;
+                    maps[5][i] = fc * cols + r;
+                    maps[6][i] = c * cols + fr;
+                    maps[7][i] = fc * cols + fr;
+                }
+            }
+        }
+        this.hashes = new long[count];
+    }
+
+    /**
+     * Újraszámolás egy tábla köveiből.
+     */
+    void reset(Board board) {
+        Arrays.fill(hashes, 0L);
+        for (int i = 0; i < board.stoneCount(); i++) {
+            int idx = board.stoneAt(i);
+            toggle(board.cellAt(idx / cols, idx % cols), idx);
+        }
+    }
+
+    /**
+     * Kő lerakása vagy levétele (XOR, így mindkettőre ugyanaz).
+     */
+    void toggle(Cell cell, int idx) {
+        for (int s = 0; s < maps.length; s++) {
+            int t = maps[s][idx];
+            hashes[s] ^= zobrist.key(cell, t / cols, t % cols);
+        }
+    }
+
+    long key(Cell toMove) {
+        long min = hashes[0];
+        for (int s = 1; s < hashes.length; s++) {
+            min = Math.min(min, hashes[s]);
+        }
+        return toMove == Cell.O ? min ^ SIDE_KEY : min;
+    }
+
+    int symmetries() {
+        return maps.length;
+    }
+}
@@ -0,0 +1,203 @@
+package amoba.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import amoba.board.WinRule;
+
+/**
+ * Megoldott állások tömör, memóriába leképezett táblája (nyílt címzés, lineáris próbálás).
+ * Bejegyzésenként 8 bájt: a kanonikus kulcs felső 61 bitje és a 3 bites eredmény
+ * (a soron következő fél szemszögéből: pontos WIN / DRAW / LOSS, vagy alfa-béta korlát:
+ * "legalább döntetlen" / "legfeljebb döntetlen"), így a fájl közvetlenül, betöltés nélkül használható.
+ *
+ * <p>Fejléc (64 bájt): magic, verzió, sorok, oszlopok, a szabály azonosítója, a kapacitás
+ * kitevője és a bejegyzések száma. Más méretű/szabályú táblához tartozó fájl nem nyitható meg.
+ */
+public final class ResultTable implements Closeable {
+
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x414D5254; // "AMRT"
+    private static final int VERSION = 2;
+    private static final int HEADER = 64;
+    private static final int RULE_ID_BYTES = 16;
+    private static final int COUNT_OFFSET = 4 * Integer.BYTES + RULE_ID_BYTES + Integer.BYTES;
+    private static final int MIN_BITS = 4;
+    private static final int MAX_BITS = 27;
+    private static final int MAX_PROBES = 32;
+    private static final long VALUE_MASK = 7L;
+
+    /** Nyers kódok: 0 = üres slot. */
+    static final int CODE_LOSS = 1;
+    static final int CODE_AT_MOST_DRAW = 2;
+    static final int CODE_DRAW = 3;
+    static final int CODE_AT_LEAST_DRAW = 4;
+    static final int CODE_WIN = 5;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int mask;
+    private long count;
+
+    private ResultTable(FileChannel channel, MappedByteBuffer map, int bits, long count) {
+        this.channel = channel;
+        this.map = map;
+        this.mask = (1 << bits) - 1;
+        this.count = count;
+    }
+
+    /**
+     * Megnyitás vagy létrehozás. Létező fájlnál a fejlécnek egyeznie kell.
+     */
+    public static ResultTable open(Path path, int rows, int cols, WinRule rule, int bits) throws IOException {
+        if (bits < MIN_BITS || bits > MAX_BITS) {
+            throw new IllegalArgumentException("A tábla mérete 2^" + MIN_BITS + " és 2^" + MAX_BITS + " között lehet!");
+        }
+        boolean existed = Files.exists(path) && Files.size(path) > 0;
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            int fileBits = bits;
+            if (existed) {
+                MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                head.order(ByteOrder.LITTLE_ENDIAN);
+                if (head.getInt(0) != MAGIC || head.getInt(Integer.BYTES) != VERSION) {
+                    throw new IOException("Nem eredménytábla: " + path);
+                }
+                if (head.getInt(2 * Integer.BYTES) != rows || head.getInt(3 * Integer.BYTES) != cols
+                        || !ruleId(head).equals(rule.id())) {
+                    throw new IOException("Az eredménytábla más táblamérethez vagy szabályhoz tartozik: " + path);
+                }
+                fileBits = head.getInt(COUNT_OFFSET - Integer.BYTES);
+            }
+            long size = HEADER + ((long) Long.BYTES << fileBits);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (!existed) {
+                map.putInt(0, MAGIC);
+                map.putInt(Integer.BYTES, VERSION);
+                map.putInt(2 * Integer.BYTES, rows);
+                map.putInt(3 * Integer.BYTES, cols);
+                byte[] id = rule.id().getBytes(StandardCharsets.US_ASCII);
+                for (int i = 0; i < RULE_ID_BYTES; i++) {
+                    map.put(4 * Integer.BYTES + i, i < id.length ? id[i] : 0);
+                }
+                map.putInt(COUNT_OFFSET - Integer.BYTES, fileBits);
+                map.putLong(COUNT_OFFSET, 0L);
+            }
+            return new ResultTable(ch, map, fileBits, map.getLong(COUNT_OFFSET));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static String ruleId(MappedByteBuffer head) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < RULE_ID_BYTES; i++) {
+            byte b = head.get(4 * Integer.BYTES + i);
+            if (b == 0) {
+                break;
+            }
+            sb.append((char) b);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Tárolt pontos eredmény (LOSS, DRAW, WIN) vagy UNKNOWN (nincs, vagy csak korlát ismert).
+     */
+    public int get(long key) {
+        return switch (probe(key)) {
+            case CODE_LOSS -> LOSS;
+            case CODE_DRAW -> DRAW;
+            case CODE_WIN -> WIN;
+            default -> UNKNOWN;
+        };
+    }
+
+    /**
+     * Pontos eredmény tárolása.
+     */
+    public boolean put(long key, int value) {
+        return putCode(key, CODE_DRAW + 2 * value);
+    }
+
+    /**
+     * A nyers kód (0, ha nincs bejegyzés).
+     */
+    int probe(long key) {
+        long tag = key & ~VALUE_MASK;
+        int slot = (int) (key >>> 3) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            long e = map.getLong(offset(slot));
+            if (e == 0) {
+                return 0;
+            }
+            if ((e & ~VALUE_MASK) == tag) {
+                return (int) (e & VALUE_MASK);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Nyers kód tárolása; false, ha a próbálási lánc betelt (a bejegyzés elveszik, a helyesség nem).
+     */
+    boolean putCode(long key, int code) {
+        long tag = key & ~VALUE_MASK;
+        long entry = tag | code;
+        int slot = (int) (key >>> 3) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int at = offset(slot);
+            long e = map.getLong(at);
+            if (e == 0 || (e & ~VALUE_MASK) == tag) {
+                map.putLong(at, entry);
+                if (e == 0) {
+                    count++;
+                    map.putLong(COUNT_OFFSET, count);
+                }
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * A módosítások lemezre írása.
+     */
+    public void force() {
+        map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private static int offset(int slot) {
+        return HEADER + slot * Long.BYTES;
+    }
+}
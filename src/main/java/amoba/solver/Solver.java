@@ -0,0 +1,221 @@
+package amoba.solver;
+
+import java.util.Arrays;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Teljes (kimerítő) megoldó a szomszédossági szabály szerinti lépésfára: alfa-béta negamax
+ * három értékkel (WIN / DRAW / LOSS a soron következő fél szemszögéből), az azonnali nyerő
+ * lépés levágásával és szomszédszám szerinti lépésrenddel. Minden teljesen kiszámolt részfa eredménye a {@link ResultTable}-be kerül
+ * kanonikus (szimmetria-invariáns) kulccsal, így a megoldás tartós és újrahasznosítható.
+ * Csomópont limit túllépésekor UNKNOWN az eredmény, és a félbehagyott részfák nem tárolódnak.
+ */
+public final class Solver {
+
+    private final ResultTable table;
+    private CanonicalHash hash;
+    private int hashRows;
+    private int hashCols;
+    private int[][] buffers = new int[16][];
+    private long nodes;
+    private long nodeLimit;
+    private boolean aborted;
+
+    public Solver(ResultTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Az állás értéke a soron következő fél szemszögéből (vagy UNKNOWN limit esetén).
+     * A tábla a hívás után változatlan.
+     */
+    public int solve(Board board, Cell toMove, long limit) {
+        begin(board, limit);
+        return search(board, toMove, 0, ResultTable.LOSS, ResultTable.WIN);
+    }
+
+    /**
+     * Legjobb lépés a tábla alapján (hiányzó részeredményeket kiszámolja), vagy null, ha
+     * nincs lépés, a keret kevés volt, vagy minden lépés vesztes (ilyenkor a hívó dönt).
+     */
+    public Position bestMove(Board board, Cell toMove, long limit) {
+        begin(board, limit);
+        int n = board.frontierSize();
+        int[] moves = Arrays.copyOf(frontierCopy(board, 0), n);
+        int cols = board.cols();
+        Position best = null;
+        int bestValue = ResultTable.LOSS;
+        for (int idx : moves) {
+            Position p = new Position(idx / cols, idx % cols);
+            board.place(toMove, p);
+            if (board.hasFiveInARow(toMove, p) && !board.isForbidden(toMove, p)) {
+                board.remove(p);
+                return p;
+            }
+            int value = ResultTable.UNKNOWN;
+            if (!board.isForbidden(toMove, p)) {
+                hash.toggle(toMove, idx);
+                int child = search(board, toMove.opponent(), 1, ResultTable.LOSS, ResultTable.WIN);
+                hash.toggle(toMove, idx);
+                value = child == ResultTable.UNKNOWN ? child : -child;
+            }
+            board.remove(p);
+            if (aborted) {
+                return null;
+            }
+            if (value != ResultTable.UNKNOWN && value > bestValue) {
+                bestValue = value;
+                best = p;
+                if (value == ResultTable.WIN) {
+                    break;
+                }
+            }
+        }
+        return bestValue == ResultTable.LOSS ? null : best;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    private void begin(Board board, long limit) {
+        if (hash == null || hashRows != board.rows() || hashCols != board.cols()) {
+            hash = new CanonicalHash(board.rows(), board.cols());
+            hashRows = board.rows();
+            hashCols = board.cols();
+        }
+        hash.reset(board);
+        nodes = 0;
+        nodeLimit = limit;
+        aborted = false;
+    }
+
+    /*
+     * Alfa-béta negamax a {-1, 0, 1} értékeken. A táblába pontos érték, vagy ha az ablak
+     * levágta, korlát kerül (legalább / legfeljebb döntetlen).
+     */
+    private int search(Board board, Cell toMove, int ply, int alphaIn, int betaIn) {
+        int alpha = alphaIn;
+        int beta = betaIn;
+        long key = hash.key(toMove);
+        final int known = table.probe(key);
+        switch (known) {
+            case ResultTable.CODE_WIN:
+                return ResultTable.WIN;
+            case ResultTable.CODE_LOSS:
+                return ResultTable.LOSS;
+            case ResultTable.CODE_DRAW:
+                return ResultTable.DRAW;
+            case ResultTable.CODE_AT_LEAST_DRAW:
+                alpha = Math.max(alpha, ResultTable.DRAW);
+                break;
+            case ResultTable.CODE_AT_MOST_DRAW:
+                beta = Math.min(beta, ResultTable.DRAW);
+                break;
+            default:
+                break;
+        }
+        if (alpha >= beta) {
+            return alpha;
+        }
+        if (board.isDrawn()) {
+            table.put(key, ResultTable.DRAW); // egyik félnek sincs nyerhető ablaka
+            return ResultTable.DRAW;
+        }
+        if (++nodes > nodeLimit) {
+            aborted = true;
+            return ResultTable.UNKNOWN;
+        }
+        int n = board.frontierSize();
+        int[] moves = frontierCopy(board, ply);
+        int cols = board.cols();
+        // azonnali nyerés keresése a teljes mélyítés előtt
+        for (int i = 0; i < n; i++) {
+            Position p = new Position(moves[i] / cols, moves[i] % cols);
+            board.place(toMove, p);
+            boolean wins = board.hasFiveInARow(toMove, p) && !board.isForbidden(toMove, p);
+            board.remove(p);
+            if (wins) {
+                table.put(key, ResultTable.WIN);
+                return ResultTable.WIN;
+            }
+        }
+        orderByNeighbors(board, moves, n);
+        int best = ResultTable.UNKNOWN;
+        Cell next = toMove.opponent();
+        int a = alpha;
+        for (int i = 0; i < n && a < beta; i++) {
+            Position p = new Position(moves[i] / cols, moves[i] % cols);
+            board.place(toMove, p);
+            if (!board.isForbidden(toMove, p)) {
+                hash.toggle(toMove, moves[i]);
+                int child = search(board, next, ply + 1, -beta, -a);
+                hash.toggle(toMove, moves[i]);
+                if (aborted) {
+                    board.remove(p);
+                    return ResultTable.UNKNOWN;
+                }
+                best = Math.max(best, -child);
+                a = Math.max(a, best);
+            }
+            board.remove(p);
+        }
+        if (best == ResultTable.UNKNOWN) {
+            best = ResultTable.DRAW; // nincs szabályos lépés
+            table.put(key, best);
+        } else if (best >= beta) {
+            if (known == ResultTable.CODE_AT_MOST_DRAW) {
+                best = ResultTable.DRAW; // alsó és felső korlát együtt: pontos
+                table.put(key, best);
+            } else {
+                table.putCode(key, best == ResultTable.WIN ? ResultTable.CODE_WIN : ResultTable.CODE_AT_LEAST_DRAW);
+            }
+        } else if (best <= alpha) {
+            if (known == ResultTable.CODE_AT_LEAST_DRAW) {
+                best = ResultTable.DRAW;
+                table.put(key, best);
+            } else {
+                table.putCode(key, best == ResultTable.LOSS ? ResultTable.CODE_LOSS : ResultTable.CODE_AT_MOST_DRAW);
+            }
+        } else {
+            table.put(key, best);
+        }
+        return best;
+    }
+
+    /*
+     * Több szomszédos kővel rendelkező mezők előre (beszúrásos rendezés, a lista rövid).
+     */
+    private static void orderByNeighbors(Board board, int[] moves, int n) {
+        int cols = board.cols();
+        for (int i = 1; i < n; i++) {
+            int m = moves[i];
+            int w = board.neighborCount(m / cols, m % cols);
+            int j = i - 1;
+            while (j >= 0 && board.neighborCount(moves[j] / cols, moves[j] % cols) < w) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = m;
+        }
+    }
+
+    private int[] frontierCopy(Board board, int ply) {
+        if (ply >= buffers.length) {
+            buffers = Arrays.copyOf(buffers, ply * 2);
+        }
+        int n = board.frontierSize();
+        int[] buf = buffers[ply];
+        if (buf == null || buf.length < n) {
+            buf = new int[Math.max(n, 16) * 2];
+            buffers[ply] = buf;
+        }
+        for (int i = 0; i < n; i++) {
+            buf[i] = board.frontierAt(i);
+        }
+        return buf;
+    }
+}
@@ -0,0 +1,114 @@
+package amoba.solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import amoba.ai.AiSession;
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tökéletes játék kis táblán és majdnem teli állásokban: a megoldó (és a tartós
+ * eredménytábla) alapján lép, minden más esetben a tartalék AI-ra bíz.
+ * Az eredménytábla táblaméretenként és szabályonként külön fájl a megadott könyvtárban.
+ */
+public class SolverAI implements AiSession {
+
+    public static final int SMALL_AREA = 25;
+    public static final int ENDGAME_EMPTY = 12;
+    public static final long DEFAULT_NODE_LIMIT = 500_000L;
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverAI.class);
+
+    private final AiSession fallback;
+    private final Path dir;
+    private final int tableBits;
+    private final long nodeLimit;
+    private ResultTable table;
+    private Solver solver;
+    private String tableFor;
+
+    public SolverAI(AiSession fallback) {
+        this(fallback, Path.of(System.getProperty("amoba.solver.dir", ".amoba-solved")), DEFAULT_TABLE_BITS,
+                DEFAULT_NODE_LIMIT);
+    }
+
+    public SolverAI(AiSession fallback, Path dir, int tableBits, long nodeLimit) {
+        this.fallback = fallback;
+        this.dir = dir;
+        this.tableBits = tableBits;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Megoldható-e az állás ésszerű időben: kis tábla, vagy kevés üres mező.
+     */
+    public static boolean isSolvable(Board board) {
+        long area = (long) board.rows() * board.cols();
+        return area <= SMALL_AREA || area - board.stoneCount() <= ENDGAME_EMPTY;
+    }
+
+    public static Path tablePath(Path dir, Board board) {
+        return dir.resolve(board.rows() + "x" + board.cols() + "-" + board.rule().id() + ".tbl");
+    }
+
+    @Override
+    public void reset(Board board) {
+        fallback.reset(board);
+    }
+
+    @Override
+    public void onMove(Cell player, Position p) {
+        fallback.onMove(player, p);
+    }
+
+    @Override
+    public long saveTable(Path file, Board board) throws IOException {
+        return fallback.saveTable(file, board);
+    }
+
+    @Override
+    public long loadTable(Path file, Board board) throws IOException {
+        return fallback.loadTable(file, board);
+    }
+
+    @Override
+    public Position chooseMove(Board board) {
+        if (isSolvable(board) && ensureTable(board)) {
+            Cell toMove = board.stoneCount(Cell.X) > board.stoneCount(Cell.O) ? Cell.O : Cell.X;
+            Position best = solver.bestMove(board, toMove, nodeLimit);
+            table.force();
+            if (best != null) {
+                return best;
+            }
+        }
+        return fallback.chooseMove(board);
+    }
+
+    private boolean ensureTable(Board board) {
+        String key = board.rows() + "x" + board.cols() + "-" + board.rule().id();
+        if (key.equals(tableFor)) {
+            return table != null;
+        }
+        tableFor = key;
+        try {
+            if (table != null) {
+                table.close();
+            }
+            Files.createDirectories(dir);
+            table = ResultTable.open(tablePath(dir, board), board.rows(), board.cols(), board.rule(), tableBits);
+            solver = new Solver(table);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Eredménytábla nem nyitható meg, csak a tartalék AI lép", e);
+            table = null;
+            solver = null;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package amoba.solver;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Parancssori belépési pont kis táblák előzetes megoldásához:
+ * {@code solve <N> <M> [--rule=freestyle4] [--dir=.amoba-solved] [--bits=20] [--nodes=N]}.
+ * A játék kezdőállásából (X középen, X következik) old meg.
+ */
+public final class SolverCli {
+
+    private static final int ARG_MIN = 2;
+
+    private SolverCli() { }
+
+    public static int run(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: solve <N> <M> [--rule=R] [--dir=D] [--bits=B] [--nodes=N]");
+            return 2;
+        }
+        WinRule rule = WinRule.STANDARD;
+        Path dir = Path.of(System.getProperty("amoba.solver.dir", ".amoba-solved"));
+        int bits = SolverAI.DEFAULT_TABLE_BITS;
+        long nodes = Long.MAX_VALUE;
+        try {
+            for (int i = ARG_MIN; i < args.length; i++) {
+                String a = args[i];
+                if (a.startsWith("--rule=")) {
+                    rule = WinRule.parse(a.substring("--rule=".length()));
+                } else if (a.startsWith("--dir=")) {
+                    dir = Path.of(a.substring("--dir=".length()));
+                } else if (a.startsWith("--bits=")) {
+                    bits = Integer.parseInt(a.substring("--bits=".length()));
+                } else if (a.startsWith("--nodes=")) {
+                    nodes = Long.parseLong(a.substring("--nodes=".length()));
+                } else {
+                    throw new IllegalArgumentException("Ismeretlen kapcsoló: " + a);
+                }
+            }
+            Board board = new Board(Integer.parseInt(args[0]), Integer.parseInt(args[1]), rule);
+            board.place(Cell.X, board.center());
+            Files.createDirectories(dir);
+            Path file = SolverAI.tablePath(dir, board);
+            try (ResultTable table = ResultTable.open(file, board.rows(), board.cols(), rule, bits)) {
+                Solver solver = new Solver(table);
+                final long started = System.nanoTime();
+                int result = solver.solve(board, Cell.X, nodes);
+                out.printf(Locale.ROOT, "%dx%d %s: %s (%d csomópont, %d tárolt állás, %.1f s) -> %s%n",
+                        board.rows(), board.cols(), rule.id(), describe(result), solver.nodes(), table.size(),
+                        (System.nanoTime() - started) / 1e9, file);
+            }
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Megoldási hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static String describe(int result) {
+        return switch (result) {
+            case ResultTable.WIN -> "X nyer";
+            case ResultTable.LOSS -> "O nyer";
+            case ResultTable.DRAW -> "döntetlen";
+            default -> "ismeretlen (csomópont limit)";
+        };
+    }
+}
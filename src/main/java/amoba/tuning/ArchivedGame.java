@@ -0,0 +1,44 @@
+package amoba.tuning;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Egy archivált játszma: táblaméret, szabály, eredmény és a lépések mezőindexei
+ * (sor * oszlopszám + oszlop). A lépések X-szel kezdve felváltva követik egymást.
+ *
+ * @param winner X, O, vagy EMPTY döntetlen esetén
+ */
+public record ArchivedGame(int rows, int cols, WinRule rule, Cell winner, int[] moves) {
+
+    /**
+     * Üres tábla, amelyre a lépések visszajátszhatók.
+     */
+    public Board newBoard() {
+        return new Board(rows, cols, rule);
+    }
+
+    /**
+     * Az első {@code plies} lépés visszajátszása egy új táblára.
+     */
+    public Board replay(int plies) {
+        Board b = newBoard();
+        for (int i = 0; i < plies; i++) {
+            b.place(mover(i), new Position(moves[i] / cols, moves[i] % cols));
+        }
+        return b;
+    }
+
+    public static Cell mover(int ply) {
+        return ply % 2 == 0 ? Cell.X : Cell.O;
+    }
+
+    /**
+     * Eredmény X szemszögéből: 1 = X nyert, 0.5 = döntetlen, 0 = O nyert.
+     */
+    public double scoreForX() {
+        return winner == Cell.X ? 1.0 : winner == Cell.O ? 0.0 : 0.5;
+    }
+}
@@ -0,0 +1,116 @@
+package amoba.tuning;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Egy kiosztott önjáték köteg: AI pár, táblaméret, szabály, játszmaszám és seed.
+ * A köteg seedje csak a futás seedjétől és a köteg sorszámától függ, így bármelyik
+ * worker játssza le, ugyanazokat a játszmákat kapjuk.
+ *
+ * <p>A hálózati formátum ({@link #write}/{@link #read}) és a tömör játszma rekord
+ * ({@link #writeGame}/{@link #readGame}: nyertes, majd változó hosszú egészként a
+ * lépésszám és a mezőindexek) a koordinátor és a workerek közös nyelve.
+ */
+record Assignment(int batch, int rows, int cols, WinRule rule, SelfPlay.Engine cross, SelfPlay.Engine circle,
+                  int openingPlies, int games, long seed) {
+
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_MASK = 0x7F;
+
+    static long batchSeed(long runSeed, int batch) {
+        return runSeed + (batch + 1L) * SEED_STEP;
+    }
+
+    SelfPlay selfPlay(int parallelism) {
+        return new SelfPlay(rows, cols, rule, cross, circle, openingPlies, parallelism);
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(batch);
+        out.writeInt(rows);
+        out.writeInt(cols);
+        out.writeUTF(rule.id());
+        out.writeByte(cross.ordinal());
+        out.writeByte(circle.ordinal());
+        out.writeInt(openingPlies);
+        out.writeInt(games);
+        out.writeLong(seed);
+    }
+
+    static Assignment read(DataInput in) throws IOException {
+        int batch = in.readInt();
+        int rows = in.readInt();
+        int cols = in.readInt();
+        WinRule rule = WinRule.parse(in.readUTF());
+        SelfPlay.Engine cross = engine(in.readUnsignedByte());
+        SelfPlay.Engine circle = engine(in.readUnsignedByte());
+        return new Assignment(batch, rows, cols, rule, cross, circle, in.readInt(), in.readInt(), in.readLong());
+    }
+
+    private static SelfPlay.Engine engine(int ordinal) throws IOException {
+        SelfPlay.Engine[] all = SelfPlay.Engine.values();
+        if (ordinal >= all.length) {
+            throw new IOException("Ismeretlen motor: " + ordinal);
+        }
+        return all[ordinal];
+    }
+
+    static void writeGame(DataOutput out, ArchivedGame game) throws IOException {
+        out.writeByte(game.winner().ordinal());
+        writeVarint(out, game.moves().length);
+        for (int m : game.moves()) {
+            writeVarint(out, m);
+        }
+    }
+
+    /**
+     * Egy játszma rekord beolvasása a köteg paramétereivel; a lépések tartományát ellenőrzi.
+     */
+    ArchivedGame readGame(DataInput in) throws IOException {
+        int winner = in.readUnsignedByte();
+        int n = readVarint(in);
+        long cells = (long) rows * cols;
+        if (winner >= Cell.values().length || n > cells) {
+            throw new IOException("Sérült játszma rekord a(z) " + batch + ". kötegben");
+        }
+        int[] moves = new int[n];
+        for (int i = 0; i < n; i++) {
+            moves[i] = readVarint(in);
+            if (moves[i] >= cells) {
+                throw new IOException("Sérült játszma rekord a(z) " + batch + ". kötegben");
+            }
+        }
+        return new ArchivedGame(rows, cols, rule, Cell.values()[winner], moves);
+    }
+
+    private static void writeVarint(DataOutput out, int value) throws IOException {
+        int v = value;
+        while ((v & ~VARINT_MASK) != 0) {
+            out.writeByte(v & VARINT_MASK | VARINT_MORE);
+            v >>>= VARINT_BITS;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += VARINT_BITS) {
+            int b = in.readUnsignedByte();
+            value |= (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                if (value < 0) {
+                    throw new IOException("Hibás változó hosszú egész");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Hibás változó hosszú egész");
+    }
+}
@@ -0,0 +1,456 @@
+package amoba.tuning;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import amoba.board.WinRule;
+import amoba.db.PlayerStats;
+import amoba.db.ScoreRepository;
+import amoba.model.Cell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Elosztott önjáték koordinátor: a workerek TCP-n kérnek kötegeket ({@link Assignment}),
+ * a lejátszott játszmákat tömör rekordokként küldik vissza, a koordinátor pedig a
+ * játszma archívumba és a {@link ScoreRepository} összesítésébe fésüli őket.
+ *
+ * <p>Tartósság: minden köteg után az archívum lemezre kerül, majd az állapotfájlba
+ * ({@code <archívum>.state}) egy nyugta sor az archívum új hosszával és a köteg
+ * győzelmeivel, majd egy {@code score} sor az érintett játékosok új összesítésével, és
+ * csak ezután írja a pontszámokat (abszolút értékre), végül egy {@code scored} sor.
+ * Újraindításkor az archívum a legutolsó nyugtázott hosszra vágódik, a nyugtázott
+ * kötegek kimaradnak; a nyugtázott, de még nem pontozott kötegeknél a {@code score} sor
+ * összesítése újra beállítódik (így egy már beírt köteg sem számít kétszer), ha pedig
+ * még nincs ilyen sor, a köteg győzelmei pótlódnak. Egy kiosztott,
+ * de vissza nem érkezett köteg a kapcsolat bontásakor visszakerül a sorba.
+ */
+public final class Coordinator implements Closeable {
+
+    static final int MAGIC = 0x414D5350; // "AMSP"
+    static final int VERSION = 1;
+    static final byte REQUEST = 1;
+    static final byte RESULT = 2;
+    static final byte ASSIGN = 1;
+    static final byte DONE = 2;
+    static final byte WAIT = 3;
+    static final byte ACK = 4;
+    static final int WAIT_MILLIS = 200;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Coordinator.class);
+    private static final String STATE_SUFFIX = ".state";
+
+    private final Plan plan;
+    private final Path archivePath;
+    private final ScoreRepository scores;
+    private final GameArchive archive;
+    private final FileChannel state;
+    private final ServerSocket server;
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "amoba-coordinator");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Deque<Integer> pending = new ArrayDeque<>();
+    private final BitSet acknowledged = new BitSet();
+    private final List<Socket> sockets = new ArrayList<>();
+    private int acknowledgedCount;
+    private boolean closed;
+
+    /**
+     * Egy futás terve; újraindításkor ugyanennek kell szerepelnie az állapotfájlban.
+     */
+    public record Plan(int rows, int cols, WinRule rule, SelfPlay.Engine cross, SelfPlay.Engine circle,
+                       int openingPlies, int batches, int batchSize, long seed) {
+
+        public Plan {
+            if (batches < 1 || batchSize < 1 || openingPlies < 0) {
+                throw new IllegalArgumentException("Hibás önjáték terv (kötegek, köteg méret > 0)!");
+            }
+        }
+
+        Assignment assignment(int batch) {
+            return new Assignment(batch, rows, cols, rule, cross, circle, openingPlies, batchSize,
+                    Assignment.batchSeed(seed, batch));
+        }
+
+        String toLine() {
+            return String.join(" ", "plan", Integer.toString(rows), Integer.toString(cols), rule.id(), cross.name(),
+                    circle.name(), Integer.toString(openingPlies), Integer.toString(batches), Integer.toString(batchSize),
+                    Long.toString(seed));
+        }
+
+        static Plan parse(String line) throws IOException {
+            String[] f = line.trim().split(" ");
+            if (f.length != 10 || !"plan".equals(f[0])) {
+                throw new IOException("Hibás terv sor: " + line);
+            }
+            try {
+                return new Plan(Integer.parseInt(f[1]), Integer.parseInt(f[2]), WinRule.parse(f[3]),
+                        SelfPlay.Engine.valueOf(f[4]), SelfPlay.Engine.valueOf(f[5]), Integer.parseInt(f[6]),
+                        Integer.parseInt(f[7]), Integer.parseInt(f[8]), Long.parseLong(f[9]));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Hibás terv sor: " + line, e);
+            }
+        }
+    }
+
+    private Coordinator(Plan plan, Path archivePath, ScoreRepository scores, int port) throws IOException {
+        this.plan = plan;
+        this.archivePath = archivePath;
+        this.scores = scores;
+        Path statePath = statePath(archivePath);
+        long validLength = 0;
+        if (Files.exists(statePath)) {
+            validLength = restore(statePath);
+        } else {
+            Files.writeString(statePath, plan.toLine() + "\n", StandardCharsets.UTF_8);
+        }
+        for (int b = 0; b < plan.batches(); b++) {
+            if (!acknowledged.get(b)) {
+                pending.add(b);
+            }
+        }
+        this.archive = GameArchive.resume(archivePath, validLength);
+        this.state = FileChannel.open(statePath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.server = new ServerSocket(port, 0, port == 0 ? InetAddress.getLoopbackAddress() : null);
+    }
+
+    /**
+     * Koordinátor indítása (vagy folytatása, ha az archívumhoz van állapotfájl).
+     *
+     * @param port 0 = szabad port a loopback címen (tesztekhez), egyébként minden interfészen
+     */
+    public static Coordinator start(Plan plan, Path archive, ScoreRepository scores, int port) throws IOException {
+        Coordinator c = new Coordinator(plan, archive, scores, port);
+        Thread acceptor = new Thread(c::acceptLoop, "amoba-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("Koordinátor a {} porton: {} / {} köteg kész", c.port(), c.acknowledged(), plan.batches());
+        return c;
+    }
+
+    /**
+     * Egy korábbi futás terve az archívum állapotfájljából, ha van.
+     */
+    public static Optional<Plan> storedPlan(Path archive) throws IOException {
+        Path statePath = statePath(archive);
+        if (!Files.exists(statePath)) {
+            return Optional.empty();
+        }
+        List<String> lines = Files.readAllLines(statePath, StandardCharsets.UTF_8);
+        return lines.isEmpty() ? Optional.empty() : Optional.of(Plan.parse(lines.get(0)));
+    }
+
+    static Path statePath(Path archive) {
+        return archive.resolveSibling(archive.getFileName() + STATE_SUFFIX);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public synchronized int acknowledged() {
+        return acknowledgedCount;
+    }
+
+    public synchronized boolean isComplete() {
+        return acknowledgedCount == plan.batches();
+    }
+
+    /**
+     * Várakozás, amíg minden köteg nyugtázva lesz.
+     *
+     * @return true, ha a futás befejeződött a határidőn belül (0 = korlátlan várakozás)
+     */
+    public synchronized boolean awaitCompletion(long millis) throws InterruptedException {
+        final long deadline = millis > 0 ? System.currentTimeMillis() + millis : Long.MAX_VALUE;
+        while (!isComplete() && !closed) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                return false;
+            }
+            wait(Math.min(left, WAIT_MILLIS));
+        }
+        return isComplete();
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<Socket> open;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            open = new ArrayList<>(sockets);
+            notifyAll();
+        }
+        server.close();
+        for (Socket s : open) {
+            s.close();
+        }
+        connections.shutdownNow();
+        synchronized (this) {
+            archive.close();
+            state.close();
+        }
+    }
+
+    /*
+     * Állapotfájl visszaolvasása; a visszatérési érték a nyugtázott archívum hossz.
+     */
+    private long restore(Path statePath) throws IOException {
+        String content = Files.readString(statePath, StandardCharsets.UTF_8);
+        int complete = content.lastIndexOf('\n') + 1;
+        if (complete < content.length()) {
+            // csonka utolsó sor (írás közbeni leállás): levágjuk, a köteg újra kiosztásra kerül
+            try (FileChannel ch = FileChannel.open(statePath, StandardOpenOption.WRITE)) {
+                ch.truncate(content.substring(0, complete).getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+        String[] lines = content.substring(0, complete).split("\n");
+        if (complete == 0 || !Plan.parse(lines[0]).equals(plan)) {
+            throw new IOException("Az állapotfájl egy másik futás terve: " + statePath);
+        }
+        long validLength = 0;
+        Map<Integer, Map<String, Integer>> unscored = new LinkedHashMap<>();
+        Map<Integer, Map<String, Integer>> totals = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            String[] f = lines[i].trim().split(" ");
+            if (f.length >= 3 && "ack".equals(f[0])) {
+                int batch = Integer.parseInt(f[1]);
+                validLength = Long.parseLong(f[2]);
+                if (!acknowledged.get(batch)) {
+                    acknowledged.set(batch);
+                    acknowledgedCount++;
+                }
+                unscored.put(batch, parseWins(f.length > 3 ? f[3] : ""));
+            } else if (f.length == 3 && "score".equals(f[0])) {
+                totals.put(Integer.parseInt(f[1]), parseWins(f[2]));
+            } else if (f.length == 2 && "scored".equals(f[0])) {
+                unscored.remove(Integer.parseInt(f[1]));
+                totals.remove(Integer.parseInt(f[1]));
+            }
+        }
+        try (FileChannel ch = FileChannel.open(statePath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Map.Entry<Integer, Map<String, Integer>> e : unscored.entrySet()) {
+                Map<String, Integer> stored = totals.get(e.getKey());
+                if (stored != null) {
+                    scores.setWins(stored);
+                    scores.sync();
+                    appendLine(ch, "scored " + e.getKey());
+                } else {
+                    score(ch, e.getKey(), e.getValue());
+                }
+            }
+        }
+        return validLength;
+    }
+
+    private void acceptLoop() {
+        while (true) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return; // lezárt szerver
+            }
+            synchronized (this) {
+                if (closed) {
+                    closeQuietly(socket);
+                    return;
+                }
+                sockets.add(socket);
+            }
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        int leased = -1;
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Nem amoba worker: " + socket.getRemoteSocketAddress());
+            }
+            while (true) {
+                byte message = in.readByte();
+                if (message == REQUEST) {
+                    // újabb kérés eredmény nélkül: a korábbi köteg visszakerül a sorba
+                    release(leased);
+                    leased = -1;
+                    Integer batch = lease();
+                    if (batch != null) {
+                        leased = batch;
+                        out.writeByte(ASSIGN);
+                        plan.assignment(batch).write(out);
+                    } else if (isComplete() || isClosed()) {
+                        out.writeByte(DONE);
+                        out.flush();
+                        return;
+                    } else {
+                        out.writeByte(WAIT);
+                        out.writeInt(WAIT_MILLIS);
+                    }
+                } else if (message == RESULT) {
+                    int batch = in.readInt();
+                    int count = in.readInt();
+                    if (batch != leased || count != plan.batchSize()) {
+                        throw new IOException("Nem kiosztott vagy hiányos köteg: " + batch);
+                    }
+                    Assignment a = plan.assignment(batch);
+                    List<ArchivedGame> games = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        games.add(a.readGame(in));
+                    }
+                    accept(batch, games);
+                    leased = -1;
+                    out.writeByte(ACK);
+                    out.writeInt(batch);
+                } else {
+                    throw new IOException("Ismeretlen üzenet: " + message);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (!isClosed() && !(e instanceof SocketException)) {
+                LOGGER.warn("Worker kapcsolat hiba", e);
+            }
+        } finally {
+            release(leased);
+            synchronized (this) {
+                sockets.remove(socket);
+            }
+        }
+    }
+
+    private synchronized Integer lease() {
+        return closed ? null : pending.poll();
+    }
+
+    private synchronized void release(int batch) {
+        if (batch >= 0 && !acknowledged.get(batch) && !closed) {
+            pending.addFirst(batch);
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /*
+     * Köteg beírása: archívum + fsync, nyugta sor, score sor, pontszámok, scored sor.
+     */
+    private synchronized void accept(int batch, List<ArchivedGame> games) throws IOException {
+        if (closed) {
+            throw new IOException("A koordinátor leállt");
+        }
+        if (acknowledged.get(batch)) {
+            return;
+        }
+        Map<String, Integer> wins = new LinkedHashMap<>();
+        for (ArchivedGame g : games) {
+            archive.append(g);
+            if (g.winner() != Cell.EMPTY) {
+                wins.merge(label(g.winner()), 1, Integer::sum);
+            }
+        }
+        long length = archive.sync();
+        appendLine(state, "ack " + batch + " " + length + " " + formatWins(wins));
+        acknowledged.set(batch);
+        acknowledgedCount++;
+        score(state, batch, wins);
+        LOGGER.debug("Köteg {} nyugtázva ({} / {}) -> {}", batch, acknowledgedCount, plan.batches(), archivePath);
+        notifyAll();
+    }
+
+    /*
+     * Pontozás újrajátszható módon: előbb az érintett nevek új összesítése kerül az állapotba,
+     * majd a tárolóba abszolút értékként (lemezre kényszerítve), végül a scored sor.
+     */
+    private void score(FileChannel ch, int batch, Map<String, Integer> wins) throws IOException {
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : wins.entrySet()) {
+            int current = scores.stats(e.getKey()).map(PlayerStats::wins).orElse(0);
+            totals.put(e.getKey(), current + e.getValue());
+        }
+        appendLine(ch, "score " + batch + " " + formatWins(totals));
+        scores.setWins(totals);
+        scores.sync();
+        appendLine(ch, "scored " + batch);
+    }
+
+    /**
+     * Pontszám név a győztes oldal motorjából, pl. "search-X".
+     */
+    String label(Cell winner) {
+        SelfPlay.Engine engine = winner == Cell.X ? plan.cross() : plan.circle();
+        return engine.name().toLowerCase(Locale.ROOT) + "-" + winner.name();
+    }
+
+    private static String formatWins(Map<String, Integer> wins) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> e : wins.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(e.getKey()).append('=').append(e.getValue());
+        }
+        return sb.length() == 0 ? "-" : sb.toString();
+    }
+
+    private static Map<String, Integer> parseWins(String text) {
+        Map<String, Integer> wins = new LinkedHashMap<>();
+        if (text.isEmpty() || "-".equals(text)) {
+            return wins;
+        }
+        for (String part : text.split(",")) {
+            int eq = part.indexOf('=');
+            wins.put(part.substring(0, eq), Integer.parseInt(part.substring(eq + 1)));
+        }
+        return wins;
+    }
+
+    private static void appendLine(FileChannel ch, String line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            ch.write(bytes);
+        }
+        ch.force(false);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // bontás közben nincs teendő
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package amoba.tuning;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import amoba.board.WinRule;
+import amoba.model.Cell;
+
+/**
+ * Játszma archívum bináris fájlban (önjáték kimenete, tuner bemenete).
+ * Fejléc: "AMGA" magic és verzió; utána játszmánként: sorok, oszlopok (int),
+ * szabály azonosító (UTF), nyertes (0 = döntetlen, 1 = X, 2 = O), lépésszám és a mezőindexek.
+ * Folyamként íródik és olvasódik, így tetszőlegesen nagy archívum is állandó memóriával feldolgozható.
+ */
+public final class GameArchive implements Closeable {
+
+    private static final int MAGIC = 0x414D4741; // "AMGA"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private int written;
+
+    private GameArchive(FileChannel channel) {
+        this.channel = channel;
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    public static GameArchive create(Path path) throws IOException {
+        GameArchive archive = new GameArchive(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+        archive.out.writeInt(MAGIC);
+        archive.out.writeInt(VERSION);
+        return archive;
+    }
+
+    /**
+     * Meglévő archívum folytatása: a {@code validLength} utáni (nyugtázatlan) rész levágódik.
+     * Ha még nincs nyugtázott tartalom (a hossz a fejlécnél kisebb), új archívum jön létre.
+     */
+    public static GameArchive resume(Path path, long validLength) throws IOException {
+        if (validLength < HEADER_BYTES) {
+            return create(path);
+        }
+        if (!Files.exists(path)) {
+            throw new IOException("Hiányzó archívum: " + path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() < validLength) {
+            channel.close();
+            throw new IOException("Az archívum rövidebb a nyugtázottnál: " + path);
+        }
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new GameArchive(channel);
+    }
+
+    /**
+     * Pufferek kiírása és lemezre kényszerítése.
+     *
+     * @return az archívum hossza bájtban (ennyi tekinthető véglegesnek)
+     */
+    public long sync() throws IOException {
+        out.flush();
+        channel.force(false);
+        return channel.position();
+    }
+
+    public void append(ArchivedGame game) throws IOException {
+        out.writeInt(game.rows());
+        out.writeInt(game.cols());
+        out.writeUTF(game.rule().id());
+        out.writeByte(game.winner().ordinal());
+        out.writeInt(game.moves().length);
+        for (int m : game.moves()) {
+            out.writeInt(m);
+        }
+        written++;
+    }
+
+    public int written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Az archívum játszmáinak bejárása sorban.
+     *
+     * @return a beolvasott játszmák száma
+     */
+    public static int forEach(Path path, Consumer<ArchivedGame> consumer) throws IOException {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Nem játszma archívum: " + path);
+            }
+            while (true) {
+                int rows;
+                try {
+                    rows = in.readInt();
+                } catch (EOFException e) {
+                    return count;
+                }
+                int cols = in.readInt();
+                WinRule rule = WinRule.parse(in.readUTF());
+                int winner = in.readUnsignedByte();
+                int n = in.readInt();
+                if (winner >= Cell.values().length || n < 0 || (long) n > (long) rows * cols) {
+                    throw new IOException("Sérült archívum bejegyzés (#" + count + ")");
+                }
+                int[] moves = new int[n];
+                for (int i = 0; i < n; i++) {
+                    moves[i] = in.readInt();
+                }
+                consumer.accept(new ArchivedGame(rows, cols, rule, Cell.values()[winner], moves));
+                count++;
+            }
+        }
+    }
+}
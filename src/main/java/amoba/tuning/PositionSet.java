@@ -0,0 +1,119 @@
+package amoba.tuning;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import amoba.ai.Evaluator;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Memóriában tartott, tömörített tanító halmaz: állásonként {@code stride} darab
+ * short jellemző (az X szemszögű ablakszám különbségek k = 1..stride kőre) egy
+ * összefüggő tömbben, és egy bájt eredmény (0 = O nyert, 1 = döntetlen, 2 = X nyert).
+ */
+public final class PositionSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int stride;
+    private short[] features;
+    private byte[] results;
+    private int size;
+
+    public PositionSet(int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Legalább egy jellemző kell!");
+        }
+        this.stride = stride;
+        this.features = new short[INITIAL_CAPACITY * stride];
+        this.results = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Állások kinyerése egy archívumból: minden játszma minden lépése utáni állás a
+     * {@code skipPlies}. lépéstől, a befejező lépés előtti állásig. A szabály (és vele a
+     * jellemzők száma) az archívumból jön; minden játszmának ugyanazt kell használnia.
+     *
+     * @param rule az elvárt szabály, vagy null, ha az első játszmáé számít
+     * @throws IllegalArgumentException ha egy játszma szabálya eltér
+     */
+    public static PositionSet fromArchive(Path archive, WinRule rule, int skipPlies) throws IOException {
+        WinRule[] expected = {rule};
+        PositionSet[] set = new PositionSet[1];
+        int[][] buf = new int[1][];
+        GameArchive.forEach(archive, g -> {
+            if (expected[0] == null) {
+                expected[0] = g.rule();
+            }
+            if (!g.rule().equals(expected[0])) {
+                throw new IllegalArgumentException("Eltérő szabályú játszma az archívumban: " + g.rule().id()
+                        + " (várt: " + expected[0].id() + ")");
+            }
+            if (set[0] == null) {
+                set[0] = new PositionSet(expected[0].length() - 1);
+                buf[0] = new int[expected[0].length() + 1];
+            }
+            set[0].addGame(g, skipPlies, buf[0]);
+        });
+        if (set[0] == null) {
+            throw new IOException("Nincs játszma az archívumban: " + archive);
+        }
+        return set[0];
+    }
+
+    void addGame(ArchivedGame game, int skipPlies, int[] buf) {
+        Board board = game.newBoard();
+        byte result = (byte) Math.round(game.scoreForX() * 2);
+        int[] moves = game.moves();
+        int cols = game.cols();
+        for (int ply = 0; ply < moves.length - 1; ply++) {
+            board.place(ArchivedGame.mover(ply), new Position(moves[ply] / cols, moves[ply] % cols));
+            if (ply + 1 >= skipPlies) {
+                Arrays.fill(buf, 0);
+                Evaluator.windowFeatures(board, Cell.X, buf);
+                add(buf, result);
+            }
+        }
+    }
+
+    /**
+     * Egy állás felvétele; {@code counts[k]} a k kövű ablakok különbsége (a 0. elem nem számít).
+     */
+    public void add(int[] counts, byte result) {
+        if (size == results.length) {
+            results = Arrays.copyOf(results, size * 2);
+            features = Arrays.copyOf(features, size * 2 * stride);
+        }
+        int base = size * stride;
+        for (int k = 1; k <= stride; k++) {
+            features[base + k - 1] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, counts[k]));
+        }
+        results[size++] = result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Az i. állás k. jellemzője (1 <= k <= stride).
+     */
+    public int feature(int i, int k) {
+        return features[i * stride + k - 1];
+    }
+
+    /**
+     * Az i. állás eredménye X szemszögéből (0, 0.5, 1).
+     */
+    public double score(int i) {
+        return results[i] * 0.5;
+    }
+}
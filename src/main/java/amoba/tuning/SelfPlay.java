@@ -0,0 +1,150 @@
+package amoba.tuning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+import amoba.ai.RandomAI;
+import amoba.ai.Rng;
+import amoba.ai.SearchAI;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+
+/**
+ * Önjáték a tuner adatához. Az első {@code openingPlies} lépés súlyozott véletlen
+ * (változatosság), utána a választott motor lép. Játszmánként saját split folyam,
+ * így a teljes futás a seed alapján szálszámtól függetlenül megismételhető.
+ */
+public final class SelfPlay {
+
+    public enum Engine {
+        RANDOM, SEARCH
+    }
+
+    private static final int SEARCH_DEPTH = 2;
+    private static final long SEARCH_NODES = 3_000L;
+    private static final int SEARCH_TABLE_BITS = 14;
+
+    private final int rows;
+    private final int cols;
+    private final WinRule rule;
+    private final Engine cross;
+    private final Engine circle;
+    private final int openingPlies;
+    private final int parallelism;
+    private final ThreadLocal<SearchAI> searchers = ThreadLocal.withInitial(
+            () -> new SearchAI(SEARCH_DEPTH, SEARCH_NODES, SEARCH_TABLE_BITS));
+
+    public SelfPlay(int rows, int cols, WinRule rule, Engine engine, int openingPlies, int parallelism) {
+        this(rows, cols, rule, engine, engine, openingPlies, parallelism);
+    }
+
+    /**
+     * Különböző motor X-nek és O-nak (AI pár, pl. keresés a véletlen ellen).
+     */
+    public SelfPlay(int rows, int cols, WinRule rule, Engine cross, Engine circle, int openingPlies, int parallelism) {
+        if (parallelism < 1 || openingPlies < 0) {
+            throw new IllegalArgumentException("Hibás önjáték paraméterek!");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rule = rule;
+        this.cross = cross;
+        this.circle = circle;
+        this.openingPlies = openingPlies;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * {@code games} játszma lejátszása párhuzamosan; az eredmény sorrendje a játszmák indexe.
+     */
+    public List<ArchivedGame> play(int games, long seed) {
+        RandomGenerator.SplittableGenerator root = Rng.create(seed);
+        RandomGenerator[] streams = new RandomGenerator[games];
+        for (int i = 0; i < games; i++) {
+            streams[i] = root.split();
+        }
+        ArchivedGame[] out = new ArchivedGame[games];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Batch(streams, out, 0, games));
+        } finally {
+            pool.shutdown();
+        }
+        return new ArrayList<>(Arrays.asList(out));
+    }
+
+    ArchivedGame playOne(RandomGenerator random) {
+        Board board = new Board(rows, cols, rule);
+        RandomAI opening = new RandomAI(random, true);
+        SearchAI search = null;
+        if (cross == Engine.SEARCH || circle == Engine.SEARCH) {
+            search = searchers.get();
+            search.table().clear();
+        }
+        int[] moves = new int[rows * cols];
+        int ply = 0;
+        Cell winner = Cell.EMPTY;
+        while (ply < moves.length) {
+            Cell mover = ArchivedGame.mover(ply);
+            int idx;
+            if (ply == 0) {
+                Position c = board.center();
+                idx = c.row() * cols + c.col();
+            } else if (ply < openingPlies || (mover == Cell.X ? cross : circle) == Engine.RANDOM) {
+                idx = opening.sampleIndex(board);
+            } else {
+                Position p = search.chooseMove(board);
+                idx = p == null ? -1 : p.row() * cols + p.col();
+            }
+            if (idx < 0) {
+                break;
+            }
+            Position p = new Position(idx / cols, idx % cols);
+            board.place(mover, p);
+            moves[ply++] = idx;
+            if (board.hasFiveInARow(mover, p)) {
+                winner = mover;
+                break;
+            }
+            if (board.isDrawn()) {
+                break;
+            }
+        }
+        return new ArchivedGame(rows, cols, rule, winner, Arrays.copyOf(moves, ply));
+    }
+
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 4;
+
+        private final transient RandomGenerator[] streams;
+        private final transient ArchivedGame[] out;
+        private final int from;
+        private final int to;
+
+        Batch(RandomGenerator[] streams, ArchivedGame[] out, int from, int to) {
+            this.streams = streams;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    out[i] = playOne(streams[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(streams, out, from, mid), new Batch(streams, out, mid, to));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package amoba.tuning;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import amoba.ai.PatternWeights;
+
+/**
+ * Texel-stílusú tuner: az értékelés {@code eval = sum_k w[k] * f[k]} (X szemszögéből)
+ * és a játszma kimenetele közötti logisztikus illesztés. A hiba
+ * {@code mean((y - sigmoid(K * eval))^2)}; K-t először a kiinduló súlyokhoz illeszti,
+ * majd a súlyokat Adam gradiens lépésekkel finomítja. Minden lépés egy párhuzamos,
+ * a tömörített halmazon végigmenő menet (hiba és gradiens egyszerre).
+ */
+public final class TexelTuner {
+
+    private static final int SPLIT_THRESHOLD = 1 << 14;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-12;
+    private static final double MIN_LOG_K = -7;
+    private static final double MAX_LOG_K = 0;
+    private static final int SCALE_STEPS = 60;
+    private static final double GOLDEN = (Math.sqrt(5) - 1) / 2;
+
+    private final PositionSet data;
+    private final ForkJoinPool pool;
+    private long evaluated;
+
+    public TexelTuner(PositionSet data, int parallelism) {
+        if (data.size() == 0) {
+            throw new IllegalArgumentException("Üres tanító halmaz!");
+        }
+        this.data = data;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Kiinduló súlyvektor (index = kövek száma, a 0. elem 0) a meglévő súlytáblából.
+     */
+    public static double[] initial(PatternWeights base, int stride) {
+        double[] w = new double[stride + 1];
+        for (int k = 1; k <= stride; k++) {
+            w[k] = base.weight(k);
+        }
+        return w;
+    }
+
+    /**
+     * Egész súlytábla a hangolt értékekből; a stride-nál nagyobb indexek a kiinduló táblából jönnek.
+     */
+    public static PatternWeights toWeights(double[] w, PatternWeights base) {
+        int[] out = new int[Math.max(w.length, base.maxStones() + 1)];
+        for (int k = 1; k < out.length; k++) {
+            out[k] = k < w.length ? (int) Math.round(w[k]) : base.weight(k);
+        }
+        return new PatternWeights(out);
+    }
+
+    public double error(double[] w, double k) {
+        double[] r = pass(w, k);
+        return r[0] / data.size();
+    }
+
+    /**
+     * K illesztése aranymetszéses kereséssel log10 K fölött.
+     */
+    public double fitScale(double[] w) {
+        double lo = MIN_LOG_K;
+        double hi = MAX_LOG_K;
+        double a = hi - GOLDEN * (hi - lo);
+        double b = lo + GOLDEN * (hi - lo);
+        double ea = error(w, Math.pow(10, a));
+        double eb = error(w, Math.pow(10, b));
+        for (int i = 0; i < SCALE_STEPS; i++) {
+            if (ea < eb) {
+                hi = b;
+                b = a;
+                eb = ea;
+                a = hi - GOLDEN * (hi - lo);
+                ea = error(w, Math.pow(10, a));
+            } else {
+                lo = a;
+                a = b;
+                ea = eb;
+                b = lo + GOLDEN * (hi - lo);
+                eb = error(w, Math.pow(10, b));
+            }
+        }
+        return Math.pow(10, (lo + hi) / 2);
+    }
+
+    /**
+     * Adam optimalizálás; a lépésköz súlyonként a kiinduló érték nagyságrendjéhez igazodik.
+     */
+    public double[] tune(double[] start, double k, int iterations, double learningRate) {
+        double[] w = start.clone();
+        double[] m = new double[w.length];
+        double[] v = new double[w.length];
+        for (int t = 1; t <= iterations; t++) {
+            double[] r = pass(w, k);
+            for (int j = 1; j < w.length; j++) {
+                double g = r[j] / data.size();
+                m[j] = BETA1 * m[j] + (1 - BETA1) * g;
+                v[j] = BETA2 * v[j] + (1 - BETA2) * g * g;
+                double mean = m[j] / (1 - Math.pow(BETA1, t));
+                double variance = v[j] / (1 - Math.pow(BETA2, t));
+                double step = learningRate * Math.max(1.0, Math.abs(start[j]));
+                w[j] -= step * mean / (Math.sqrt(variance) + EPSILON);
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Az eddig kiértékelt állások száma (áteresztőképesség méréséhez).
+     */
+    public long evaluated() {
+        return evaluated;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /*
+     * Egy menet: [0] = négyzetes hibák összege, [k] = d(hiba)/d(w[k]) összege.
+     */
+    private double[] pass(double[] w, double k) {
+        evaluated += data.size();
+        return pool.invoke(new Pass(w, k, 0, data.size()));
+    }
+
+    private final class Pass extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient double[] weights;
+        private final double scale;
+        private final int from;
+        private final int to;
+
+        Pass(double[] weights, double scale, int from, int to) {
+            this.weights = weights;
+            this.scale = scale;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                Pass left = new Pass(weights, scale, from, mid);
+                left.fork();
+                double[] right = new Pass(weights, scale, mid, to).compute();
+                double[] sum = left.join();
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += right[i];
+                }
+                return sum;
+            }
+            int stride = data.stride();
+            double[] acc = new double[stride + 1];
+            for (int i = from; i < to; i++) {
+                double eval = 0;
+                for (int f = 1; f <= stride; f++) {
+                    eval += weights[f] * data.feature(i, f);
+                }
+                double s = 1.0 / (1.0 + Math.exp(-scale * eval));
+                double diff = data.score(i) - s;
+                acc[0] += diff * diff;
+                double g = -2 * diff * s * (1 - s) * scale;
+                for (int f = 1; f <= stride; f++) {
+                    acc[f] += g * data.feature(i, f);
+                }
+            }
+            return acc;
+        }
+    }
+}
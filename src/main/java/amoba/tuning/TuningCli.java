@@ -0,0 +1,214 @@
+package amoba.tuning;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import amoba.ai.PatternWeights;
+import amoba.ai.Rng;
+import amoba.board.WinRule;
+import amoba.db.ScoreRepository;
+
+/**
+ * Parancssori belépési pontok:
+ * {@code selfplay <archívum> <játszmák> [--size=N] [--rule=freestyle5] [--engine=random|search]
+ * [--opening=N] [--seed=S] [--threads=N]} és
+ * {@code tune <archívum> <súlyok.txt> [--rule=freestyle5] [--iterations=N] [--rate=R] [--skip=N] [--threads=N]},
+ * (a tune szabálya alapból az archívum játszmáié, {@code --rule} csak ellenőrzi),
+ * valamint az elosztott önjáték:
+ * {@code coordinator <archívum> <kötegek> [--batch=N] [--size=N] [--rule=R] [--cross=search] [--circle=search]
+ * [--opening=N] [--seed=S] [--port=P] [--scores=scores.db]} és {@code worker <gép> <port> [--threads=N]}.
+ */
+public final class TuningCli {
+
+    private static final int ARG_MIN = 2;
+    private static final int DEFAULT_SIZE = 15;
+    private static final int DEFAULT_OPENING = 6;
+    private static final int DEFAULT_ITERATIONS = 200;
+    private static final double DEFAULT_RATE = 0.02;
+    private static final int DEFAULT_SKIP = 4;
+    private static final int DEFAULT_BATCH = 16;
+    private static final int DEFAULT_PORT = 7343;
+
+    private TuningCli() { }
+
+    public static int selfPlay(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: selfplay <archívum> <játszmák> [--size=N] [--rule=R] [--engine=random|search]"
+                    + " [--opening=N] [--seed=S] [--threads=N]");
+            return 2;
+        }
+        try {
+            Options o = new Options(args);
+            int size = o.intValue("size", DEFAULT_SIZE);
+            long seed = o.has("seed") ? Long.parseLong(o.value("seed")) : Rng.newSeed();
+            SelfPlay.Engine engine = o.engine("engine");
+            SelfPlay play = new SelfPlay(size, size, o.rule(), engine, o.intValue("opening", DEFAULT_OPENING),
+                    o.threads());
+            final long started = System.nanoTime();
+            List<ArchivedGame> games = play.play(Integer.parseInt(args[1]), seed);
+            try (GameArchive archive = GameArchive.create(Path.of(args[0]))) {
+                for (ArchivedGame g : games) {
+                    archive.append(g);
+                }
+            }
+            out.printf(Locale.ROOT, "%d játszma (seed %d) %.1f s alatt%n", games.size(), seed,
+                    (System.nanoTime() - started) / 1e9);
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Önjáték hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    public static int tune(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: tune <archívum> <súlyok.txt> [--rule=R] [--iterations=N] [--rate=R]"
+                    + " [--skip=N] [--threads=N]");
+            return 2;
+        }
+        TexelTuner tuner = null;
+        try {
+            Options o = new Options(args);
+            PositionSet data = PositionSet.fromArchive(Path.of(args[0]), o.has("rule") ? o.rule() : null,
+                    o.intValue("skip", DEFAULT_SKIP));
+            tuner = new TexelTuner(data, o.threads());
+            PatternWeights base = PatternWeights.DEFAULT;
+            double[] start = TexelTuner.initial(base, data.stride());
+            double k = tuner.fitScale(start);
+            double before = tuner.error(start, k);
+            final long started = System.nanoTime();
+            final long evaluatedBefore = tuner.evaluated();
+            double[] tuned = tuner.tune(start, k, o.intValue("iterations", DEFAULT_ITERATIONS),
+                    o.has("rate") ? Double.parseDouble(o.value("rate")) : DEFAULT_RATE);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            PatternWeights result = TexelTuner.toWeights(tuned, base);
+            result.save(Path.of(args[1]));
+            out.printf(Locale.ROOT, "%d állás, K=%.3g, hiba %.6f -> %.6f, %.0f állás/s%n", data.size(), k, before,
+                    tuner.error(tuned, k), (tuner.evaluated() - evaluatedBefore) / Math.max(seconds, 1e-9));
+            out.println("Súlyok: " + result + " (betöltés: -D" + PatternWeights.WEIGHTS_PROPERTY + "=" + args[1] + ")");
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Tuning hiba: " + e.getMessage());
+            return 1;
+        } finally {
+            if (tuner != null) {
+                tuner.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Koordinátor: a terv szerinti kötegeket osztja ki, amíg mind vissza nem érkezik.
+     * Ugyanazzal az archívummal újraindítva a legutolsó nyugtázott kötegtől folytatja
+     * (seed nélkül a korábbi futás seedjét veszi át).
+     */
+    public static int coordinate(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: coordinator <archívum> <kötegek> [--batch=N] [--size=N] [--rule=R]"
+                    + " [--cross=random|search] [--circle=random|search] [--opening=N] [--seed=S] [--port=P] [--scores=F]");
+            return 2;
+        }
+        try {
+            Options o = new Options(args);
+            Path archive = Path.of(args[0]);
+            long seed;
+            if (o.has("seed")) {
+                seed = Long.parseLong(o.value("seed"));
+            } else {
+                seed = Coordinator.storedPlan(archive).map(Coordinator.Plan::seed).orElseGet(Rng::newSeed);
+            }
+            int size = o.intValue("size", DEFAULT_SIZE);
+            Coordinator.Plan plan = new Coordinator.Plan(size, size, o.rule(), o.engine("cross"), o.engine("circle"),
+                    o.intValue("opening", DEFAULT_OPENING), Integer.parseInt(args[1]), o.intValue("batch", DEFAULT_BATCH),
+                    seed);
+            final long started = System.nanoTime();
+            try (ScoreRepository scores = ScoreRepository.open(Path.of(o.value("scores", "scores.db")));
+                 Coordinator c = Coordinator.start(plan, archive, scores, o.intValue("port", DEFAULT_PORT))) {
+                out.printf(Locale.ROOT, "Koordinátor: port %d, seed %d, %d / %d köteg kész%n", c.port(), seed,
+                        c.acknowledged(), plan.batches());
+                c.awaitCompletion(0);
+                out.printf(Locale.ROOT, "%d köteg (%d játszma) kész %.1f s alatt -> %s%n", plan.batches(),
+                        (long) plan.batches() * plan.batchSize(), (System.nanoTime() - started) / 1e9, archive);
+            }
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Koordinátor hiba: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    public static int work(String[] args, PrintStream out) {
+        if (args.length < ARG_MIN) {
+            out.println("Használat: worker <gép> <port> [--threads=N]");
+            return 2;
+        }
+        try {
+            Options o = new Options(args);
+            final long started = System.nanoTime();
+            int batches = new Worker(args[0], Integer.parseInt(args[1]), o.threads()).run(0);
+            out.printf(Locale.ROOT, "%d köteg lejátszva %.1f s alatt%n", batches, (System.nanoTime() - started) / 1e9);
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            out.println("Worker hiba: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * {@code --név=érték} kapcsolók a kötelező argumentumok után.
+     */
+    private static final class Options {
+        private final String[] args;
+
+        Options(String[] args) {
+            this.args = args;
+            for (int i = ARG_MIN; i < args.length; i++) {
+                if (!args[i].startsWith("--") || args[i].indexOf('=') < 0) {
+                    throw new IllegalArgumentException("Ismeretlen kapcsoló: " + args[i]);
+                }
+            }
+        }
+
+        boolean has(String name) {
+            return value(name) != null;
+        }
+
+        String value(String name) {
+            String prefix = "--" + name + "=";
+            for (int i = ARG_MIN; i < args.length; i++) {
+                if (args[i].startsWith(prefix)) {
+                    return args[i].substring(prefix.length());
+                }
+            }
+            return null;
+        }
+
+        String value(String name, String fallback) {
+            String v = value(name);
+            return v == null ? fallback : v;
+        }
+
+        int intValue(String name, int fallback) {
+            String v = value(name);
+            return v == null ? fallback : Integer.parseInt(v);
+        }
+
+        WinRule rule() {
+            return WinRule.parse(value("rule", WinRule.STANDARD.id()));
+        }
+
+        SelfPlay.Engine engine(String name) {
+            return SelfPlay.Engine.valueOf(value(name, "search").toUpperCase(Locale.ROOT));
+        }
+
+        int threads() {
+            return intValue("threads", Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
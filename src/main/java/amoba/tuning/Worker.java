@@ -0,0 +1,94 @@
+package amoba.tuning;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Elosztott önjáték worker: a koordinátortól kötegeket kér, helyben (több szálon)
+ * lejátssza őket, és tömör rekordokként visszaküldi; a következő köteget csak a
+ * nyugta után kéri.
+ */
+public final class Worker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Worker.class);
+
+    private final String host;
+    private final int port;
+    private final int parallelism;
+
+    public Worker(String host, int port, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A szálak száma legyen pozitív!");
+        }
+        this.host = host;
+        this.port = port;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Kötegek feldolgozása, amíg a koordinátor el nem küld, vagy {@code maxBatches} köteg el nem készül.
+     *
+     * @param maxBatches 0 = korlátlan
+     * @return a nyugtázott kötegek száma
+     */
+    public int run(int maxBatches) throws IOException {
+        int completed = 0;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(Coordinator.MAGIC);
+            out.writeInt(Coordinator.VERSION);
+            while (maxBatches == 0 || completed < maxBatches) {
+                out.writeByte(Coordinator.REQUEST);
+                out.flush();
+                byte reply = in.readByte();
+                if (reply == Coordinator.DONE) {
+                    break;
+                }
+                if (reply == Coordinator.WAIT) {
+                    if (!pause(in.readInt())) {
+                        break;
+                    }
+                    continue;
+                }
+                if (reply != Coordinator.ASSIGN) {
+                    throw new IOException("Ismeretlen válasz: " + reply);
+                }
+                Assignment a = Assignment.read(in);
+                List<ArchivedGame> games = a.selfPlay(parallelism).play(a.games(), a.seed());
+                out.writeByte(Coordinator.RESULT);
+                out.writeInt(a.batch());
+                out.writeInt(games.size());
+                for (ArchivedGame g : games) {
+                    Assignment.writeGame(out, g);
+                }
+                out.flush();
+                if (in.readByte() != Coordinator.ACK || in.readInt() != a.batch()) {
+                    throw new IOException("Hiányzó nyugta a(z) " + a.batch() + ". kötegre");
+                }
+                completed++;
+                LOGGER.debug("Köteg {} kész ({} játszma)", a.batch(), games.size());
+            }
+        }
+        return completed;
+    }
+
+    private static boolean pause(int millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import amoba.board.Board;
+import amoba.metrics.Metrics;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class AnalysisCacheTest {
+
+    private static AnalysisCache.Analysis analysis(int depth) {
+        return new AnalysisCache.Analysis(7, 42, depth);
+    }
+
+    @Test
+    void getPut_countsHitsAndMisses() {
+        AnalysisCache cache = new AnalysisCache(100);
+        assertNull(cache.get(1L));
+        cache.put(1L, analysis(3));
+        assertEquals(analysis(3), cache.get(1L));
+        AnalysisCache.Stats s = cache.stats();
+        assertEquals(1, s.hits());
+        assertEquals(1, s.misses());
+        assertEquals(0.5, s.hitRate(), 1e-12);
+        assertEquals(1, s.size());
+    }
+
+    @Test
+    void metricsOff_onlyInstanceCountersMove() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        AnalysisCache cache = new AnalysisCache(100);
+        for (long k = 0; k < 1_000; k++) {
+            cache.get(k);
+            cache.put(k * 0x9E3779B97F4A7C15L, analysis(1));
+        }
+        assertEquals(1_000, cache.stats().misses() + cache.stats().hits());
+        assertTrue(cache.stats().evictions() > 0);
+        assertEquals(0, Metrics.CACHE_HITS.sum() + Metrics.CACHE_MISSES.sum() + Metrics.CACHE_EVICTIONS.sum());
+    }
+
+    @Test
+    void put_keepsDeeperAnalysis() {
+        AnalysisCache cache = new AnalysisCache(100);
+        cache.put(1L, analysis(4));
+        cache.put(1L, analysis(2));
+        assertEquals(4, cache.get(1L).depth());
+        cache.put(1L, analysis(5));
+        assertEquals(5, cache.get(1L).depth());
+    }
+
+    @Test
+    void size_staysWithinCapacity() {
+        AnalysisCache cache = new AnalysisCache(1_000);
+        for (long k = 0; k < 20_000; k++) {
+            cache.put(k * 0x9E3779B97F4A7C15L, analysis(1));
+        }
+        assertTrue(cache.size() <= 1_000, "méret: " + cache.size());
+        assertEquals(20_000 - cache.size(), cache.stats().evictions());
+        assertTrue(cache.stats().rejections() > 0);
+    }
+
+    @Test
+    void frequentKeys_surviveOneTimeScan() {
+        AnalysisCache cache = new AnalysisCache(500);
+        List<Long> hot = new ArrayList<>();
+        for (long k = 1; k <= 100; k++) {
+            hot.add(k);
+            cache.put(k, analysis(1));
+        }
+        for (int round = 0; round < 5; round++) {
+            hot.forEach(cache::get);
+        }
+        // egyszer látott állások áradata: egy LRU kisöpörné a gyakori nyitásokat
+        for (long k = 1_000; k < 50_000; k++) {
+            cache.put(k, analysis(1));
+        }
+        long survivors = hot.stream().filter(k -> cache.get(k) != null).count();
+        assertTrue(survivors >= 90, "megmaradt: " + survivors);
+    }
+
+    @Test
+    void concurrentAccess_isSafe() throws Exception {
+        AnalysisCache cache = new AnalysisCache(4_096);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final long base = t * 1_000_000L;
+                futures.add(pool.submit(() -> {
+                    for (long k = 0; k < 50_000; k++) {
+                        cache.put(base + k % 3_000, analysis(1));
+                        cache.get(base + (k * 7) % 3_000);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(cache.size() <= 4_096);
+        assertEquals(200_000, cache.stats().hits() + cache.stats().misses());
+    }
+
+    @Test
+    void key_sameForSymmetricPositions() {
+        Board a = new Board(9, 9);
+        a.place(Cell.X, new Position(4, 4));
+        a.place(Cell.O, new Position(3, 5));
+        a.place(Cell.X, new Position(2, 5));
+        Board b = new Board(9, 9);
+        b.place(Cell.X, new Position(4, 4));
+        b.place(Cell.O, new Position(5, 3));
+        b.place(Cell.X, new Position(5, 2));
+        AnalysisCache.Key ka = AnalysisCache.Key.of(a, Cell.O);
+        AnalysisCache.Key kb = AnalysisCache.Key.of(b, Cell.O);
+        assertEquals(ka.hash(), kb.hash());
+        assertNotEquals(ka.hash(), AnalysisCache.Key.of(a, Cell.X).hash());
+        int move = 1 * 9 + 6;
+        int canonical = ka.toCanonical(move);
+        assertEquals(move, ka.fromCanonical(canonical));
+        assertEquals(6 * 9 + 1, kb.fromCanonical(canonical), "a főátlóra tükrözött mező");
+    }
+
+    @Test
+    void key_roundTripsAllTransformsOnRectangularBoard() {
+        Board b = new Board(7, 5);
+        b.place(Cell.X, new Position(1, 1));
+        AnalysisCache.Key key = AnalysisCache.Key.of(b, Cell.O);
+        for (int cell = 0; cell < 35; cell++) {
+            assertEquals(cell, key.fromCanonical(key.toCanonical(cell)));
+        }
+    }
+
+    @Test
+    void searchAi_reusesSharedAnalysisAcrossSessions() {
+        AnalysisCache cache = new AnalysisCache(1_000);
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(5, 3));
+        b.place(Cell.O, new Position(0, 0));
+        b.place(Cell.X, new Position(5, 4));
+        b.place(Cell.O, new Position(0, 1));
+        b.place(Cell.X, new Position(5, 5));
+        SearchAI first = new SearchAI(3, 100_000, 16);
+        first.useSharedCache(cache);
+        Position p = first.chooseMove(b);
+        assertTrue(first.lastNodes() > 0);
+        assertEquals(1, cache.size());
+
+        SearchAI second = new SearchAI(3, 100_000, 16);
+        second.useSharedCache(cache);
+        assertEquals(p, second.chooseMove(b));
+        assertEquals(0, second.lastNodes());
+        assertEquals(1, cache.stats().hits());
+
+        SearchAI deeper = new SearchAI(4, 100_000, 16);
+        deeper.useSharedCache(cache);
+        deeper.chooseMove(b);
+        assertTrue(deeper.lastNodes() > 0, "a sekélyebb elemzés nem elég a mélyebb keresőnek");
+    }
+
+    @Test
+    void searchAi_cacheHitsAreRecordedInMetrics() {
+        AnalysisCache cache = new AnalysisCache(1_000);
+        Board b = new Board(9, 9);
+        b.place(Cell.X, new Position(4, 4));
+        b.place(Cell.O, new Position(3, 3));
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        try {
+            for (int i = 0; i < 2; i++) {
+                SearchAI ai = new SearchAI(2, 100_000, 16);
+                ai.useSharedCache(cache);
+                ai.chooseMove(b);
+            }
+            assertEquals(1, cache.stats().hits());
+            assertEquals(1, Metrics.CACHE_HITS.sum());
+            assertEquals(2, Metrics.AI_THINK.count());
+            assertEquals(2, Metrics.AI_DEPTH.count());
+        } finally {
+            Metrics.setEnabled(false);
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class DfpnAITest {
+
+    private static final Position FALLBACK_MOVE = new Position(0, 0);
+
+    @Test
+    void provenWin_isPlayedInsteadOfFallback() {
+        Board b = new Board(15, 15);
+        for (int c = 5; c <= 7; c++) {
+            b.place(Cell.O, new Position(7, c));
+        }
+        for (int r = 4; r <= 6; r++) {
+            b.place(Cell.O, new Position(r, 8));
+        }
+        b.place(Cell.X, new Position(7, 4));
+        b.place(Cell.X, new Position(3, 8));
+        b.place(Cell.X, new Position(10, 2));
+        b.place(Cell.X, new Position(11, 12));
+        b.place(Cell.X, new Position(12, 12));
+        b.place(Cell.X, new Position(13, 5));
+        b.place(Cell.X, new Position(0, 14));
+        Position move = new DfpnAI(board -> FALLBACK_MOVE).chooseMove(b);
+        assertEquals(new Position(7, 8), move);
+    }
+
+    @Test
+    void noForcedWin_delegatesToFallback() {
+        Board b = new Board(15, 15);
+        b.place(Cell.X, new Position(7, 7));
+        assertEquals(FALLBACK_MOVE, new DfpnAI(board -> FALLBACK_MOVE, 12, 1000, 1000).chooseMove(b));
+    }
+}
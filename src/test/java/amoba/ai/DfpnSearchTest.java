@@ -0,0 +1,112 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class DfpnSearchTest {
+
+    /* X dupla négyest tud csinálni a (7,8) mezőn: vízszintes 5-7 és függőleges 4-6 hármasok. */
+    private static Board doubleFourPosition() {
+        Board b = new Board(15, 15);
+        for (int c = 5; c <= 7; c++) {
+            b.place(Cell.X, new Position(7, c));
+        }
+        for (int r = 4; r <= 6; r++) {
+            b.place(Cell.X, new Position(r, 8));
+        }
+        b.place(Cell.O, new Position(7, 4));
+        b.place(Cell.O, new Position(3, 8));
+        b.place(Cell.O, new Position(10, 2));
+        b.place(Cell.O, new Position(11, 12));
+        return b;
+    }
+
+    @Test
+    void immediateWin_isProvenWithWinningMove() {
+        Board b = new Board(12, 12);
+        for (int c = 2; c <= 5; c++) {
+            b.place(Cell.X, new Position(4, c));
+        }
+        b.place(Cell.O, new Position(4, 1));
+        b.place(Cell.O, new Position(8, 8));
+        DfpnSearch.Result r = new DfpnSearch(12, 1000).prove(b, Cell.X, DfpnSearch.Mode.VCF);
+        assertEquals(DfpnSearch.Outcome.PROVEN, r.outcome());
+        assertEquals(new Position(4, 6), r.move());
+    }
+
+    @Test
+    void vcf_provesDoubleFour() {
+        Board b = doubleFourPosition();
+        DfpnSearch.Result r = new DfpnSearch(16, 100_000).prove(b, Cell.X, DfpnSearch.Mode.VCF);
+        assertEquals(DfpnSearch.Outcome.PROVEN, r.outcome());
+        assertEquals(new Position(7, 8), r.move());
+        assertTrue(r.nodes() > 0);
+    }
+
+    @Test
+    void defender_cannotProveAgainstBlockedThrees() {
+        Board b = doubleFourPosition();
+        DfpnSearch.Result r = new DfpnSearch(16, 100_000).prove(b, Cell.O, DfpnSearch.Mode.VCF);
+        assertEquals(DfpnSearch.Outcome.DISPROVEN, r.outcome());
+        assertNull(r.move());
+    }
+
+    @Test
+    void quietPosition_isDisprovenByVcf() {
+        Board b = new Board(15, 15);
+        b.place(Cell.X, new Position(7, 7));
+        b.place(Cell.O, new Position(7, 8));
+        b.place(Cell.X, new Position(8, 7));
+        DfpnSearch.Result r = new DfpnSearch(12, 10_000).prove(b, Cell.X, DfpnSearch.Mode.VCF);
+        assertEquals(DfpnSearch.Outcome.DISPROVEN, r.outcome());
+    }
+
+    @Test
+    void threats_provesDoubleOpenThree() {
+        // (7,8): vízszintesen 5-6-_-8, függőlegesen 5-6-7 – két nyitott hármas; VCF-fel nem bizonyítható
+        Board b = new Board(15, 15);
+        b.place(Cell.X, new Position(7, 5));
+        b.place(Cell.X, new Position(7, 6));
+        b.place(Cell.X, new Position(5, 8));
+        b.place(Cell.X, new Position(6, 8));
+        b.place(Cell.O, new Position(9, 9));
+        b.place(Cell.O, new Position(9, 4));
+        b.place(Cell.O, new Position(4, 4));
+        assertEquals(DfpnSearch.Outcome.DISPROVEN,
+                new DfpnSearch(16, 100_000).prove(b, Cell.X, DfpnSearch.Mode.VCF).outcome());
+        DfpnSearch.Result r = new DfpnSearch(18, 300_000).prove(b, Cell.X, DfpnSearch.Mode.THREATS);
+        assertEquals(DfpnSearch.Outcome.PROVEN, r.outcome());
+        assertEquals(new Position(7, 8), r.move());
+    }
+
+    @Test
+    void tinyBudget_givesUnknown() {
+        DfpnSearch.Result r = new DfpnSearch(12, 1).prove(doubleFourPosition(), Cell.X, DfpnSearch.Mode.VCF);
+        assertEquals(DfpnSearch.Outcome.UNKNOWN, r.outcome());
+        assertNull(r.move());
+    }
+
+    @Test
+    void boardIsUnchangedAfterSearch() {
+        Board b = doubleFourPosition();
+        List<String> before = b.toCharLines();
+        int frontier = b.frontierSize();
+        DfpnSearch search = new DfpnSearch(16, 100_000);
+        search.prove(b, Cell.X, DfpnSearch.Mode.VCF);
+        search.prove(b, Cell.X, DfpnSearch.Mode.THREATS);
+        assertEquals(before, b.toCharLines());
+        assertEquals(frontier, b.frontierSize());
+    }
+
+    @Test
+    void invalidParameters_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new DfpnSearch(1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new DfpnSearch(10, 0));
+    }
+}
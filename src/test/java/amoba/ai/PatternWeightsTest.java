@@ -0,0 +1,61 @@
+package amoba.ai;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternWeightsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveAndLoad_roundTrip() throws IOException {
+        PatternWeights w = new PatternWeights(new int[] {0, 3, 20, 150, 900, 5000});
+        Path file = tempDir.resolve("w.txt");
+        w.save(file);
+        assertEquals(w, PatternWeights.load(file));
+    }
+
+    @Test
+    void load_rejectsGapsAndGarbage() throws IOException {
+        Path gap = tempDir.resolve("gap.txt");
+        Files.writeString(gap, "1=1\n3=5\n");
+        assertThrows(IOException.class, () -> PatternWeights.load(gap));
+        Path bad = tempDir.resolve("bad.txt");
+        Files.writeString(bad, "# megjegyzés\n1=egy\n");
+        assertThrows(IOException.class, () -> PatternWeights.load(bad));
+    }
+
+    @Test
+    void weight_clampsToLastEntry() {
+        assertEquals(4096, PatternWeights.DEFAULT.weight(9));
+        assertEquals(64, PatternWeights.DEFAULT.weight(3));
+    }
+
+    @Test
+    void evaluator_isWeightedSumOfWindowFeatures() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(4, 4));
+        b.place(Cell.X, new Position(4, 5));
+        b.place(Cell.O, new Position(6, 6));
+        PatternWeights w = new PatternWeights(new int[] {0, 7, 30, 100, 400, 2000});
+        int[] f = new int[6];
+        Evaluator.windowFeatures(b, Cell.X, f);
+        int expected = 0;
+        for (int k = 1; k < f.length; k++) {
+            expected += f[k] * w.weight(k);
+        }
+        assertEquals(expected, new Evaluator(w).evaluate(b, Cell.X));
+        assertEquals(-expected, new Evaluator(w).evaluate(b, Cell.O));
+        assertNotEquals(new Evaluator(w).evaluate(b, Cell.X), new Evaluator().evaluate(b, Cell.X));
+    }
+}
@@ -7,6 +7,12 @@ import amoba.model.Cell;
 import amoba.model.Position;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
 class RandomAITest {
 
     @Test
@@ -20,4 +26,89 @@ class RandomAITest {
         assertNotNull(p);
         assertTrue(b.legalPositionsByAdjacency().contains(p));
     }
-}
\ No newline at end of file
+
+    private static List<Position> playout(RandomAI ai) {
+        Board b = new Board(12, 12);
+        b.place(Cell.X, b.center());
+        List<Position> moves = new ArrayList<>();
+        Cell turn = Cell.O;
+        for (int i = 0; i < 30; i++) {
+            Position p = ai.chooseMove(b);
+            b.place(turn, p);
+            moves.add(p);
+            turn = turn.opponent();
+        }
+        return moves;
+    }
+
+    @Test
+    void sameSeed_replaysSameGame() {
+        assertEquals(playout(new RandomAI(42L)), playout(new RandomAI(42L)));
+        assertNotEquals(playout(new RandomAI(42L)), playout(new RandomAI(43L)));
+    }
+
+    @Test
+    void splitStreams_areIndependentButReproducible() {
+        RandomGenerator.SplittableGenerator rootA = Rng.create(7L);
+        RandomGenerator.SplittableGenerator rootB = Rng.create(7L);
+        RandomGenerator a1 = Rng.split(rootA);
+        RandomGenerator a2 = Rng.split(rootA);
+        RandomGenerator b1 = Rng.split(rootB);
+        long first = a1.nextLong();
+        assertEquals(first, b1.nextLong());
+        assertNotEquals(first, a2.nextLong());
+        assertEquals(playout(new RandomAI(Rng.split(Rng.create(9L)))), playout(new RandomAI(Rng.split(Rng.create(9L)))));
+    }
+
+    @Test
+    void perThread_givesEachThreadItsOwnStream() throws Exception {
+        ThreadLocal<RandomGenerator> local = Rng.perThread(Rng.create(1L));
+        RandomGenerator main = local.get();
+        assertSame(main, local.get());
+        RandomGenerator[] other = new RandomGenerator[1];
+        Thread t = new Thread(() -> other[0] = local.get());
+        t.start();
+        t.join();
+        assertNotSame(main, other[0]);
+    }
+
+    @Test
+    void sampleIndex_onEmptyBoard_isMinusOne_andChooseMoveNull() {
+        Board b = new Board(6, 6);
+        assertEquals(-1, new RandomAI(1L).sampleIndex(b));
+        assertNull(new RandomAI(1L).chooseMove(b));
+    }
+
+    @Test
+    void uniformSampling_coversWholeFrontier() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, b.center());
+        RandomAI ai = new RandomAI(5L);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            seen.add(ai.sampleIndex(b));
+        }
+        assertEquals(8, seen.size());
+    }
+
+    @Test
+    void weightedSampling_prefersCellsNearMoreStones() {
+        Board b = new Board(10, 10);
+        // (4,4) és (4,6) közötti (4,5) mező 2 kőhöz, a szélső mezők 1-hez szomszédosak
+        b.place(Cell.X, new Position(4, 4));
+        b.place(Cell.O, new Position(4, 6));
+        RandomAI ai = new RandomAI(Rng.create(3L), true);
+        int between = 0;
+        int corner = 0;
+        for (int i = 0; i < 20000; i++) {
+            int idx = ai.sampleIndex(b);
+            assertTrue(b.isLegalByAdjacency(new Position(idx / 10, idx % 10)));
+            if (idx == 4 * 10 + 5) {
+                between++;
+            } else if (idx == 3 * 10 + 3) {
+                corner++;
+            }
+        }
+        assertTrue(between > corner * 3 / 2, between + " vs " + corner);
+    }
+}
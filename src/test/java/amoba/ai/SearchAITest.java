@@ -0,0 +1,75 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class SearchAITest {
+
+    @Test
+    void chooseMove_takesImmediateWin() {
+        Board b = new Board(10, 10);
+        for (int c = 2; c <= 5; c++) {
+            b.place(Cell.O, new Position(4, c));
+            b.place(Cell.X, new Position(7, c));
+        }
+        b.place(Cell.X, new Position(8, 8));
+        SearchAI ai = new SearchAI();
+        ai.reset(b);
+        assertEquals(Cell.O, ai.sideToMove());
+        Position p = ai.chooseMove(b);
+        assertTrue(p.equals(new Position(4, 1)) || p.equals(new Position(4, 6)));
+    }
+
+    @Test
+    void chooseMove_blocksOpenFour() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(5, 3));
+        b.place(Cell.O, new Position(0, 0));
+        b.place(Cell.X, new Position(5, 4));
+        b.place(Cell.O, new Position(0, 1));
+        b.place(Cell.X, new Position(5, 5));
+        b.place(Cell.O, new Position(9, 9));
+        b.place(Cell.X, new Position(5, 6));
+        SearchAI ai = new SearchAI(2, 100_000, 16);
+        Position p = ai.chooseMove(b);
+        assertTrue(p.equals(new Position(5, 2)) || p.equals(new Position(5, 7)));
+    }
+
+    @Test
+    void session_keepsTableBetweenMoves() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, b.center());
+        SearchAI ai = new SearchAI(3, 50_000, 16);
+        ai.reset(b);
+
+        Position first = ai.chooseMove(b);
+        b.place(Cell.O, first);
+        ai.onMove(Cell.O, first);
+        Position human = b.legalPositionsByAdjacency().iterator().next();
+        b.place(Cell.X, human);
+        ai.onMove(Cell.X, human);
+
+        long hitsBefore = ai.table().hits();
+        Position second = ai.chooseMove(b);
+        assertNotNull(second);
+        assertTrue(b.isEmpty(second));
+        assertTrue(ai.table().hits() > hitsBefore);
+    }
+
+    @Test
+    void chooseMove_resyncsWhenMovesWereNotReported() {
+        Board b = new Board(8, 8);
+        b.place(Cell.X, b.center());
+        SearchAI ai = new SearchAI(2, 10_000, 12);
+        ai.reset(b);
+        b.place(Cell.O, new Position(3, 3));
+        b.place(Cell.X, new Position(5, 5));
+        Position p = ai.chooseMove(b);
+        assertTrue(b.legalPositionsByAdjacency().contains(p));
+        assertEquals(Cell.O, ai.sideToMove());
+    }
+}
@@ -0,0 +1,126 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TableSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static TranspositionTable filled(int bits) {
+        TranspositionTable t = new TranspositionTable(bits);
+        for (long k = 1; k <= 100; k++) {
+            t.store(k * 0x9E3779B97F4A7C15L, (int) k, (int) -k, (int) (k % 10), TranspositionTable.EXACT);
+        }
+        return t;
+    }
+
+    @Test
+    void saveLoad_roundTripsEntries() throws IOException {
+        TranspositionTable t = filled(10);
+        Path file = tempDir.resolve("t.tt");
+        long saved = TableSnapshot.save(t, file, 9, 9, WinRule.STANDARD);
+        assertEquals(t.size(), saved);
+        assertEquals(64 + 18L * 1024, Files.size(file));
+
+        TranspositionTable loaded = new TranspositionTable(10);
+        assertEquals(saved, TableSnapshot.load(loaded, file, 9, 9, WinRule.STANDARD));
+        for (long k = 1; k <= 100; k++) {
+            long key = k * 0x9E3779B97F4A7C15L;
+            int a = t.find(key);
+            int b = loaded.find(key);
+            assertEquals(a >= 0, b >= 0);
+            if (a >= 0) {
+                assertEquals(t.move(a), loaded.move(b));
+                assertEquals(t.score(a), loaded.score(b));
+                assertEquals(t.depth(a), loaded.depth(b));
+            }
+        }
+    }
+
+    @Test
+    void load_intoDifferentCapacityRehashes() throws IOException {
+        TranspositionTable t = filled(8);
+        Path file = tempDir.resolve("t.tt");
+        TableSnapshot.save(t, file, 9, 9, WinRule.STANDARD);
+        TranspositionTable bigger = new TranspositionTable(12);
+        TableSnapshot.load(bigger, file, 9, 9, WinRule.STANDARD);
+        assertEquals(t.size(), bigger.size());
+    }
+
+    @Test
+    void load_rejectsOtherSizeRuleOrFormat() throws IOException {
+        Path file = tempDir.resolve("t.tt");
+        TableSnapshot.save(filled(6), file, 9, 9, WinRule.STANDARD);
+        TranspositionTable t = new TranspositionTable(6);
+        assertThrows(IOException.class, () -> TableSnapshot.load(t, file, 9, 8, WinRule.STANDARD));
+        assertThrows(IOException.class, () -> TableSnapshot.load(t, file, 9, 9, WinRule.exact(5)));
+        Path junk = tempDir.resolve("junk.tt");
+        Files.write(junk, new byte[100]);
+        assertThrows(IOException.class, () -> TableSnapshot.load(t, junk, 9, 9, WinRule.STANDARD));
+        assertFalse(Files.exists(tempDir.resolve("t.tt.tmp")));
+    }
+
+    @Test
+    void load_rejectsCapacityAboveTableLimit() throws IOException {
+        Path file = tempDir.resolve("t.tt");
+        TableSnapshot.save(filled(6), file, 9, 9, WinRule.STANDARD);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bits = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ch.write(bits.putInt(0, TranspositionTable.MAX_BITS + 1), 8 * Integer.BYTES);
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> TableSnapshot.load(new TranspositionTable(6), file, 9, 9, WinRule.STANDARD));
+        assertTrue(e.getMessage().startsWith("Sérült transzpozíciós tábla"));
+    }
+
+    @Test
+    void failedSave_removesTemporaryFile() throws IOException {
+        Path target = tempDir.resolve("t.tt");
+        Files.createDirectories(target.resolve("foglalt"));
+        assertThrows(IOException.class, () -> TableSnapshot.save(filled(6), target, 9, 9, WinRule.STANDARD));
+        assertFalse(Files.exists(tempDir.resolve("t.tt.tmp")));
+    }
+
+    @Test
+    void path_dependsOnSizeAndRule() {
+        assertEquals(tempDir.resolve("9x8-freestyle5.tt"), TableSnapshot.path(tempDir, new Board(9, 8)));
+    }
+
+    @Test
+    void searchAi_resumesWarmFromSavedTable() throws IOException {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(5, 5));
+        b.place(Cell.O, new Position(4, 4));
+        b.place(Cell.X, new Position(5, 6));
+        SearchAI cold = new SearchAI(3, 1_000_000, 16);
+        Position move = cold.chooseMove(b);
+        long coldNodes = cold.lastNodes();
+        Path file = TableSnapshot.path(tempDir, b);
+        assertTrue(cold.saveTable(file, b) > 0);
+
+        SearchAI warm = new SearchAI(3, 1_000_000, 16);
+        assertTrue(warm.loadTable(file, b) > 0);
+        assertEquals(move, warm.chooseMove(b));
+        assertTrue(warm.lastNodes() < coldNodes, warm.lastNodes() + " >= " + coldNodes);
+
+        DfpnAI wrapped = new DfpnAI(new SearchAI(3, 1_000_000, 16));
+        assertTrue(wrapped.loadTable(file, b) > 0);
+        assertEquals(0, new RandomAI(1).loadTable(file, b));
+    }
+}
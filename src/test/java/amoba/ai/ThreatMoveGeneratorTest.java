@@ -0,0 +1,74 @@
+package amoba.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class ThreatMoveGeneratorTest {
+
+    @Test
+    void ownFour_onlyWinningMovesReturned() {
+        Board b = new Board(12, 12);
+        for (int c = 3; c <= 6; c++) {
+            b.place(Cell.O, new Position(5, c));
+        }
+        b.place(Cell.X, new Position(5, 2));
+        b.place(Cell.X, new Position(8, 8));
+        List<Position> moves = new ThreatMoveGenerator().generate(b, Cell.O);
+        assertEquals(List.of(new Position(5, 7)), moves);
+    }
+
+    @Test
+    void opponentFour_mustBlock() {
+        Board b = new Board(12, 12);
+        for (int r = 2; r <= 5; r++) {
+            b.place(Cell.X, new Position(r, 4));
+        }
+        b.place(Cell.O, new Position(1, 4));
+        b.place(Cell.O, new Position(9, 9));
+        List<Position> moves = new ThreatMoveGenerator().generate(b, Cell.O);
+        assertEquals(List.of(new Position(6, 4)), moves);
+    }
+
+    @Test
+    void opponentOpenThree_onlyDefenceOrCounterFour() {
+        Board b = new Board(12, 12);
+        b.place(Cell.X, new Position(5, 4));
+        b.place(Cell.X, new Position(5, 5));
+        b.place(Cell.X, new Position(5, 6));
+        b.place(Cell.O, new Position(6, 5));
+        List<Position> moves = new ThreatMoveGenerator().generate(b, Cell.O);
+        assertFalse(moves.isEmpty());
+        Set<Position> defence = Set.of(new Position(5, 3), new Position(5, 7),
+                new Position(5, 2), new Position(5, 8));
+        for (Position p : moves) {
+            assertTrue(defence.contains(p), "Nem védekező lépés: " + p);
+        }
+    }
+
+    @Test
+    void quietPosition_cappedAtWidthAndLegal() {
+        Board b = new Board(15, 15);
+        b.place(Cell.X, new Position(7, 7));
+        b.place(Cell.O, new Position(8, 8));
+        b.place(Cell.X, new Position(3, 3));
+        b.place(Cell.O, new Position(11, 2));
+        ThreatMoveGenerator gen = new ThreatMoveGenerator(5);
+        List<Position> moves = gen.generate(b, Cell.X);
+        assertEquals(5, moves.size());
+        Set<Position> legal = b.legalPositionsByAdjacency();
+        assertTrue(legal.containsAll(moves));
+        assertEquals(5, gen.generatedCount());
+    }
+
+    @Test
+    void invalidWidth_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ThreatMoveGenerator(0));
+    }
+}
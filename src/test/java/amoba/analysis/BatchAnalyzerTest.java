@@ -0,0 +1,90 @@
+package amoba.analysis;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.io.FileIO;
+import amoba.io.XmlPersistence;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Board winFor(Cell cell) {
+        Board b = new Board(6, 6);
+        for (int r = 0; r < 5; r++) {
+            b.place(cell, new Position(r, 1));
+        }
+        return b;
+    }
+
+    private void populate() throws IOException {
+        Path sub = Files.createDirectories(tempDir.resolve("sub"));
+        FileIO.saveToTxt(winFor(Cell.X), tempDir.resolve("a.txt"));
+        Board open = new Board(6, 6);
+        open.place(Cell.X, open.center());
+        FileIO.saveToTxt(open, sub.resolve("b.txt"));
+        XmlPersistence.saveToXml(winFor(Cell.O), sub.resolve("c.xml"));
+        Files.writeString(tempDir.resolve("broken.txt"), "nem tábla\n");
+        Files.writeString(tempDir.resolve("notes.md"), "kihagyva");
+    }
+
+    @Test
+    void run_walksDirectoriesInParallel_andReportsEveryBoard() throws IOException {
+        populate();
+        AnalysisSummary s = new BatchAnalyzer(1, 200, 4).run(tempDir);
+        List<PositionReport> reports = s.reports();
+        assertEquals(4, reports.size());
+        assertEquals(1, s.count(Cell.X));
+        assertEquals(1, s.count(Cell.O));
+        assertEquals(1, s.count(Cell.EMPTY));
+        assertEquals(1, s.errors());
+        assertTrue(reports.stream().anyMatch(r -> r.source().endsWith("c.xml#0")));
+        PositionReport open = reports.stream().filter(r -> r.source().endsWith("b.txt")).findFirst().orElseThrow();
+        assertEquals(Cell.O, open.toMove());
+        assertNotNull(open.bestMove());
+    }
+
+    @Test
+    void run_judgesBoardsByGivenRule() throws IOException {
+        populate();
+        AnalysisSummary s = new BatchAnalyzer(1, 200, 2, WinRule.exact(4)).run(tempDir);
+        assertEquals(4, s.reports().size());
+        assertEquals(0, s.count(Cell.X), "az ötös sor pontos négyes szabállyal nem nyer");
+        assertEquals(0, s.count(Cell.O));
+    }
+
+    @Test
+    void cli_writesReportFile() throws IOException {
+        populate();
+        Path report = tempDir.resolve("out").resolve("report.tsv");
+        Files.createDirectories(report.getParent());
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        int code = AnalysisCli.run(new String[] {tempDir.toString(), report.toString(), "--threads=2", "--depth=1"},
+                new PrintStream(buf, true, StandardCharsets.UTF_8));
+        assertEquals(0, code);
+        assertTrue(buf.toString(StandardCharsets.UTF_8).contains("Táblák: 4"));
+        List<String> lines = Files.readAllLines(report);
+        assertEquals(2 + 4, lines.size());
+    }
+
+    @Test
+    void cli_withoutDirectory_printsUsage() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        assertEquals(2, AnalysisCli.run(new String[0], new PrintStream(buf, true, StandardCharsets.UTF_8)));
+    }
+}
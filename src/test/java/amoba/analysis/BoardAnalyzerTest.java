@@ -0,0 +1,52 @@
+package amoba.analysis;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardAnalyzerTest {
+
+    @Test
+    void detectsWinnerAnywhereOnBoard_andSkipsSearch() {
+        Board b = new Board(10, 10);
+        for (int c = 2; c < 7; c++) {
+            b.place(Cell.O, new Position(8, c));
+        }
+        b.place(Cell.X, new Position(0, 0));
+        PositionReport r = new BoardAnalyzer().analyze("w", b);
+        assertEquals(Cell.O, r.winner());
+        assertFalse(r.bothWin());
+        assertNull(r.bestMove());
+    }
+
+    @Test
+    void openPosition_suggestsBlockingMoveForSideToMove() {
+        Board b = new Board(10, 10);
+        for (int c = 2; c < 6; c++) {
+            b.place(Cell.X, new Position(4, c));
+        }
+        b.place(Cell.O, new Position(4, 1));
+        b.place(Cell.O, new Position(0, 0));
+        b.place(Cell.O, new Position(9, 9));
+        PositionReport r = new BoardAnalyzer().analyze("open", b);
+        assertEquals(Cell.EMPTY, r.winner());
+        assertEquals(Cell.O, r.toMove());
+        assertEquals(new Position(4, 6), r.bestMove());
+        assertTrue(r.toLine().startsWith("open\t10x10\t7\t-\tO g5"));
+    }
+
+    @Test
+    void bothColoursWinning_isFlagged() {
+        Board b = new Board(10, 10);
+        for (int c = 0; c < 5; c++) {
+            b.place(Cell.X, new Position(0, c));
+            b.place(Cell.O, new Position(9, c));
+        }
+        PositionReport r = new BoardAnalyzer().analyze("both", b);
+        assertTrue(r.bothWin());
+        assertTrue(r.toLine().contains("\tXO\t"));
+    }
+}
@@ -0,0 +1,87 @@
+package amoba.analysis;
+
+import amoba.board.Board;
+import amoba.io.FileIO;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Független orákulum a publikus API-val: legalPositionsByAdjacency + hasFiveInARow. */
+    private static long reference(Board b, Cell toMove, int depth) {
+        Set<Position> moves = b.legalPositionsByAdjacency();
+        if (depth == 0 || moves.isEmpty()) {
+            return 1;
+        }
+        long total = 0;
+        for (Position p : moves) {
+            b.place(toMove, p);
+            total += b.hasFiveInARow(toMove, p) ? 1 : reference(b, toMove.opponent(), depth - 1);
+            b.remove(p);
+        }
+        return total;
+    }
+
+    private static Board opening() {
+        Board b = new Board(6, 6);
+        b.place(Cell.X, new Position(2, 2));
+        b.place(Cell.O, new Position(3, 3));
+        return b;
+    }
+
+    @Test
+    void depthOne_equalsFrontierSize() {
+        Board b = opening();
+        assertEquals(b.legalPositionsByAdjacency().size(), new Perft(2, false).run(b, 1).nodes());
+    }
+
+    @Test
+    void parallelCount_matchesReferenceAndSerial() {
+        Board b = opening();
+        long expected = reference(b.copy(), Cell.X, 3);
+        Perft.Result r = new Perft(4, true).run(b, 3);
+        assertEquals(expected, r.nodes());
+        assertEquals(expected, Perft.count(b, Cell.X, 3, false));
+        assertEquals(expected, r.breakdown().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2, b.stoneCount());
+    }
+
+    @Test
+    void winningMoves_areTerminal() {
+        Board b = new Board(8, 8);
+        for (int c = 0; c < 4; c++) {
+            b.place(Cell.X, new Position(0, c));
+            b.place(Cell.O, new Position(7, c));
+        }
+        Perft.Result r = new Perft(2, true).run(b, 2);
+        assertEquals(1L, r.breakdown().get(new Position(0, 4)));
+        assertEquals(reference(b.copy(), Cell.X, 2), r.nodes());
+    }
+
+    @Test
+    void cli_printsBreakdownAndTotal() throws IOException {
+        Path file = tempDir.resolve("pos.txt");
+        FileIO.saveToTxt(opening(), file);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        int code = PerftCli.run(new String[] {file.toString(), "2", "--threads=2", "--validate"},
+                new PrintStream(buf, true, StandardCharsets.UTF_8));
+        String out = buf.toString(StandardCharsets.UTF_8);
+        assertEquals(0, code);
+        assertTrue(out.contains("b2: "));
+        assertTrue(out.contains("Összesen: " + reference(opening(), Cell.X, 2) + " csomópont"));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -192,8 +193,122 @@ class BoardTest {
     @DisplayName("Hibás dimenziók – felső és alsó határok")
     void invalidDimensions_throws() {
         assertThrows(IllegalArgumentException.class, () -> new Board(3, 4));   // N túl kicsi
-        assertThrows(IllegalArgumentException.class, () -> new Board(26, 5));  // N túl nagy
+        assertThrows(IllegalArgumentException.class, () -> new Board(Board.MAX_SIZE + 1, 5));  // N túl nagy
         assertThrows(IllegalArgumentException.class, () -> new Board(5, 6));   // M > N
         assertThrows(IllegalArgumentException.class, () -> new Board(4, 3));   // M túl kicsi
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Levétel után a szabályos mezők halmaza visszaáll")
+    void remove_restoresAdjacency() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(4, 4));
+        Set<Position> before = b.legalPositionsByAdjacency();
+        Position p = new Position(5, 5);
+        b.place(Cell.O, p);
+        assertEquals(1, b.stoneCount(Cell.O));
+        b.remove(p);
+        assertEquals(before, b.legalPositionsByAdjacency());
+        assertEquals(1, b.stoneCount());
+        assertThrows(IllegalArgumentException.class, () -> b.remove(p));
+    }
+
+    @Test
+    @DisplayName("Végtelen tábla: szomszédosság és győzelem a foglalt területtel arányosan")
+    void unbounded_adjacencyAndWin() {
+        Board b = Board.unbounded(WinRule.STANDARD);
+        Position center = b.center();
+        b.place(Cell.X, center);
+        assertEquals(8, b.legalPositionsByAdjacency().size());
+        for (int i = 1; i < 5; i++) {
+            b.place(Cell.X, new Position(center.row() + i, center.col() + i));
+        }
+        assertTrue(b.hasFiveInARow(Cell.X, new Position(center.row() + 4, center.col() + 4)));
+        assertTrue(b.render().contains("x"));
+    }
+
+    @Test
+    @DisplayName("Nagy tábla (100x100): többbetűs oszlopjelek a kirajzolásban")
+    void large_renderUsesMultiLetterColumns() {
+        Board b = new Board(100, 100);
+        b.place(Cell.O, new Position(99, 99));
+        assertTrue(b.isLegalByAdjacency(new Position(98, 98)));
+        assertFalse(b.isLegalByAdjacency(new Position(0, 0)));
+        String rendered = b.render();
+        assertTrue(rendered.contains(" aa "));
+        assertTrue(rendered.contains("cv"));
+    }
+
+    @Test
+    void copy_isIndependentOfOriginal() {
+        Board b = new Board(6, 6);
+        b.place(Cell.X, new Position(2, 2));
+        b.place(Cell.O, new Position(3, 3));
+        Board c = b.copy();
+        assertEquals(b.toCharLines(), c.toCharLines());
+        assertEquals(b.frontierSize(), c.frontierSize());
+        c.place(Cell.X, new Position(1, 1));
+        assertEquals(Cell.EMPTY, b.getCell(new Position(1, 1)));
+        assertEquals(2, b.stoneCount());
+    }
+
+    @Test
+    @DisplayName("Nyerhető ablakok - a növekményes számlálók egyeznek a teljes újraszámolással")
+    void liveWindows_matchBruteForce() {
+        SplittableRandom rnd = new SplittableRandom(5);
+        for (int[] size : new int[][] {{9, 7}, {6, 6}, {12, 5}}) {
+            Board b = new Board(size[0], size[1], WinRule.freestyle(4));
+            assertEquals(bruteLive(b, Cell.X), b.liveWindows(Cell.X));
+            for (int i = 0; i < 200; i++) {
+                Position p = new Position(rnd.nextInt(size[0]), rnd.nextInt(size[1]));
+                if (b.isEmpty(p)) {
+                    b.place(rnd.nextBoolean() ? Cell.X : Cell.O, p);
+                } else {
+                    b.remove(p);
+                }
+                assertEquals(bruteLive(b, Cell.X), b.liveWindows(Cell.X));
+                assertEquals(bruteLive(b, Cell.O), b.liveWindows(Cell.O));
+                assertEquals(bruteLive(b, Cell.X) == 0 && bruteLive(b, Cell.O) == 0, b.isDrawn());
+            }
+        }
+    }
+
+    private static int bruteLive(Board b, Cell player) {
+        int length = b.rule().length();
+        int live = 0;
+        int[][] lines = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        for (int r = 0; r < b.rows(); r++) {
+            for (int c = 0; c < b.cols(); c++) {
+                for (int[] d : lines) {
+                    boolean ok = b.isInside(r + (length - 1) * d[0], c + (length - 1) * d[1]);
+                    for (int k = 0; ok && k < length; k++) {
+                        ok = b.cellAt(r + k * d[0], c + k * d[1]) != player.opponent();
+                    }
+                    live += ok ? 1 : 0;
+                }
+            }
+        }
+        return live;
+    }
+
+    @Test
+    @DisplayName("Korai döntetlen - minden ablakban van mindkét fél köve, a tábla mégsem tele")
+    void isDrawn_beforeBoardIsFull() {
+        Board b = new Board(4, 4, WinRule.freestyle(4));
+        assertFalse(b.isDrawn());
+        String[] rows = {"xo..", "oxxo", "xoox", "..ox"};
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                Cell cell = Cell.fromChar(rows[r].charAt(c));
+                if (cell != Cell.EMPTY) {
+                    b.place(cell, new Position(r, c));
+                }
+            }
+        }
+        assertTrue(b.stoneCount() < 16);
+        assertTrue(b.isDrawn());
+        b.remove(new Position(1, 3));
+        assertFalse(b.isDrawn(), "a 4. oszlop újra nyerhető X-nek");
+        assertTrue(new Board(4, 4, WinRule.freestyle(5)).isDrawn(), "4x4-en nincs 5 hosszú ablak");
+    }
+}
@@ -0,0 +1,65 @@
+package amoba.board;
+
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WinRuleTest {
+
+    private static Board rowOf(WinRule rule, Cell cell, int length) {
+        Board b = new Board(12, 12, rule);
+        for (int c = 0; c < length; c++) {
+            b.place(cell, new Position(6, c));
+        }
+        return b;
+    }
+
+    @Test
+    @DisplayName("Szabad szabály: a hosszú sor is nyer")
+    void freestyle_overlineWins() {
+        Board b = rowOf(WinRule.freestyle(5), Cell.X, 6);
+        assertTrue(b.hasFiveInARow(Cell.X, new Position(6, 5)));
+    }
+
+    @Test
+    @DisplayName("Pontosan öt: a hosszú sor nem nyer")
+    void exact_overlineDoesNotWin() {
+        Board b = rowOf(WinRule.exact(5), Cell.X, 6);
+        assertFalse(b.hasFiveInARow(Cell.X, new Position(6, 5)));
+        Board five = rowOf(WinRule.exact(5), Cell.X, 5);
+        assertTrue(five.hasFiveInARow(Cell.X, new Position(6, 4)));
+    }
+
+    @Test
+    @DisplayName("Renju: X hosszú sora tilos, O hosszú sora nyer")
+    void renju_overlineForbiddenForXOnly() {
+        Board x = rowOf(WinRule.renju(), Cell.X, 6);
+        assertTrue(x.isForbidden(Cell.X, new Position(6, 5)));
+        assertFalse(x.hasFiveInARow(Cell.X, new Position(6, 5)));
+        Board o = rowOf(WinRule.renju(), Cell.O, 6);
+        assertFalse(o.isForbidden(Cell.O, new Position(6, 5)));
+        assertTrue(o.hasFiveInARow(Cell.O, new Position(6, 5)));
+    }
+
+    @Test
+    @DisplayName("k egymás után: hatos szabálynál az ötös nem nyer")
+    void kInARow_six() {
+        Board b = rowOf(WinRule.freestyle(6), Cell.O, 5);
+        assertFalse(b.hasFiveInARow(Cell.O, new Position(6, 4)));
+        b.place(Cell.O, new Position(6, 5));
+        assertTrue(b.hasFiveInARow(Cell.O, new Position(6, 5)));
+    }
+
+    @Test
+    @DisplayName("Szöveges alak oda-vissza")
+    void parse_roundTrip() {
+        assertEquals(WinRule.STANDARD, WinRule.parse("freestyle5"));
+        assertEquals(WinRule.renju(), WinRule.parse(WinRule.renju().id()));
+        assertEquals(WinRule.exact(6), WinRule.parse("EXACT6"));
+        assertThrows(IllegalArgumentException.class, () -> WinRule.parse("gomoku"));
+        assertThrows(IllegalArgumentException.class, () -> WinRule.freestyle(2));
+    }
+}
@@ -0,0 +1,87 @@
+package amoba.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PlayerStatsRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reads_doNotCreateFiles() throws IOException {
+        Path file = tempDir.resolve("scores.db");
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(file)) {
+            assertTrue(repo.topWins(10).isEmpty());
+            assertTrue(repo.loadAll().isEmpty());
+            assertTrue(repo.stats("Jani").isEmpty());
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void firstWrite_importsLegacyTextScores() throws IOException {
+        Files.writeString(tempDir.resolve("scores.txt"), "Jani;3\nGép;5\n");
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            repo.recordGame("Jani", "Gép", false, 17);
+            assertEquals(Map.of("Jani", 4, "Gép", 5), repo.loadAll());
+            assertEquals(List.of("Gép", "Jani"), List.copyOf(repo.topWins(10).keySet()));
+            PlayerStats gep = repo.stats("Gép").orElseThrow();
+            assertEquals(1, gep.losses());
+            assertEquals(17, gep.plies());
+        }
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            repo.incrementWin("Jani");
+            assertEquals(5, repo.loadAll().get("Jani"), "az átemelés csak egyszer történik");
+        }
+    }
+
+    @Test
+    void firstRead_importsLegacyTextScores() throws IOException {
+        Files.writeString(tempDir.resolve("scores.txt"), "Jani;3\nGép;5\n");
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            assertEquals(List.of("Gép", "Jani"), List.copyOf(repo.topWins(10).keySet()));
+            assertEquals(3, repo.stats("Jani").orElseThrow().wins());
+        }
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            repo.incrementWin("Jani");
+            assertEquals(Map.of("Jani", 4, "Gép", 5), repo.loadAll(), "az átemelés csak egyszer történik");
+        }
+    }
+
+    @Test
+    void recordGame_feedsRatingLeaderboard() throws IOException {
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            repo.recordGame("Gép", "Jani", false, 9);
+            repo.recordGame("Jani", "Béla", true, 30);
+            assertEquals(List.of("Gép", "Béla", "Jani"), repo.leaderboard(10).stream().map(r -> r.name()).toList());
+        }
+        try (PlayerStatsRepository repo = new PlayerStatsRepository(tempDir.resolve("scores.db"))) {
+            assertEquals(2, repo.leaderboard(10).get(2).games());
+        }
+        assertTrue(new ScoreRepository(tempDir.resolve("scores.txt")).leaderboard(10).isEmpty());
+    }
+
+    @Test
+    void open_choosesFormatByExtension() {
+        assertInstanceOf(PlayerStatsRepository.class, ScoreRepository.open(tempDir.resolve("scores.db")));
+        assertFalse(ScoreRepository.open(tempDir.resolve("scores.txt")) instanceof PlayerStatsRepository);
+    }
+
+    @Test
+    void textRepository_recordsOnlyWins() throws IOException {
+        ScoreRepository repo = new ScoreRepository(tempDir.resolve("scores.txt"));
+        repo.recordGame("Jani", "Gép", false, 10);
+        repo.recordGame("Jani", "Gép", true, 10);
+        assertEquals(Map.of("Jani", 1), repo.loadAll());
+        assertEquals(0, repo.stats("Jani").orElseThrow().losses());
+    }
+}
@@ -0,0 +1,127 @@
+package amoba.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PlayerStatsStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordGame_updatesBothPlayers() throws IOException {
+        try (PlayerStatsStore store = PlayerStatsStore.open(tempDir.resolve("s.db"))) {
+            store.recordGame("Jani", "Gép", false, 21);
+            store.recordGame("Gép", "Jani", false, 30);
+            store.recordGame("Jani", "Gép", true, 100);
+            PlayerStats jani = store.get("Jani").orElseThrow();
+            assertEquals(1, jani.wins());
+            assertEquals(1, jani.losses());
+            assertEquals(1, jani.draws());
+            assertEquals(151, jani.plies());
+            assertEquals("Gép", jani.lastOpponent());
+            assertTrue(jani.lastPlayed() > 0);
+            assertEquals(3, store.get("Gép").orElseThrow().games());
+            assertTrue(store.get("Béla").isEmpty());
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void reopen_keepsRecordsAndRanking() throws IOException {
+        Path file = tempDir.resolve("s.db");
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            store.addWins(Map.of("Árvíztűrő", 3));
+            store.recordGame("Béla", "Géza", false, 9);
+        }
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            assertEquals(3, store.get("Árvíztűrő").orElseThrow().wins());
+            assertEquals(List.of("Árvíztűrő", "Béla"), store.top(10).stream().map(PlayerStats::name).toList());
+        }
+    }
+
+    @Test
+    void missingOrStaleIndex_isRebuiltFromData() throws IOException {
+        Path file = tempDir.resolve("s.db");
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            for (int i = 0; i < 50; i++) {
+                store.recordGame("p" + i, "q" + i, false, i);
+            }
+        }
+        Files.delete(PlayerStatsStore.indexPath(file));
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            assertEquals(100, store.size());
+            assertEquals(1, store.get("p42").orElseThrow().wins());
+            store.recordGame("p42", "új", false, 5);
+        }
+        Files.write(PlayerStatsStore.indexPath(file), new byte[100]);
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            assertEquals(2, store.get("p42").orElseThrow().wins());
+            assertEquals(101, store.size());
+        }
+    }
+
+    @Test
+    void top_isOrderedByWinsThenInsertion() throws IOException {
+        try (PlayerStatsStore store = PlayerStatsStore.open(tempDir.resolve("s.db"))) {
+            Map<String, Integer> wins = new LinkedHashMap<>();
+            wins.put("a", 1);
+            wins.put("b", 2);
+            wins.put("c", 2);
+            wins.put("d", 0);
+            store.addWins(wins);
+            store.recordGame("a", "d", false, 10);
+            store.recordGame("a", "d", false, 10);
+            assertEquals(List.of("a", "b", "c"), store.top(10).stream().map(PlayerStats::name).toList());
+            assertEquals(List.of("a"), store.top(1).stream().map(PlayerStats::name).toList());
+            store.setWins(Map.of("a", 0));
+            assertEquals(List.of("b", "c"), store.top(10).stream().map(PlayerStats::name).toList());
+        }
+    }
+
+    @Test
+    void manyPlayers_growIndexAndDataAndKeepExactTopK() throws IOException {
+        int players = 20_000;
+        try (PlayerStatsStore store = PlayerStatsStore.open(tempDir.resolve("s.db"))) {
+            for (int i = 0; i < players; i++) {
+                store.addWins(Map.of("játékos-" + i, i % 1000));
+            }
+            store.addWins(Map.of("játékos-7", 5000));
+            assertEquals(players, store.size());
+            List<PlayerStats> top = store.top(PlayerStatsStore.TOP_K);
+            assertEquals(PlayerStatsStore.TOP_K, top.size());
+            assertEquals("játékos-7", top.get(0).name());
+            for (int i = 1; i < top.size(); i++) {
+                assertTrue(top.get(i - 1).wins() >= top.get(i).wins());
+            }
+            assertEquals(999, top.get(1).wins());
+            List<PlayerStats> beyond = store.top(PlayerStatsStore.TOP_K + 10);
+            assertEquals(top, beyond.subList(0, PlayerStatsStore.TOP_K));
+            assertEquals(999, store.get("játékos-19999").orElseThrow().wins());
+        }
+    }
+
+    @Test
+    void invalidInput_isRejected() throws IOException {
+        Path file = tempDir.resolve("s.db");
+        try (PlayerStatsStore store = PlayerStatsStore.open(file)) {
+            assertThrows(IllegalArgumentException.class, () -> store.recordGame("x".repeat(49), "y", false, 1));
+            assertThrows(IllegalArgumentException.class, () -> store.recordGame("", "y", false, 1));
+            assertThrows(IllegalArgumentException.class, () -> store.recordGame("y", "y", false, 1));
+            assertThrows(IllegalArgumentException.class, () -> store.addWins(Map.of("y", -1)));
+            assertThrows(IOException.class, () -> PlayerStatsStore.open(file));
+        }
+        Path other = tempDir.resolve("other.db");
+        Files.writeString(other, "Jani;3\n".repeat(1000));
+        assertThrows(IOException.class, () -> PlayerStatsStore.open(other));
+    }
+}
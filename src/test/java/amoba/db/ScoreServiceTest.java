@@ -62,4 +62,31 @@ class ScoreServiceTest {
         Map<String, Integer> top = svc.highScoresTop(10);
         assertTrue(top.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void recordGame_withStatsRepository_tracksLossesAndDraws() {
+        ScoreService svc = new ScoreService(new PlayerStatsRepository(tempDir.resolve("scores.db")));
+        svc.recordGame("Jani", "Gép", false, 15);
+        svc.recordGame("Gép", "Jani", true, 40);
+        svc.recordGame("x".repeat(100), "Gép", false, 1); // túl hosszú név: lenyelt hiba
+
+        assertEquals(Map.of("Jani", 1), svc.highScoresTop(10));
+        PlayerStats gep = svc.stats("Gép").orElseThrow();
+        assertEquals(0, gep.wins());
+        assertEquals(1, gep.losses());
+        assertEquals(1, gep.draws());
+        assertEquals(27.5, gep.averageLength());
+    }
+
+    @Test
+    void close_releasesStoreForNextService() {
+        Path file = tempDir.resolve("scores.db");
+        try (ScoreService first = new ScoreService(new PlayerStatsRepository(file))) {
+            first.recordGame("Jani", "Gép", false, 9);
+        }
+        try (ScoreService second = new ScoreService(new PlayerStatsRepository(file))) {
+            second.recordGame("Jani", "Gép", false, 11);
+            assertEquals(Map.of("Jani", 2), second.highScoresTop(10));
+        }
+    }
+}
@@ -2,15 +2,18 @@ package amoba.game;
 
 import amoba.ai.RandomAI;
 import amoba.board.Board;
+import amoba.db.PlayerStatsRepository;
 import amoba.db.ScoreRepository;
 import amoba.db.ScoreService;
 import amoba.io.ConsoleUI;
+import amoba.io.MoveLog;
 import amoba.model.Cell;
 import amoba.model.Position;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.lang.reflect.Field;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -69,6 +72,7 @@ class AmobaGameTest {
             setPrivateField(AmobaGame.class, this, "ui", ui);
             setPrivateField(AmobaGame.class, this, "ai", ai);
             setPrivateField(AmobaGame.class, this, "scoreService", scoreService);
+            setPrivateField(AmobaGame.class, this, "autosaveDir", null);
         }
 
         static void setPrivateField(Class<?> clazz, Object target, String name, Object value) throws Exception {
@@ -227,6 +231,46 @@ class AmobaGameTest {
         assertTrue(out.stream().anyMatch(s -> s.contains("Használat: save")));
     }
 
+    @Test
+    void prove_command_reports_without_changing_board() throws Exception {
+        FakeConsoleUI ui = new FakeConsoleUI();
+        ui.enqueue(""); ui.enqueue("n"); ui.enqueue("5"); ui.enqueue("4");
+        ui.enqueue("prove vcf");
+        ui.enqueue("quit");
+
+        FixedAI ai = new FixedAI();
+        ScoreService svc = serviceWithRepo(tempDir.resolve("scores.txt"));
+
+        GameHarness game = new GameHarness(ui, ai, svc);
+        game.inject();
+        game.start();
+
+        assertEquals(1, game.board().stoneCount());
+        List<String> out = ui.drainOutputs();
+        assertTrue(out.stream().anyMatch(s -> s.contains("Nincs kényszerített nyerés négyesekkel")));
+    }
+
+    @Test
+    void stats_command_shows_player_record() throws Exception {
+        FakeConsoleUI ui = new FakeConsoleUI();
+        ui.enqueue(""); ui.enqueue("n"); ui.enqueue("5"); ui.enqueue("4");
+        ui.enqueue("stats Gép");
+        ui.enqueue("stats");
+        ui.enqueue("quit");
+
+        Files.writeString(tempDir.resolve("scores.txt"), "Gép;4\n");
+        FixedAI ai = new FixedAI();
+        ScoreService svc = serviceWithRepo(tempDir.resolve("scores.txt"));
+
+        GameHarness game = new GameHarness(ui, ai, svc);
+        game.inject();
+        game.start();
+
+        List<String> out = ui.drainOutputs();
+        assertTrue(out.stream().anyMatch(s -> s.contains("Gép: 4 győzelem, 0 vereség")));
+        assertTrue(out.stream().anyMatch(s -> s.contains("Nincs statisztika: Játékos")));
+    }
+
     @Test
     void load_without_arg_shows_usage() throws Exception {
         FakeConsoleUI ui = new FakeConsoleUI();
@@ -286,6 +330,25 @@ class AmobaGameTest {
         assertTrue(out.stream().anyMatch(s -> s.contains("Nincs high score adat")));
     }
 
+    @Test
+    void highscore_beforeAnyGame_showsLegacyTextScores() throws Exception {
+        FakeConsoleUI ui = new FakeConsoleUI();
+        ui.enqueue(""); ui.enqueue("n"); ui.enqueue("5"); ui.enqueue("4");
+        ui.enqueue("highscore");
+        ui.enqueue("quit");
+
+        Files.writeString(tempDir.resolve("scores.txt"), "Jani;3\nGép;5\n");
+        ScoreService svc = new ScoreService(new PlayerStatsRepository(tempDir.resolve("scores.db")));
+
+        GameHarness game = new GameHarness(ui, new FixedAI(), svc);
+        game.inject();
+        game.start();
+
+        List<String> out = ui.drainOutputs();
+        assertTrue(out.contains("1. Gép - 5"));
+        assertTrue(out.contains("2. Jani - 3"));
+    }
+
     @Test
     void human_wins_records_score_and_stops() throws Exception {
         FakeConsoleUI ui = new FakeConsoleUI();
@@ -354,4 +417,31 @@ class AmobaGameTest {
         }
         assertTrue(anyO);
     }
-}
\ No newline at end of file
+
+    @Test
+    void interrupted_game_is_resumed_from_autosave() throws Exception {
+        Path autosave = tempDir.resolve("autosave");
+        Board crashed = new Board(5, 4);
+        crashed.place(Cell.X, crashed.center());
+        MoveLog log = MoveLog.create(autosave, "crash", "Anna", crashed, 100);
+        Position human = new Position(1, 1);
+        crashed.place(Cell.X, human);
+        log.append(Cell.X, human, crashed);
+        log.close();
+
+        FakeConsoleUI ui = new FakeConsoleUI();
+        ui.enqueue("y");
+        ui.enqueue("quit");
+
+        GameHarness game = new GameHarness(ui, new FixedAI(), serviceWithRepo(tempDir.resolve("scores.txt")));
+        game.inject();
+        GameHarness.setPrivateField(AmobaGame.class, game, "autosaveDir", autosave);
+        game.start();
+
+        Board b = game.board();
+        assertEquals(Cell.X, b.getCell(human));
+        // O következett, így a gép lépett egyet a kilépés előtt
+        assertEquals(1, b.stoneCount(Cell.O));
+        assertTrue(MoveLog.recoverLatest(autosave).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package amoba.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import amoba.ai.RandomAI;
+import amoba.board.WinRule;
+import amoba.db.ScoreService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private BatchRunner.Summary run(String script) throws Exception {
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BatchRunner runner = new BatchRunner(out, new RandomAI(7L), new ScoreService(), WinRule.STANDARD);
+        return runner.run(new StringReader(script));
+    }
+
+    private List<String> output() {
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void recordedGame_isReplayedAndWinnerChecked() throws Exception {
+        String script = """
+                # X nyer a 3. sorban
+                new 10 10
+                c3
+                c4
+                lep d3
+                d4
+                e3
+                e4
+                f3
+                f4
+                g3
+                expect X
+                """;
+        BatchRunner.Summary s = run(script);
+        assertEquals(1, s.games());
+        assertEquals(9, s.moves());
+        assertEquals(0, s.errors());
+        List<String> out = output();
+        assertEquals("#1: X nyert, 9 kő", out.get(0));
+        assertTrue(out.get(1).startsWith("Játékok: 1, lépések: 9, hibák: 0"));
+        assertEquals(2, out.size(), "kérdés és táblarajz nélkül");
+    }
+
+    @Test
+    void wrongExpectationAndIllegalMoves_areCountedAsErrors() throws Exception {
+        String script = """
+                b3
+                new 5 4
+                b3
+                d5
+                b3
+                b4
+                expect O
+                frobnicate
+                """;
+        BatchRunner.Summary s = run(script);
+        assertEquals(5, s.errors());
+        List<String> out = output();
+        assertTrue(out.get(0).startsWith("1. sor: Hiba: Nincs tábla"));
+        assertTrue(out.get(1).startsWith("4. sor: Hiba: Nem szomszédos"));
+        assertTrue(out.get(2).startsWith("5. sor: Hiba: Foglalt"));
+        assertTrue(out.get(3).contains("elvárt nyertes O, kapott -"));
+        assertTrue(out.get(4).startsWith("8. sor: Hiba: Ismeretlen oszlop"));
+    }
+
+    @Test
+    void quit_stopsAndAiMovesAlternate() throws Exception {
+        BatchRunner.Summary s = run("new 6 6\nc3\nai\nai\nquit\nai\n");
+        assertEquals(3, s.moves());
+        assertEquals(0, s.errors());
+    }
+
+    @Test
+    void saveAndLoad_continueWithSideToMove() throws Exception {
+        Path f = tempDir.resolve("allas.txt");
+        String script = "new 6 6\nc3\nc4\nd3\nsave " + f + "\nload " + f + "\nd4\nexpect -\n";
+        BatchRunner.Summary s = run(script);
+        assertEquals(0, s.errors());
+        assertEquals(2, s.games());
+        assertTrue(Files.readString(f).contains("x"));
+    }
+
+    @Test
+    void manyGames_runWithoutPerGameOutput() throws Exception {
+        StringBuilder script = new StringBuilder();
+        for (int g = 0; g < 200; g++) {
+            script.append("new 8 8\nd4\nd5\ne4\ne5\nexpect -\n");
+        }
+        BatchRunner.Summary s = run(script.toString());
+        assertEquals(200, s.games());
+        assertEquals(800, s.moves());
+        assertEquals(0, s.errors());
+        assertEquals(1, output().size());
+    }
+
+    @Test
+    void secondScript_reportsItsOwnLineNumbers() throws Exception {
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BatchRunner runner = new BatchRunner(out, new RandomAI(7L), new ScoreService(), WinRule.STANDARD);
+        runner.run(new StringReader("new 8 8\nd4\nd5\n"));
+        BatchRunner.Summary s = runner.run(new StringReader("new 8 8\nd4\nd4\n"));
+        assertEquals(2, s.games());
+        assertEquals(1, s.errors());
+        assertTrue(output().stream().anyMatch(l -> l.startsWith("3. sor: Hiba: Foglalt")), output().toString());
+    }
+}
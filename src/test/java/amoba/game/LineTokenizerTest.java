@@ -0,0 +1,88 @@
+package amoba.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+
+import amoba.board.Board;
+import org.junit.jupiter.api.Test;
+
+class LineTokenizerTest {
+
+    @Test
+    void readLine_handlesCrLfAndEndOfInput() throws Exception {
+        StringReader in = new StringReader("new 5 4\r\n\nb3");
+        LineTokenizer t = new LineTokenizer();
+        assertTrue(t.readLine(in));
+        assertEquals("new 5 4", t.lineText());
+        assertTrue(t.readLine(in));
+        assertTrue(t.isBlankOrComment());
+        assertTrue(t.readLine(in));
+        assertEquals("b3", t.lineText());
+        assertFalse(t.readLine(in));
+    }
+
+    @Test
+    void tokens_areSplitOnBlanksAndMatchedIgnoringCase() {
+        LineTokenizer t = new LineTokenizer().reset("  LEP\t c4   ");
+        assertTrue(t.next());
+        assertTrue(t.is("lep"));
+        assertFalse(t.is("le"));
+        assertTrue(t.next());
+        assertEquals("c4", t.text());
+        assertFalse(t.next());
+    }
+
+    @Test
+    void longLine_growsBuffer() throws Exception {
+        String longName = "x".repeat(500);
+        LineTokenizer t = new LineTokenizer();
+        assertTrue(t.readLine(new StringReader("save " + longName + "\n")));
+        t.next();
+        t.next();
+        assertEquals(longName, t.text());
+    }
+
+    @Test
+    void parseCell_matchesConsoleFormat() {
+        Board b = new Board(30, 30);
+        LineTokenizer t = new LineTokenizer();
+        t.reset("b3").next();
+        assertEquals(2 * 30 + 1, t.parseCell(b));
+        t.reset("AB12").next();
+        assertEquals(11 * 30 + 27, t.parseCell(b));
+        t.reset("a30").next();
+        assertEquals(29 * 30, t.parseCell(b));
+    }
+
+    @Test
+    void parseCell_rejectsInvalidInput() {
+        Board b = new Board(5, 4);
+        LineTokenizer t = new LineTokenizer();
+        for (String bad : new String[] {"e1", "a0", "a6", "3", "b", "b3x", "b99999999999"}) {
+            t.reset(bad).next();
+            assertThrows(IllegalArgumentException.class, () -> t.parseCell(b), bad);
+        }
+    }
+
+    @Test
+    void parseInt_andComments() {
+        LineTokenizer t = new LineTokenizer().reset("-12 4x");
+        t.next();
+        assertEquals(-12, t.parseInt());
+        t.next();
+        assertThrows(IllegalArgumentException.class, t::parseInt);
+        assertTrue(new LineTokenizer().reset("   # megjegyzés").isBlankOrComment());
+    }
+
+    @Test
+    void command_isResolvedWithoutAllocation() {
+        LineTokenizer t = new LineTokenizer().reset("SaveXml f.xml");
+        t.next();
+        assertEquals(Command.SAVEXML, Command.batch(t));
+        t.reset("b3").next();
+        assertEquals(Command.POSITION, Command.batch(t));
+        assertEquals(Command.POSITION, Command.interactive("new"));
+        assertEquals(Command.PROVE, Command.interactive("PROVE"));
+    }
+}
@@ -0,0 +1,85 @@
+package amoba.io;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BoardChannelWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void txt_formatMatchesLineFormat() throws IOException {
+        Board b = new Board(5, 4);
+        b.place(Cell.X, new Position(0, 0));
+        b.place(Cell.O, new Position(4, 3));
+        Path file = tempDir.resolve("b.txt");
+        new BoardChannelWriter(BoardChannelWriter.Format.TXT).write(b, file);
+        assertEquals("5 4\nx...\n....\n....\n....\n...o\n", Files.readString(file));
+    }
+
+    @Test
+    void xml_formatMatchesGameElement() throws IOException {
+        Board b = new Board(4, 4);
+        b.place(Cell.O, new Position(1, 2));
+        Path file = tempDir.resolve("b.xml");
+        new BoardChannelWriter(BoardChannelWriter.Format.XML).write(b, file);
+        assertEquals("<game rows=\"4\" cols=\"4\">\n  <row>....</row>\n  <row>..o.</row>\n"
+                + "  <row>....</row>\n  <row>....</row>\n</game>\n", Files.readString(file));
+    }
+
+    @Test
+    void largeBoard_spansSeveralBufferFills_andReplacesAtomically() throws IOException {
+        Board b = new Board(400, 400);
+        b.place(Cell.X, new Position(399, 399));
+        Path file = tempDir.resolve("big.txt");
+        Files.writeString(file, "régi tartalom");
+        BoardChannelWriter writer = new BoardChannelWriter(BoardChannelWriter.Format.TXT);
+        writer.write(b, file);
+        writer.write(b, file);
+        Board loaded = FileIO.loadFromTxt(file);
+        assertEquals(Cell.X, loaded.getCell(new Position(399, 399)));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "Nem maradhat ideiglenes fájl");
+        }
+    }
+
+    @Test
+    void saveAll_writesEveryBoard() throws IOException {
+        Map<Path, Board> boards = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            Board b = new Board(6, 6);
+            b.place(Cell.X, new Position(i, i));
+            boards.put(tempDir.resolve("s" + i + ".xml"), b);
+        }
+        XmlPersistence.saveAllToXml(boards);
+        for (int i = 0; i < 3; i++) {
+            Board loaded = XmlPersistence.loadFromXml(tempDir.resolve("s" + i + ".xml"));
+            assertEquals(Cell.X, loaded.getCell(new Position(i, i)));
+        }
+    }
+
+    @Test
+    void savedFile_getsDefaultPermissions() throws IOException {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path reference = Files.createFile(tempDir.resolve("reference.txt"));
+        Path file = tempDir.resolve("perm.txt");
+        FileIO.saveToTxt(new Board(5, 5), file);
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(file));
+        XmlPersistence.saveToXml(new Board(5, 5), tempDir.resolve("perm.xml"));
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(tempDir.resolve("perm.xml")));
+    }
+}
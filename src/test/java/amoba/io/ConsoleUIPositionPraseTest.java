@@ -26,4 +26,13 @@ class ConsoleUIPositionPraseTest {
         ConsoleUI ui = new ConsoleUI();
         assertThrows(IllegalArgumentException.class, () -> ui.parsePosition("b0", 10, 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parse_multiLetterColumn() {
+        ConsoleUI ui = new ConsoleUI();
+        Position p = ui.parsePosition("ab12", 40, 40);
+        assertEquals(11, p.row());
+        assertEquals(27, p.col());
+        assertThrows(IllegalArgumentException.class, () -> ui.parsePosition("ab12", 40, 27));
+    }
+}
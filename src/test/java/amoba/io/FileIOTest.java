@@ -1,6 +1,7 @@
 package amoba.io;
 
 import amoba.board.Board;
+import amoba.board.WinRule;
 import amoba.model.Cell;
 import amoba.model.Position;
 import org.junit.jupiter.api.Test;
@@ -50,4 +51,12 @@ class FileIOTest {
         Path file = tempDir.resolve("does_not_exist.txt");
         assertThrows(IOException.class, () -> FileIO.loadFromTxt(file));
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadFromTxt_usesGivenWinRule() throws IOException {
+        Path file = tempDir.resolve("rule.txt");
+        FileIO.saveToTxt(new Board(6, 6), file);
+        assertEquals(WinRule.renju(), FileIO.loadFromTxt(file, WinRule.renju()).rule());
+        assertEquals(WinRule.STANDARD, FileIO.loadFromTxt(file).rule());
+    }
+}
@@ -0,0 +1,157 @@
+package amoba.io;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Board startBoard() {
+        Board b = new Board(9, 9);
+        b.place(Cell.X, b.center());
+        return b;
+    }
+
+    @Test
+    void recover_replaysLoggedMovesOnTopOfSnapshot() throws IOException {
+        Board b = startBoard();
+        try (MoveLog log = MoveLog.create(tempDir, "s1", "Anna", b, 100)) {
+            Position p1 = new Position(4, 5);
+            b.place(Cell.X, p1);
+            log.append(Cell.X, p1, b);
+            Position p2 = new Position(3, 3);
+            b.place(Cell.O, p2);
+            log.append(Cell.O, p2, b);
+        }
+
+        MoveLog.Recovered r = MoveLog.recover(tempDir, "s1");
+        r.log().close();
+        assertEquals("Anna", r.playerName());
+        assertEquals(2, r.replayed());
+        assertEquals(Cell.X, r.toMove());
+        assertEquals(b.toCharLines(), r.board().toCharLines());
+    }
+
+    @Test
+    void recover_ignoresTornTailRecord() throws IOException {
+        Board b = startBoard();
+        try (MoveLog log = MoveLog.create(tempDir, "s2", "Béla", b, 100)) {
+            Position p = new Position(4, 5);
+            b.place(Cell.X, p);
+            log.append(Cell.X, p, b);
+        }
+        Files.write(tempDir.resolve("s2.wal"), new byte[] {2, 0, 0}, StandardOpenOption.APPEND);
+
+        MoveLog.Recovered r = MoveLog.recover(tempDir, "s2");
+        assertEquals(1, r.replayed());
+        assertEquals(Cell.O, r.toMove());
+        Position next = new Position(3, 3);
+        r.board().place(Cell.O, next);
+        r.log().append(Cell.O, next, r.board());
+        r.log().close();
+
+        MoveLog.Recovered again = MoveLog.recover(tempDir, "s2");
+        again.log().close();
+        assertEquals(2, again.replayed());
+        assertEquals(Cell.O, again.board().getCell(next));
+    }
+
+    @Test
+    void compaction_writesNewSnapshotAndEmptiesLog() throws IOException {
+        Board b = startBoard();
+        MoveLog log = MoveLog.create(tempDir, "s3", "Cili", b, 2);
+        Position p1 = new Position(4, 5);
+        b.place(Cell.X, p1);
+        log.append(Cell.X, p1, b);
+        Position p2 = new Position(4, 3);
+        b.place(Cell.O, p2);
+        log.append(Cell.O, p2, b);
+        log.close();
+
+        assertEquals(1, log.epoch());
+        assertFalse(Files.exists(tempDir.resolve("s3.0.snap.txt")));
+        assertTrue(Files.exists(tempDir.resolve("s3.1.snap.txt")));
+
+        MoveLog.Recovered r = MoveLog.recover(tempDir, "s3");
+        r.log().close();
+        assertEquals(0, r.replayed());
+        assertEquals(Cell.X, r.toMove());
+        assertEquals(3, r.board().stoneCount());
+    }
+
+    @Test
+    void delete_removesSessionFiles_andRecoverLatestFindsNothing() throws IOException {
+        Board b = startBoard();
+        MoveLog log = MoveLog.create(tempDir, "s4", "Dani", b, 100);
+        log.close();
+        Optional<MoveLog.Recovered> found = MoveLog.recoverLatest(tempDir);
+        assertTrue(found.isPresent());
+        found.get().log().close();
+
+        log.delete();
+        Optional<MoveLog.Recovered> none = MoveLog.recoverLatest(tempDir);
+        assertTrue(none.isEmpty());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void recoverLatest_skipsSessionOwnedByRunningGame() throws IOException {
+        Board b = startBoard();
+        try (MoveLog older = MoveLog.create(tempDir, "s5", "Emese", b, 100)) {
+            Files.setLastModifiedTime(tempDir.resolve("s5.wal"), FileTime.fromMillis(0));
+        }
+        try (MoveLog running = MoveLog.create(tempDir, "s6", "Feri", b, 1)) {
+            Position p = new Position(4, 5);
+            b.place(Cell.X, p);
+            running.append(Cell.X, p, b); // tömörítés után is zárolt marad
+            assertThrows(IOException.class, () -> MoveLog.recover(tempDir, "s6"));
+
+            MoveLog.Recovered r = MoveLog.recoverLatest(tempDir).orElseThrow();
+            assertEquals("s5", r.log().session());
+            assertTrue(MoveLog.recoverLatest(tempDir).isEmpty());
+            r.log().close();
+        }
+        try (MoveLog s6 = MoveLog.recoverLatest(tempDir).orElseThrow().log()) {
+            assertEquals("s6", s6.session());
+        }
+    }
+
+    @Test
+    void recover_rejectsForeignFile() throws IOException {
+        Files.writeString(tempDir.resolve("bad.wal"), "not a log at all");
+        assertThrows(IOException.class, () -> MoveLog.recover(tempDir, "bad"));
+    }
+
+    @Test
+    void recover_keepsWinRuleOfTheGame() throws IOException {
+        Board b = new Board(9, 9, WinRule.exact(4));
+        b.place(Cell.X, b.center());
+        try (MoveLog log = MoveLog.create(tempDir, "s9", "Anna", b, 1)) {
+            Position p = new Position(4, 5);
+            b.place(Cell.X, p);
+            log.append(Cell.X, p, b); // tömörítés: új pillanatkép és napló fejléc
+        }
+
+        MoveLog.Recovered r = MoveLog.recover(tempDir, "s9");
+        r.log().close();
+        assertEquals(WinRule.exact(4), r.board().rule());
+        assertEquals(b.toCharLines(), r.board().toCharLines());
+    }
+}
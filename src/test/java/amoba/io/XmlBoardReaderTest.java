@@ -0,0 +1,40 @@
+package amoba.io;
+
+import amoba.board.Board;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlBoardReaderTest {
+
+    @Test
+    void entitiesAreDecodedAndCountAsOneCell() throws IOException {
+        String xml = "<game rows=\"4\" cols=\"4\"><row>&lt;x&amp;o</row><row>....</row>"
+                + "<row>....</row><row>....</row></game>";
+        try (XmlBoardReader reader = new XmlBoardReader(new StringReader(xml))) {
+            Board b = reader.next();
+            assertEquals(Cell.EMPTY, b.getCell(new Position(0, 0)));
+            assertEquals(Cell.X, b.getCell(new Position(0, 1)));
+            assertEquals(Cell.O, b.getCell(new Position(0, 3)));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void missingRowEnd_throws() {
+        String xml = "<game rows=\"4\" cols=\"4\"><row>....";
+        XmlBoardReader reader = new XmlBoardReader(new StringReader(xml));
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void emptyDocument_returnsNull() throws IOException {
+        XmlBoardReader reader = new XmlBoardReader(new StringReader("<!-- semmi --><?xml?>"));
+        assertNull(reader.next());
+    }
+}
@@ -1,6 +1,7 @@
 package amoba.io;
 
 import amoba.board.Board;
+import amoba.board.WinRule;
 import amoba.model.Cell;
 import amoba.model.Position;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,4 +70,34 @@ class XmlPersistenceTest {
         Path file = tempDir.resolve("no.xml");
         assertThrows(IOException.class, () -> XmlPersistence.loadFromXml(file));
     }
-}
\ No newline at end of file
+
+    @Test
+    void forEachGame_readsMultipleGamesInOnePass() throws IOException {
+        Path file = tempDir.resolve("many.xml");
+        Files.writeString(file,
+                "<?xml version=\"1.0\"?>\n<!-- archívum -->\n<games>\n" +
+                        "<game rows=\"4\" cols=\"4\"><row>x...</row><row>....</row><row>....</row><row>....</row></game>\n" +
+                        "<game cols=\"5\" rows=\"5\"><row>....o</row><row>.....</row><row>.....</row>" +
+                        "<row>.....</row><row>.....</row></game>\n" +
+                        "</games>\n");
+        List<Board> boards = new ArrayList<>();
+        int count = XmlPersistence.forEachGame(file, boards::add);
+        assertEquals(2, count);
+        assertEquals(Cell.X, boards.get(0).getCell(new Position(0, 0)));
+        assertEquals(5, boards.get(1).rows());
+        assertEquals(Cell.O, boards.get(1).getCell(new Position(0, 4)));
+    }
+
+    @Test
+    void saveAndLoad_roundTrip() throws IOException {
+        Board board = new Board(6, 5);
+        board.place(Cell.X, new Position(2, 2));
+        board.place(Cell.O, new Position(3, 3));
+        Path file = tempDir.resolve("rt.xml");
+        XmlPersistence.saveToXml(board, file);
+        Board loaded = XmlPersistence.loadFromXml(file);
+        assertEquals(board.toCharLines(), loaded.toCharLines());
+        assertEquals(2, loaded.stoneCount());
+        assertEquals(WinRule.exact(5), XmlPersistence.loadFromXml(file, WinRule.exact(5)).rule());
+    }
+}
@@ -0,0 +1,78 @@
+package amoba.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import amoba.ai.RandomAI;
+import amoba.ai.SearchAI;
+import amoba.board.Board;
+import amoba.io.FileIO;
+import amoba.io.XmlPersistence;
+import amoba.model.Cell;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void searchAndPersistence_emitEvents() throws Exception {
+        Path jfr = tempDir.resolve("rec.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("amoba.Search");
+            recording.enable("amoba.Persistence");
+            recording.start();
+
+            Board b = new Board(10, 10);
+            b.place(Cell.X, b.center());
+            new SearchAI(2, 10_000, 12).chooseMove(b);
+            FileIO.saveToTxt(b, tempDir.resolve("b.txt"));
+            XmlPersistence.saveToXml(b, tempDir.resolve("b.xml"));
+            XmlPersistence.loadFromXml(tempDir.resolve("b.xml"));
+
+            recording.stop();
+            recording.dump(jfr);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr);
+        RecordedEvent search = events.stream()
+                .filter(e -> e.getEventType().getName().equals("amoba.Search"))
+                .findFirst().orElseThrow();
+        assertEquals(2, search.getInt("depth"));
+        assertTrue(search.getLong("nodes") > 0);
+
+        Set<String> ops = events.stream()
+                .filter(e -> e.getEventType().getName().equals("amoba.Persistence"))
+                .map(e -> e.getString("operation"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("txt.save", "xml.save", "xml.load"), ops);
+        assertTrue(events.stream()
+                .filter(e -> e.getEventType().getName().equals("amoba.Persistence"))
+                .allMatch(e -> e.getLong("bytes") > 0));
+    }
+
+    @Test
+    void randomAi_withoutLegalMove_stillEmitsEvent() throws Exception {
+        Path jfr = tempDir.resolve("random.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("amoba.Search");
+            recording.start();
+            assertNull(new RandomAI(1L).chooseMove(new Board(6, 6)));
+            recording.stop();
+            recording.dump(jfr);
+        }
+        RecordedEvent search = RecordingFile.readAllEvents(jfr).stream()
+                .filter(e -> e.getEventType().getName().equals("amoba.Search"))
+                .findFirst().orElseThrow();
+        assertEquals("random", search.getString("engine"));
+        assertEquals("", search.getString("move"));
+    }
+}
@@ -0,0 +1,51 @@
+package amoba.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void percentiles_withinRelativeError() {
+        Histogram h = new Histogram("test", "ns");
+        for (long v = 1; v <= 100_000; v++) {
+            h.record(v);
+        }
+        assertEquals(100_000, h.count());
+        assertEquals(100_000, h.max());
+        assertEquals(50_000.5, h.mean(), 0.001);
+        assertEquals(50_000, h.percentile(50), 50_000 * 0.04);
+        assertEquals(99_000, h.percentile(99), 99_000 * 0.04);
+    }
+
+    @Test
+    void smallValues_areExact() {
+        Histogram h = new Histogram("depth", "ply");
+        h.record(3);
+        h.record(3);
+        h.record(7);
+        assertEquals(3, h.percentile(50));
+        assertEquals(7, h.percentile(100));
+    }
+
+    @Test
+    void bucketBounds_areMonotonic() {
+        long prev = -1;
+        for (long v : new long[] {0, 1, 63, 64, 65, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(v);
+            assertTrue(Histogram.upperBound(bucket) >= v);
+            assertTrue(bucket >= prev);
+            prev = bucket;
+        }
+    }
+
+    @Test
+    void reset_clearsEverything() {
+        Histogram h = new Histogram("x", "ns");
+        h.record(10);
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.percentile(50));
+    }
+}
@@ -0,0 +1,71 @@
+package amoba.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import amoba.ai.SearchAI;
+import amoba.board.Board;
+import amoba.io.FileIO;
+import amoba.model.Cell;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    void disabled_recordsNothing() throws Exception {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        assertEquals(Metrics.DISABLED, Metrics.start());
+        Board b = new Board(6, 6);
+        FileIO.saveToTxt(b, tempDir.resolve("a.txt"));
+        assertEquals(0, Metrics.TXT_SAVE.count());
+    }
+
+    @Test
+    void enabled_recordsSearchAndIo() throws Exception {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        Board b = new Board(10, 10);
+        b.place(Cell.X, b.center());
+        new SearchAI(2, 10_000, 12).chooseMove(b);
+        FileIO.saveToTxt(b, tempDir.resolve("b.txt"));
+        FileIO.loadFromTxt(tempDir.resolve("b.txt"));
+
+        assertEquals(1, Metrics.AI_THINK.count());
+        assertEquals(1, Metrics.AI_DEPTH.count());
+        assertTrue(Metrics.TT_PROBES.sum() > 0);
+        assertTrue(Metrics.MOVEGEN_CALLS.sum() > 0);
+        assertEquals(1, Metrics.TXT_SAVE.count());
+        assertEquals(1, Metrics.TXT_LOAD.count());
+        assertTrue(Metrics.dump().contains("ai.think"));
+    }
+
+    @Test
+    void jmx_exposesBean() throws Exception {
+        Metrics.registerJmx();
+        Metrics.registerJmx();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("amoba:type=Metrics");
+        assertTrue(server.isRegistered(name));
+        server.setAttribute(name, new Attribute("Enabled", true));
+        assertTrue(Metrics.enabled());
+        String[] summaries = (String[]) server.getAttribute(name, "HistogramSummaries");
+        assertEquals(Metrics.histograms().size(), summaries.length);
+    }
+}
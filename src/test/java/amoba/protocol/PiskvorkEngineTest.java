@@ -0,0 +1,113 @@
+package amoba.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import amoba.ai.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Menedzser csonk: a parancsokat egy szövegből adja, a válaszokat soronként gyűjti.
+ */
+class PiskvorkEngineTest {
+
+    private static List<String> drive(String... commands) throws Exception {
+        String script = String.join("\n", commands) + "\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new PiskvorkEngine(new BufferedReader(new StringReader(script)), out).loop();
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void start_begin_playsCenter() throws Exception {
+        List<String> out = drive("START 15", "BEGIN", "END");
+        assertEquals(List.of("OK", "7,7"), out);
+    }
+
+    @Test
+    void turn_repliesWithLegalMoveNextToStones() throws Exception {
+        List<String> out = drive("START 15", "INFO timeout_turn 200", "TURN 7,7", "END");
+        assertEquals("OK", out.get(0));
+        String[] xy = out.get(1).split(",");
+        int x = Integer.parseInt(xy[0]);
+        int y = Integer.parseInt(xy[1]);
+        assertTrue(Math.abs(x - 7) <= 1 && Math.abs(y - 7) <= 1 && (x != 7 || y != 7), out.get(1));
+    }
+
+    @Test
+    void board_completesOwnFour() throws Exception {
+        // saját négyes a 3. sorban (x=2..5), az ellenfél máshol: az 1,3 vagy 6,3 nyer
+        List<String> out = drive("START 15", "INFO timeout_turn 500", "BOARD",
+                "2,3,1", "10,10,2", "3,3,1", "11,10,2", "4,3,1", "10,11,2", "5,3,1", "1,3,2", "DONE", "END");
+        assertEquals(List.of("OK", "6,3"), out);
+    }
+
+    @Test
+    void board_blocksOpponentFour() throws Exception {
+        List<String> out = drive("START 15", "INFO timeout_turn 500", "BOARD",
+                "8,2,2", "0,0,1", "8,3,2", "0,14,1", "8,4,2", "14,0,1", "8,5,2", "8,1,1", "DONE", "END");
+        assertEquals(List.of("OK", "8,6"), out);
+    }
+
+    @Test
+    void board_withMalformedLine_isConsumedUntilDoneAndReportedOnce() throws Exception {
+        List<String> out = drive("START 15", "INFO timeout_turn 200", "BOARD",
+                "7,7,1", "rossz sor", "8,8,2", "99,1,1", "7,8,1", "DONE", "ABOUT", "END");
+        assertEquals(3, out.size(), out.toString());
+        assertEquals("OK", out.get(0));
+        assertTrue(out.get(1).startsWith("ERROR Hibás BOARD sor"), out.get(1));
+        assertTrue(out.get(2).startsWith("name=\"amoba\""));
+    }
+
+    @Test
+    void board_beforeStart_isConsumedUntilDone() throws Exception {
+        List<String> out = drive("BOARD", "7,7,1", "DONE", "END");
+        assertEquals(1, out.size(), out.toString());
+        assertTrue(out.get(0).startsWith("ERROR"));
+    }
+
+    @Test
+    void rectstart_usesWidthAsColumns() throws Exception {
+        List<String> out = drive("RECTSTART 10,12", "BEGIN", "END");
+        assertEquals(List.of("OK", "5,6"), out);
+    }
+
+    @Test
+    void errors_areReportedAndEngineKeepsRunning() throws Exception {
+        List<String> out = drive("TURN 1,1", "START 15", "TURN 20,3", "FOO", "ABOUT", "END", "BEGIN");
+        assertTrue(out.get(0).startsWith("ERROR"));
+        assertEquals("OK", out.get(1));
+        assertTrue(out.get(2).startsWith("ERROR"));
+        assertEquals("UNKNOWN FOO", out.get(3));
+        assertTrue(out.get(4).startsWith("name=\"amoba\""));
+        assertEquals(5, out.size(), "END után nem válaszolhat");
+    }
+
+    @Test
+    void turnTimeout_isRespected() throws Exception {
+        long started = System.nanoTime();
+        List<String> out = drive("START 20", "INFO timeout_turn 100", "INFO timeout_match 100000",
+                "TURN 10,10", "TURN 12,10", "TURN 9,12", "END");
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+        assertEquals(4, out.size());
+        assertTrue(elapsedMillis < 3 * 100 + 1500, "túl lassú: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void tableBits_followMemoryLimitAndHeap() {
+        long heap = 1L << 34;
+        assertEquals(PiskvorkEngine.DEFAULT_TABLE_BITS, PiskvorkEngine.tableBits(0, heap));
+        int bits = PiskvorkEngine.tableBits(64L << 20, heap);
+        assertTrue((1L << bits) * TranspositionTable.ENTRY_BYTES <= 32L << 20);
+        assertTrue((1L << (bits + 1)) * TranspositionTable.ENTRY_BYTES > 32L << 20);
+        assertEquals(PiskvorkEngine.tableBits(1L << 20, heap), PiskvorkEngine.tableBits(0, 2L << 20));
+        assertEquals(10, PiskvorkEngine.tableBits(1000, heap));
+    }
+}
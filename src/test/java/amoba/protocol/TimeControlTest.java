@@ -0,0 +1,54 @@
+package amoba.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TimeControlTest {
+
+    @Test
+    void turnLimit_keepsReserve() {
+        TimeControl t = new TimeControl();
+        t.setTurnMillis(1000);
+        assertEquals(900, t.budgetMillis(200));
+        t.setTurnMillis(100);
+        assertEquals(70, t.budgetMillis(200));
+    }
+
+    @Test
+    void zeroTurnLimit_meansMinimalBudget() {
+        TimeControl t = new TimeControl();
+        t.setTurnMillis(0);
+        assertEquals(TimeControl.MIN_BUDGET_MILLIS, t.budgetMillis(200));
+    }
+
+    @Test
+    void matchTime_isSpreadOverRemainingMoves() {
+        TimeControl t = new TimeControl();
+        t.setTurnMillis(30_000);
+        t.setMatchMillis(40_000);
+        // 400 üres mező -> legfeljebb 40 hátralévő lépés -> 1000 ms, 10% tartalék
+        assertEquals(900, t.budgetMillis(400));
+        t.spent(20_000);
+        assertEquals(450, t.budgetMillis(400));
+    }
+
+    @Test
+    void timeLeft_overridesOwnAccounting() {
+        TimeControl t = new TimeControl();
+        t.setMatchMillis(100_000);
+        t.spent(90_000);
+        t.setTimeLeftMillis(50_000);
+        assertEquals(1250 - 125, t.budgetMillis(400));
+        t.newMatch();
+        assertEquals(2500 - 250, t.budgetMillis(400));
+    }
+
+    @Test
+    void exhaustedClock_stillGivesMinimalBudget() {
+        TimeControl t = new TimeControl();
+        t.setMatchMillis(1000);
+        t.setTimeLeftMillis(0);
+        assertEquals(TimeControl.MIN_BUDGET_MILLIS, t.budgetMillis(400));
+    }
+}
@@ -0,0 +1,120 @@
+package amoba.rating;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RatingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reads_doNotCreateFiles() throws IOException {
+        try (RatingService s = new RatingService(tempDir)) {
+            assertTrue(s.leaderboard(10).isEmpty());
+            assertTrue(s.rating("Jani").isEmpty());
+            assertEquals(0, s.recompute(1, 1));
+        }
+        assertFalse(Files.exists(tempDir.resolve(RatingService.LOG_FILE)));
+    }
+
+    @Test
+    void reopen_restoresFromSnapshotAndLogTail() throws IOException {
+        List<GameResult> results = RatingTableTest.randomResults(RatingService.SNAPSHOT_INTERVAL * 2 + 37, 15, 5);
+        RatingTable expected = new RatingTable();
+        results.forEach(expected::record);
+        RatingService s = new RatingService(tempDir);
+        for (GameResult r : results) {
+            s.record(r);
+        }
+        // lezárás nélkül: a pillanatkép a 200. játszmánál készült, a maradék csak a naplóban van
+        assertTrue(Files.exists(tempDir.resolve(RatingService.SNAPSHOT_FILE)));
+        try (RatingService reopened = new RatingService(tempDir)) {
+            assertEquals(expected.top(15), reopened.leaderboard(15));
+        }
+        s.close();
+    }
+
+    @Test
+    void reopen_doesNotReadLogBeforeSnapshot() throws IOException {
+        try (RatingService s = new RatingService(tempDir)) {
+            s.record(new GameResult("Jani", "Gép", false));
+            s.record(new GameResult("Béla", "Gép", false));
+        }
+        Path logPath = tempDir.resolve(RatingService.LOG_FILE);
+        long length = Files.size(logPath);
+        // a pillanatkép előtti első rekord neve "túl hosszú": ha a megnyitás végigolvasná, itt vágna
+        try (FileChannel ch = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] {0x7F, (byte) 0xFF}), ResultLog.HEADER_BYTES + 1);
+        }
+        try (RatingService s = new RatingService(tempDir)) {
+            assertEquals(1, s.rating("Jani").orElseThrow().games());
+            s.record(new GameResult("Jani", "Béla", true));
+        }
+        assertTrue(Files.size(logPath) > length, "a napló nem vágódott a pillanatkép előtt");
+    }
+
+    @Test
+    void corruptSnapshot_fallsBackToFullReplay() throws IOException {
+        try (RatingService s = new RatingService(tempDir)) {
+            s.record(new GameResult("Jani", "Gép", false));
+        }
+        Files.write(tempDir.resolve(RatingService.SNAPSHOT_FILE), new byte[] {1, 2, 3});
+        try (RatingService s = new RatingService(tempDir)) {
+            assertEquals("Jani", s.leaderboard(1).get(0).name());
+            assertEquals(1, s.rating("Gép").orElseThrow().games());
+        }
+    }
+
+    @Test
+    void resultLog_ignoresTornTail() throws IOException {
+        Path path = tempDir.resolve("r.log");
+        try (ResultLog log = ResultLog.open(path)) {
+            log.append(new GameResult("A", "B", false));
+            log.append(new GameResult("B", "C", true));
+            log.flush();
+        }
+        long complete = Files.size(path);
+        Files.write(path, new byte[] {0, 0, 5, 'X'}, StandardOpenOption.APPEND);
+        List<GameResult> read = new ArrayList<>();
+        assertEquals(complete, ResultLog.forEach(path, 0, read::add));
+        assertEquals(List.of(new GameResult("A", "B", false), new GameResult("B", "C", true)), read);
+        try (ResultLog log = ResultLog.open(path)) {
+            assertEquals(complete, log.flush());
+            log.append(new GameResult("C", "A", false));
+        }
+        read.clear();
+        ResultLog.forEach(path, complete, read::add);
+        assertEquals(List.of(new GameResult("C", "A", false)), read);
+    }
+
+    @Test
+    void cli_recomputeAndTop() throws IOException {
+        try (RatingService s = new RatingService(tempDir)) {
+            s.record(new GameResult("Jani", "Gép", false));
+            s.record(new GameResult("Jani", "Béla", false));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        assertEquals(0, RatingCli.run(new String[] {"recompute", "--period=1", "--threads=2"}, out, tempDir));
+        assertEquals(0, RatingCli.run(new String[] {"top", "1"}, out, tempDir));
+        String text = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("Újraértékelve: 2 játszma"), text);
+        assertTrue(text.contains("1. Jani - 1539? (2 játszma)"), text);
+        assertEquals(2, RatingCli.run(new String[] {"bogus"}, out, tempDir));
+    }
+}
@@ -0,0 +1,136 @@
+package amoba.rating;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class RatingTableTest {
+
+    @Test
+    void elo_symmetricAndProvisionalFactor() {
+        assertEquals(0.5, Elo.expected(1500, 1500), 1e-12);
+        assertEquals(1.0, Elo.expected(1700, 1500) + Elo.expected(1500, 1700), 1e-12);
+        assertEquals(Elo.K_PROVISIONAL / 2, Elo.delta(1500, 0, 1500, 1.0), 1e-12);
+        assertEquals(Elo.K_ESTABLISHED / 2, Elo.delta(1500, Elo.PROVISIONAL_GAMES, 1500, 1.0), 1e-12);
+    }
+
+    @Test
+    void record_updatesBothPlayersAndLeaderboard() {
+        RatingTable t = new RatingTable();
+        t.record(new GameResult("Jani", "Gép", false));
+        List<Rating> top = t.top(10);
+        assertEquals(List.of("Jani", "Gép"), top.stream().map(Rating::name).toList());
+        assertEquals(1520, top.get(0).rating(), 1e-9);
+        assertEquals(1480, top.get(1).rating(), 1e-9);
+        assertEquals(1, top.get(0).games());
+        assertEquals(1, t.rankOf("Jani"));
+        assertEquals(0, t.rankOf("Senki"));
+
+        t.record(new GameResult("Gép", "Jani", false));
+        t.record(new GameResult("Gép", "Jani", false));
+        assertEquals("Gép", t.top(1).get(0).name());
+        assertTrue(t.rating("Jani").orElseThrow().provisional());
+    }
+
+    @Test
+    void draw_betweenEqualsChangesNothing() {
+        RatingTable t = new RatingTable();
+        t.record(new GameResult("A", "B", true));
+        assertEquals(Elo.INITIAL, t.rating("A").orElseThrow().rating(), 1e-12);
+        assertEquals(Elo.INITIAL, t.rating("B").orElseThrow().rating(), 1e-12);
+    }
+
+    @Test
+    void leaderboard_matchesFullSortAfterManyGames() {
+        RatingTable t = new RatingTable();
+        for (GameResult r : randomResults(5_000, 200, 1)) {
+            t.record(r);
+        }
+        List<Rating> all = t.top(Integer.MAX_VALUE);
+        assertEquals(t.size(), all.size());
+        List<Rating> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparingDouble(Rating::rating).reversed());
+        assertEquals(sorted.stream().map(Rating::rating).toList(), all.stream().map(Rating::rating).toList());
+    }
+
+    @Test
+    void recompute_periodOneEqualsIncremental() {
+        List<GameResult> results = randomResults(3_000, 50, 2);
+        RatingTable incremental = new RatingTable();
+        results.forEach(incremental::record);
+        RatingTable recomputed = new RatingTable();
+        recomputed.record(new GameResult("p7", "p3", false)); // a régi értékek elvesznek
+        recomputed.recompute(results, 1, 4);
+        assertEquals(incremental.top(100), recomputed.top(100));
+    }
+
+    @Test
+    void recompute_parallelPeriodsMatchSequential() {
+        List<GameResult> results = randomResults(20_000, 300, 3);
+        RatingTable sequential = new RatingTable();
+        sequential.recompute(results, 4_096, 1);
+        RatingTable parallel = new RatingTable();
+        parallel.recompute(results, 4_096, 4);
+        List<Rating> a = sequential.top(300);
+        List<Rating> b = parallel.top(300);
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).name(), b.get(i).name());
+            assertEquals(a.get(i).rating(), b.get(i).rating(), 1e-6);
+            assertEquals(a.get(i).games(), b.get(i).games());
+        }
+    }
+
+    @Test
+    void recompute_rejectsInvalidArguments() {
+        RatingTable t = new RatingTable();
+        assertThrows(IllegalArgumentException.class, () -> t.recompute(List.of(), 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> t.recompute(List.of(), 1, 0));
+    }
+
+    @Test
+    void snapshot_roundTrip() throws IOException {
+        RatingTable t = new RatingTable();
+        randomResults(500, 20, 4).forEach(t::record);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        t.writeSnapshot(new DataOutputStream(bytes), 1234);
+        RatingTable loaded = new RatingTable();
+        assertEquals(1234, loaded.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertEquals(t.top(20), loaded.top(20));
+        assertThrows(IOException.class,
+                () -> new RatingTable().readSnapshot(new DataInputStream(new ByteArrayInputStream(new byte[16]))));
+    }
+
+    @Test
+    void gameResult_rejectsInvalidNames() {
+        assertThrows(IllegalArgumentException.class, () -> new GameResult("A", "A", false));
+        assertThrows(IllegalArgumentException.class, () -> new GameResult("", "B", false));
+    }
+
+    static List<GameResult> randomResults(int games, int players, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<GameResult> results = new ArrayList<>();
+        while (results.size() < games) {
+            int a = rnd.nextInt(players);
+            int b = rnd.nextInt(players);
+            if (a != b) {
+                // a kisebb sorszámú gyakrabban nyer, hogy legyen valódi sorrend
+                boolean lowerWins = rnd.nextInt(100) < 65;
+                int w = lowerWins == a < b ? a : b;
+                int l = w == a ? b : a;
+                results.add(new GameResult("p" + w, "p" + l, rnd.nextInt(10) == 0));
+            }
+        }
+        return results;
+    }
+}
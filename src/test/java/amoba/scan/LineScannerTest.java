@@ -0,0 +1,163 @@
+package amoba.scan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import amoba.ai.Evaluator;
+import amoba.ai.PatternWeights;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class LineScannerTest {
+
+    private static List<LineScanner> scanners() {
+        List<LineScanner> all = new ArrayList<>();
+        all.add(LineScanner.scalar());
+        if (LineScanner.vectorAvailable()) {
+            all.add(LineScanner.vector());
+        }
+        return all;
+    }
+
+    private static Board random(int rows, int cols, WinRule rule, double fill, SplittableRandom random) {
+        Board b = new Board(rows, cols, rule);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                double x = random.nextDouble();
+                if (x < fill / 2) {
+                    b.place(Cell.X, new Position(r, c));
+                } else if (x < fill) {
+                    b.place(Cell.O, new Position(r, c));
+                }
+            }
+        }
+        return b;
+    }
+
+    private static boolean stoneWalkWins(Board b, Cell player) {
+        for (int r = 0; r < b.rows(); r++) {
+            for (int c = 0; c < b.cols(); c++) {
+                if (b.cellAt(r, c) == player && b.hasFiveInARow(player, new Position(r, c))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void vectorModule_isLoadedInTests() {
+        assertTrue(LineScanner.vectorAvailable(), "a surefire --add-modules jdk.incubator.vector kapcsolóval fut");
+        assertTrue(LineScanner.startup().isPresent());
+    }
+
+    @Test
+    void windowFeatures_matchStoneWalk() {
+        SplittableRandom random = new SplittableRandom(11);
+        int[][] shapes = {{15, 15, 5}, {25, 25, 5}, {9, 6, 4}, {12, 10, 3}, {20, 11, 10}, {4, 4, 4}};
+        for (LineScanner s : scanners()) {
+            for (int[] shape : shapes) {
+                for (int t = 0; t < 30; t++) {
+                    Board b = random(shape[0], shape[1], WinRule.freestyle(shape[2]), random.nextDouble() * 0.8, random);
+                    int[] expected = new int[shape[2] + 1];
+                    int[] actual = new int[shape[2] + 1];
+                    Evaluator.windowFeatures(b, Cell.O, expected);
+                    s.windowFeatures(b, Cell.O, actual);
+                    assertArrayEquals(expected, actual, s.name() + " " + Arrays.toString(shape));
+                }
+            }
+        }
+    }
+
+    @Test
+    void windowFeatures_addToExistingCounts() {
+        Board b = new Board(10, 10);
+        b.place(Cell.X, new Position(0, 0));
+        for (LineScanner s : scanners()) {
+            int[] features = {7, 7, 7, 7, 7, 7};
+            s.windowFeatures(b, Cell.X, features);
+            assertEquals(7, features[0]);
+            assertEquals(10, features[1], s.name());
+        }
+    }
+
+    @Test
+    void hasRun_matchesBoardOnRandomPositions() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (LineScanner s : scanners()) {
+            for (int t = 0; t < 300; t++) {
+                Board b = random(15, 15, WinRule.STANDARD, 0.5, random);
+                assertEquals(stoneWalkWins(b, Cell.X), s.hasRun(b, Cell.X), s.name());
+                assertEquals(stoneWalkWins(b, Cell.O), s.hasRun(b, Cell.O), s.name());
+            }
+        }
+    }
+
+    @Test
+    void hasRun_findsRunsTouchingEveryEdge() {
+        for (LineScanner s : scanners()) {
+            Board anti = new Board(8, 8);
+            for (int i = 0; i < 5; i++) {
+                anti.place(Cell.X, new Position(3 + i, 4 - i));
+            }
+            assertTrue(s.hasRun(anti, Cell.X), s.name());
+            assertFalse(s.hasRun(anti, Cell.O), s.name());
+            Board wrap = new Board(8, 8);
+            for (int c = 5; c < 8; c++) {
+                wrap.place(Cell.O, new Position(2, c));
+            }
+            wrap.place(Cell.O, new Position(3, 0));
+            wrap.place(Cell.O, new Position(3, 1));
+            assertFalse(s.hasRun(wrap, Cell.O), "a sorvégen nem folytatódik: " + s.name());
+            Board corner = new Board(6, 5);
+            for (int r = 1; r < 6; r++) {
+                corner.place(Cell.O, new Position(r, 4));
+            }
+            assertTrue(s.hasRun(corner, Cell.O), s.name());
+        }
+    }
+
+    @Test
+    void evaluator_withScanner_matchesStoneWalk() {
+        SplittableRandom random = new SplittableRandom(3);
+        Evaluator plain = new Evaluator(PatternWeights.DEFAULT);
+        for (LineScanner s : scanners()) {
+            Evaluator scanned = new Evaluator(PatternWeights.DEFAULT, s);
+            for (int t = 0; t < 50; t++) {
+                Board b = random(15, 15, WinRule.STANDARD, 0.3, random);
+                assertEquals(plain.evaluate(b, Cell.X), scanned.evaluate(b, Cell.X), s.name());
+            }
+        }
+    }
+
+    @Test
+    void pays_onlyWhenStonesOutweighTheArea() {
+        SplittableRandom random = new SplittableRandom(5);
+        Board dense = random(15, 15, WinRule.STANDARD, 0.3, random);
+        Board sparse = new Board(200, 200);
+        sparse.place(Cell.X, new Position(100, 100));
+        sparse.place(Cell.O, new Position(101, 100));
+        Evaluator plain = new Evaluator(PatternWeights.DEFAULT);
+        for (LineScanner s : scanners()) {
+            assertTrue(s.pays(dense), s.name());
+            assertFalse(s.pays(sparse), s.name());
+            assertEquals(plain.evaluate(sparse, Cell.X), new Evaluator(PatternWeights.DEFAULT, s).evaluate(sparse, Cell.X));
+        }
+    }
+
+    @Test
+    void oversizedBoard_isNotSupported() {
+        Board huge = new Board(300, 300);
+        LineScanner s = LineScanner.scalar();
+        assertFalse(s.supports(huge));
+        assertThrows(IllegalArgumentException.class, () -> s.hasRun(huge, Cell.X));
+        assertEquals(0, new Evaluator(PatternWeights.DEFAULT, s).evaluate(huge, Cell.X));
+    }
+}
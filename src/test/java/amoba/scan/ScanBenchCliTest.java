@@ -0,0 +1,45 @@
+package amoba.scan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import amoba.ai.Rng;
+import amoba.board.Board;
+import amoba.model.Cell;
+import org.junit.jupiter.api.Test;
+
+class ScanBenchCliTest {
+
+    @Test
+    void run_reportsBothSizesAndImplementations() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        int code = ScanBenchCli.run(new String[] {"1", "--seed=2"}, new PrintStream(buf, true, StandardCharsets.UTF_8));
+        String out = buf.toString(StandardCharsets.UTF_8);
+        assertEquals(0, code, out);
+        assertTrue(out.contains("15x15"));
+        assertTrue(out.contains("25x25"));
+        assertTrue(out.contains("96x96"));
+        assertTrue(out.contains("skalár"));
+        assertTrue(out.contains("vektor"));
+    }
+
+    @Test
+    void positions_haveNoWinningRun() {
+        LineScanner s = LineScanner.scalar();
+        for (Board b : ScanBenchCli.positions(15, 0.5, Rng.create(4))) {
+            assertFalse(s.hasRun(b, Cell.X));
+            assertFalse(s.hasRun(b, Cell.O));
+            assertTrue(b.stoneCount() > 50);
+        }
+    }
+
+    @Test
+    void badArguments_areRejected() {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        assertEquals(1, ScanBenchCli.run(new String[] {"--fill=2"}, new PrintStream(buf, true, StandardCharsets.UTF_8)));
+        assertEquals(1, ScanBenchCli.run(new String[] {"x"}, new PrintStream(buf, true, StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,147 @@
+package amoba.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import amoba.ai.Rng;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+class BitboardSimulatorTest {
+
+    @Test
+    void select_returnsKthSetBit() {
+        long bits = 0b1011_0100_0000_0001L | 1L << 63;
+        int[] expected = {0, 10, 12, 13, 15, 63};
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k], BitboardSimulator.select(bits, k));
+        }
+    }
+
+    @Test
+    void hasRun_matchesBoardOnRandomPositions() {
+        BitboardSimulator sim = new BitboardSimulator(8, 8, 5);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int t = 0; t < 2000; t++) {
+            Board b = new Board(8, 8, WinRule.freestyle(5));
+            boolean boardWin = false;
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    if (random.nextInt(100) < 45) {
+                        b.place(Cell.X, new Position(r, c));
+                    }
+                }
+            }
+            for (int r = 0; r < 8 && !boardWin; r++) {
+                for (int c = 0; c < 8 && !boardWin; c++) {
+                    Position p = new Position(r, c);
+                    boardWin = b.cellAt(r, c) == Cell.X && b.hasFiveInARow(Cell.X, p);
+                }
+            }
+            assertEquals(boardWin, sim.hasRun(BitboardSimulator.pack(b, Cell.X)), "állás #" + t);
+        }
+    }
+
+    @Test
+    void neighbours_matchBoardAdjacency() {
+        Board b = new Board(6, 6, WinRule.freestyle(5));
+        b.place(Cell.X, new Position(0, 5));
+        b.place(Cell.O, new Position(3, 0));
+        b.place(Cell.X, new Position(5, 5));
+        long occupied = BitboardSimulator.pack(b, Cell.X) | BitboardSimulator.pack(b, Cell.O);
+        long candidates = BitboardSimulator.neighbours(occupied) & ~occupied;
+        for (int r = 0; r < 6; r++) {
+            for (int c = 0; c < 6; c++) {
+                Position p = new Position(r, c);
+                boolean legal = b.isEmpty(p) && b.isLegalByAdjacency(p);
+                assertEquals(legal, (candidates & BitboardSimulator.bit(r, c)) != 0, p.toString());
+            }
+        }
+    }
+
+    @Test
+    void run_countsEveryGameOnce() {
+        BitboardSimulator.Stats s = new BitboardSimulator(8, 8, 5).run(1000, Rng.create(7));
+        assertEquals(1000, s.games());
+        assertEquals(s.games(), s.crossWins() + s.circleWins() + s.draws());
+        assertTrue(s.crossWins() > s.circleWins(), "a kezdő előnyben van");
+        assertTrue(s.plies() >= 9 * s.games());
+    }
+
+    @Test
+    void run_isReproducibleWithSameSeed() {
+        BitboardSimulator sim = new BitboardSimulator(7, 7, 4);
+        BitboardSimulator.Stats a = sim.run(500, Rng.create(3));
+        BitboardSimulator.Stats b = sim.run(500, Rng.create(3));
+        assertEquals(a.crossWins(), b.crossWins());
+        assertEquals(a.plies(), b.plies());
+    }
+
+    @Test
+    void smallBoard_gamesEndWithinCellCount() {
+        BitboardSimulator sim = new BitboardSimulator(4, 4, 4);
+        BitboardSimulator.Stats s = sim.run(100, Rng.create(1));
+        assertEquals(s.games(), s.crossWins() + s.circleWins() + s.draws());
+        assertTrue(s.draws() > 0);
+        assertTrue(s.plies() <= 16 * s.games());
+        assertEquals(0, sim.run(0, Rng.create(1)).games());
+    }
+
+    @Test
+    void rollouts_fromWonPosition_finishImmediately() {
+        Board b = new Board(8, 8, WinRule.freestyle(5));
+        for (int c = 1; c <= 5; c++) {
+            b.place(Cell.X, new Position(2, c));
+        }
+        for (int c = 1; c <= 4; c++) {
+            b.place(Cell.O, new Position(4, c));
+        }
+        BitboardSimulator.Stats s = BitboardSimulator.forBoard(b).rollouts(b, Cell.O, 100, Rng.create(5));
+        assertEquals(100, s.crossWins());
+        assertEquals(0, s.plies());
+    }
+
+    @Test
+    void rollouts_fromDeadPosition_areDrawnImmediately() {
+        Board b = new Board(4, 4, WinRule.freestyle(4));
+        String[] rows = {"XO..", "..OX", "OX..", "..XO"};
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                char ch = rows[r].charAt(c);
+                if (ch != '.') {
+                    b.place(ch == 'X' ? Cell.X : Cell.O, new Position(r, c));
+                }
+            }
+        }
+        BitboardSimulator.Stats s = BitboardSimulator.forBoard(b).rollouts(b, Cell.X, 100, Rng.create(5));
+        assertEquals(100, s.draws());
+        assertEquals(0, s.plies());
+    }
+
+    @Test
+    void rollouts_withImmediateWin_areMostlyWonBySideToMove() {
+        Board b = new Board(8, 8, WinRule.freestyle(5));
+        for (int r = 2; r <= 5; r++) {
+            b.place(Cell.X, new Position(r, 0));
+        }
+        for (int r = 2; r <= 5; r++) {
+            b.place(Cell.O, new Position(r, 7));
+        }
+        BitboardSimulator.Stats s = BitboardSimulator.forBoard(b).rollouts(b, Cell.X, 2000, Rng.create(9));
+        assertTrue(s.crossWins() > s.circleWins());
+    }
+
+    @Test
+    void invalidSizesAndRules_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BitboardSimulator(9, 9, 5));
+        assertThrows(IllegalArgumentException.class, () -> new BitboardSimulator(8, 3, 3));
+        assertThrows(IllegalArgumentException.class, () -> new BitboardSimulator(6, 6, 7));
+        assertThrows(IllegalArgumentException.class, () -> BitboardSimulator.forBoard(new Board(8, 8, WinRule.exact(5))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BitboardSimulator(8, 8, 5).rollouts(new Board(7, 7, WinRule.freestyle(5)), Cell.X, 1, Rng.create(1)));
+    }
+}
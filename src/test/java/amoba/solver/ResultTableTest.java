@@ -0,0 +1,57 @@
+package amoba.solver;
+
+import amoba.board.WinRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void putAndGet_persistAcrossReopen() throws IOException {
+        Path file = tempDir.resolve("t.tbl");
+        try (ResultTable t = ResultTable.open(file, 4, 4, WinRule.freestyle(4), 8)) {
+            assertTrue(t.put(0x1234_5678_9ABC_DEF0L, ResultTable.WIN));
+            assertTrue(t.put(42L << 3, ResultTable.LOSS));
+            assertTrue(t.put(7L << 3, ResultTable.DRAW));
+            assertEquals(3, t.size());
+        }
+        try (ResultTable t = ResultTable.open(file, 4, 4, WinRule.freestyle(4), 12)) {
+            assertEquals(256, t.capacity());
+            assertEquals(3, t.size());
+            assertEquals(ResultTable.WIN, t.get(0x1234_5678_9ABC_DEF0L));
+            assertEquals(ResultTable.LOSS, t.get(42L << 3));
+            assertEquals(ResultTable.DRAW, t.get(7L << 3));
+            assertEquals(ResultTable.UNKNOWN, t.get(99L << 3));
+        }
+    }
+
+    @Test
+    void bounds_areNotReportedAsExact() throws IOException {
+        try (ResultTable t = ResultTable.open(tempDir.resolve("b.tbl"), 4, 4, WinRule.STANDARD, 6)) {
+            t.putCode(8L, ResultTable.CODE_AT_LEAST_DRAW);
+            assertEquals(ResultTable.UNKNOWN, t.get(8L));
+            assertEquals(ResultTable.CODE_AT_LEAST_DRAW, t.probe(8L));
+            t.put(8L, ResultTable.DRAW);
+            assertEquals(ResultTable.DRAW, t.get(8L));
+            assertEquals(1, t.size());
+        }
+    }
+
+    @Test
+    void open_rejectsOtherBoardOrRule() throws IOException {
+        Path file = tempDir.resolve("m.tbl");
+        ResultTable.open(file, 5, 5, WinRule.freestyle(4), 6).close();
+        assertThrows(IOException.class, () -> ResultTable.open(file, 5, 4, WinRule.freestyle(4), 6));
+        assertThrows(IOException.class, () -> ResultTable.open(file, 5, 5, WinRule.exact(4), 6));
+        assertThrows(IllegalArgumentException.class, () -> ResultTable.open(tempDir.resolve("x"), 5, 5,
+                WinRule.STANDARD, 40));
+    }
+}
@@ -0,0 +1,46 @@
+package amoba.solver;
+
+import amoba.ai.AiSession;
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverAITest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final Position FALLBACK_MOVE = new Position(0, 0);
+
+    private final AiSession fallback = board -> FALLBACK_MOVE;
+
+    @Test
+    void smallBoard_takesWinningMoveFromSolver() {
+        Board b = new Board(4, 4, WinRule.freestyle(3));
+        b.place(Cell.X, new Position(1, 1));
+        b.place(Cell.X, new Position(2, 1));
+        b.place(Cell.O, new Position(1, 2));
+        b.place(Cell.O, new Position(2, 2));
+        b.place(Cell.X, new Position(3, 3));
+        SolverAI ai = new SolverAI(fallback, tempDir, 12, 100_000);
+        Position p = ai.chooseMove(b);
+        assertTrue(p.equals(new Position(0, 2)) || p.equals(new Position(3, 2)), String.valueOf(p));
+        assertTrue(Files.exists(SolverAI.tablePath(tempDir, b)));
+    }
+
+    @Test
+    void largeOpenBoard_usesFallback() {
+        Board b = new Board(15, 15);
+        b.place(Cell.X, b.center());
+        assertFalse(SolverAI.isSolvable(b));
+        assertEquals(FALLBACK_MOVE, new SolverAI(fallback, tempDir, 12, 1000).chooseMove(b));
+    }
+}
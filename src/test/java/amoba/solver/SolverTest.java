@@ -0,0 +1,124 @@
+package amoba.solver;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Tábla nélküli, naiv minimax orákulum. */
+    private static int minimax(Board b, Cell toMove) {
+        if (b.frontierSize() == 0) {
+            return 0;
+        }
+        int best = -1;
+        for (Position p : b.legalPositionsByAdjacency()) {
+            b.place(toMove, p);
+            int v = b.hasFiveInARow(toMove, p) ? 1 : -minimax(b, toMove.opponent());
+            b.remove(p);
+            best = Math.max(best, v);
+            if (best == 1) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private static Board start(WinRule rule) {
+        Board b = new Board(4, 4, rule);
+        b.place(Cell.X, b.center());
+        return b;
+    }
+
+    @Test
+    void solvesSmallBoardsFromTheGameStart() throws IOException {
+        try (ResultTable t = ResultTable.open(tempDir.resolve("a.tbl"), 4, 4, WinRule.freestyle(3), 12)) {
+            assertEquals(ResultTable.WIN, new Solver(t).solve(start(WinRule.freestyle(3)), Cell.X, Long.MAX_VALUE));
+        }
+        try (ResultTable t = ResultTable.open(tempDir.resolve("b.tbl"), 4, 4, WinRule.freestyle(4), 18)) {
+            Board b = start(WinRule.freestyle(4));
+            assertEquals(ResultTable.DRAW, new Solver(t).solve(b, Cell.X, Long.MAX_VALUE));
+            assertEquals(1, b.stoneCount());
+        }
+    }
+
+    @Test
+    void agreesWithPlainMinimax_onRandomEndgames() throws IOException {
+        SplittableRandom random = new SplittableRandom(17);
+        try (ResultTable t = ResultTable.open(tempDir.resolve("c.tbl"), 5, 5, WinRule.freestyle(4), 16)) {
+            Solver solver = new Solver(t);
+            int checked = 0;
+            while (checked < 25) {
+                Board b = new Board(5, 5, WinRule.freestyle(4));
+                b.place(Cell.X, b.center());
+                Cell turn = Cell.O;
+                boolean over = false;
+                while (b.stoneCount() < 14 && !over) {
+                    int idx = b.frontierAt(random.nextInt(b.frontierSize()));
+                    Position p = new Position(idx / 5, idx % 5);
+                    b.place(turn, p);
+                    over = b.hasFiveInARow(turn, p);
+                    turn = turn.opponent();
+                }
+                if (over) {
+                    continue;
+                }
+                assertEquals(minimax(b.copy(), turn), solver.solve(b, turn, Long.MAX_VALUE));
+                checked++;
+            }
+        }
+    }
+
+    @Test
+    void storedResults_makeSecondSolveInstant() throws IOException {
+        Path file = tempDir.resolve("d.tbl");
+        try (ResultTable t = ResultTable.open(file, 4, 4, WinRule.freestyle(4), 18)) {
+            new Solver(t).solve(start(WinRule.freestyle(4)), Cell.X, Long.MAX_VALUE);
+        }
+        try (ResultTable t = ResultTable.open(file, 4, 4, WinRule.freestyle(4), 18)) {
+            Solver solver = new Solver(t);
+            assertEquals(ResultTable.DRAW, solver.solve(start(WinRule.freestyle(4)), Cell.X, 1));
+            assertEquals(0, solver.nodes());
+        }
+    }
+
+    @Test
+    void nodeLimit_givesUnknownAndLeavesBoardIntact() throws IOException {
+        try (ResultTable t = ResultTable.open(tempDir.resolve("e.tbl"), 4, 4, WinRule.freestyle(4), 12)) {
+            Board b = start(WinRule.freestyle(4));
+            assertEquals(ResultTable.UNKNOWN, new Solver(t).solve(b, Cell.X, 50));
+            assertEquals(1, b.stoneCount());
+            assertEquals(8, b.frontierSize());
+        }
+    }
+
+    @Test
+    void canonicalHash_isSymmetryInvariant() {
+        CanonicalHash h = new CanonicalHash(5, 5);
+        Board a = new Board(5, 5);
+        a.place(Cell.X, new Position(0, 1));
+        a.place(Cell.O, new Position(2, 3));
+        Board rotated = new Board(5, 5);
+        rotated.place(Cell.X, new Position(1, 4));
+        rotated.place(Cell.O, new Position(3, 2));
+        h.reset(a);
+        long ka = h.key(Cell.X);
+        h.reset(rotated);
+        assertEquals(ka, h.key(Cell.X));
+        assertNotEquals(ka, h.key(Cell.O));
+        assertEquals(8, h.symmetries());
+        assertEquals(4, new CanonicalHash(6, 5).symmetries());
+    }
+}
@@ -0,0 +1,243 @@
+package amoba.tuning;
+
+import amoba.board.WinRule;
+import amoba.db.ScoreRepository;
+import amoba.model.Cell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinatorTest {
+
+    private static final Coordinator.Plan PLAN = new Coordinator.Plan(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM,
+            SelfPlay.Engine.RANDOM, 4, 6, 3, 42L);
+
+    @TempDir
+    Path tempDir;
+
+    private static List<ArchivedGame> expectedBatch(int batch) {
+        Assignment a = PLAN.assignment(batch);
+        return a.selfPlay(1).play(a.games(), a.seed());
+    }
+
+    private static List<ArchivedGame> read(Path archive) throws IOException {
+        List<ArchivedGame> games = new ArrayList<>();
+        GameArchive.forEach(archive, games::add);
+        return games;
+    }
+
+    private static List<String> keys(List<ArchivedGame> games) {
+        List<String> keys = new ArrayList<>();
+        for (ArchivedGame g : games) {
+            keys.add(g.winner() + Arrays.toString(g.moves()));
+        }
+        return keys;
+    }
+
+    private static Map<String, Integer> expectedWins(List<ArchivedGame> games) {
+        Map<String, Integer> wins = new HashMap<>();
+        for (ArchivedGame g : games) {
+            if (g.winner() != Cell.EMPTY) {
+                wins.merge("random-" + g.winner().name(), 1, Integer::sum);
+            }
+        }
+        return wins;
+    }
+
+    @Test
+    void severalWorkers_fillArchiveAndScores() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                workers.add(pool.submit(() -> new Worker("127.0.0.1", c.port(), 1).run(0)));
+            }
+            assertTrue(c.awaitCompletion(30_000));
+            int total = 0;
+            for (Future<Integer> w : workers) {
+                total += w.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(PLAN.batches(), total);
+        } finally {
+            pool.shutdownNow();
+        }
+        List<ArchivedGame> expected = new ArrayList<>();
+        for (int b = 0; b < PLAN.batches(); b++) {
+            expected.addAll(expectedBatch(b));
+        }
+        List<String> got = keys(read(archive));
+        List<String> want = keys(expected);
+        assertEquals(want.size(), got.size());
+        assertTrue(got.containsAll(want) && want.containsAll(got));
+        assertEquals(expectedWins(expected), scores.loadAll());
+    }
+
+    @Test
+    void restart_resumesAfterLastAcknowledgedBatch() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            assertEquals(2, new Worker("127.0.0.1", c.port(), 1).run(2));
+            assertEquals(2, c.acknowledged());
+        }
+        // leállás közben félig kiírt, nyugtázatlan adat és csonka állapot sor
+        Files.write(archive, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        Files.writeString(Coordinator.statePath(archive), "ack 2 99", StandardOpenOption.APPEND);
+
+        assertEquals(PLAN, Coordinator.storedPlan(archive).orElseThrow());
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            assertEquals(2, c.acknowledged());
+            assertEquals(4, new Worker("127.0.0.1", c.port(), 2).run(0));
+            assertTrue(c.isComplete());
+        }
+        List<ArchivedGame> expected = new ArrayList<>();
+        for (int b = 0; b < PLAN.batches(); b++) {
+            expected.addAll(expectedBatch(b));
+        }
+        assertEquals(keys(expected), keys(read(archive)));
+        assertEquals(expectedWins(expected), scores.loadAll());
+    }
+
+    @Test
+    void repeatedRequest_releasesEarlierLease() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            try (Socket socket = new Socket("127.0.0.1", c.port())) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                out.writeInt(Coordinator.MAGIC);
+                out.writeInt(Coordinator.VERSION);
+                int[] leased = new int[2];
+                for (int i = 0; i < leased.length; i++) {
+                    out.writeByte(Coordinator.REQUEST);
+                    out.flush();
+                    assertEquals(Coordinator.ASSIGN, in.readByte());
+                    leased[i] = Assignment.read(in).batch();
+                }
+                assertEquals(leased[0], leased[1], "a visszaadott köteg kerül újra kiosztásra");
+            }
+            Future<Integer> worker = pool.submit(() -> new Worker("127.0.0.1", c.port(), 1).run(0));
+            assertTrue(c.awaitCompletion(30_000));
+            assertEquals(PLAN.batches(), worker.get(30, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void restart_afterScoresWritten_doesNotCountBatchTwice() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            assertEquals(2, new Worker("127.0.0.1", c.port(), 1).run(2));
+        }
+        // leállás a pontszámok beírása után, de a scored sor előtt
+        Path state = Coordinator.statePath(archive);
+        List<String> lines = new ArrayList<>(Files.readAllLines(state));
+        assertTrue(lines.remove(lines.size() - 1).startsWith("scored "));
+        Files.write(state, lines);
+
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            assertEquals(4, new Worker("127.0.0.1", c.port(), 1).run(0));
+        }
+        List<ArchivedGame> expected = new ArrayList<>();
+        for (int b = 0; b < PLAN.batches(); b++) {
+            expected.addAll(expectedBatch(b));
+        }
+        assertEquals(expectedWins(expected), scores.loadAll());
+    }
+
+    @Test
+    void finishedRun_sendsWorkersHome() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        Coordinator.Plan small = new Coordinator.Plan(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM,
+                SelfPlay.Engine.RANDOM, 2, 1, 1, 7L);
+        try (Coordinator c = Coordinator.start(small, archive, scores, 0)) {
+            assertEquals(1, new Worker("127.0.0.1", c.port(), 1).run(0));
+        }
+        try (Coordinator c = Coordinator.start(small, archive, scores, 0)) {
+            assertTrue(c.isComplete());
+            assertEquals(0, new Worker("127.0.0.1", c.port(), 1).run(0));
+        }
+        assertEquals(1, read(archive).size());
+    }
+
+    @Test
+    void differentPlan_isRejected() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        Coordinator.start(PLAN, archive, scores, 0).close();
+        Coordinator.Plan other = new Coordinator.Plan(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM,
+                SelfPlay.Engine.RANDOM, 4, 6, 3, 43L);
+        assertThrows(IOException.class, () -> Coordinator.start(other, archive, scores, 0));
+    }
+
+    @Test
+    void workerProcesses_onLocalhost() throws Exception {
+        Path archive = tempDir.resolve("games.bin");
+        ScoreRepository scores = new ScoreRepository(tempDir.resolve("scores.txt"));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        try (Coordinator c = Coordinator.start(PLAN, archive, scores, 0)) {
+            for (int i = 0; i < 2; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "amoba.AmobaApp",
+                        "worker", "127.0.0.1", Integer.toString(c.port()), "--threads=1")
+                        .redirectErrorStream(true).redirectOutput(tempDir.resolve("worker" + i + ".log").toFile())
+                        .start());
+            }
+            assertTrue(c.awaitCompletion(60_000));
+            for (Process p : processes) {
+                assertTrue(p.waitFor(30, TimeUnit.SECONDS));
+                assertEquals(0, p.exitValue());
+            }
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+        assertEquals(PLAN.batches() * PLAN.batchSize(), read(archive).size());
+    }
+
+    @Test
+    void compactRecord_roundTripsAndRejectsCorruption() throws Exception {
+        Assignment a = PLAN.assignment(3);
+        ArchivedGame g = expectedBatch(3).get(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        a.write(out);
+        Assignment.writeGame(out, g);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assignment back = Assignment.read(in);
+        assertEquals(a, back);
+        ArchivedGame copy = back.readGame(in);
+        assertArrayEquals(g.moves(), copy.moves());
+        assertEquals(g.winner(), copy.winner());
+        assertTrue(bytes.size() < 60 + 2 * g.moves().length, "tömör rekord");
+
+        byte[] bad = {0, (byte) 200, 1}; // 200 lépés egy 81 mezős táblán
+        assertThrows(IOException.class, () -> a.readGame(new DataInputStream(new ByteArrayInputStream(bad))));
+    }
+}
@@ -0,0 +1,65 @@
+package amoba.tuning;
+
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendAndForEach_roundTrip() throws IOException {
+        Path file = tempDir.resolve("g.bin");
+        ArchivedGame a = new ArchivedGame(6, 6, WinRule.STANDARD, Cell.X, new int[] {14, 15, 20});
+        ArchivedGame b = new ArchivedGame(8, 7, WinRule.exact(4), Cell.EMPTY, new int[0]);
+        try (GameArchive archive = GameArchive.create(file)) {
+            archive.append(a);
+            archive.append(b);
+            assertEquals(2, archive.written());
+        }
+        List<ArchivedGame> read = new ArrayList<>();
+        assertEquals(2, GameArchive.forEach(file, read::add));
+        assertArrayEquals(a.moves(), read.get(0).moves());
+        assertEquals(Cell.X, read.get(0).winner());
+        assertEquals(WinRule.exact(4), read.get(1).rule());
+        assertEquals(7, read.get(1).cols());
+        assertEquals(0.5, read.get(1).scoreForX());
+    }
+
+    @Test
+    void resume_dropsUnsyncedTail() throws IOException {
+        Path file = tempDir.resolve("g.bin");
+        ArchivedGame a = new ArchivedGame(6, 6, WinRule.STANDARD, Cell.X, new int[] {14, 15, 20});
+        long synced;
+        try (GameArchive archive = GameArchive.create(file)) {
+            archive.append(a);
+            synced = archive.sync();
+            archive.append(a);
+        }
+        try (GameArchive archive = GameArchive.resume(file, synced)) {
+            archive.append(new ArchivedGame(6, 6, WinRule.STANDARD, Cell.O, new int[] {1}));
+        }
+        List<ArchivedGame> read = new ArrayList<>();
+        assertEquals(2, GameArchive.forEach(file, read::add));
+        assertEquals(Cell.O, read.get(1).winner());
+        assertThrows(IOException.class, () -> GameArchive.resume(tempDir.resolve("missing.bin"), synced));
+    }
+
+    @Test
+    void forEach_rejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("x.bin");
+        Files.writeString(file, "hello world");
+        assertThrows(IOException.class, () -> GameArchive.forEach(file, g -> { }));
+    }
+}
@@ -0,0 +1,39 @@
+package amoba.tuning;
+
+import amoba.board.Board;
+import amoba.board.WinRule;
+import amoba.model.Cell;
+import amoba.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayTest {
+
+    @Test
+    void sameSeed_givesSameGames_regardlessOfThreads() {
+        List<ArchivedGame> one = new SelfPlay(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM, 4, 1).play(12, 5L);
+        List<ArchivedGame> four = new SelfPlay(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM, 4, 4).play(12, 5L);
+        assertEquals(12, one.size());
+        for (int i = 0; i < one.size(); i++) {
+            assertArrayEquals(one.get(i).moves(), four.get(i).moves());
+            assertEquals(one.get(i).winner(), four.get(i).winner());
+        }
+    }
+
+    @Test
+    void searchGames_endWithRecordedWinner() {
+        List<ArchivedGame> games = new SelfPlay(9, 9, WinRule.STANDARD, SelfPlay.Engine.SEARCH, 2, 2).play(3, 11L);
+        for (ArchivedGame g : games) {
+            Board b = g.replay(g.moves().length);
+            assertEquals(g.moves().length, b.stoneCount());
+            if (g.winner() != Cell.EMPTY) {
+                int last = g.moves()[g.moves().length - 1];
+                assertEquals(g.winner(), ArchivedGame.mover(g.moves().length - 1));
+                assertTrue(b.hasFiveInARow(g.winner(), new Position(last / 9, last % 9)));
+            }
+        }
+    }
+}
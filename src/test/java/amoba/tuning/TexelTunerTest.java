@@ -0,0 +1,99 @@
+package amoba.tuning;
+
+import amoba.ai.PatternWeights;
+import amoba.board.WinRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TexelTunerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Szintetikus halmaz: a kimenetel az 1. jellemző előjelétől függ, a 2. zaj. */
+    private static PositionSet synthetic() {
+        PositionSet set = new PositionSet(2);
+        for (int i = 0; i < 4000; i++) {
+            int signal = (i % 21) - 10;
+            int noise = (i * 7919 % 13) - 6;
+            byte result = (byte) (signal > 0 ? 2 : signal < 0 ? 0 : 1);
+            set.add(new int[] {0, signal, noise}, result);
+        }
+        return set;
+    }
+
+    @Test
+    void tune_reducesError_andWeightsSignalFeature() {
+        PositionSet data = synthetic();
+        TexelTuner tuner = new TexelTuner(data, 2);
+        try {
+            double[] start = {0, 1, 1};
+            double k = 0.1;
+            double before = tuner.error(start, k);
+            double[] tuned = tuner.tune(start, k, 300, 0.05);
+            assertTrue(tuner.error(tuned, k) < before);
+            assertTrue(tuned[1] > Math.abs(tuned[2]) * 3, tuned[1] + " vs " + tuned[2]);
+        } finally {
+            tuner.shutdown();
+        }
+    }
+
+    @Test
+    void fitScale_findsBetterThanExtremes() {
+        TexelTuner tuner = new TexelTuner(synthetic(), 1);
+        try {
+            double[] w = {0, 1, 0};
+            double k = tuner.fitScale(w);
+            assertTrue(tuner.error(w, k) <= tuner.error(w, 1e-7));
+            assertTrue(tuner.error(w, k) <= tuner.error(w, 1.0) + 1e-9);
+        } finally {
+            tuner.shutdown();
+        }
+    }
+
+    @Test
+    void archivePipeline_producesLoadableWeights() throws IOException {
+        Path archive = tempDir.resolve("games.bin");
+        try (GameArchive out = GameArchive.create(archive)) {
+            for (ArchivedGame g : new SelfPlay(9, 9, WinRule.STANDARD, SelfPlay.Engine.RANDOM, 0, 2).play(20, 3L)) {
+                out.append(g);
+            }
+        }
+        PositionSet data = PositionSet.fromArchive(archive, null, 2);
+        assertEquals(4, data.stride());
+        assertTrue(data.size() > 20);
+        TexelTuner tuner = new TexelTuner(data, 2);
+        try {
+            double[] start = TexelTuner.initial(PatternWeights.DEFAULT, data.stride());
+            double[] tuned = tuner.tune(start, tuner.fitScale(start), 20, 0.02);
+            PatternWeights w = TexelTuner.toWeights(tuned, PatternWeights.DEFAULT);
+            assertEquals(PatternWeights.DEFAULT.weight(5), w.weight(5));
+            Path file = tempDir.resolve("w.txt");
+            w.save(file);
+            assertEquals(w, PatternWeights.load(file));
+        } finally {
+            tuner.shutdown();
+        }
+    }
+
+    @Test
+    void archiveRule_isTakenFromGamesAndMismatchRejected() throws IOException {
+        Path archive = tempDir.resolve("exact6.bin");
+        try (GameArchive out = GameArchive.create(archive)) {
+            for (ArchivedGame g : new SelfPlay(9, 9, WinRule.exact(6), SelfPlay.Engine.RANDOM, 0, 1).play(4, 5L)) {
+                out.append(g);
+            }
+        }
+        assertEquals(5, PositionSet.fromArchive(archive, null, 0).stride());
+        assertEquals(5, PositionSet.fromArchive(archive, WinRule.exact(6), 0).stride());
+        assertThrows(IllegalArgumentException.class, () -> PositionSet.fromArchive(archive, WinRule.STANDARD, 0));
+        Path empty = tempDir.resolve("empty.bin");
+        GameArchive.create(empty).close();
+        assertThrows(IOException.class, () -> PositionSet.fromArchive(empty, null, 0));
+    }
+}